@@ -1,26 +1,102 @@
 import json
+import os
+import struct
 from kafka import KafkaConsumer, KafkaProducer
 import time
 import random
-from datetime import datetime
+from datetime import datetime, timezone
 
 # Kafka Configuration
 BOOTSTRAP_SERVERS = 'localhost:9092'
 STOCK_DATA_TOPIC = 'stock-data-topic'
 ML_PREDICTIONS_TOPIC = 'ml-predictions-topic'
 
+# Wire format of published predictions: 'json' or 'binary' (see BinaryWireCodec.java for the layout).
+# Incoming records are decoded by content, so either format is accepted regardless of this setting.
+WIRE_FORMAT = os.environ.get('WIRE_FORMAT', 'json')
+# Must list the same symbols, in the same order, as wire.symbol.dictionary on the Java side
+SYMBOL_DICTIONARY = [s.strip() for s in os.environ.get('WIRE_SYMBOL_DICTIONARY', '').split(',') if s.strip()]
+
+WIRE_MAGIC = 0xB7
+WIRE_VERSION = 1
+WIRE_TYPE_STOCK_DATA = 1
+WIRE_TYPE_ML_PREDICTION = 4
+WIRE_FLAG_SYMBOL_INDEX = 1
+WIRE_NULL_TIMESTAMP = -(1 << 63)
+
+
+def decode_binary_stock_data(data):
+    magic, version, record_type, flags = struct.unpack_from('<BBBB', data, 0)
+    if version > WIRE_VERSION or record_type != WIRE_TYPE_STOCK_DATA:
+        raise ValueError(f"Unsupported binary record: version {version}, type {record_type}")
+    offset = 4
+    if flags & WIRE_FLAG_SYMBOL_INDEX:
+        (index,) = struct.unpack_from('<H', data, offset)
+        symbol = SYMBOL_DICTIONARY[index]
+        offset += 2
+    else:
+        length = data[offset]
+        symbol = data[offset + 1:offset + 1 + length].decode('utf-8')
+        offset += 1 + length
+    epoch_millis, open_, high, low, close, volume = struct.unpack_from('<qddddq', data, offset)
+    offset += 48
+    # Appended field; older records end before it
+    origin_micros = struct.unpack_from('<q', data, offset)[0] if len(data) >= offset + 8 else 0
+    timestamp = None
+    if epoch_millis != WIRE_NULL_TIMESTAMP:
+        timestamp = datetime.fromtimestamp(epoch_millis / 1000, tz=timezone.utc).replace(tzinfo=None).isoformat()
+    return {"symbol": symbol, "timestamp": timestamp, "open": open_, "high": high, "low": low,
+            "close": close, "volume": volume, "originMicros": origin_micros}
+
+
+def to_epoch_millis(timestamp):
+    if timestamp is None:
+        return WIRE_NULL_TIMESTAMP
+    if isinstance(timestamp, list):  # Jackson's array form of LocalDateTime
+        parts = timestamp + [0] * (7 - len(timestamp))
+        moment = datetime(*parts[:6], parts[6] // 1000)
+    else:
+        moment = datetime.fromisoformat(timestamp)
+    return int(moment.replace(tzinfo=timezone.utc).timestamp() * 1000)
+
+
+def encode_binary_ml_prediction(prediction):
+    symbol = prediction['symbol']
+    if symbol in SYMBOL_DICTIONARY:
+        head = struct.pack('<BBBBH', WIRE_MAGIC, WIRE_VERSION, WIRE_TYPE_ML_PREDICTION, WIRE_FLAG_SYMBOL_INDEX,
+                           SYMBOL_DICTIONARY.index(symbol))
+    else:
+        symbol_bytes = symbol.encode('utf-8')
+        head = struct.pack('<BBBBB', WIRE_MAGIC, WIRE_VERSION, WIRE_TYPE_ML_PREDICTION, 0, len(symbol_bytes)) + symbol_bytes
+    label = prediction['prediction'].encode('utf-8')
+    return (head + struct.pack('<qH', to_epoch_millis(prediction['timestamp']), len(label)) + label
+            + struct.pack('<dq', prediction['confidence'], prediction.get('originMicros', 0)))
+
+
+def deserialize_value(data):
+    if data and data[0] == WIRE_MAGIC:
+        return decode_binary_stock_data(data)
+    return json.loads(data.decode('utf-8'))
+
+
+def serialize_value(value):
+    if WIRE_FORMAT == 'binary':
+        return encode_binary_ml_prediction(value)
+    return json.dumps(value).encode('utf-8')
+
+
 # Initialize Kafka Consumer
 consumer = KafkaConsumer(
     STOCK_DATA_TOPIC,
     bootstrap_servers=BOOTSTRAP_SERVERS,
-    value_deserializer=lambda m: json.loads(m.decode('utf-8')),
+    value_deserializer=deserialize_value,
     group_id='ml-service-group'
 )
 
 # Initialize Kafka Producer
 producer = KafkaProducer(
     bootstrap_servers=BOOTSTRAP_SERVERS,
-    value_serializer=lambda m: json.dumps(m).encode('utf-8')
+    value_serializer=serialize_value
 )
 
 print(f"Listening for messages on topic: {STOCK_DATA_TOPIC}")
@@ -55,7 +131,8 @@ for message in consumer:
         "symbol": symbol,
         "timestamp": timestamp, # Use the original timestamp
         "prediction": prediction_type,
-        "confidence": confidence
+        "confidence": confidence,
+        "originMicros": stock_data.get('originMicros', 0) # Carried through for tick-to-signal latency
     }
 
     # Publish ML prediction to Kafka
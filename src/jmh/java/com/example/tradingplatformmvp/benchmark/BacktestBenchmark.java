@@ -0,0 +1,86 @@
+package com.example.tradingplatformmvp.benchmark;
+
+import com.example.tradingplatformmvp.archive.ColumnarArchive;
+import com.example.tradingplatformmvp.model.BacktestResult;
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.repository.BacktestResultRepository;
+import com.example.tradingplatformmvp.repository.StockDataRepository;
+import com.example.tradingplatformmvp.service.BacktestingService;
+import com.example.tradingplatformmvp.service.PriceHistoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// BacktestingService.runSmaCrossoverBacktest end to end over in-memory repositories: loading the range, building the
+// columnar series, running the kernel and "saving" the result. No archive, so history comes from the repository.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BacktestBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int bars;
+
+    private BacktestingService backtestingService;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup
+    public void setUp() {
+        List<StockData> history = BenchmarkData.bars(bars);
+        startDate = history.get(0).getTimestamp().toLocalDate();
+        endDate = history.get(history.size() - 1).getTimestamp().toLocalDate();
+
+        PriceHistoryService priceHistoryService = new PriceHistoryService(
+                inMemoryStockDataRepository(history), new ColumnarArchive("target/jmh-archive", false));
+        backtestingService = new BacktestingService(priceHistoryService, inMemoryBacktestResultRepository(), null, null, null);
+    }
+
+    @Benchmark
+    public BacktestResult runSmaCrossoverBacktest() {
+        return backtestingService.runSmaCrossoverBacktest(BenchmarkData.SYMBOL, startDate, endDate, 10_000.0, 5, 20);
+    }
+
+    // Answers the range query over the sorted bars (copied, as a query result would be); anything else is unsupported
+    private static StockDataRepository inMemoryStockDataRepository(List<StockData> bars) {
+        return (StockDataRepository) Proxy.newProxyInstance(StockDataRepository.class.getClassLoader(),
+                new Class<?>[]{StockDataRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findBySymbolAndTimestampBetweenOrderByTimestampAsc")) {
+                        LocalDateTime from = (LocalDateTime) args[1];
+                        LocalDateTime to = (LocalDateTime) args[2];
+                        return bars.stream()
+                                .filter(bar -> bar.getSymbol().equals(args[0]))
+                                .filter(bar -> !bar.getTimestamp().isBefore(from) && !bar.getTimestamp().isAfter(to))
+                                .toList();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static BacktestResultRepository inMemoryBacktestResultRepository() {
+        return (BacktestResultRepository) Proxy.newProxyInstance(BacktestResultRepository.class.getClassLoader(),
+                new Class<?>[]{BacktestResultRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("save")) {
+                        return args[0];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.tradingplatformmvp.benchmark;
+
+import com.example.tradingplatformmvp.model.StockData;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Deterministic 1-minute random-walk bars, so every run and every build benchmarks the same data
+final class BenchmarkData {
+
+    static final String SYMBOL = "BENCH";
+    static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    private BenchmarkData() {
+    }
+
+    static List<StockData> bars(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<StockData> bars = new ArrayList<>(count);
+        double price = 100.0;
+        for (int i = 0; i < count; i++) {
+            double open = price;
+            price *= Math.exp(0.002 * random.nextGaussian());
+            StockData bar = new StockData();
+            bar.setSymbol(SYMBOL);
+            bar.setTimestamp(START.plusMinutes(i));
+            bar.setOpen(open);
+            bar.setHigh(Math.max(open, price) * 1.001);
+            bar.setLow(Math.min(open, price) * 0.999);
+            bar.setClose(price);
+            bar.setVolume(1_000 + random.nextInt(100_000));
+            bars.add(bar);
+        }
+        return bars;
+    }
+}
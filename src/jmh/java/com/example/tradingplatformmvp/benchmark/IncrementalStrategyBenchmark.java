@@ -0,0 +1,75 @@
+package com.example.tradingplatformmvp.benchmark;
+
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.model.TradingSignal;
+import com.example.tradingplatformmvp.service.TechnicalAnalysisService;
+import com.example.tradingplatformmvp.strategy.RsiMacdStrategy;
+import com.example.tradingplatformmvp.strategy.SmaCrossoverStrategy;
+import com.example.tradingplatformmvp.strategy.StrategyState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One bar through each strategy's incremental state, the path live signal generation and replays take.
+// Independent of history length, so there is no size parameter.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IncrementalStrategyBenchmark {
+
+    private double[] closes;
+    private long barIndex;
+    private StrategyState smaCrossoverState;
+    private StrategyState rsiMacdState;
+
+    @Setup
+    public void setUp() {
+        List<StockData> bars = BenchmarkData.bars(100_000);
+        closes = new double[bars.size()];
+        for (int i = 0; i < closes.length; i++) {
+            closes[i] = bars.get(i).getClose();
+        }
+        TechnicalAnalysisService technicalAnalysisService = new TechnicalAnalysisService(null, null, null, null, null, null, null);
+        SmaCrossoverStrategy smaCrossoverStrategy = new SmaCrossoverStrategy(technicalAnalysisService);
+        RsiMacdStrategy rsiMacdStrategy = new RsiMacdStrategy(technicalAnalysisService);
+        smaCrossoverState = smaCrossoverStrategy.init(BenchmarkData.SYMBOL, smaCrossoverStrategy.parseParameters("{}"));
+        rsiMacdState = rsiMacdStrategy.init(BenchmarkData.SYMBOL, rsiMacdStrategy.parseParameters("{}"));
+    }
+
+    @Benchmark
+    public List<TradingSignal> smaCrossoverOnBar() {
+        return smaCrossoverState.onBar(nextBar());
+    }
+
+    @Benchmark
+    public List<TradingSignal> rsiMacdOnBar() {
+        return rsiMacdState.onBar(nextBar());
+    }
+
+    // States only accept newer bars, so timestamps keep increasing while the prices cycle through the random walk
+    private StockData nextBar() {
+        long index = barIndex++;
+        double close = closes[(int) (index % closes.length)];
+        StockData bar = new StockData();
+        bar.setSymbol(BenchmarkData.SYMBOL);
+        bar.setTimestamp(BenchmarkData.START.plusMinutes(index));
+        bar.setOpen(close);
+        bar.setHigh(close);
+        bar.setLow(close);
+        bar.setClose(close);
+        return bar;
+    }
+}
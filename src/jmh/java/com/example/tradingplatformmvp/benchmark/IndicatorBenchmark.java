@@ -0,0 +1,62 @@
+package com.example.tradingplatformmvp.benchmark;
+
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.service.TechnicalAnalysisService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ta4j.core.BarSeries;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The ta4j path of TechnicalAnalysisService: every call rebuilds the series from the full history
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndicatorBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int bars;
+
+    private List<StockData> history;
+    private TechnicalAnalysisService technicalAnalysisService;
+
+    @Setup
+    public void setUp() {
+        history = BenchmarkData.bars(bars);
+        // The calculations only use the ta4j helpers, none of the injected collaborators
+        technicalAnalysisService = new TechnicalAnalysisService(null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public BarSeries buildBarSeries() {
+        return technicalAnalysisService.buildBarSeries(history);
+    }
+
+    @Benchmark
+    public double calculateSma() {
+        return technicalAnalysisService.calculateSMA(history, 20);
+    }
+
+    @Benchmark
+    public double calculateRsi() {
+        return technicalAnalysisService.calculateRSI(history, 14);
+    }
+
+    @Benchmark
+    public double[] calculateMacd() {
+        return technicalAnalysisService.calculateMACD(history, 12, 26, 9);
+    }
+}
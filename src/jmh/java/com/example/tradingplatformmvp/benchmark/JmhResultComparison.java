@@ -0,0 +1,77 @@
+package com.example.tradingplatformmvp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compares two JMH JSON result files benchmark by benchmark (including @Param values) and exits with status 1 when
+// any benchmark got slower than the baseline by more than the threshold percent. Changes within the combined score
+// error of both runs are reported but never count as regressions.
+//   mvn -Pjmh compile exec:exec@jmh-compare -Djmh.baseline=old.json [-Djmh.result=new.json] [-Djmh.threshold=10]
+public final class JmhResultComparison {
+
+    private JmhResultComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhResultComparison <baseline.json> <result.json> [threshold percent]");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println(String.format("%-90s new", entry.getKey()));
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = after.path("primaryMetric").path("score").asDouble();
+            double error = before.path("primaryMetric").path("scoreError").asDouble(0) + after.path("primaryMetric").path("scoreError").asDouble(0);
+            // Throughput modes are better when higher, time modes when lower
+            boolean higherIsBetter = after.path("mode").asText().equals("thrpt");
+            double slowerPercent = (higherIsBetter ? oldScore - newScore : newScore - oldScore) / oldScore * 100;
+            boolean regression = slowerPercent > threshold && Math.abs(newScore - oldScore) > error;
+            if (regression) {
+                regressions++;
+            }
+            System.out.println(String.format("%-90s %12.3f -> %12.3f %s  %+7.1f%% slower%s",
+                    entry.getKey(), oldScore, newScore, after.path("primaryMetric").path("scoreUnit").asText(),
+                    slowerPercent, regression ? "  REGRESSION" : ""));
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.println(String.format("%-90s missing from result", missing));
+            }
+        }
+        System.out.println(regressions + " regression(s) beyond " + threshold + "%");
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Keyed by benchmark name plus its parameters, e.g. "...BacktestBenchmark.runSmaCrossoverBacktest bars=1000"
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
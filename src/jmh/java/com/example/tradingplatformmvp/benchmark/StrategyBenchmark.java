@@ -0,0 +1,63 @@
+package com.example.tradingplatformmvp.benchmark;
+
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.model.TradingSignal;
+import com.example.tradingplatformmvp.service.TechnicalAnalysisService;
+import com.example.tradingplatformmvp.strategy.RsiMacdStrategy;
+import com.example.tradingplatformmvp.strategy.SmaCrossoverStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One tick through each strategy's generateSignals over a history of the given size (see IncrementalStrategyBenchmark
+// for the per-bar state path)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StrategyBenchmark {
+
+    private static final String SMA_PARAMETERS = "{\"shortSma\":5,\"longSma\":20}";
+    private static final String RSI_MACD_PARAMETERS = "{}";
+
+    @Param({"100", "1000", "10000"})
+    public int historyBars;
+
+    private List<StockData> history;
+    private StockData current;
+    private SmaCrossoverStrategy smaCrossoverStrategy;
+    private RsiMacdStrategy rsiMacdStrategy;
+
+    @Setup
+    public void setUp() {
+        List<StockData> bars = BenchmarkData.bars(historyBars + 1);
+        history = bars.subList(0, historyBars);
+        current = bars.get(historyBars);
+        TechnicalAnalysisService technicalAnalysisService = new TechnicalAnalysisService(null, null, null, null, null, null, null);
+        smaCrossoverStrategy = new SmaCrossoverStrategy(technicalAnalysisService);
+        rsiMacdStrategy = new RsiMacdStrategy(technicalAnalysisService);
+    }
+
+    @Benchmark
+    public List<TradingSignal> smaCrossoverGenerateSignals() {
+        return smaCrossoverStrategy.generateSignals(history, current, SMA_PARAMETERS);
+    }
+
+    @Benchmark
+    public List<TradingSignal> rsiMacdGenerateSignals() {
+        return rsiMacdStrategy.generateSignals(history, current, RSI_MACD_PARAMETERS);
+    }
+}
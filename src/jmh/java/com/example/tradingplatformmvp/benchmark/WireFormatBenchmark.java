@@ -0,0 +1,125 @@
+package com.example.tradingplatformmvp.benchmark;
+
+import com.example.tradingplatformmvp.dto.IndicatorDto;
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.model.TradingSignal;
+import com.example.tradingplatformmvp.serde.WireFormatDeserializer;
+import com.example.tradingplatformmvp.serde.WireFormatSerializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The JSON and binary Kafka value formats through WireFormatSerializer / WireFormatDeserializer. The encoded size of
+// each message is printed once per trial.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private static final String TOPIC = "benchmark-topic";
+
+    @Param({"json", "binary", "binary+dictionary"})
+    public String format;
+
+    @Param({"bar", "indicators", "signal"})
+    public String message;
+
+    private WireFormatSerializer serializer;
+    private WireFormatDeserializer deserializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("spring.json.trusted.packages", "com.example.tradingplatformmvp.dto,com.example.tradingplatformmvp.model");
+        // The plain JSON path is the serializer with no binary topics configured
+        if (!format.equals("json")) {
+            configs.put("wire.binary.topics", TOPIC);
+        }
+        if (format.equals("binary+dictionary")) {
+            configs.put("wire.symbol.dictionary", "AAPL,MSFT,GOOGL");
+        }
+        serializer = new WireFormatSerializer();
+        serializer.configure(configs, false);
+        deserializer = new WireFormatDeserializer();
+        deserializer.configure(configs, false);
+
+        value = sampleMessage(message);
+        encoded = serializer.serialize(TOPIC, new RecordHeaders(), value);
+        System.out.println(format + " " + message + ": " + encoded.length + " bytes");
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), value);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        RecordHeaders headers = new RecordHeaders();
+        return deserializer.deserialize(TOPIC, headers, serializer.serialize(TOPIC, headers, value));
+    }
+
+    private static Object sampleMessage(String message) {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 3, 15, 14, 30);
+        switch (message) {
+            case "bar": {
+                StockDataDto bar = new StockDataDto();
+                bar.setSymbol("AAPL");
+                bar.setTimestamp(timestamp);
+                bar.setOpen(172.11);
+                bar.setHigh(172.85);
+                bar.setLow(171.94);
+                bar.setClose(172.62);
+                bar.setVolume(1_254_300);
+                return bar;
+            }
+            case "indicators": {
+                IndicatorDto indicators = new IndicatorDto();
+                indicators.setSymbol("AAPL");
+                indicators.setTimestamp(timestamp);
+                indicators.setClose(172.62);
+                indicators.setSma(171.384);
+                indicators.setRsi(58.27);
+                indicators.setMacd(0.4312);
+                indicators.setMacdSignal(0.3877);
+                indicators.setMacdHist(0.0435);
+                return indicators;
+            }
+            default: {
+                TradingSignal signal = new TradingSignal();
+                signal.setSymbol("AAPL");
+                signal.setTimestamp(timestamp);
+                signal.setSignalType(TradingSignal.SignalType.BUY);
+                signal.setStrategyName("SMA_CROSSOVER_STRATEGY");
+                signal.setDescription("BUY: Short SMA (5) crossed above Long SMA (20)");
+                return signal;
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.tradingplatformmvp;
 
+import com.example.tradingplatformmvp.importer.BulkImportCommand;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.retry.annotation.EnableRetry;
 
 @SpringBootApplication
@@ -9,7 +11,10 @@ import org.springframework.retry.annotation.EnableRetry;
 public class TradingPlatformMvpApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(TradingPlatformMvpApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(TradingPlatformMvpApplication.class, args);
+        if (context.getBean(BulkImportCommand.class).ran()) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.example.tradingplatformmvp.aggregation;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// A bar length such as 5m, 15m, 1h or 1d. Buckets are aligned to the epoch at UTC, the same clock the bar caches
+// use, so a 1h bucket starts on the hour and a 1d bucket at midnight UTC. Labels are canonical (60m parses as 1h).
+public record Timeframe(String label, long seconds) {
+
+    // The raw bars published by the market data sources
+    public static final Timeframe BASE = new Timeframe("1m", 60);
+
+    private static final Pattern LABEL = Pattern.compile("(\\d+)([mhd])");
+
+    // null or blank means BASE
+    public static Timeframe parse(String label) {
+        if (label == null || label.isBlank()) {
+            return BASE;
+        }
+        Matcher matcher = LABEL.matcher(label.trim().toLowerCase(Locale.ROOT));
+        if (!matcher.matches() || Long.parseLong(matcher.group(1)) <= 0) {
+            throw new IllegalArgumentException("Invalid timeframe: " + label + " (expected e.g. 5m, 1h or 1d)");
+        }
+        long unitSeconds = switch (matcher.group(2)) {
+            case "m" -> 60;
+            case "h" -> 3600;
+            default -> 86400;
+        };
+        return ofSeconds(Long.parseLong(matcher.group(1)) * unitSeconds);
+    }
+
+    private static Timeframe ofSeconds(long seconds) {
+        if (seconds % 86400 == 0) {
+            return new Timeframe(seconds / 86400 + "d", seconds);
+        }
+        if (seconds % 3600 == 0) {
+            return new Timeframe(seconds / 3600 + "h", seconds);
+        }
+        return new Timeframe(seconds / 60 + "m", seconds);
+    }
+
+    public boolean isBase() {
+        return seconds == BASE.seconds;
+    }
+
+    public Duration getDuration() {
+        return Duration.ofSeconds(seconds);
+    }
+
+    // Start of the bucket holding a bar that starts at epochSecond
+    public long bucketStart(long epochSecond) {
+        return Math.floorDiv(epochSecond, seconds) * seconds;
+    }
+
+    // Kafka topic of this timeframe's closed bars
+    public String topic() {
+        return "stock-bars-" + label + "-topic";
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
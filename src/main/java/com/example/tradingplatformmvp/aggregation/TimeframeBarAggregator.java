@@ -0,0 +1,138 @@
+package com.example.tradingplatformmvp.aggregation;
+
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import com.example.tradingplatformmvp.cache.BarRingBuffer;
+import com.example.tradingplatformmvp.dto.TimeframeBarDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Rolls the raw bars of one symbol into one higher timeframe, O(1) per bar. Each bar applied returns the updates it
+// caused, oldest first: the previous bucket if the bar closed it, then the bucket the bar went into, either still
+// open or already complete.
+//
+// A bucket closes when a bar of a later bucket arrives. With baseSeconds > 0 (the length of a raw bar) it closes as
+// soon as the bar ending exactly on the bucket boundary has been applied, without waiting for the next bar; a bar
+// that still arrives for that bucket afterwards is dropped. Bars must arrive oldest first; older or repeated bars
+// are ignored. Not thread-safe; callers serialize bars per symbol.
+public final class TimeframeBarAggregator {
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final String symbol;
+    private final Timeframe timeframe;
+    private final long baseSeconds;
+
+    private long bucketStart = NONE;
+    private long lastBarSecond = NONE;
+    private boolean bucketClosed;
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private long volume;
+    private int barCount;
+
+    public TimeframeBarAggregator(String symbol, Timeframe timeframe, long baseSeconds) {
+        this.symbol = symbol;
+        this.timeframe = timeframe;
+        this.baseSeconds = baseSeconds;
+    }
+
+    public Timeframe getTimeframe() {
+        return timeframe;
+    }
+
+    // epochSecond: the bar's start as in BarRingBuffer
+    public List<TimeframeBarDto> onBar(long epochSecond, double open, double high, double low, double close, long volume,
+                                       long originMicros) {
+        if (epochSecond <= lastBarSecond) {
+            return List.of();
+        }
+        lastBarSecond = epochSecond;
+
+        List<TimeframeBarDto> updates = new ArrayList<>(2);
+        long start = timeframe.bucketStart(epochSecond);
+        if (start != bucketStart) {
+            if (bucketStart != NONE && !bucketClosed) {
+                bucketClosed = true;
+                updates.add(toDto(originMicros));
+            }
+            bucketStart = start;
+            bucketClosed = false;
+            this.open = open;
+            this.high = high;
+            this.low = low;
+            this.volume = 0;
+            this.barCount = 0;
+        } else if (bucketClosed) {
+            return List.of();
+        }
+
+        this.high = Math.max(this.high, high);
+        this.low = Math.min(this.low, low);
+        this.close = close;
+        this.volume += volume;
+        this.barCount++;
+        if (baseSeconds > 0 && epochSecond + baseSeconds >= bucketStart + timeframe.seconds()) {
+            bucketClosed = true;
+        }
+        updates.add(toDto(originMicros));
+        return updates;
+    }
+
+    private TimeframeBarDto toDto(long originMicros) {
+        TimeframeBarDto bar = new TimeframeBarDto();
+        bar.setSymbol(symbol);
+        bar.setTimeframe(timeframe.label());
+        bar.setTimestamp(BarRingBuffer.toLocalDateTime(bucketStart));
+        bar.setOpen(open);
+        bar.setHigh(high);
+        bar.setLow(low);
+        bar.setClose(close);
+        bar.setVolume(volume);
+        bar.setBarCount(barCount);
+        bar.setClosed(bucketClosed);
+        bar.setOriginMicros(originMicros);
+        return bar;
+    }
+
+    // The whole series in this timeframe, one bar per bucket stamped with its start. The last bucket is included
+    // even if the series ends before it is complete, as the live stream would show it.
+    public static PriceSeries resample(PriceSeries series, Timeframe timeframe) {
+        TimeframeBarAggregator aggregator = new TimeframeBarAggregator(series.getSymbol(), timeframe, 0);
+        List<TimeframeBarDto> buckets = new ArrayList<>();
+        TimeframeBarDto last = null;
+        for (int i = 0; i < series.size(); i++) {
+            for (TimeframeBarDto update : aggregator.onBar(series.getTimestamp(i), series.getOpen(i), series.getHigh(i),
+                    series.getLow(i), series.getClose(i), series.getVolume(i), 0)) {
+                if (update.isClosed()) {
+                    buckets.add(update);
+                } else {
+                    last = update;
+                }
+            }
+        }
+        if (last != null) {
+            buckets.add(last);
+        }
+
+        int size = buckets.size();
+        long[] timestamps = new long[size];
+        double[] opens = new double[size];
+        double[] highs = new double[size];
+        double[] lows = new double[size];
+        double[] closes = new double[size];
+        long[] volumes = new long[size];
+        for (int i = 0; i < size; i++) {
+            TimeframeBarDto bar = buckets.get(i);
+            timestamps[i] = BarRingBuffer.toEpochSecond(bar.getTimestamp());
+            opens[i] = bar.getOpen();
+            highs[i] = bar.getHigh();
+            lows[i] = bar.getLow();
+            closes[i] = bar.getClose();
+            volumes[i] = bar.getVolume();
+        }
+        return new PriceSeries(series.getSymbol(), timestamps, opens, highs, lows, closes, volumes);
+    }
+}
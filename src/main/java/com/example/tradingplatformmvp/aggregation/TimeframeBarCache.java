@@ -0,0 +1,82 @@
+package com.example.tradingplatformmvp.aggregation;
+
+import com.example.tradingplatformmvp.cache.BarRingBuffer;
+import com.example.tradingplatformmvp.cache.BarWindow;
+import com.example.tradingplatformmvp.dto.TimeframeBarDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Recent closed bars per symbol for every timeframe in aggregation.timeframes, plus the bucket each symbol is
+// currently building. Filled by BarAggregationService; read by strategies running on those timeframes.
+@Component
+public class TimeframeBarCache {
+
+    private final List<Timeframe> timeframes;
+    private final int depth;
+    private final Map<Timeframe, ConcurrentHashMap<String, BarRingBuffer>> closedBars = new HashMap<>();
+    private final Map<Timeframe, ConcurrentHashMap<String, TimeframeBarDto>> latestBars = new HashMap<>();
+
+    public TimeframeBarCache(@Value("${aggregation.timeframes:5m,15m,1h}") List<String> timeframes,
+                             @Value("${aggregation.cache-depth:2000}") int depth) {
+        List<Timeframe> parsed = new ArrayList<>();
+        for (String label : timeframes) {
+            if (label.isBlank()) {
+                continue;
+            }
+            Timeframe timeframe = Timeframe.parse(label);
+            if (timeframe.seconds() <= Timeframe.BASE.seconds()) {
+                throw new IllegalArgumentException("aggregation.timeframes entry " + label + " is not longer than the " + Timeframe.BASE + " raw bars");
+            }
+            if (!parsed.contains(timeframe)) {
+                parsed.add(timeframe);
+                closedBars.put(timeframe, new ConcurrentHashMap<>());
+                latestBars.put(timeframe, new ConcurrentHashMap<>());
+            }
+        }
+        this.timeframes = List.copyOf(parsed);
+        this.depth = depth;
+    }
+
+    public List<Timeframe> getTimeframes() {
+        return timeframes;
+    }
+
+    public boolean isAggregated(Timeframe timeframe) {
+        return closedBars.containsKey(timeframe);
+    }
+
+    public void update(TimeframeBarDto bar) {
+        Timeframe timeframe = Timeframe.parse(bar.getTimeframe());
+        if (!isAggregated(timeframe)) {
+            return;
+        }
+        if (bar.isClosed()) {
+            buffer(bar.getSymbol(), timeframe).append(BarRingBuffer.toEpochSecond(bar.getTimestamp()),
+                    bar.getOpen(), bar.getHigh(), bar.getLow(), bar.getClose(), bar.getVolume());
+        }
+        latestBars.get(timeframe).put(bar.getSymbol(), bar);
+    }
+
+    // Closed bars oldest first; empty for a timeframe that is not aggregated
+    public BarWindow window(String symbol, Timeframe timeframe) {
+        if (!isAggregated(timeframe)) {
+            return new BarRingBuffer(1).snapshot();
+        }
+        return buffer(symbol, timeframe).snapshot();
+    }
+
+    // The latest update of the symbol's newest bucket, open or closed; null before its first bar
+    public TimeframeBarDto latest(String symbol, Timeframe timeframe) {
+        return isAggregated(timeframe) ? latestBars.get(timeframe).get(symbol) : null;
+    }
+
+    private BarRingBuffer buffer(String symbol, Timeframe timeframe) {
+        return closedBars.get(timeframe).computeIfAbsent(symbol, key -> new BarRingBuffer(depth));
+    }
+}
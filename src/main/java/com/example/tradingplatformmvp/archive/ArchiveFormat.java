@@ -0,0 +1,48 @@
+package com.example.tradingplatformmvp.archive;
+
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+// On-disk layout of the columnar bar archive. One directory per symbol holding:
+//
+//   timestamp.col  int64  epoch seconds of the bar's LocalDateTime at UTC, strictly increasing
+//   open.col       float64
+//   high.col       float64
+//   low.col        float64
+//   close.col      float64
+//   volume.col     int64
+//   time.idx       header (int32 magic 'TPCA', int32 version, int32 stride) followed by
+//                  (int64 timestamp, int64 row) for rows 0, stride, 2 * stride, ...
+//
+// Every column is a headerless little-endian array, so row i lives at byte offset 8 * i and the row count is
+// file size / 8. Files are only ever appended to; a write appends the columns first and the index last, and
+// readers trust the shortest column, so a torn append is simply invisible until it is completed.
+final class ArchiveFormat {
+
+    static final int MAGIC = 0x54504341; // "TPCA"
+    static final int VERSION = 1;
+    static final int INDEX_HEADER_BYTES = 12;
+    static final int INDEX_ENTRY_BYTES = 16;
+    static final int DEFAULT_INDEX_STRIDE = 4096;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final String TIMESTAMP = "timestamp.col";
+    static final String OPEN = "open.col";
+    static final String HIGH = "high.col";
+    static final String LOW = "low.col";
+    static final String CLOSE = "close.col";
+    static final String VOLUME = "volume.col";
+    static final String INDEX = "time.idx";
+
+    static final String[] COLUMNS = {TIMESTAMP, OPEN, HIGH, LOW, CLOSE, VOLUME};
+
+    private ArchiveFormat() {
+    }
+
+    static Path symbolDirectory(Path root, String symbol) {
+        if (!symbol.matches("[A-Za-z0-9._-]+") || symbol.startsWith(".")) {
+            throw new IllegalArgumentException("Symbol cannot be used as an archive directory: " + symbol);
+        }
+        return root.resolve(symbol);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.tradingplatformmvp.archive;
+
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Read-only, memory-mapped view of one symbol's archive as it was when opened. Accessors read straight from the
+// page cache without copying; readRange / readRows bulk-copy a row range for code that wants plain arrays.
+// Thread-safe: all buffer access is absolute.
+public final class ArchiveReader {
+
+    private final String symbol;
+    private final int rowCount;
+    private final LongBuffer timestamps;
+    private final DoubleBuffer opens;
+    private final DoubleBuffer highs;
+    private final DoubleBuffer lows;
+    private final DoubleBuffer closes;
+    private final LongBuffer volumes;
+    private final long[] indexTimestamps;
+    private final int[] indexRows;
+
+    ArchiveReader(String symbol, Path directory) throws IOException {
+        this.symbol = symbol;
+        MappedByteBuffer[] mapped = new MappedByteBuffer[ArchiveFormat.COLUMNS.length];
+        FileChannel[] channels = new FileChannel[ArchiveFormat.COLUMNS.length];
+        try {
+            long shortest = Long.MAX_VALUE;
+            for (int c = 0; c < channels.length; c++) {
+                channels[c] = FileChannel.open(directory.resolve(ArchiveFormat.COLUMNS[c]), StandardOpenOption.READ);
+                shortest = Math.min(shortest, channels[c].size() / Long.BYTES);
+            }
+            if (shortest * Long.BYTES > Integer.MAX_VALUE) {
+                throw new IOException("Archive for " + symbol + " exceeds the 2 GB per-column mapping limit");
+            }
+            this.rowCount = (int) shortest;
+            // A mapping stays valid after its channel is closed
+            for (int c = 0; c < channels.length; c++) {
+                mapped[c] = channels[c].map(FileChannel.MapMode.READ_ONLY, 0, (long) rowCount * Long.BYTES);
+                mapped[c].order(ArchiveFormat.BYTE_ORDER);
+            }
+        } finally {
+            for (FileChannel channel : channels) {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        }
+        this.timestamps = mapped[0].asLongBuffer();
+        this.opens = mapped[1].asDoubleBuffer();
+        this.highs = mapped[2].asDoubleBuffer();
+        this.lows = mapped[3].asDoubleBuffer();
+        this.closes = mapped[4].asDoubleBuffer();
+        this.volumes = mapped[5].asLongBuffer();
+
+        try (FileChannel channel = FileChannel.open(directory.resolve(ArchiveFormat.INDEX), StandardOpenOption.READ)) {
+            ByteBuffer indexBytes = ByteBuffer.allocate((int) channel.size()).order(ArchiveFormat.BYTE_ORDER);
+            while (indexBytes.hasRemaining()) {
+                if (channel.read(indexBytes) < 0) {
+                    break;
+                }
+            }
+            indexBytes.flip();
+            if (indexBytes.remaining() < ArchiveFormat.INDEX_HEADER_BYTES
+                    || indexBytes.getInt() != ArchiveFormat.MAGIC || indexBytes.getInt() != ArchiveFormat.VERSION) {
+                throw new IOException("Not a version " + ArchiveFormat.VERSION + " bar archive: " + directory);
+            }
+            indexBytes.getInt(); // stride, implied by the row numbers
+            int entries = indexBytes.remaining() / ArchiveFormat.INDEX_ENTRY_BYTES;
+            long[] entryTimestamps = new long[entries];
+            int[] entryRows = new int[entries];
+            int usable = 0;
+            for (int i = 0; i < entries; i++) {
+                long timestamp = indexBytes.getLong();
+                long row = indexBytes.getLong();
+                if (row < rowCount) {
+                    entryTimestamps[usable] = timestamp;
+                    entryRows[usable] = (int) row;
+                    usable++;
+                }
+            }
+            this.indexTimestamps = Arrays.copyOf(entryTimestamps, usable);
+            this.indexRows = Arrays.copyOf(entryRows, usable);
+        }
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getTimestamp(int row) {
+        return timestamps.get(row);
+    }
+
+    public double getOpen(int row) {
+        return opens.get(row);
+    }
+
+    public double getHigh(int row) {
+        return highs.get(row);
+    }
+
+    public double getLow(int row) {
+        return lows.get(row);
+    }
+
+    public double getClose(int row) {
+        return closes.get(row);
+    }
+
+    public long getVolume(int row) {
+        return volumes.get(row);
+    }
+
+    public long getFirstTimestamp() {
+        return rowCount == 0 ? Long.MAX_VALUE : timestamps.get(0);
+    }
+
+    public long getLastTimestamp() {
+        return rowCount == 0 ? Long.MIN_VALUE : timestamps.get(rowCount - 1);
+    }
+
+    // First row whose timestamp is >= the given one (rowCount if none): the sparse index narrows the search to one
+    // stride, then a binary search runs over the mapped timestamps
+    public int lowerBound(long timestamp) {
+        int entry = Arrays.binarySearch(indexTimestamps, timestamp);
+        if (entry >= 0) {
+            return indexRows[entry];
+        }
+        int insertion = -entry - 1;
+        int low = insertion == 0 ? 0 : indexRows[insertion - 1];
+        int high = insertion < indexRows.length ? indexRows[insertion] : rowCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps.get(mid) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Rows whose timestamps fall in [fromTimestamp, toTimestamp], both inclusive, copied into a PriceSeries
+    public PriceSeries readRange(long fromTimestamp, long toTimestamp) {
+        int from = lowerBound(fromTimestamp);
+        int to = toTimestamp == Long.MAX_VALUE ? rowCount : lowerBound(toTimestamp + 1);
+        return readRows(from, Math.max(from, to));
+    }
+
+    // Rows [fromRow, toRow)
+    public PriceSeries readRows(int fromRow, int toRow) {
+        int length = toRow - fromRow;
+        long[] ts = new long[length];
+        double[] open = new double[length];
+        double[] high = new double[length];
+        double[] low = new double[length];
+        double[] close = new double[length];
+        long[] volume = new long[length];
+        timestamps.get(fromRow, ts);
+        opens.get(fromRow, open);
+        highs.get(fromRow, high);
+        lows.get(fromRow, low);
+        closes.get(fromRow, close);
+        volumes.get(fromRow, volume);
+        return new PriceSeries(symbol, ts, open, high, low, close, volume);
+    }
+}
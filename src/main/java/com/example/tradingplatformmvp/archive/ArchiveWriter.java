@@ -0,0 +1,142 @@
+package com.example.tradingplatformmvp.archive;
+
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Appends bars to one symbol's archive. Not thread-safe; ColumnarArchive serializes writers per symbol.
+final class ArchiveWriter implements Closeable {
+
+    private static final int CHUNK_ROWS = 8192;
+
+    private final FileChannel[] columns = new FileChannel[ArchiveFormat.COLUMNS.length];
+    private final ByteBuffer[] buffers = new ByteBuffer[ArchiveFormat.COLUMNS.length];
+    private final FileChannel index;
+    private final int indexStride;
+    private long rowCount;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    ArchiveWriter(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        long shortest = Long.MAX_VALUE;
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = FileChannel.open(directory.resolve(ArchiveFormat.COLUMNS[c]),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            shortest = Math.min(shortest, columns[c].size() / Long.BYTES);
+            buffers[c] = ByteBuffer.allocateDirect(CHUNK_ROWS * Long.BYTES).order(ArchiveFormat.BYTE_ORDER);
+        }
+        // Drop the tail of an append that did not complete on every column
+        rowCount = shortest;
+        for (FileChannel column : columns) {
+            column.truncate(rowCount * Long.BYTES);
+            column.position(rowCount * Long.BYTES);
+        }
+
+        index = FileChannel.open(directory.resolve(ArchiveFormat.INDEX),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (index.size() < ArchiveFormat.INDEX_HEADER_BYTES) {
+            indexStride = ArchiveFormat.DEFAULT_INDEX_STRIDE;
+            ByteBuffer header = ByteBuffer.allocate(ArchiveFormat.INDEX_HEADER_BYTES).order(ArchiveFormat.BYTE_ORDER);
+            header.putInt(ArchiveFormat.MAGIC).putInt(ArchiveFormat.VERSION).putInt(indexStride).flip();
+            index.truncate(0);
+            index.write(header, 0);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(ArchiveFormat.INDEX_HEADER_BYTES).order(ArchiveFormat.BYTE_ORDER);
+            index.read(header, 0);
+            header.flip();
+            if (header.getInt() != ArchiveFormat.MAGIC || header.getInt() != ArchiveFormat.VERSION) {
+                throw new IOException("Not a version " + ArchiveFormat.VERSION + " bar archive: " + directory);
+            }
+            indexStride = header.getInt();
+        }
+        // Keep exactly one index entry per stride of surviving rows
+        long entries = (rowCount + indexStride - 1) / indexStride;
+        index.truncate(ArchiveFormat.INDEX_HEADER_BYTES + entries * ArchiveFormat.INDEX_ENTRY_BYTES);
+        index.position(index.size());
+
+        if (rowCount > 0) {
+            ByteBuffer last = ByteBuffer.allocate(Long.BYTES).order(ArchiveFormat.BYTE_ORDER);
+            columns[0].read(last, (rowCount - 1) * Long.BYTES);
+            lastTimestamp = last.flip().getLong();
+        }
+    }
+
+    long getRowCount() {
+        return rowCount;
+    }
+
+    long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    // Appends rows [from, to) of the series that are newer than the archive's last bar; returns how many were written
+    int append(PriceSeries series, int from, int to) throws IOException {
+        int start = from;
+        while (start < to && series.getTimestamp(start) <= lastTimestamp) {
+            start++;
+        }
+        int written = 0;
+        ByteBuffer indexEntries = ByteBuffer.allocate(((to - start) / indexStride + 2) * ArchiveFormat.INDEX_ENTRY_BYTES)
+                .order(ArchiveFormat.BYTE_ORDER);
+        for (int i = start; i < to; i++) {
+            long timestamp = series.getTimestamp(i);
+            if (timestamp <= lastTimestamp) {
+                continue; // Out of order bars cannot be appended
+            }
+            if (rowCount % indexStride == 0) {
+                indexEntries.putLong(timestamp).putLong(rowCount);
+            }
+            buffers[0].putLong(timestamp);
+            buffers[1].putDouble(series.getOpen(i));
+            buffers[2].putDouble(series.getHigh(i));
+            buffers[3].putDouble(series.getLow(i));
+            buffers[4].putDouble(series.getClose(i));
+            buffers[5].putLong(series.getVolume(i));
+            lastTimestamp = timestamp;
+            rowCount++;
+            written++;
+            if (!buffers[0].hasRemaining()) {
+                flushColumns();
+            }
+        }
+        flushColumns();
+        indexEntries.flip();
+        while (indexEntries.hasRemaining()) {
+            index.write(indexEntries);
+        }
+        return written;
+    }
+
+    private void flushColumns() throws IOException {
+        for (int c = 0; c < columns.length; c++) {
+            ByteBuffer buffer = buffers[c];
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                columns[c].write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    void force() throws IOException {
+        for (FileChannel column : columns) {
+            column.force(false);
+        }
+        index.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        for (FileChannel column : columns) {
+            column.close();
+        }
+        index.close();
+    }
+}
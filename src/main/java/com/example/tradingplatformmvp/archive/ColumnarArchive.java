@@ -0,0 +1,76 @@
+package com.example.tradingplatformmvp.archive;
+
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Entry point to the per-symbol columnar bar archive (layout in ArchiveFormat). Appends are serialized per symbol;
+// readers are cached and replaced after each append so they always map the full file.
+@Component
+public class ColumnarArchive {
+
+    private final Path root;
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, ArchiveReader> readers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Object> writeLocks = new ConcurrentHashMap<>();
+
+    public ColumnarArchive(@Value("${archive.dir:data/archive}") String root,
+                           @Value("${archive.enabled:true}") boolean enabled) {
+        this.root = Paths.get(root);
+        this.enabled = enabled;
+    }
+
+    public boolean contains(String symbol) {
+        return enabled && Files.exists(ArchiveFormat.symbolDirectory(root, symbol).resolve(ArchiveFormat.TIMESTAMP));
+    }
+
+    public Optional<ArchiveReader> openReader(String symbol) {
+        if (!contains(symbol)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(readers.computeIfAbsent(symbol, k -> {
+                try {
+                    return new ArchiveReader(k, ArchiveFormat.symbolDirectory(root, k));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            System.err.println("Error opening bar archive for " + symbol + ": " + e.getCause().getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // Bars in [from, to] from the archive, or empty when the symbol has not been archived
+    public Optional<PriceSeries> read(String symbol, LocalDateTime from, LocalDateTime to) {
+        return openReader(symbol).map(reader -> reader.readRange(from.toEpochSecond(ZoneOffset.UTC), to.toEpochSecond(ZoneOffset.UTC)));
+    }
+
+    // Appends the bars newer than the archive's last one; returns how many were written
+    public int append(String symbol, PriceSeries series) throws IOException {
+        synchronized (writeLocks.computeIfAbsent(symbol, k -> new Object())) {
+            int written;
+            try (ArchiveWriter writer = new ArchiveWriter(ArchiveFormat.symbolDirectory(root, symbol))) {
+                written = writer.append(series, 0, series.size());
+            }
+            readers.remove(symbol);
+            return written;
+        }
+    }
+
+    // Epoch seconds of the newest archived bar, Long.MIN_VALUE when there is none
+    public long lastTimestamp(String symbol) {
+        return openReader(symbol).map(ArchiveReader::getLastTimestamp).orElse(Long.MIN_VALUE);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.tradingplatformmvp.backtest;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bars processed by a running backtest, and the flag that cancels it. The kernels report in steps of REPORT_EVERY
+// bars rather than per bar, and a cancelled run stops with a CancellationException at its next report.
+public class BacktestProgress {
+
+    public static final int REPORT_EVERY = 4096;
+
+    // For runs nobody watches or cancels
+    public static final BacktestProgress NONE = new BacktestProgress() {
+        @Override
+        public void advance(long bars) {
+        }
+
+        @Override
+        public void addTotalBars(long bars) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final AtomicLong barsProcessed = new AtomicLong();
+    private final AtomicLong totalBars = new AtomicLong();
+    private volatile boolean cancelled;
+
+    public void advance(long bars) {
+        barsProcessed.addAndGet(bars);
+        checkCancelled();
+    }
+
+    public void addTotalBars(long bars) {
+        totalBars.addAndGet(bars);
+    }
+
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Backtest cancelled");
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getBarsProcessed() {
+        return barsProcessed.get();
+    }
+
+    public long getTotalBars() {
+        return totalBars.get();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.tradingplatformmvp.backtest;
+
+import java.util.Arrays;
+
+// Summary of a sample of outcomes (returns, drawdowns). Percentiles interpolate linearly between closest ranks.
+public record Distribution(int count, double mean, double stdDev, double min, double p5, double p25, double median,
+                           double p75, double p95, double max) {
+
+    // null for an empty sample
+    public static Distribution of(double[] values) {
+        if (values.length == 0) {
+            return null;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double sum = 0.0;
+        for (double value : sorted) {
+            sum += value;
+        }
+        double mean = sum / sorted.length;
+        double squares = 0.0;
+        for (double value : sorted) {
+            squares += (value - mean) * (value - mean);
+        }
+        double stdDev = sorted.length > 1 ? Math.sqrt(squares / (sorted.length - 1)) : 0.0;
+        return new Distribution(sorted.length, mean, stdDev, sorted[0], percentile(sorted, 5), percentile(sorted, 25),
+                percentile(sorted, 50), percentile(sorted, 75), percentile(sorted, 95), sorted[sorted.length - 1]);
+    }
+
+    private static double percentile(double[] sorted, double percent) {
+        double rank = percent / 100.0 * (sorted.length - 1);
+        int below = (int) Math.floor(rank);
+        int above = Math.min(below + 1, sorted.length - 1);
+        return sorted[below] + (rank - below) * (sorted[above] - sorted[below]);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.tradingplatformmvp.backtest;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Bootstrap of a trade sequence: each resample draws as many trades as there are, with replacement, and replays them
+// from the initial capital. The spread of final returns and maximum drawdowns over the resamples shows how much of a
+// backtest's result comes down to which trades happened and in what order.
+//
+// Resamples run in parallel on the calling pool. Resample i draws from its own SplittableRandom, split off a root
+// seeded with seed in resample order before any of them run, so the outcome depends only on the seed and not on how
+// the resamples are spread over threads.
+public final class MonteCarloResampler {
+
+    // Per resample, in resample order: return and maximum drawdown, both in percent of the initial / peak capital
+    public record Outcome(double[] returns, double[] maxDrawdowns) {
+    }
+
+    private MonteCarloResampler() {
+    }
+
+    public static Outcome run(double[] tradeProfitLosses, double initialCapital, int resamples, long seed) {
+        double[] returns = new double[resamples];
+        double[] maxDrawdowns = new double[resamples];
+        if (tradeProfitLosses.length == 0) {
+            return new Outcome(returns, maxDrawdowns);
+        }
+
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[resamples];
+        for (int i = 0; i < resamples; i++) {
+            streams[i] = root.split();
+        }
+
+        IntStream.range(0, resamples).parallel().forEach(i -> {
+            SplittableRandom random = streams[i];
+            double equity = initialCapital;
+            double peak = initialCapital;
+            double maxDrawdown = 0.0;
+            for (int draw = 0; draw < tradeProfitLosses.length; draw++) {
+                equity += tradeProfitLosses[random.nextInt(tradeProfitLosses.length)];
+                peak = Math.max(peak, equity);
+                maxDrawdown = Math.max(maxDrawdown, (peak - equity) / peak);
+            }
+            returns[i] = (equity - initialCapital) / initialCapital * 100;
+            maxDrawdowns[i] = maxDrawdown * 100;
+        });
+        return new Outcome(returns, maxDrawdowns);
+    }
+
+    // Largest fall from a running peak of the equity after each trade, in percent of that peak
+    public static double maxDrawdownPercent(double initialCapital, double[] tradeProfitLosses) {
+        double equity = initialCapital;
+        double peak = initialCapital;
+        double maxDrawdown = 0.0;
+        for (double profitLoss : tradeProfitLosses) {
+            equity += profitLoss;
+            peak = Math.max(peak, equity);
+            maxDrawdown = Math.max(maxDrawdown, (peak - equity) / peak);
+        }
+        return maxDrawdown * 100;
+    }
+}
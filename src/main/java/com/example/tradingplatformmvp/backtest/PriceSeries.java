@@ -0,0 +1,194 @@
+package com.example.tradingplatformmvp.backtest;
+
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.model.StockData;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+// Read-only columnar copy of a bar history, safe to share between threads once built.
+// Close prefix sums make the simple moving average of any window O(1) per bar.
+public final class PriceSeries {
+
+    private final String symbol;
+    private final long[] timestamps; // epoch seconds of the bar's LocalDateTime at UTC
+    private final double[] opens;
+    private final double[] highs;
+    private final double[] lows;
+    private final double[] closes;
+    private final long[] volumes;
+    private final double[] closePrefixSums; // closePrefixSums[i] = closes[0] + ... + closes[i - 1]
+
+    public PriceSeries(String symbol, long[] timestamps, double[] opens, double[] highs, double[] lows, double[] closes, long[] volumes) {
+        this.symbol = symbol;
+        this.timestamps = timestamps;
+        this.opens = opens;
+        this.highs = highs;
+        this.lows = lows;
+        this.closes = closes;
+        this.volumes = volumes;
+        this.closePrefixSums = new double[closes.length + 1];
+        for (int i = 0; i < closes.length; i++) {
+            closePrefixSums[i + 1] = closePrefixSums[i] + closes[i];
+        }
+    }
+
+    public static PriceSeries of(String symbol, List<StockData> stockDataList) {
+        int size = stockDataList.size();
+        long[] timestamps = new long[size];
+        double[] opens = new double[size];
+        double[] highs = new double[size];
+        double[] lows = new double[size];
+        double[] closes = new double[size];
+        long[] volumes = new long[size];
+        for (int i = 0; i < size; i++) {
+            StockData data = stockDataList.get(i);
+            timestamps[i] = data.getTimestamp().toEpochSecond(ZoneOffset.UTC);
+            opens[i] = data.getOpen();
+            highs[i] = data.getHigh();
+            lows[i] = data.getLow();
+            closes[i] = data.getClose();
+            volumes[i] = data.getVolume();
+        }
+        return new PriceSeries(symbol, timestamps, opens, highs, lows, closes, volumes);
+    }
+
+    public static PriceSeries ofDtos(String symbol, List<StockDataDto> bars) {
+        int size = bars.size();
+        long[] timestamps = new long[size];
+        double[] opens = new double[size];
+        double[] highs = new double[size];
+        double[] lows = new double[size];
+        double[] closes = new double[size];
+        long[] volumes = new long[size];
+        for (int i = 0; i < size; i++) {
+            StockDataDto bar = bars.get(i);
+            timestamps[i] = bar.getTimestamp().toEpochSecond(ZoneOffset.UTC);
+            opens[i] = bar.getOpen();
+            highs[i] = bar.getHigh();
+            lows[i] = bar.getLow();
+            closes[i] = bar.getClose();
+            volumes[i] = bar.getVolume();
+        }
+        return new PriceSeries(symbol, timestamps, opens, highs, lows, closes, volumes);
+    }
+
+    // Bars of `first` followed by bars of `second`; callers ensure second starts after first ends
+    public static PriceSeries concat(PriceSeries first, PriceSeries second) {
+        if (second.size() == 0) {
+            return first;
+        }
+        if (first.size() == 0) {
+            return second;
+        }
+        int size = first.size() + second.size();
+        long[] timestamps = new long[size];
+        double[] opens = new double[size];
+        double[] highs = new double[size];
+        double[] lows = new double[size];
+        double[] closes = new double[size];
+        long[] volumes = new long[size];
+        int offset = first.size();
+        System.arraycopy(first.timestamps, 0, timestamps, 0, offset);
+        System.arraycopy(second.timestamps, 0, timestamps, offset, second.size());
+        System.arraycopy(first.opens, 0, opens, 0, offset);
+        System.arraycopy(second.opens, 0, opens, offset, second.size());
+        System.arraycopy(first.highs, 0, highs, 0, offset);
+        System.arraycopy(second.highs, 0, highs, offset, second.size());
+        System.arraycopy(first.lows, 0, lows, 0, offset);
+        System.arraycopy(second.lows, 0, lows, offset, second.size());
+        System.arraycopy(first.closes, 0, closes, 0, offset);
+        System.arraycopy(second.closes, 0, closes, offset, second.size());
+        System.arraycopy(first.volumes, 0, volumes, 0, offset);
+        System.arraycopy(second.volumes, 0, volumes, offset, second.size());
+        return new PriceSeries(first.symbol, timestamps, opens, highs, lows, closes, volumes);
+    }
+
+    // Bars of both series in timestamp order; where both have a bar with the same timestamp, the one from `second`
+    public static PriceSeries merge(PriceSeries first, PriceSeries second) {
+        if (second.size() == 0) {
+            return first;
+        }
+        if (first.size() == 0) {
+            return second;
+        }
+        int capacity = first.size() + second.size();
+        long[] timestamps = new long[capacity];
+        double[] opens = new double[capacity];
+        double[] highs = new double[capacity];
+        double[] lows = new double[capacity];
+        double[] closes = new double[capacity];
+        long[] volumes = new long[capacity];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.size() || j < second.size()) {
+            PriceSeries source;
+            int index;
+            if (j == second.size() || (i < first.size() && first.timestamps[i] < second.timestamps[j])) {
+                source = first;
+                index = i++;
+            } else {
+                if (i < first.size() && first.timestamps[i] == second.timestamps[j]) {
+                    i++;
+                }
+                source = second;
+                index = j++;
+            }
+            timestamps[size] = source.timestamps[index];
+            opens[size] = source.opens[index];
+            highs[size] = source.highs[index];
+            lows[size] = source.lows[index];
+            closes[size] = source.closes[index];
+            volumes[size] = source.volumes[index];
+            size++;
+        }
+        return new PriceSeries(first.symbol, Arrays.copyOf(timestamps, size), Arrays.copyOf(opens, size),
+                Arrays.copyOf(highs, size), Arrays.copyOf(lows, size),
+                Arrays.copyOf(closes, size), Arrays.copyOf(volumes, size));
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return closes.length;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    public LocalDateTime getDateTime(int index) {
+        return LocalDateTime.ofEpochSecond(timestamps[index], 0, ZoneOffset.UTC);
+    }
+
+    public double getOpen(int index) {
+        return opens[index];
+    }
+
+    public double getHigh(int index) {
+        return highs[index];
+    }
+
+    public double getLow(int index) {
+        return lows[index];
+    }
+
+    public double getClose(int index) {
+        return closes[index];
+    }
+
+    public long getVolume(int index) {
+        return volumes[index];
+    }
+
+    // Same definition as ta4j's SMAIndicator: before a full window is available, the mean of the bars so far
+    public double sma(int barCount, int index) {
+        int from = Math.max(0, index - barCount + 1);
+        return (closePrefixSums[index + 1] - closePrefixSums[from]) / (index + 1 - from);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.tradingplatformmvp.backtest;
+
+import java.util.function.DoubleConsumer;
+
+// SMA crossover rules used by the backtester: buy one unit when the short SMA crosses above the long SMA,
+// sell when it crosses back below, and close any open trade on the last bar. Pure function of its inputs, so
+// many parameter combinations can run over the same PriceSeries concurrently.
+public final class SmaCrossoverKernel {
+
+    public record Outcome(int shortSmaPeriod, int longSmaPeriod, double initialCapital, double finalCapital,
+                          int totalTrades, int winningTrades, int losingTrades, boolean sufficientData) {
+
+        public double totalProfitLoss() {
+            return finalCapital - initialCapital;
+        }
+
+        public double percentageProfitLoss() {
+            return (totalProfitLoss() / initialCapital) * 100;
+        }
+    }
+
+    private SmaCrossoverKernel() {
+    }
+
+    public static Outcome run(PriceSeries series, int shortSmaPeriod, int longSmaPeriod, double initialCapital) {
+        return run(series, 0, series.size(), shortSmaPeriod, longSmaPeriod, initialCapital);
+    }
+
+    public static Outcome run(PriceSeries series, int from, int to, int shortSmaPeriod, int longSmaPeriod, double initialCapital) {
+        return run(series, from, to, shortSmaPeriod, longSmaPeriod, initialCapital, BacktestProgress.NONE);
+    }
+
+    public static Outcome run(PriceSeries series, int from, int to, int shortSmaPeriod, int longSmaPeriod,
+                              double initialCapital, BacktestProgress progress) {
+        return run(series, from, to, shortSmaPeriod, longSmaPeriod, initialCapital, progress, null);
+    }
+
+    // Trades only on bars [from, to); bars before `from` still feed the moving averages, so trading starts at `from`
+    // itself once the series has longSmaPeriod - 1 bars before it, and at the first full long window otherwise. Reports
+    // the bars walked to progress, which may cancel the run, and the P/L of every closed trade in order to
+    // tradeProfitLosses if given.
+    public static Outcome run(PriceSeries series, int from, int to, int shortSmaPeriod, int longSmaPeriod,
+                              double initialCapital, BacktestProgress progress, DoubleConsumer tradeProfitLosses) {
+        int first = Math.max(Math.max(from, longSmaPeriod - 1), 1);
+        if (to <= Math.max(from, longSmaPeriod - 1)) {
+            progress.advance(to - from);
+            return new Outcome(shortSmaPeriod, longSmaPeriod, initialCapital, initialCapital, 0, 0, 0, false);
+        }
+
+        double currentCapital = initialCapital;
+        boolean inTrade = false;
+        double buyPrice = 0.0;
+        int totalTrades = 0;
+        int winningTrades = 0;
+        int losingTrades = 0;
+
+        double previousShortSma = series.sma(shortSmaPeriod, first - 1);
+        double previousLongSma = series.sma(longSmaPeriod, first - 1);
+
+        int reported = from;
+        for (int i = first; i < to; i++) {
+            if (i - reported >= BacktestProgress.REPORT_EVERY) {
+                progress.advance(i - reported);
+                reported = i;
+            }
+            double currentShortSma = series.sma(shortSmaPeriod, i);
+            double currentLongSma = series.sma(longSmaPeriod, i);
+            double currentClosePrice = series.getClose(i);
+
+            // Buy signal: Short SMA crosses above Long SMA
+            if (currentShortSma > currentLongSma && previousShortSma <= previousLongSma && !inTrade) {
+                buyPrice = currentClosePrice;
+                inTrade = true;
+            }
+            // Sell signal: Short SMA crosses below Long SMA
+            else if (currentShortSma < currentLongSma && previousShortSma >= previousLongSma && inTrade) {
+                double profitLoss = currentClosePrice - buyPrice;
+                currentCapital += profitLoss; // Assuming 1 unit trade
+                totalTrades++;
+                if (tradeProfitLosses != null) {
+                    tradeProfitLosses.accept(profitLoss);
+                }
+                if (profitLoss > 0) {
+                    winningTrades++;
+                } else {
+                    losingTrades++;
+                }
+                inTrade = false;
+            }
+            previousShortSma = currentShortSma;
+            previousLongSma = currentLongSma;
+        }
+
+        progress.advance(to - reported);
+
+        // If still in trade at the end, close the trade at the last close price
+        if (inTrade) {
+            double profitLoss = series.getClose(to - 1) - buyPrice;
+            currentCapital += profitLoss;
+            totalTrades++;
+            if (tradeProfitLosses != null) {
+                tradeProfitLosses.accept(profitLoss);
+            }
+            if (profitLoss > 0) {
+                winningTrades++;
+            } else {
+                losingTrades++;
+            }
+        }
+
+        return new Outcome(shortSmaPeriod, longSmaPeriod, initialCapital, currentCapital,
+                totalTrades, winningTrades, losingTrades, true);
+    }
+}
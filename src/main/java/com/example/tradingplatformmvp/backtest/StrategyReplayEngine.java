@@ -0,0 +1,147 @@
+package com.example.tradingplatformmvp.backtest;
+
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.model.TradingSignal;
+import com.example.tradingplatformmvp.service.SimulatedFillRules;
+import com.example.tradingplatformmvp.strategy.IncrementalStrategy;
+import com.example.tradingplatformmvp.strategy.StrategyState;
+import com.example.tradingplatformmvp.strategy.TradingStrategy;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// Replays stored bars through any TradingStrategy, one bar at a time, and settles its signals with the same fill
+// rules as OrderManagementService.
+//
+// Every run gets its own strategy instance, so state a strategy keeps between calls (e.g. the last SMA values of
+// SmaCrossoverStrategy) belongs to that run and never leaks into live trading or another replay. Incremental
+// strategies are fed bar by bar through their own state, O(1) per bar, and see the whole series. Others only see a
+// bounded sliding window of the last lookbackBars bars, which keeps each step O(lookback) instead of O(bars so far):
+// such a strategy never sees older history, so indicators that need more than lookbackBars bars of warm-up differ from
+// a run over the full history. ReplayOutcome.lookbackBars says which case applied.
+@Component
+public class StrategyReplayEngine {
+
+    // lookbackBars is the window the strategy saw at each bar, or 0 when it was incremental and saw all of them
+    public record ReplayOutcome(String strategyName, double initialCapital, double finalCapital, int barsProcessed,
+                                int signals, int totalTrades, int winningTrades, int losingTrades, int lookbackBars) {
+    }
+
+    private final ApplicationContext applicationContext;
+
+    public StrategyReplayEngine(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    public ReplayOutcome replay(TradingStrategy strategy, String parametersJson, PriceSeries series,
+                                double initialCapital, int lookbackBars) {
+        return replay(strategy, parametersJson, series, initialCapital, lookbackBars, BacktestProgress.NONE);
+    }
+
+    public ReplayOutcome replay(TradingStrategy strategy, String parametersJson, PriceSeries series,
+                                double initialCapital, int lookbackBars, BacktestProgress progress) {
+        if (lookbackBars < 1) {
+            throw new IllegalArgumentException("lookbackBars must be at least 1");
+        }
+        TradingStrategy runStrategy = applicationContext.getAutowireCapableBeanFactory().createBean(strategy.getClass());
+        Object parameters = runStrategy.parseParameters(parametersJson);
+        // Incremental strategies advance their own state and need no window at all
+        StrategyState state = runStrategy instanceof IncrementalStrategy incremental
+                ? incremental.init(series.getSymbol(), parameters)
+                : null;
+        ArrayDeque<StockData> window = new ArrayDeque<>(state == null ? lookbackBars : 0);
+        ReplayAccount account = new ReplayAccount(initialCapital);
+
+        int reported = 0;
+        for (int i = 0; i < series.size(); i++) {
+            if (i - reported >= BacktestProgress.REPORT_EVERY) {
+                progress.advance(i - reported);
+                reported = i;
+            }
+            StockData bar = toStockData(series, i);
+            if (state != null) {
+                for (TradingSignal signal : state.onBar(bar)) {
+                    account.apply(signal.getSignalType(), bar.getClose());
+                }
+                continue;
+            }
+            List<TradingSignal> signals = runStrategy.evaluate(new ArrayList<>(window), bar, parameters);
+            for (TradingSignal signal : signals) {
+                account.apply(signal.getSignalType(), bar.getClose());
+            }
+
+            window.addLast(bar);
+            if (window.size() > lookbackBars) {
+                window.removeFirst();
+            }
+        }
+        progress.advance(series.size() - reported);
+
+        double lastClose = series.size() > 0 ? series.getClose(series.size() - 1) : 0.0;
+        return account.toOutcome(runStrategy.getName(), lastClose, series.size(), state == null ? lookbackBars : 0);
+    }
+
+    private static StockData toStockData(PriceSeries series, int index) {
+        StockData data = new StockData();
+        data.setSymbol(series.getSymbol());
+        data.setTimestamp(series.getDateTime(index));
+        data.setOpen(series.getOpen(index));
+        data.setHigh(series.getHigh(index));
+        data.setLow(series.getLow(index));
+        data.setClose(series.getClose(index));
+        data.setVolume(series.getVolume(index));
+        return data;
+    }
+
+    // Cash and a single position for one replay; a SELL realizes P/L against the average cost of the holding
+    static final class ReplayAccount {
+        private final double initialCapital;
+        private double cash;
+        private double quantity;
+        private double costBasis;
+        private int signals;
+        private int totalTrades;
+        private int winningTrades;
+        private int losingTrades;
+
+        ReplayAccount(double initialCapital) {
+            this.initialCapital = initialCapital;
+            this.cash = initialCapital;
+        }
+
+        void apply(TradingSignal.SignalType signalType, double price) {
+            signals++;
+            if (signalType == TradingSignal.SignalType.BUY) {
+                if (SimulatedFillRules.canBuy(cash)) {
+                    quantity += SimulatedFillRules.quantityFor(price);
+                    costBasis += SimulatedFillRules.TRADE_AMOUNT;
+                    cash -= SimulatedFillRules.TRADE_AMOUNT;
+                }
+            } else if (signalType == TradingSignal.SignalType.SELL) {
+                if (SimulatedFillRules.canSell(quantity, price)) {
+                    double quantityToSell = SimulatedFillRules.quantityFor(price);
+                    double averageCost = costBasis / quantity;
+                    double profitLoss = quantityToSell * (price - averageCost);
+                    costBasis -= quantityToSell * averageCost;
+                    quantity -= quantityToSell;
+                    cash += SimulatedFillRules.TRADE_AMOUNT;
+                    totalTrades++;
+                    if (profitLoss > 0) {
+                        winningTrades++;
+                    } else {
+                        losingTrades++;
+                    }
+                }
+            }
+        }
+
+        // Open holdings are marked at the last close
+        ReplayOutcome toOutcome(String strategyName, double lastClose, int barsProcessed, int lookbackBars) {
+            return new ReplayOutcome(strategyName, initialCapital, cash + quantity * lastClose, barsProcessed,
+                    signals, totalTrades, winningTrades, losingTrades, lookbackBars);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.tradingplatformmvp.backtest;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+// Walk-forward optimisation of the SMA crossover over one loaded PriceSeries. The series is cut into windows of
+// inSampleBars followed by outOfSampleBars, each window starting stepBars after the previous one. In every window each
+// (short, long) pair is scored on the in-sample bars and the best one is traded on the out-of-sample bars right after,
+// which is how the optimisation would have fared live. Each run warms its averages up on the bars before it, so the
+// out-of-sample run trades from its first bar as a live deployment would.
+//
+// Windows and pairs only read the shared series, so both run in parallel on the calling pool. Results do not depend on
+// the scheduling: ties between pairs go to the earlier one in the grid.
+public final class WalkForwardAnalysis {
+
+    // Bar indexes: in-sample [inSampleFrom, outOfSampleFrom), out-of-sample [outOfSampleFrom, outOfSampleTo).
+    // Returns and drawdown in percent; outOfSampleTrades holds the P/L of each out-of-sample trade in order.
+    public record Window(int index, int inSampleFrom, int outOfSampleFrom, int outOfSampleTo, int shortSmaPeriod,
+                         int longSmaPeriod, double inSampleReturn, double outOfSampleReturn,
+                         double outOfSampleMaxDrawdown, double[] outOfSampleTrades) {
+    }
+
+    private WalkForwardAnalysis() {
+    }
+
+    public static int windowCount(int bars, int inSampleBars, int outOfSampleBars, int stepBars) {
+        long span = (long) inSampleBars + outOfSampleBars;
+        return bars < span ? 0 : (int) ((bars - span) / stepBars + 1);
+    }
+
+    public static List<Window> run(PriceSeries series, List<int[]> periodPairs, double initialCapital,
+                                   int inSampleBars, int outOfSampleBars, int stepBars) {
+        int windows = windowCount(series.size(), inSampleBars, outOfSampleBars, stepBars);
+        return IntStream.range(0, windows).parallel()
+                .mapToObj(index -> window(series, periodPairs, initialCapital, index, index * stepBars,
+                        inSampleBars, outOfSampleBars))
+                .toList();
+    }
+
+    private static Window window(PriceSeries series, List<int[]> periodPairs, double initialCapital, int index,
+                                 int inSampleFrom, int inSampleBars, int outOfSampleBars) {
+        int outOfSampleFrom = inSampleFrom + inSampleBars;
+        int outOfSampleTo = outOfSampleFrom + outOfSampleBars;
+
+        SmaCrossoverKernel.Outcome best = periodPairs.parallelStream()
+                .map(pair -> SmaCrossoverKernel.run(series, inSampleFrom, outOfSampleFrom, pair[0], pair[1], initialCapital))
+                .max(Comparator.comparingDouble(SmaCrossoverKernel.Outcome::percentageProfitLoss))
+                .orElseThrow();
+
+        DoubleStream.Builder trades = DoubleStream.builder();
+        SmaCrossoverKernel.Outcome outOfSample = SmaCrossoverKernel.run(series, outOfSampleFrom, outOfSampleTo,
+                best.shortSmaPeriod(), best.longSmaPeriod(), initialCapital, BacktestProgress.NONE, trades);
+        double[] outOfSampleTrades = trades.build().toArray();
+
+        return new Window(index, inSampleFrom, outOfSampleFrom, outOfSampleTo, best.shortSmaPeriod(), best.longSmaPeriod(),
+                best.percentageProfitLoss(), outOfSample.percentageProfitLoss(),
+                MonteCarloResampler.maxDrawdownPercent(initialCapital, outOfSampleTrades), outOfSampleTrades);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.tradingplatformmvp.cache;
+
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.repository.StockDataRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Shared in-memory tail of recent bars per symbol. Filled as bars are written, read by every pipeline stage
+// so the tick path does not have to query stock_data. A symbol's buffer is backfilled from the database the first
+// time it is touched.
+@Component
+public class BarCache {
+
+    private final StockDataRepository stockDataRepository;
+    private final LastPriceIndex lastPriceIndex;
+    private final ConcurrentHashMap<String, BarRingBuffer> buffers = new ConcurrentHashMap<>();
+    private final int defaultDepth;
+    private final Map<String, Integer> symbolDepths = new HashMap<>();
+
+    public BarCache(StockDataRepository stockDataRepository,
+                    LastPriceIndex lastPriceIndex,
+                    @Value("${barcache.default-depth:5000}") int defaultDepth,
+                    @Value("${barcache.symbol-depths:}") String symbolDepths) {
+        this.stockDataRepository = stockDataRepository;
+        this.lastPriceIndex = lastPriceIndex;
+        this.defaultDepth = defaultDepth;
+        // Format: SYMBOL:depth,SYMBOL:depth
+        for (String entry : symbolDepths.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid barcache.symbol-depths entry: " + entry);
+            }
+            this.symbolDepths.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+    }
+
+    public int getDepth(String symbol) {
+        return symbolDepths.getOrDefault(symbol, defaultDepth);
+    }
+
+    public BarRingBuffer getBuffer(String symbol) {
+        return buffers.computeIfAbsent(symbol, this::backfill);
+    }
+
+    private BarRingBuffer backfill(String symbol) {
+        BarRingBuffer buffer = new BarRingBuffer(getDepth(symbol));
+        for (StockData data : stockDataRepository.findLastBars(symbol, buffer.getDepth())) {
+            buffer.append(BarRingBuffer.toEpochSecond(data.getTimestamp()), data.getOpen(), data.getHigh(),
+                    data.getLow(), data.getClose(), data.getVolume());
+        }
+        if (buffer.size() > 0) {
+            lastPriceIndex.update(symbol, buffer.lastTimestamp(), buffer.lastClose());
+        }
+        System.out.println("Backfilled bar cache for " + symbol + " with " + buffer.size() + " bars");
+        return buffer;
+    }
+
+    public boolean append(StockDataDto stockDataDto) {
+        return append(stockDataDto.getSymbol(), BarRingBuffer.toEpochSecond(stockDataDto.getTimestamp()),
+                stockDataDto.getOpen(), stockDataDto.getHigh(), stockDataDto.getLow(), stockDataDto.getClose(), stockDataDto.getVolume());
+    }
+
+    public boolean append(StockData stockData) {
+        return append(stockData.getSymbol(), BarRingBuffer.toEpochSecond(stockData.getTimestamp()),
+                stockData.getOpen(), stockData.getHigh(), stockData.getLow(), stockData.getClose(), stockData.getVolume());
+    }
+
+    public boolean append(String symbol, long timestamp, double open, double high, double low, double close, long volume) {
+        boolean appended = getBuffer(symbol).append(timestamp, open, high, low, close, volume);
+        if (appended) {
+            lastPriceIndex.update(symbol, timestamp, close);
+        }
+        return appended;
+    }
+
+    // NaN when nothing is known about the symbol
+    public double lastClose(String symbol) {
+        return getBuffer(symbol).lastClose();
+    }
+
+    public BarWindow window(String symbol, int maxBars) {
+        return getBuffer(symbol).snapshot(maxBars);
+    }
+
+    public BarWindow window(String symbol) {
+        return getBuffer(symbol).snapshot();
+    }
+}
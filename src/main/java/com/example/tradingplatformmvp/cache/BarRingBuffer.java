@@ -0,0 +1,128 @@
+package com.example.tradingplatformmvp.cache;
+
+import java.lang.invoke.VarHandle;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Fixed-depth ring of bars for one symbol stored as primitive columns.
+// Writers are serialized on the buffer; readers never lock. A reader copies the slots it wants and then re-reads
+// the published count: any slot the writer may have overwritten meanwhile is detected and the copy is retried.
+public final class BarRingBuffer {
+
+    private final int depth;
+    private final int capacity; // one spare slot so the slot being written never holds a readable bar
+    private final long[] timestamps; // epoch seconds of the bar's LocalDateTime at UTC
+    private final double[] opens;
+    private final double[] highs;
+    private final double[] lows;
+    private final double[] closes;
+    private final long[] volumes;
+
+    // Total number of bars ever appended; slot of bar n is n % capacity
+    private volatile long published;
+
+    public BarRingBuffer(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Bar buffer depth must be positive: " + depth);
+        }
+        this.depth = depth;
+        this.capacity = depth + 1;
+        this.timestamps = new long[capacity];
+        this.opens = new double[capacity];
+        this.highs = new double[capacity];
+        this.lows = new double[capacity];
+        this.closes = new double[capacity];
+        this.volumes = new long[capacity];
+    }
+
+    public static long toEpochSecond(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    // Appends a bar if it is newer than the last one. Returns false for duplicates and out-of-order bars.
+    public synchronized boolean append(long timestamp, double open, double high, double low, double close, long volume) {
+        long count = published;
+        if (count > 0 && timestamp <= timestamps[(int) ((count - 1) % capacity)]) {
+            return false;
+        }
+        int slot = (int) (count % capacity);
+        timestamps[slot] = timestamp;
+        opens[slot] = open;
+        highs[slot] = high;
+        lows[slot] = low;
+        closes[slot] = close;
+        volumes[slot] = volume;
+        published = count + 1;
+        return true;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int size() {
+        return (int) Math.min(published, depth);
+    }
+
+    // Returns NaN when the buffer is empty
+    public double lastClose() {
+        while (true) {
+            long count = published;
+            if (count == 0) {
+                return Double.NaN;
+            }
+            double close = closes[(int) ((count - 1) % capacity)];
+            VarHandle.acquireFence();
+            if (count - 1 > published - capacity) {
+                return close;
+            }
+        }
+    }
+
+    // Returns Long.MIN_VALUE when the buffer is empty
+    public long lastTimestamp() {
+        while (true) {
+            long count = published;
+            if (count == 0) {
+                return Long.MIN_VALUE;
+            }
+            long timestamp = timestamps[(int) ((count - 1) % capacity)];
+            VarHandle.acquireFence();
+            if (count - 1 > published - capacity) {
+                return timestamp;
+            }
+        }
+    }
+
+    // Copies up to the last maxBars bars, oldest first
+    public BarWindow snapshot(int maxBars) {
+        while (true) {
+            long end = published;
+            int length = (int) Math.min(Math.min(end, depth), Math.max(maxBars, 0));
+            long start = end - length;
+            BarWindow window = new BarWindow(length);
+            for (int i = 0; i < length; i++) {
+                int slot = (int) ((start + i) % capacity);
+                window.timestamps[i] = timestamps[slot];
+                window.opens[i] = opens[slot];
+                window.highs[i] = highs[slot];
+                window.lows[i] = lows[slot];
+                window.closes[i] = closes[slot];
+                window.volumes[i] = volumes[slot];
+            }
+            // The writer may be filling slot `published` right now, which overwrites bar `published - capacity`
+            VarHandle.acquireFence();
+            if (start > published - capacity) {
+                return window;
+            }
+        }
+    }
+
+    public BarWindow snapshot() {
+        return snapshot(depth);
+    }
+}
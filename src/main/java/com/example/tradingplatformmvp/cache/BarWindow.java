@@ -0,0 +1,84 @@
+package com.example.tradingplatformmvp.cache;
+
+import com.example.tradingplatformmvp.model.StockData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Immutable-by-convention copy of consecutive bars for one symbol, oldest first
+public final class BarWindow {
+
+    final long[] timestamps;
+    final double[] opens;
+    final double[] highs;
+    final double[] lows;
+    final double[] closes;
+    final long[] volumes;
+
+    BarWindow(int length) {
+        this.timestamps = new long[length];
+        this.opens = new double[length];
+        this.highs = new double[length];
+        this.lows = new double[length];
+        this.closes = new double[length];
+        this.volumes = new long[length];
+    }
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    public boolean isEmpty() {
+        return timestamps.length == 0;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    public double getOpen(int index) {
+        return opens[index];
+    }
+
+    public double getHigh(int index) {
+        return highs[index];
+    }
+
+    public double getLow(int index) {
+        return lows[index];
+    }
+
+    public double getClose(int index) {
+        return closes[index];
+    }
+
+    public long getVolume(int index) {
+        return volumes[index];
+    }
+
+    // For callers that still work on entities, e.g. strategies taking List<StockData>
+    public List<StockData> toStockData(String symbol) {
+        return toStockData(symbol, Long.MAX_VALUE);
+    }
+
+    // Only bars strictly older than endExclusive (epoch seconds), e.g. history preceding the bar being evaluated
+    public List<StockData> toStockData(String symbol, long endExclusive) {
+        int end = timestamps.length;
+        while (end > 0 && timestamps[end - 1] >= endExclusive) {
+            end--;
+        }
+        List<StockData> stockDataList = new ArrayList<>(end);
+        for (int i = 0; i < end; i++) {
+            StockData data = new StockData();
+            data.setSymbol(symbol);
+            data.setTimestamp(BarRingBuffer.toLocalDateTime(timestamps[i]));
+            data.setOpen(opens[i]);
+            data.setHigh(highs[i]);
+            data.setLow(lows[i]);
+            data.setClose(closes[i]);
+            data.setVolume(volumes[i]);
+            stockDataList.add(data);
+        }
+        return stockDataList;
+    }
+}
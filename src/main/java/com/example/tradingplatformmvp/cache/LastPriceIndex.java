@@ -0,0 +1,56 @@
+package com.example.tradingplatformmvp.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Last trade price per symbol, kept current from the market data stream. Lookups are a single hash probe and
+// listeners are told about every move so that valuations can be adjusted for the one symbol that changed.
+@Component
+public class LastPriceIndex {
+
+    public interface PriceListener {
+        // previousPrice is NaN the first time a symbol is priced
+        void onPriceChange(String symbol, double previousPrice, double price);
+    }
+
+    private static final class PriceSlot {
+        private long timestamp = Long.MIN_VALUE;
+        private volatile double price = Double.NaN;
+    }
+
+    private final ConcurrentHashMap<String, PriceSlot> prices = new ConcurrentHashMap<>();
+    private final List<PriceListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(PriceListener listener) {
+        listeners.add(listener);
+    }
+
+    // Applies the price if it is at least as recent as the current one; timestamps are epoch seconds
+    public void update(String symbol, long timestamp, double price) {
+        PriceSlot slot = prices.computeIfAbsent(symbol, key -> new PriceSlot());
+        double previousPrice;
+        synchronized (slot) {
+            if (timestamp < slot.timestamp) {
+                return;
+            }
+            previousPrice = slot.price;
+            slot.timestamp = timestamp;
+            slot.price = price;
+            if (Double.compare(previousPrice, price) == 0) {
+                return;
+            }
+            for (PriceListener listener : listeners) {
+                listener.onPriceChange(symbol, previousPrice, price);
+            }
+        }
+    }
+
+    // NaN when the symbol has not been priced yet
+    public double getPrice(String symbol) {
+        PriceSlot slot = prices.get(symbol);
+        return slot == null ? Double.NaN : slot.price;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.tradingplatformmvp.config;
+
+import com.example.tradingplatformmvp.aggregation.TimeframeBarCache;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+// Declares the pipeline topics so they are created with enough partitions for kafka.listener.concurrency.
+// Every producer keys records by symbol, so one symbol always lands on one partition and stays ordered.
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${kafka.topic.partitions:6}")
+    private int partitions;
+
+    @Value("${kafka.topic.replicas:1}")
+    private int replicas;
+
+    @Bean
+    public NewTopic stockDataTopic() {
+        return TopicBuilder.name("stock-data-topic").partitions(partitions).replicas(replicas).build();
+    }
+
+    @Bean
+    public NewTopic stockIndicatorsTopic() {
+        return TopicBuilder.name("stock-indicators-topic").partitions(partitions).replicas(replicas).build();
+    }
+
+    @Bean
+    public NewTopic tradingSignalsTopic() {
+        return TopicBuilder.name("trading-signals-topic").partitions(partitions).replicas(replicas).build();
+    }
+
+    @Bean
+    public NewTopic mlPredictionsTopic() {
+        return TopicBuilder.name("ml-predictions-topic").partitions(partitions).replicas(replicas).build();
+    }
+
+    // One topic of closed bars per aggregated timeframe
+    @Bean
+    public KafkaAdmin.NewTopics timeframeBarTopics(TimeframeBarCache timeframeBarCache) {
+        return new KafkaAdmin.NewTopics(timeframeBarCache.getTimeframes().stream()
+                .map(timeframe -> TopicBuilder.name(timeframe.topic()).partitions(partitions).replicas(replicas).build())
+                .toArray(NewTopic[]::new));
+    }
+}
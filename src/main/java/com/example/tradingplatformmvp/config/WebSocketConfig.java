@@ -1,15 +1,31 @@
 package com.example.tradingplatformmvp.config;
 
+import com.example.tradingplatformmvp.websocket.WebSocketSessionRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketSessionRegistry webSocketSessionRegistry;
+
+    // Spring closes a session whose pending output exceeds either limit; the fan-out drops slow clients earlier
+    @Value("${fanout.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${fanout.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    public WebSocketConfig(WebSocketSessionRegistry webSocketSessionRegistry) {
+        this.webSocketSessionRegistry = webSocketSessionRegistry;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
@@ -20,4 +36,11 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").withSockJS();
     }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .addDecoratorFactory(webSocketSessionRegistry::decorate);
+    }
 }
@@ -0,0 +1,26 @@
+package com.example.tradingplatformmvp.controller;
+
+import com.example.tradingplatformmvp.service.ArchiveExportService;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/v1/archive")
+public class ArchiveController {
+
+    private final ArchiveExportService archiveExportService;
+
+    public ArchiveController(ArchiveExportService archiveExportService) {
+        this.archiveExportService = archiveExportService;
+    }
+
+    @PostMapping("/{symbol}/export")
+    public String exportSymbol(@PathVariable String symbol) throws IOException {
+        long exported = archiveExportService.exportSymbol(symbol);
+        return "Exported " + exported + " bars of " + symbol + " to the columnar archive.";
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.tradingplatformmvp.controller;
+
+import com.example.tradingplatformmvp.dto.BacktestJobDto;
+import com.example.tradingplatformmvp.dto.BacktestJobRequestDto;
+import com.example.tradingplatformmvp.model.BacktestResult;
+import com.example.tradingplatformmvp.service.BacktestJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+// Submitting returns at once with the job id; poll the job for progress and fetch its results once it has succeeded.
+// The X-User header names who the job counts against for the per-user limits.
+@RestController
+@RequestMapping("/api/v1/backtest/jobs")
+public class BacktestJobController {
+
+    private final BacktestJobService backtestJobService;
+
+    public BacktestJobController(BacktestJobService backtestJobService) {
+        this.backtestJobService = backtestJobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<BacktestJobDto> submit(@RequestHeader(value = "X-User", defaultValue = "anonymous") String user,
+                                                 @RequestBody BacktestJobRequestDto request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(backtestJobService.submit(user, request));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping
+    public List<BacktestJobDto> getJobs(@RequestParam(required = false) String user) {
+        return backtestJobService.getJobs(user);
+    }
+
+    @GetMapping("/{jobId}")
+    public BacktestJobDto getJob(@PathVariable String jobId) {
+        return found(backtestJobService.getJob(jobId), jobId);
+    }
+
+    @GetMapping("/{jobId}/results")
+    public List<BacktestResult> getResults(@PathVariable String jobId) {
+        try {
+            return found(backtestJobService.getResults(jobId), jobId);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public BacktestJobDto cancel(@PathVariable String jobId) {
+        return found(backtestJobService.cancel(jobId), jobId);
+    }
+
+    private static <T> T found(T value, String jobId) {
+        if (value == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No backtest job " + jobId);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.tradingplatformmvp.controller;
+
+import com.example.tradingplatformmvp.dto.ImportReportDto;
+import com.example.tradingplatformmvp.service.BulkImportService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Collection;
+
+@RestController
+@RequestMapping("/api/v1/import")
+public class ImportController {
+
+    private final BulkImportService bulkImportService;
+
+    public ImportController(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    // Bars in CSV: symbol,timestamp,open,high,low,close,volume (symbol column may be omitted when ?symbol= is given)
+    @PostMapping
+    public ImportReportDto importCsv(@RequestParam("file") MultipartFile file,
+                                     @RequestParam(required = false) String symbol,
+                                     @RequestParam(defaultValue = "false") boolean archive,
+                                     @RequestParam(defaultValue = "false") boolean publish) throws IOException {
+        try (ReadableByteChannel channel = Channels.newChannel(file.getInputStream())) {
+            return bulkImportService.importCsv(channel, file.getSize(), file.getOriginalFilename(), symbol, archive, publish);
+        }
+    }
+
+    @GetMapping("/progress")
+    public Collection<ImportReportDto> getProgress() {
+        return bulkImportService.getImports();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.tradingplatformmvp.controller;
+
+import com.example.tradingplatformmvp.dto.IndicatorQueryRequestDto;
+import com.example.tradingplatformmvp.dto.IndicatorQueryResultDto;
+import com.example.tradingplatformmvp.service.IndicatorQueryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/indicators")
+public class IndicatorQueryController {
+
+    private final IndicatorQueryService indicatorQueryService;
+
+    public IndicatorQueryController(IndicatorQueryService indicatorQueryService) {
+        this.indicatorQueryService = indicatorQueryService;
+    }
+
+    // Many symbols x many indicators in one round trip, as numbers rather than the formatted strings of
+    // /api/v1/stock/{symbol}/sma/... and its siblings
+    @PostMapping("/query")
+    public List<IndicatorQueryResultDto> query(@RequestBody IndicatorQueryRequestDto request) {
+        try {
+            return indicatorQueryService.query(request);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.tradingplatformmvp.controller;
+
+import com.example.tradingplatformmvp.dto.MarketDataSourceStatusDto;
+import com.example.tradingplatformmvp.ingestion.MarketDataSources;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/marketdata/sources")
+public class MarketDataSourceController {
+
+    private final MarketDataSources marketDataSources;
+
+    public MarketDataSourceController(MarketDataSources marketDataSources) {
+        this.marketDataSources = marketDataSources;
+    }
+
+    @GetMapping
+    public List<MarketDataSourceStatusDto> getSources() {
+        return marketDataSources.getStatuses();
+    }
+
+    // Sources read their settings from the ingestion.* properties
+    @PostMapping("/{name}/start")
+    public ResponseEntity<MarketDataSourceStatusDto> start(@PathVariable String name) {
+        return marketDataSources.start(name)
+                .map(ResponseEntity::ok)
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @PostMapping("/{name}/stop")
+    public ResponseEntity<MarketDataSourceStatusDto> stop(@PathVariable String name) {
+        return marketDataSources.stop(name)
+                .map(ResponseEntity::ok)
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.tradingplatformmvp.controller;
+
+import com.example.tradingplatformmvp.dto.PortfolioSnapshotDto;
+import com.example.tradingplatformmvp.service.OrderManagementService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/portfolio")
+public class PortfolioController {
+
+    private final OrderManagementService orderManagementService;
+
+    public PortfolioController(OrderManagementService orderManagementService) {
+        this.orderManagementService = orderManagementService;
+    }
+
+    // One snapshot per account (accounts are named after the strategy that trades them)
+    @GetMapping
+    public List<PortfolioSnapshotDto> getPortfolios() {
+        return orderManagementService.getPortfolioSnapshots();
+    }
+
+    @GetMapping("/{accountId}")
+    public ResponseEntity<PortfolioSnapshotDto> getPortfolio(@PathVariable String accountId) {
+        return orderManagementService.getPortfolioSnapshot(accountId)
+                .map(ResponseEntity::ok)
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
@@ -1,5 +1,12 @@
 package com.example.tradingplatformmvp.controller;
 
+import com.example.tradingplatformmvp.aggregation.Timeframe;
+import com.example.tradingplatformmvp.aggregation.TimeframeBarCache;
+import com.example.tradingplatformmvp.dto.RobustnessReportDto;
+import com.example.tradingplatformmvp.dto.RobustnessRequestDto;
+import com.example.tradingplatformmvp.dto.SmaSweepRequestDto;
+import com.example.tradingplatformmvp.dto.SmaSweepResultDto;
+import com.example.tradingplatformmvp.dto.TimeframeBarDto;
 import com.example.tradingplatformmvp.model.BacktestResult;
 import com.example.tradingplatformmvp.model.StockData;
 import com.example.tradingplatformmvp.model.SimulatedTrade; // Import SimulatedTrade
@@ -8,71 +15,147 @@ import com.example.tradingplatformmvp.repository.StockDataRepository;
 import com.example.tradingplatformmvp.repository.SimulatedTradeRepository; // Import SimulatedTradeRepository
 import com.example.tradingplatformmvp.service.BacktestingService;
 import com.example.tradingplatformmvp.service.DataIngestionService;
-import com.example.tradingplatformmvp.service.TechnicalAnalysisService;
+import com.example.tradingplatformmvp.service.IndicatorResultCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/stock")
 public class StockController {
 
+    // Stand-ins for a missing from/to that every database timestamp type can represent
+    private static final LocalDateTime OPEN_RANGE_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime OPEN_RANGE_END = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final StockDataRepository stockDataRepository;
-    private final TechnicalAnalysisService technicalAnalysisService;
     private final DataIngestionService dataIngestionService;
     private final BacktestingService backtestingService;
     private final BacktestResultRepository backtestResultRepository;
     private final SimulatedTradeRepository simulatedTradeRepository; // Inject SimulatedTradeRepository
+    private final TimeframeBarCache timeframeBarCache;
+    private final IndicatorResultCache indicatorResultCache;
+
+    @Value("${stock.query.max-bars:10000}")
+    private int maxBars;
 
     public StockController(StockDataRepository stockDataRepository,
-                           TechnicalAnalysisService technicalAnalysisService,
                            DataIngestionService dataIngestionService,
                            BacktestingService backtestingService,
                            BacktestResultRepository backtestResultRepository,
-                           SimulatedTradeRepository simulatedTradeRepository) { // Add to constructor
+                           SimulatedTradeRepository simulatedTradeRepository, // Add to constructor
+                           TimeframeBarCache timeframeBarCache,
+                           IndicatorResultCache indicatorResultCache) {
         this.stockDataRepository = stockDataRepository;
-        this.technicalAnalysisService = technicalAnalysisService;
         this.dataIngestionService = dataIngestionService;
         this.backtestingService = backtestingService;
         this.backtestResultRepository = backtestResultRepository;
         this.simulatedTradeRepository = simulatedTradeRepository; // Assign
+        this.timeframeBarCache = timeframeBarCache;
+        this.indicatorResultCache = indicatorResultCache;
     }
 
+    // Bounded reads: a time range (from/to), the last N bars (last), or keyset pages (after + limit). last and limit
+    // must be positive and are capped at stock.query.max-bars; a range answers at most stock.query.max-bars bars.
+    // When a page is full, the X-Next-Cursor header carries the timestamp to pass as `after` for the next page
+    // (with the same from/to for a range).
     @GetMapping("/{symbol}")
-    public List<StockData> getStockData(@PathVariable String symbol) {
-        return stockDataRepository.findBySymbolOrderByTimestampAsc(symbol);
+    public ResponseEntity<List<StockData>> getStockData(
+            @PathVariable String symbol,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer last,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime after,
+            @RequestParam(defaultValue = "1000") int limit) {
+        if (from != null || to != null) {
+            List<StockData> page = stockDataRepository.findRangePage(symbol, from != null ? from : OPEN_RANGE_START,
+                    to != null ? to : OPEN_RANGE_END, after, maxBars);
+            return withNextCursor(page, maxBars);
+        }
+        if (last != null) {
+            return ResponseEntity.ok(stockDataRepository.findLastBars(symbol, boundedBarCount("last", last)));
+        }
+        int pageSize = boundedBarCount("limit", limit);
+        return withNextCursor(stockDataRepository.findPage(symbol, after, pageSize), pageSize);
+    }
+
+    private static ResponseEntity<List<StockData>> withNextCursor(List<StockData> page, int pageSize) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header("X-Next-Cursor", page.get(page.size() - 1).getTimestamp().toString());
+        }
+        return response.body(page);
+    }
+
+    private int boundedBarCount(String name, int value) {
+        if (value < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be positive");
+        }
+        return Math.min(value, maxBars);
+    }
+
+    // Recent closed bars of an aggregated timeframe (aggregation.timeframes), oldest first, from memory
+    @GetMapping("/{symbol}/bars/{timeframe}")
+    public ResponseEntity<List<StockData>> getTimeframeBars(@PathVariable String symbol, @PathVariable String timeframe) {
+        Timeframe parsed = parseTimeframe(timeframe);
+        if (!timeframeBarCache.isAggregated(parsed)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(timeframeBarCache.window(symbol, parsed).toStockData(symbol));
     }
 
+    // The bucket being built (closed = false) or the last one completed
+    @GetMapping("/{symbol}/bars/{timeframe}/latest")
+    public ResponseEntity<TimeframeBarDto> getLatestTimeframeBar(@PathVariable String symbol, @PathVariable String timeframe) {
+        TimeframeBarDto latest = timeframeBarCache.latest(symbol, parseTimeframe(timeframe));
+        return latest != null ? ResponseEntity.ok(latest) : ResponseEntity.notFound().build();
+    }
+
+    private static Timeframe parseTimeframe(String timeframe) {
+        try {
+            return Timeframe.parse(timeframe);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    // The indicator endpoints answer from IndicatorResultCache, which stays exact to the latest stored bar
     @GetMapping("/{symbol}/sma/{barCount}")
     public String getSMA(@PathVariable String symbol, @PathVariable int barCount) {
-        List<StockData> stockDataList = stockDataRepository.findBySymbolOrderByTimestampAsc(symbol);
-        if (stockDataList.isEmpty()) {
+        IndicatorResultCache.Result sma = indicator(() -> indicatorResultCache.sma(symbol, barCount));
+        if (sma.barCount() == 0) {
             return "No data found for symbol: " + symbol;
         }
-        if (stockDataList.size() < barCount) {
-            return "Not enough data (" + stockDataList.size() + " bars) to calculate SMA for " + barCount + " bars.";
+        if (sma.barCount() < barCount) {
+            return "Not enough data (" + sma.barCount() + " bars) to calculate SMA for " + barCount + " bars.";
         }
-        double sma = technicalAnalysisService.calculateSMA(stockDataList, barCount);
-        return String.format("SMA for %s over %d bars: %.2f", symbol, barCount, sma);
+        return String.format("SMA for %s over %d bars: %.2f", symbol, barCount, sma.values()[0]);
     }
 
     @GetMapping("/{symbol}/rsi/{barCount}")
     public String getRSI(@PathVariable String symbol, @PathVariable int barCount) {
-        List<StockData> stockDataList = stockDataRepository.findBySymbolOrderByTimestampAsc(symbol);
-        if (stockDataList.isEmpty()) {
+        IndicatorResultCache.Result rsi = indicator(() -> indicatorResultCache.rsi(symbol, barCount));
+        if (rsi.barCount() == 0) {
             return "No data found for symbol: " + symbol;
         }
-        if (stockDataList.size() < barCount) {
-            return "Not enough data (" + stockDataList.size() + " bars) to calculate RSI for " + barCount + " bars.";
+        if (rsi.barCount() < barCount) {
+            return "Not enough data (" + rsi.barCount() + " bars) to calculate RSI for " + barCount + " bars.";
         }
-        double rsi = technicalAnalysisService.calculateRSI(stockDataList, barCount);
-        return String.format("RSI for %s over %d bars: %.2f", symbol, barCount, rsi);
+        return String.format("RSI for %s over %d bars: %.2f", symbol, barCount, rsi.values()[0]);
     }
 
     @GetMapping("/{symbol}/macd/{fastBarCount}/{slowBarCount}/{signalBarCount}")
@@ -81,18 +164,27 @@ public class StockController {
             @PathVariable int fastBarCount,
             @PathVariable int slowBarCount,
             @PathVariable int signalBarCount) {
-        List<StockData> stockDataList = stockDataRepository.findBySymbolOrderByTimestampAsc(symbol);
-        if (stockDataList.isEmpty()) {
+        IndicatorResultCache.Result macd = indicator(() -> indicatorResultCache.macd(symbol, fastBarCount, slowBarCount, signalBarCount));
+        if (macd.barCount() == 0) {
             return "No data found for symbol: " + symbol;
         }
-        if (stockDataList.size() < Math.max(fastBarCount, slowBarCount)) {
-            return "Not enough data (" + stockDataList.size() + " bars) to calculate MACD.";
+        if (macd.barCount() < Math.max(fastBarCount, slowBarCount)) {
+            return "Not enough data (" + macd.barCount() + " bars) to calculate MACD.";
         }
-        double[] macdValues = technicalAnalysisService.calculateMACD(stockDataList, fastBarCount, slowBarCount, signalBarCount);
+        double[] macdValues = macd.values();
         return String.format("MACD for %s (MACD: %.2f, Signal: %.2f, Histogram: %.2f)",
                 symbol, macdValues[0], macdValues[1], macdValues[2]);
     }
 
+    // Bar counts outside 1..stock.query.max-bars are a bad request
+    private static IndicatorResultCache.Result indicator(Supplier<IndicatorResultCache.Result> lookup) {
+        try {
+            return lookup.get();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
     @GetMapping("/{symbol}/fetch")
     public String fetchStockData(@PathVariable String symbol) {
         dataIngestionService.fetchAndPublishStockData(symbol);
@@ -112,6 +204,39 @@ public class StockController {
                 symbol, startDate, endDate, initialCapital, shortSmaPeriod, longSmaPeriod);
     }
 
+    @PostMapping("/{symbol}/backtest/sma-crossover/sweep")
+    public SmaSweepResultDto runSmaCrossoverSweep(@PathVariable String symbol, @RequestBody SmaSweepRequestDto request) {
+        try {
+            return backtestingService.runSmaCrossoverSweep(symbol, request);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @PostMapping("/{symbol}/backtest/sma-crossover/robustness")
+    public RobustnessReportDto runSmaCrossoverRobustness(@PathVariable String symbol, @RequestBody RobustnessRequestDto request) {
+        try {
+            return backtestingService.runSmaCrossoverRobustness(symbol, request);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/backtest/strategy/{strategyConfigId}")
+    public BacktestResult runStrategyBacktest(
+            @PathVariable Long strategyConfigId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "10000.0") double initialCapital,
+            @RequestParam(defaultValue = "500") int lookbackBars) {
+
+        try {
+            return backtestingService.runStrategyBacktest(strategyConfigId, startDate, endDate, initialCapital, lookbackBars);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
     @GetMapping("/backtest/results")
     public List<BacktestResult> getAllBacktestResults() {
         return backtestResultRepository.findAll();
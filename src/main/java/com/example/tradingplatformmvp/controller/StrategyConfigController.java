@@ -5,6 +5,7 @@ import com.example.tradingplatformmvp.service.StrategyConfigService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -20,7 +21,7 @@ public class StrategyConfigController {
 
     @PostMapping
     public ResponseEntity<TradingStrategyConfig> createStrategy(@RequestBody TradingStrategyConfig strategyConfig) {
-        TradingStrategyConfig savedConfig = strategyConfigService.saveStrategy(strategyConfig);
+        TradingStrategyConfig savedConfig = save(strategyConfig);
         return new ResponseEntity<>(savedConfig, HttpStatus.CREATED);
     }
 
@@ -41,7 +42,7 @@ public class StrategyConfigController {
         return strategyConfigService.getStrategyById(id)
                 .map(existingConfig -> {
                     strategyConfig.setId(id);
-                    return new ResponseEntity<>(strategyConfigService.saveStrategy(strategyConfig), HttpStatus.OK);
+                    return new ResponseEntity<>(save(strategyConfig), HttpStatus.OK);
                 })
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
@@ -63,4 +64,13 @@ public class StrategyConfigController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
+
+    // An invalid timeframe is the client's mistake
+    private TradingStrategyConfig save(TradingStrategyConfig strategyConfig) {
+        try {
+            return strategyConfigService.saveStrategy(strategyConfig);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
 }
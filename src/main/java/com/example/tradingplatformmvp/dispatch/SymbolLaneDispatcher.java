@@ -0,0 +1,123 @@
+package com.example.tradingplatformmvp.dispatch;
+
+import com.example.tradingplatformmvp.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Runs per-symbol work on a fixed set of lanes, each a single thread with its own bounded queue. A symbol always
+// hashes to the same lane, so its messages are processed strictly in arrival order while other symbols proceed
+// in parallel on the remaining lanes. A full lane blocks the submitting listener thread, which in turn stops that
+// consumer from polling further records. Every task is tagged with its pipeline stage, and the time it waited in the
+// lane and the time it ran are recorded per stage.
+@Component
+public class SymbolLaneDispatcher {
+
+    private final Lane[] lanes;
+
+    public SymbolLaneDispatcher(MeterRegistry meterRegistry,
+                                PipelineMetrics pipelineMetrics,
+                                @Value("${dispatch.lanes:0}") int laneCount,
+                                @Value("${dispatch.lane-capacity:10000}") int laneCapacity) {
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        this.lanes = new Lane[count];
+        for (int i = 0; i < count; i++) {
+            Lane lane = new Lane(i, laneCapacity, meterRegistry, pipelineMetrics);
+            lanes[i] = lane;
+            lane.thread.start();
+        }
+        System.out.println("Symbol dispatcher started with " + count + " lanes of capacity " + laneCapacity);
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    public int laneOf(String symbol) {
+        int hash = symbol.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    public void dispatch(String stage, String symbol, Runnable task) {
+        Lane lane = lanes[laneOf(symbol)];
+        try {
+            lane.queue.put(new LaneTask(stage, System.nanoTime(), task));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while dispatching work for " + symbol, e);
+        }
+        lane.tasks.increment();
+        // Report the symbol that pushes a lane past three quarters full; it is the likely hot spot
+        int depth = lane.queue.size();
+        if (depth >= lane.highWaterMark && !lane.backlogged) {
+            lane.backlogged = true;
+            System.out.println("Dispatcher lane " + lane.index + " backlogged (" + depth + " queued), last symbol: " + symbol);
+        } else if (depth < lane.highWaterMark / 2 && lane.backlogged) {
+            lane.backlogged = false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Lane lane : lanes) {
+            lane.thread.interrupt();
+        }
+    }
+
+    private record LaneTask(String stage, long enqueuedNanos, Runnable task) {
+    }
+
+    private static final class Lane {
+        private final int index;
+        private final BlockingQueue<LaneTask> queue;
+        private final int highWaterMark;
+        private final Counter tasks;
+        private final PipelineMetrics pipelineMetrics;
+        private final Thread thread;
+        private volatile boolean backlogged;
+
+        private Lane(int index, int capacity, MeterRegistry meterRegistry, PipelineMetrics pipelineMetrics) {
+            this.index = index;
+            this.pipelineMetrics = pipelineMetrics;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.highWaterMark = Math.max(1, capacity * 3 / 4);
+            String lane = String.valueOf(index);
+            Gauge.builder("dispatch.lane.queue.depth", queue, BlockingQueue::size)
+                    .description("Tasks waiting on a symbol dispatcher lane")
+                    .tag("lane", lane)
+                    .register(meterRegistry);
+            this.tasks = Counter.builder("dispatch.lane.tasks")
+                    .description("Tasks dispatched to a symbol dispatcher lane")
+                    .tag("lane", lane)
+                    .register(meterRegistry);
+            this.thread = new Thread(this::run, "symbol-lane-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        private void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                LaneTask task;
+                try {
+                    task = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long started = System.nanoTime();
+                pipelineMetrics.recordQueueWait(task.stage(), started - task.enqueuedNanos());
+                try {
+                    task.task().run();
+                } catch (Throwable e) {
+                    // Errors too: a dead lane would fill up and block every listener routing a symbol to it
+                    System.err.println("Error in dispatcher lane " + index + ": " + e);
+                }
+                pipelineMetrics.recordProcessing(task.stage(), System.nanoTime() - started);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class BacktestJobDto {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+    private String jobId;
+    private String user;
+    private String type;
+    private int priority;
+    private Status status;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long barsProcessed;
+    private long totalBars; // 0 until the job has loaded its bars
+    private double percentComplete;
+    private List<Long> resultIds; // saved BacktestResult rows, once SUCCEEDED
+    private String error;
+}
@@ -0,0 +1,21 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+
+// type SMA_CROSSOVER (symbol, shortSmaPeriod, longSmaPeriod), SMA_SWEEP (symbol, sweep) or STRATEGY
+// (strategyConfigId, lookbackBars). Higher priority runs first; equal priorities run in submission order.
+@Data
+public class BacktestJobRequestDto {
+    private String type;
+    private int priority;
+    private String symbol;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private double initialCapital = 10000.0;
+    private int shortSmaPeriod = 5;
+    private int longSmaPeriod = 20;
+    private Long strategyConfigId;
+    private int lookbackBars = 500;
+    private SmaSweepRequestDto sweep;
+}
@@ -0,0 +1,24 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class ImportReportDto {
+    private String importId;
+    private String source;
+    private LocalDateTime startedAt;
+    private boolean finished;
+    private String error;
+    private long bytesRead;
+    private long totalBytes; // -1 when unknown
+    private long rowsParsed;
+    private long rowsRejected;
+    private long rowsInserted;
+    private long rowsDuplicate;
+    private long rowsArchived;
+    private long rowsNotArchived; // not newer than the archive's last bar for the symbol
+    private long rowsPublished;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
@@ -7,9 +7,11 @@ import java.time.LocalDateTime;
 public class IndicatorDto {
     private String symbol;
     private LocalDateTime timestamp;
+    private double close; // close of the bar the indicators were computed on
     private double sma;
     private double rsi;
     private double macd;
     private double macdSignal;
     private double macdHist;
+    private long originMicros; // when the bar this derives from entered the pipeline, epoch microseconds (0 = unknown)
 }
@@ -0,0 +1,11 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+import java.util.List;
+
+// Every indicator is evaluated for every symbol
+@Data
+public class IndicatorQueryRequestDto {
+    private List<String> symbols;
+    private List<IndicatorSpecDto> indicators;
+}
@@ -0,0 +1,12 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class IndicatorQueryResultDto {
+    private String symbol;
+    private long barCount; // stored bars the values were computed over
+    private List<IndicatorValueDto> indicators; // in request order
+    private String error; // set instead of indicators when the symbol could not be evaluated
+}
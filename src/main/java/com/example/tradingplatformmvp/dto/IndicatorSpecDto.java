@@ -0,0 +1,13 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+
+// type SMA or RSI with barCount, or MACD with fastBarCount, slowBarCount and signalBarCount (12, 26 and 9 when absent)
+@Data
+public class IndicatorSpecDto {
+    private String type;
+    private Integer barCount;
+    private Integer fastBarCount;
+    private Integer slowBarCount;
+    private Integer signalBarCount;
+}
@@ -0,0 +1,11 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+import java.util.Map;
+
+@Data
+public class IndicatorValueDto {
+    private IndicatorSpecDto spec; // as requested, with MACD defaults filled in
+    private boolean ready; // false while the symbol has fewer bars than the indicator needs
+    private Map<String, Double> values; // sma, rsi, or macd + signal + histogram
+}
@@ -0,0 +1,10 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+
+@Data
+public class MarketDataSourceStatusDto {
+    private String name;
+    private boolean running;
+    private long barsPublished;
+}
@@ -9,4 +9,5 @@ public class MlPredictionDto {
     private LocalDateTime timestamp;
     private String prediction;
     private double confidence;
+    private long originMicros; // when the bar this derives from entered the pipeline, epoch microseconds (0 = unknown)
 }
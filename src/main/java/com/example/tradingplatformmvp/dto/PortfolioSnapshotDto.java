@@ -0,0 +1,16 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class PortfolioSnapshotDto {
+    private String accountId;
+    private LocalDateTime timestamp;
+    private double cash;
+    private double reservedCash; // held for orders not settled yet
+    private double positionsValue;
+    private double equity;
+    private List<PositionDto> positions;
+}
@@ -0,0 +1,12 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+
+@Data
+public class PositionDto {
+    private String symbol;
+    private double quantity;
+    private double reservedQuantity;
+    private double lastPrice;
+    private double marketValue;
+}
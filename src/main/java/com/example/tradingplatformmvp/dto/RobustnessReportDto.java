@@ -0,0 +1,27 @@
+package com.example.tradingplatformmvp.dto;
+
+import com.example.tradingplatformmvp.backtest.Distribution;
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+
+// Distributions are of percentages; a distribution is null when there was nothing to sample
+@Data
+public class RobustnessReportDto {
+    private String symbol;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int barCount;
+    private int combinations;
+    private List<WalkForwardWindowDto> windows;
+    private Distribution outOfSampleReturn; // across windows
+    private Distribution outOfSampleMaxDrawdown;
+    private double walkForwardReturn; // all out-of-sample trades in sequence, from the initial capital
+    private double walkForwardMaxDrawdown;
+    private int monteCarloTrades; // the out-of-sample trades being resampled
+    private int monteCarloResamples;
+    private long seed;
+    private Distribution monteCarloReturn;
+    private Distribution monteCarloMaxDrawdown;
+    private long elapsedMillis;
+}
@@ -0,0 +1,28 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+
+// SMA periods as in SmaSweepRequestDto (a list or an inclusive from/to/step range). Windows of inSampleBars followed
+// by outOfSampleBars advance by stepBars (outOfSampleBars when absent). seed makes the Monte Carlo part reproducible;
+// a random one is used and reported when absent.
+@Data
+public class RobustnessRequestDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private double initialCapital = 10000.0;
+    private List<Integer> shortSmaPeriods;
+    private Integer shortSmaFrom;
+    private Integer shortSmaTo;
+    private Integer shortSmaStep;
+    private List<Integer> longSmaPeriods;
+    private Integer longSmaFrom;
+    private Integer longSmaTo;
+    private Integer longSmaStep;
+    private int inSampleBars;
+    private int outOfSampleBars;
+    private Integer stepBars;
+    private int monteCarloResamples = 1000;
+    private Long seed;
+}
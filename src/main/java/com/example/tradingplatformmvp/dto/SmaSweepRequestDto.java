@@ -0,0 +1,21 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+
+// Each period dimension is either an explicit grid (list) or an inclusive from/to/step range
+@Data
+public class SmaSweepRequestDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<Double> initialCapitals;
+    private List<Integer> shortSmaPeriods;
+    private Integer shortSmaFrom;
+    private Integer shortSmaTo;
+    private Integer shortSmaStep;
+    private List<Integer> longSmaPeriods;
+    private Integer longSmaFrom;
+    private Integer longSmaTo;
+    private Integer longSmaStep;
+}
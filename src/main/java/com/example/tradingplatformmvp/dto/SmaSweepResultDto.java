@@ -0,0 +1,17 @@
+package com.example.tradingplatformmvp.dto;
+
+import com.example.tradingplatformmvp.model.BacktestResult;
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class SmaSweepResultDto {
+    private String symbol;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int barCount;
+    private int combinations;
+    private long elapsedMillis;
+    private List<BacktestResult> results; // Ranked by percentage profit/loss, best first
+}
@@ -12,4 +12,5 @@ public class StockDataDto {
     private double low;
     private double close;
     private long volume;
+    private long originMicros; // when the bar entered the pipeline, epoch microseconds (0 = unknown)
 }
\ No newline at end of file
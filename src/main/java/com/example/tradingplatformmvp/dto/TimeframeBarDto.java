@@ -0,0 +1,19 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class TimeframeBarDto {
+    private String symbol;
+    private String timeframe; // e.g. 5m, 1h
+    private LocalDateTime timestamp; // start of the bucket
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private long volume;
+    private int barCount; // raw bars rolled into it so far
+    private boolean closed; // false while the bucket can still change
+    private long originMicros; // when the bar that produced this update entered the pipeline, epoch microseconds (0 = unknown)
+}
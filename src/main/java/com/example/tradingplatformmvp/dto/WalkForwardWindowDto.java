@@ -0,0 +1,18 @@
+package com.example.tradingplatformmvp.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// Returns and drawdown in percent
+@Data
+public class WalkForwardWindowDto {
+    private LocalDateTime inSampleStart;
+    private LocalDateTime outOfSampleStart;
+    private LocalDateTime outOfSampleEnd; // timestamp of the window's last bar
+    private int shortSmaPeriod; // chosen on the in-sample bars
+    private int longSmaPeriod;
+    private double inSampleReturn;
+    private double outOfSampleReturn;
+    private double outOfSampleMaxDrawdown;
+    private int outOfSampleTrades;
+}
@@ -0,0 +1,74 @@
+package com.example.tradingplatformmvp.importer;
+
+import com.example.tradingplatformmvp.dto.ImportReportDto;
+import com.example.tradingplatformmvp.service.BulkImportService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Command-line import: java -jar app.jar --import.file=bars.csv [--import.symbol=AAPL] [--import.archive] [--import.publish]
+// Runs the import once the context is up; main then closes the application with the exit code, non-zero on failure.
+@Component
+public class BulkImportCommand implements ApplicationRunner, ExitCodeGenerator {
+
+    private final BulkImportService bulkImportService;
+    private volatile boolean ran;
+    private volatile int exitCode;
+
+    public BulkImportCommand(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> files = args.getOptionValues("import.file");
+        if (files == null || files.isEmpty()) {
+            return;
+        }
+        String symbol = firstValue(args, "import.symbol");
+        boolean toArchive = flag(args, "import.archive");
+        boolean publish = flag(args, "import.publish");
+
+        ran = true;
+        for (String file : files) {
+            Path path = Path.of(file);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ImportReportDto report = bulkImportService.importCsv(channel, channel.size(), path.toString(), symbol, toArchive, publish);
+                System.out.println("Imported " + path + ": " + report);
+            } catch (Exception e) {
+                System.err.println("Import of " + path + " failed: " + e.getMessage());
+                exitCode = 1;
+            }
+        }
+    }
+
+    // Whether this run was a command-line import, after which the application should exit
+    public boolean ran() {
+        return ran;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private static String firstValue(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    // Present without a value, or with any value other than "false"
+    private static boolean flag(ApplicationArguments args, String name) {
+        if (!args.containsOption(name)) {
+            return false;
+        }
+        String value = firstValue(args, name);
+        return value == null || !value.equalsIgnoreCase("false");
+    }
+}
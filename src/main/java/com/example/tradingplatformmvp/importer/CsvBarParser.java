@@ -0,0 +1,93 @@
+package com.example.tradingplatformmvp.importer;
+
+import com.example.tradingplatformmvp.dto.StockDataDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Parses a block of complete CSV lines into bars. Accepted layouts, with an optional header line:
+//   symbol,timestamp,open,high,low,close,volume
+//   timestamp,open,high,low,close,volume          (symbol supplied by the caller)
+// Timestamps are ISO local date-times, with either 'T' or a space between date and time.
+// Stateless, so chunks of one file can be parsed on several threads at once.
+public final class CsvBarParser {
+
+    public record ParsedChunk(List<StockDataDto> bars, int rejectedLines) {
+    }
+
+    private CsvBarParser() {
+    }
+
+    public static ParsedChunk parse(byte[] buffer, int offset, int length, String defaultSymbol) {
+        List<StockDataDto> bars = new ArrayList<>(length / 48);
+        int rejected = 0;
+        int lineStart = offset;
+        int end = offset + length;
+        for (int i = offset; i <= end; i++) {
+            if (i == end || buffer[i] == '\n') {
+                int lineEnd = i;
+                if (lineEnd > lineStart && buffer[lineEnd - 1] == '\r') {
+                    lineEnd--;
+                }
+                if (lineEnd > lineStart) {
+                    String line = new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.US_ASCII);
+                    if (!isHeader(line)) {
+                        StockDataDto bar = parseLine(line, defaultSymbol);
+                        if (bar != null) {
+                            bars.add(bar);
+                        } else {
+                            rejected++;
+                        }
+                    }
+                }
+                lineStart = i + 1;
+            }
+        }
+        return new ParsedChunk(bars, rejected);
+    }
+
+    private static boolean isHeader(String line) {
+        return line.regionMatches(true, 0, "symbol", 0, 6) || line.regionMatches(true, 0, "timestamp", 0, 9);
+    }
+
+    // Returns null for a malformed line
+    public static StockDataDto parseLine(String line, String defaultSymbol) {
+        String[] fields = new String[7];
+        int count = 0;
+        int start = 0;
+        while (count < fields.length) {
+            int comma = line.indexOf(',', start);
+            fields[count++] = (comma < 0 ? line.substring(start) : line.substring(start, comma)).trim();
+            if (comma < 0) {
+                break;
+            }
+            start = comma + 1;
+        }
+        int first;
+        String symbol;
+        if (count == 7) {
+            symbol = fields[0];
+            first = 1;
+        } else if (count == 6 && defaultSymbol != null) {
+            symbol = defaultSymbol;
+            first = 0;
+        } else {
+            return null;
+        }
+        try {
+            StockDataDto bar = new StockDataDto();
+            bar.setSymbol(symbol);
+            bar.setTimestamp(LocalDateTime.parse(fields[first].replace(' ', 'T')));
+            bar.setOpen(Double.parseDouble(fields[first + 1]));
+            bar.setHigh(Double.parseDouble(fields[first + 2]));
+            bar.setLow(Double.parseDouble(fields[first + 3]));
+            bar.setClose(Double.parseDouble(fields[first + 4]));
+            bar.setVolume((long) Double.parseDouble(fields[first + 5]));
+            return bar;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
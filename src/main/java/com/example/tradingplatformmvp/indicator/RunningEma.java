@@ -0,0 +1,45 @@
+package com.example.tradingplatformmvp.indicator;
+
+// Exponential moving average recurrence, seeded with the first value exactly like ta4j's AbstractEMAIndicator.
+// Use ema(n) for EMAIndicator (2 / (n + 1)) and wilder(n) for MMAIndicator (1 / n), which RSI relies on.
+public final class RunningEma {
+
+    private final double multiplier;
+    private double value;
+    private boolean seeded;
+
+    private RunningEma(double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    public static RunningEma ema(int barCount) {
+        if (barCount < 1) {
+            throw new IllegalArgumentException("EMA bar count must be positive: " + barCount);
+        }
+        return new RunningEma(2.0 / (barCount + 1));
+    }
+
+    public static RunningEma wilder(int barCount) {
+        if (barCount < 1) {
+            throw new IllegalArgumentException("Wilder bar count must be positive: " + barCount);
+        }
+        return new RunningEma(1.0 / barCount);
+    }
+
+    public void update(double input) {
+        if (!seeded) {
+            value = input;
+            seeded = true;
+        } else {
+            value = (input - value) * multiplier + value;
+        }
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.tradingplatformmvp.indicator;
+
+// MACD line (fast EMA - slow EMA) plus its signal EMA, matching ta4j's MACDIndicator and EMAIndicator(macd, signal).
+public final class RunningMacd {
+
+    private final RunningEma fastEma;
+    private final RunningEma slowEma;
+    private final RunningEma signalEma;
+    private double macd;
+
+    public RunningMacd(int fastBarCount, int slowBarCount, int signalBarCount) {
+        this.fastEma = RunningEma.ema(fastBarCount);
+        this.slowEma = RunningEma.ema(slowBarCount);
+        this.signalEma = RunningEma.ema(signalBarCount);
+    }
+
+    public void update(double close) {
+        fastEma.update(close);
+        slowEma.update(close);
+        macd = fastEma.getValue() - slowEma.getValue();
+        signalEma.update(macd);
+    }
+
+    public double getMacd() {
+        return macd;
+    }
+
+    public double getSignal() {
+        return signalEma.getValue();
+    }
+
+    public double getHistogram() {
+        return macd - signalEma.getValue();
+    }
+}
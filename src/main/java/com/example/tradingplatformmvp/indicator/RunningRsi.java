@@ -0,0 +1,40 @@
+package com.example.tradingplatformmvp.indicator;
+
+// Relative strength index with Wilder smoothing of gains and losses, matching ta4j's RSIIndicator.
+public final class RunningRsi {
+
+    private final RunningEma averageGain;
+    private final RunningEma averageLoss;
+    private double previousClose;
+    private boolean hasPrevious;
+
+    public RunningRsi(int barCount) {
+        this.averageGain = RunningEma.wilder(barCount);
+        this.averageLoss = RunningEma.wilder(barCount);
+    }
+
+    public void update(double close) {
+        double gain = 0.0;
+        double loss = 0.0;
+        if (hasPrevious) {
+            if (close > previousClose) {
+                gain = close - previousClose;
+            } else if (close < previousClose) {
+                loss = previousClose - close;
+            }
+        }
+        averageGain.update(gain);
+        averageLoss.update(loss);
+        previousClose = close;
+        hasPrevious = true;
+    }
+
+    public double getValue() {
+        double gain = averageGain.getValue();
+        double loss = averageLoss.getValue();
+        if (loss == 0.0) {
+            return gain == 0.0 ? 0.0 : 100.0;
+        }
+        return 100.0 - (100.0 / (1.0 + gain / loss));
+    }
+}
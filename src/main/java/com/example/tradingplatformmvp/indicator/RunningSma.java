@@ -0,0 +1,50 @@
+package com.example.tradingplatformmvp.indicator;
+
+// Simple moving average over a fixed window, updated in O(1) per value.
+// Mirrors ta4j's SMAIndicator: until the window is full the average is taken over the values seen so far.
+public final class RunningSma {
+
+    private final double[] window;
+    private int count;
+    private int position;
+    private double sum;
+
+    public RunningSma(int barCount) {
+        if (barCount < 1) {
+            throw new IllegalArgumentException("SMA bar count must be positive: " + barCount);
+        }
+        this.window = new double[barCount];
+    }
+
+    public void update(double value) {
+        if (count == window.length) {
+            sum -= window[position];
+        } else {
+            count++;
+        }
+        window[position] = value;
+        sum += value;
+        position++;
+        if (position == window.length) {
+            position = 0;
+            // Re-sum once per full rotation so floating point drift from add/subtract cannot accumulate
+            double exact = 0.0;
+            for (int i = 0; i < count; i++) {
+                exact += window[i];
+            }
+            sum = exact;
+        }
+    }
+
+    public double getValue() {
+        return count == 0 ? 0.0 : sum / count;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getBarCount() {
+        return window.length;
+    }
+}
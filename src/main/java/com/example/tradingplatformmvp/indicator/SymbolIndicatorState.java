@@ -0,0 +1,70 @@
+package com.example.tradingplatformmvp.indicator;
+
+import java.time.LocalDateTime;
+
+// Streaming SMA / RSI / MACD state for one symbol. Each bar costs O(1) regardless of how much history came before it.
+// Not thread-safe on its own; callers serialize updates per symbol.
+public final class SymbolIndicatorState {
+
+    private final RunningSma sma;
+    private final RunningRsi rsi;
+    private final RunningMacd macd;
+    private long barCount;
+    private double lastClose;
+    private LocalDateTime lastTimestamp;
+
+    public SymbolIndicatorState(int smaBarCount, int rsiBarCount, int macdFastBarCount, int macdSlowBarCount, int macdSignalBarCount) {
+        this.sma = new RunningSma(smaBarCount);
+        this.rsi = new RunningRsi(rsiBarCount);
+        this.macd = new RunningMacd(macdFastBarCount, macdSlowBarCount, macdSignalBarCount);
+    }
+
+    // Returns false when the bar is not newer than the last applied one; such bars are ignored because
+    // the recurrences cannot be rewound.
+    public boolean update(LocalDateTime timestamp, double close) {
+        if (lastTimestamp != null && timestamp != null && !timestamp.isAfter(lastTimestamp)) {
+            return false;
+        }
+        sma.update(close);
+        rsi.update(close);
+        macd.update(close);
+        barCount++;
+        lastClose = close;
+        if (timestamp != null) {
+            lastTimestamp = timestamp;
+        }
+        return true;
+    }
+
+    public double getSma() {
+        return sma.getValue();
+    }
+
+    public double getRsi() {
+        return rsi.getValue();
+    }
+
+    public double getMacd() {
+        return macd.getMacd();
+    }
+
+    public double getMacdSignal() {
+        return macd.getSignal();
+    }
+
+    public double getMacdHist() {
+        return macd.getHistogram();
+    }
+
+    public long getBarCount() {
+        return barCount;
+    }
+
+    public double getLastClose() {
+        return lastClose;
+    }
+
+    public LocalDateTime getLastTimestamp() {
+        return lastTimestamp;
+    }
+}
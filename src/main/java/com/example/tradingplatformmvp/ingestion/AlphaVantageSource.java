@@ -0,0 +1,102 @@
+package com.example.tradingplatformmvp.ingestion;
+
+import com.example.tradingplatformmvp.service.DataIngestionService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Polls every symbol of ingestion.symbols, up to ingestion.concurrency at a time, and publishes only the bars that
+// are new since the previous poll. Requests share DataIngestionService's rate limiter, so the universe can be larger
+// than the API allows per interval; a round then simply takes longer. Rounds never overlap.
+@Component
+public class AlphaVantageSource implements MarketDataSource {
+
+    private final DataIngestionService dataIngestionService;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ingestion-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> polling;
+
+    @Value("${ingestion.symbols:}")
+    private List<String> symbols;
+
+    @Value("${ingestion.poll-interval-ms:60000}")
+    private long pollIntervalMillis;
+
+    @Value("${ingestion.concurrency:4}")
+    private int concurrency;
+
+    public AlphaVantageSource(DataIngestionService dataIngestionService) {
+        this.dataIngestionService = dataIngestionService;
+    }
+
+    @Override
+    public String getName() {
+        return DataIngestionService.SOURCE_NAME;
+    }
+
+    @Override
+    public synchronized void start() {
+        List<String> universe = symbols.stream()
+                .map(String::trim)
+                .filter(symbol -> !symbol.isEmpty())
+                .distinct()
+                .toList();
+        if (universe.isEmpty() || isRunning()) {
+            return;
+        }
+        polling = scheduler.scheduleWithFixedDelay(() -> pollSafely(universe), 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        System.out.println("Polling " + universe.size() + " symbols every " + pollIntervalMillis + " ms");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (polling != null) {
+            polling.cancel(true);
+            polling = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return polling != null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // An exception escaping a scheduled task would cancel all later rounds
+    private void pollSafely(List<String> universe) {
+        try {
+            poll(universe);
+        } catch (Exception e) {
+            System.err.println("Ingestion poll failed: " + e.getMessage());
+        }
+    }
+
+    private void poll(List<String> universe) {
+        long started = System.currentTimeMillis();
+        Integer published = Flux.fromIterable(universe)
+                .flatMap(symbol -> dataIngestionService.fetchNewBars(symbol)
+                        .onErrorResume(error -> {
+                            System.err.println("Error ingesting " + symbol + ": " + error.getMessage());
+                            return Mono.just(0);
+                        }), concurrency)
+                .reduce(0, Integer::sum)
+                .block();
+        System.out.println("Ingestion poll of " + universe.size() + " symbols published " + published
+                + " new bars in " + (System.currentTimeMillis() - started) + " ms");
+    }
+}
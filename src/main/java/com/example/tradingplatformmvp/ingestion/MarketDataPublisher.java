@@ -0,0 +1,58 @@
+package com.example.tradingplatformmvp.ingestion;
+
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.metrics.PipelineMetrics;
+import com.example.tradingplatformmvp.websocket.MarketDataFanout;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Publishes the bars of every market data source to Kafka and the WebSocket fan-out. Sends of one batch are
+// queued together, so the producer packs them into as few requests as the partitions allow. When the producer's
+// buffer is full, send() blocks, which throttles a source that outruns the broker. Bars are stamped with their
+// pipeline origin time here, so latencies downstream are measured from the moment a source hands a bar over.
+@Component
+public class MarketDataPublisher {
+
+    private final KafkaTemplate<String, StockDataDto> kafkaTemplate;
+    private final MarketDataFanout marketDataFanout;
+    private final MeterRegistry meterRegistry;
+    private final PipelineMetrics pipelineMetrics;
+    private final ConcurrentHashMap<String, Counter> publishedBySource = new ConcurrentHashMap<>();
+
+    public MarketDataPublisher(KafkaTemplate<String, StockDataDto> kafkaTemplate, MarketDataFanout marketDataFanout, MeterRegistry meterRegistry,
+                               PipelineMetrics pipelineMetrics) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.marketDataFanout = marketDataFanout;
+        this.meterRegistry = meterRegistry;
+        this.pipelineMetrics = pipelineMetrics;
+    }
+
+    public void publish(String source, List<StockDataDto> bars) {
+        long started = System.nanoTime();
+        long originMicros = PipelineMetrics.nowMicros();
+        for (StockDataDto bar : bars) {
+            bar.setOriginMicros(originMicros);
+            kafkaTemplate.send("stock-data-topic", bar.getSymbol(), bar);
+            // Conflated per symbol, so only the newest bar of a batch reaches subscribers
+            marketDataFanout.publish("/topic/stock-data/" + bar.getSymbol(), bar);
+        }
+        pipelineMetrics.recordPublish("ingestion", System.nanoTime() - started);
+        counter(source).increment(bars.size());
+    }
+
+    public long getPublished(String source) {
+        return (long) counter(source).count();
+    }
+
+    private Counter counter(String source) {
+        return publishedBySource.computeIfAbsent(source, name -> Counter.builder("ingestion.bars.published")
+                .description("Bars published to stock-data-topic")
+                .tag("source", name)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.tradingplatformmvp.ingestion;
+
+// A feed of bars into stock-data-topic. Every source publishes through MarketDataPublisher, so the rest of the
+// pipeline cannot tell a live feed from a replay or a synthetic load test.
+public interface MarketDataSource {
+
+    // Used in the REST API, in ingestion.sources.autostart and as the metrics tag
+    String getName();
+
+    void start();
+
+    void stop();
+
+    boolean isRunning();
+}
@@ -0,0 +1,82 @@
+package com.example.tradingplatformmvp.ingestion;
+
+import com.example.tradingplatformmvp.dto.MarketDataSourceStatusDto;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// All market data sources by name; the ones in ingestion.sources.autostart start with the application
+@Component
+public class MarketDataSources {
+
+    private final Map<String, MarketDataSource> sources = new LinkedHashMap<>();
+    private final MarketDataPublisher marketDataPublisher;
+
+    @Value("${ingestion.sources.autostart:alphavantage}")
+    private List<String> autostart;
+
+    public MarketDataSources(List<MarketDataSource> sources, MarketDataPublisher marketDataPublisher) {
+        for (MarketDataSource source : sources) {
+            this.sources.put(source.getName(), source);
+        }
+        this.marketDataPublisher = marketDataPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startConfigured() {
+        for (String name : autostart) {
+            if (name.isBlank()) {
+                continue;
+            }
+            MarketDataSource source = sources.get(name.trim());
+            if (source == null) {
+                System.err.println("Unknown market data source in ingestion.sources.autostart: " + name);
+            } else {
+                source.start();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stopAll() {
+        sources.values().forEach(MarketDataSource::stop);
+    }
+
+    public Optional<MarketDataSourceStatusDto> start(String name) {
+        return Optional.ofNullable(sources.get(name)).map(source -> {
+            source.start();
+            return toStatus(source);
+        });
+    }
+
+    public Optional<MarketDataSourceStatusDto> stop(String name) {
+        return Optional.ofNullable(sources.get(name)).map(source -> {
+            source.stop();
+            return toStatus(source);
+        });
+    }
+
+    public List<MarketDataSourceStatusDto> getStatuses() {
+        List<MarketDataSourceStatusDto> statuses = new ArrayList<>(sources.size());
+        for (MarketDataSource source : sources.values()) {
+            statuses.add(toStatus(source));
+        }
+        return statuses;
+    }
+
+    private MarketDataSourceStatusDto toStatus(MarketDataSource source) {
+        MarketDataSourceStatusDto status = new MarketDataSourceStatusDto();
+        status.setName(source.getName());
+        status.setRunning(source.isRunning());
+        status.setBarsPublished(marketDataPublisher.getPublished(source.getName()));
+        return status;
+    }
+}
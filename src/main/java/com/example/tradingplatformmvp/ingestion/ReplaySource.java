@@ -0,0 +1,201 @@
+package com.example.tradingplatformmvp.ingestion;
+
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.importer.CsvBarParser;
+import com.example.tradingplatformmvp.service.PriceHistoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+// Replays stored bars in timestamp order: from ingestion.replay.file (CSV, layout as for the bulk import, sorted by
+// time) or, when no file is set, from the stored history of ingestion.replay.symbols, merged across symbols.
+//
+// ingestion.replay.speed is replayed time per wall-clock time (60 plays an hour of bars in a minute); 0 publishes as
+// fast as the broker accepts. With rebase-timestamps the first bar is stamped with the current time and the rest keep
+// their original spacing, so the same history can be replayed again: consumers drop bars older than the newest one
+// they have seen for a symbol.
+@Component
+public class ReplaySource extends ThreadedMarketDataSource {
+
+    private final MarketDataPublisher marketDataPublisher;
+    private final PriceHistoryService priceHistoryService;
+
+    @Value("${ingestion.replay.file:}")
+    private String file;
+
+    @Value("${ingestion.replay.symbols:}")
+    private List<String> symbols;
+
+    @Value("${ingestion.replay.from:1970-01-01T00:00:00}")
+    private String from;
+
+    @Value("${ingestion.replay.to:9999-12-31T23:59:59}")
+    private String to;
+
+    @Value("${ingestion.replay.speed:0}")
+    private double speed;
+
+    @Value("${ingestion.replay.rebase-timestamps:false}")
+    private boolean rebaseTimestamps;
+
+    @Value("${ingestion.replay.batch-size:500}")
+    private int batchSize;
+
+    public ReplaySource(MarketDataPublisher marketDataPublisher, PriceHistoryService priceHistoryService) {
+        this.marketDataPublisher = marketDataPublisher;
+        this.priceHistoryService = priceHistoryService;
+    }
+
+    @Override
+    public String getName() {
+        return "replay";
+    }
+
+    @Override
+    protected void run() throws InterruptedException {
+        if (file.isBlank()) {
+            replay(fromDatabase());
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.US_ASCII)) {
+            replay(fromCsv(reader));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Publishes every bar whose replay time has come in one batch, then sleeps until the next one is due
+    private void replay(Iterator<StockDataDto> bars) throws InterruptedException {
+        long startNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime firstTimestamp = null;
+        long replayed = 0;
+        List<StockDataDto> batch = new ArrayList<>(batchSize);
+
+        while (bars.hasNext()) {
+            StockDataDto bar = bars.next();
+            if (firstTimestamp == null) {
+                firstTimestamp = bar.getTimestamp();
+            }
+            Duration offset = Duration.between(firstTimestamp, bar.getTimestamp());
+            if (speed > 0) {
+                long waitNanos = startNanos + (long) (offset.toNanos() / speed) - System.nanoTime();
+                if (waitNanos > 0 && !batch.isEmpty()) {
+                    marketDataPublisher.publish(getName(), batch);
+                    batch.clear();
+                }
+                if (waitNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                }
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (rebaseTimestamps) {
+                bar.setTimestamp(now.plus(offset));
+            }
+            batch.add(bar);
+            replayed++;
+            if (batch.size() >= batchSize) {
+                marketDataPublisher.publish(getName(), batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            marketDataPublisher.publish(getName(), batch);
+        }
+        System.out.println("Replayed " + replayed + " bars in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms");
+    }
+
+    private Iterator<StockDataDto> fromCsv(BufferedReader reader) {
+        return new Iterator<>() {
+            private StockDataDto next = advance();
+
+            private StockDataDto advance() {
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        StockDataDto bar = CsvBarParser.parseLine(line.trim(), null);
+                        if (bar != null) {
+                            return bar;
+                        }
+                    }
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public StockDataDto next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                StockDataDto current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    // k-way merge of the symbols' series by timestamp
+    private Iterator<StockDataDto> fromDatabase() {
+        record Cursor(PriceSeries series, int index) {
+        }
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(
+                (a, b) -> Long.compare(a.series().getTimestamp(a.index()), b.series().getTimestamp(b.index())));
+        for (String symbol : symbols) {
+            if (!symbol.isBlank()) {
+                PriceSeries series = priceHistoryService.load(symbol.trim(), LocalDateTime.parse(from), LocalDateTime.parse(to));
+                if (series.size() > 0) {
+                    cursors.add(new Cursor(series, 0));
+                }
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !cursors.isEmpty();
+            }
+
+            @Override
+            public StockDataDto next() {
+                Cursor cursor = cursors.remove();
+                PriceSeries series = cursor.series();
+                int i = cursor.index();
+                if (i + 1 < series.size()) {
+                    cursors.add(new Cursor(series, i + 1));
+                }
+                StockDataDto bar = new StockDataDto();
+                bar.setSymbol(series.getSymbol());
+                bar.setTimestamp(series.getDateTime(i));
+                bar.setOpen(series.getOpen(i));
+                bar.setHigh(series.getHigh(i));
+                bar.setLow(series.getLow(i));
+                bar.setClose(series.getClose(i));
+                bar.setVolume(series.getVolume(i));
+                return bar;
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.tradingplatformmvp.ingestion;
+
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Random-walk bars for ingestion.synthetic.symbols symbols (SYN0, SYN1, ...) at ingestion.synthetic.ticks-per-second
+// each, for load testing without a market data feed. Every tick interval, the ticks that are due are published as one
+// batch. Timestamps follow the wall clock at millisecond resolution and always increase per symbol. When publishing
+// cannot keep up, the backlog is reported: that is the pipeline's saturation point.
+@Component
+public class SyntheticSource extends ThreadedMarketDataSource {
+
+    private static final long TICK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    // A source that fell behind catches up in batches of at most this many bars
+    private static final int MAX_BATCH = 10_000;
+
+    private final MarketDataPublisher marketDataPublisher;
+
+    @Value("${ingestion.synthetic.symbols:10}")
+    private int symbolCount;
+
+    @Value("${ingestion.synthetic.ticks-per-second:10}")
+    private double ticksPerSecond;
+
+    @Value("${ingestion.synthetic.start-price:100}")
+    private double startPrice;
+
+    // Standard deviation of the log return per tick
+    @Value("${ingestion.synthetic.volatility:0.001}")
+    private double volatility;
+
+    @Value("${ingestion.synthetic.seed:42}")
+    private long seed;
+
+    public SyntheticSource(MarketDataPublisher marketDataPublisher) {
+        this.marketDataPublisher = marketDataPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return "synthetic";
+    }
+
+    @Override
+    protected void run() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] symbols = new String[symbolCount];
+        double[] prices = new double[symbolCount];
+        LocalDateTime[] lastTimestamps = new LocalDateTime[symbolCount];
+        for (int i = 0; i < symbolCount; i++) {
+            symbols[i] = "SYN" + i;
+            prices[i] = startPrice;
+        }
+
+        double ticksPerNano = ticksPerSecond * symbolCount / TimeUnit.SECONDS.toNanos(1);
+        long startNanos = System.nanoTime();
+        long nextReportNanos = startNanos + REPORT_INTERVAL_NANOS;
+        long generated = 0;
+        int nextSymbol = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            long now = System.nanoTime();
+            long due = Math.min(MAX_BATCH, (long) ((now - startNanos) * ticksPerNano) - generated);
+            if (due > 0) {
+                LocalDateTime wallClock = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+                List<StockDataDto> batch = new ArrayList<>((int) due);
+                for (long t = 0; t < due; t++) {
+                    int i = nextSymbol;
+                    nextSymbol = (nextSymbol + 1) % symbolCount;
+                    double open = prices[i];
+                    double close = open * Math.exp(volatility * random.nextGaussian());
+                    prices[i] = close;
+                    LocalDateTime timestamp = lastTimestamps[i] == null || wallClock.isAfter(lastTimestamps[i])
+                            ? wallClock : lastTimestamps[i].plus(1, ChronoUnit.MILLIS);
+                    lastTimestamps[i] = timestamp;
+
+                    StockDataDto bar = new StockDataDto();
+                    bar.setSymbol(symbols[i]);
+                    bar.setTimestamp(timestamp);
+                    bar.setOpen(open);
+                    bar.setHigh(Math.max(open, close) * (1 + Math.abs(volatility * random.nextGaussian()) / 2));
+                    bar.setLow(Math.min(open, close) * (1 - Math.abs(volatility * random.nextGaussian()) / 2));
+                    bar.setClose(close);
+                    bar.setVolume(100 + random.nextInt(10_000));
+                    batch.add(bar);
+                }
+                marketDataPublisher.publish(getName(), batch);
+                generated += due;
+            }
+
+            if (now >= nextReportNanos) {
+                double elapsedSeconds = (now - startNanos) / 1e9;
+                long backlog = (long) ((System.nanoTime() - startNanos) * ticksPerNano) - generated;
+                System.out.println(String.format("Synthetic feed: %.0f bars/s over %.0f s (target %.0f), backlog %d bars",
+                        generated / elapsedSeconds, elapsedSeconds, ticksPerSecond * symbolCount, backlog));
+                nextReportNanos = now + REPORT_INTERVAL_NANOS;
+            }
+
+            long sleepNanos = TICK_INTERVAL_NANOS - (System.nanoTime() - now);
+            if (sleepNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.tradingplatformmvp.ingestion;
+
+// Base for sources that push bars from a thread of their own until they run out or are stopped
+public abstract class ThreadedMarketDataSource implements MarketDataSource {
+
+    private Thread worker;
+
+    @Override
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        worker = new Thread(this::runSafely, "marketdata-" + getName());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return worker != null && worker.isAlive();
+    }
+
+    // Returns when the feed is exhausted; an interrupt means stop
+    protected abstract void run() throws InterruptedException;
+
+    private void runSafely() {
+        System.out.println("Market data source " + getName() + " started");
+        try {
+            run();
+            System.out.println("Market data source " + getName() + " finished");
+        } catch (InterruptedException e) {
+            System.out.println("Market data source " + getName() + " stopped");
+        } catch (Exception e) {
+            System.err.println("Market data source " + getName() + " failed: " + e.getMessage());
+        }
+    }
+}
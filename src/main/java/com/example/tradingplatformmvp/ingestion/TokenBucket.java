@@ -0,0 +1,33 @@
+package com.example.tradingplatformmvp.ingestion;
+
+import java.util.concurrent.TimeUnit;
+
+// Rate limiter shared by all calls to one API: up to burst calls back to back, refilled at permitsPerSecond.
+// reserve() takes a token right away and returns how long the caller has to wait before using it, so waiting
+// callers queue up in order without holding a thread.
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double permitsPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.capacity = burst;
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    // Nanoseconds until the reserved token may be used (0 when one was available)
+    public synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+    }
+}
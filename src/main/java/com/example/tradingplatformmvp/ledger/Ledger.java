@@ -0,0 +1,205 @@
+package com.example.tradingplatformmvp.ledger;
+
+import com.example.tradingplatformmvp.dto.PortfolioSnapshotDto;
+import com.example.tradingplatformmvp.dto.PositionDto;
+import com.example.tradingplatformmvp.model.TradingSignal.SignalType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Simulated accounts holding cash and positions. An order first reserves what it may spend (cash for a BUY,
+// quantity for a SELL) and then settles the fill against that reservation, so concurrent orders of one account
+// can never spend the same cash or sell the same shares twice.
+//
+// Each account is guarded by its own monitor and no operation holds two of them, so fills of different accounts
+// run fully in parallel and there is no lock ordering to get wrong.
+@Component
+public class Ledger {
+
+    public record Fill(String accountId, String symbol, SignalType side, double quantity, double price,
+                       double cashAfter, double equityAfter) {
+    }
+
+    // Small slack for floating point when a fill uses exactly the reserved amount
+    private static final double TOLERANCE = 1e-9;
+
+    private static final class Holding {
+        private double quantity;
+        private double reservedQuantity;
+        private double markPrice;
+    }
+
+    private static final class Account {
+        private final String accountId;
+        private double cash;
+        private double reservedCash;
+        private double positionsValue; // Sum of quantity * markPrice, adjusted incrementally
+        private final Map<String, Holding> holdings = new HashMap<>();
+
+        private Account(String accountId, double cash) {
+            this.accountId = accountId;
+            this.cash = cash;
+        }
+    }
+
+    private final double initialCash;
+    private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+    // symbol -> accounts that have held it, so a price move only visits those accounts
+    private final ConcurrentHashMap<String, Set<Account>> holders = new ConcurrentHashMap<>();
+
+    public Ledger(@Value("${ledger.initial-cash:10000}") double initialCash) {
+        this.initialCash = initialCash;
+    }
+
+    public double getInitialCash() {
+        return initialCash;
+    }
+
+    private Account account(String accountId) {
+        return accounts.computeIfAbsent(accountId, id -> new Account(id, initialCash));
+    }
+
+    // Returns null when the account's unreserved cash is below amount
+    public Reservation reserveCash(String accountId, String symbol, double amount) {
+        Account account = account(accountId);
+        synchronized (account) {
+            if (account.cash - account.reservedCash < amount) {
+                return null;
+            }
+            account.reservedCash += amount;
+        }
+        return new Reservation(accountId, symbol, SignalType.BUY, amount);
+    }
+
+    // Returns null when the account's unreserved quantity of symbol is below quantity
+    public Reservation reserveQuantity(String accountId, String symbol, double quantity) {
+        Account account = account(accountId);
+        synchronized (account) {
+            Holding holding = account.holdings.get(symbol);
+            if (holding == null || holding.quantity - holding.reservedQuantity < quantity) {
+                return null;
+            }
+            holding.reservedQuantity += quantity;
+        }
+        return new Reservation(accountId, symbol, SignalType.SELL, quantity);
+    }
+
+    // Fills quantity at price against the reservation and releases whatever part of it the fill did not use
+    public Fill settle(Reservation reservation, double quantity, double price) {
+        double notional = quantity * price;
+        double used = reservation.getSide() == SignalType.BUY ? notional : quantity;
+        if (quantity < 0 || used > reservation.getAmount() * (1 + TOLERANCE)) {
+            throw new IllegalArgumentException(String.format("Fill of %.6f exceeds the reserved %.6f", used, reservation.getAmount()));
+        }
+        if (!reservation.close()) {
+            throw new IllegalStateException("Reservation already settled or released");
+        }
+        Account account = account(reservation.getAccountId());
+        String symbol = reservation.getSymbol();
+        synchronized (account) {
+            Holding holding = account.holdings.computeIfAbsent(symbol, key -> new Holding());
+            if (reservation.getSide() == SignalType.BUY) {
+                account.reservedCash -= reservation.getAmount();
+                account.cash -= notional;
+                applyFill(account, holding, quantity, price);
+                holders.computeIfAbsent(symbol, key -> ConcurrentHashMap.newKeySet()).add(account);
+            } else {
+                holding.reservedQuantity -= reservation.getAmount();
+                account.cash += notional;
+                applyFill(account, holding, -quantity, price);
+            }
+            return new Fill(account.accountId, symbol, reservation.getSide(), quantity, price,
+                    account.cash, account.cash + account.positionsValue);
+        }
+    }
+
+    // Gives back a reservation that will not be filled
+    public void release(Reservation reservation) {
+        if (!reservation.close()) {
+            return;
+        }
+        Account account = account(reservation.getAccountId());
+        synchronized (account) {
+            if (reservation.getSide() == SignalType.BUY) {
+                account.reservedCash -= reservation.getAmount();
+            } else {
+                account.holdings.get(reservation.getSymbol()).reservedQuantity -= reservation.getAmount();
+            }
+        }
+    }
+
+    // Caller holds the account monitor. Re-marks the holding at the fill price, then applies the quantity change.
+    private static void applyFill(Account account, Holding holding, double quantityDelta, double price) {
+        account.positionsValue += holding.quantity * (price - holding.markPrice);
+        holding.markPrice = price;
+        holding.quantity += quantityDelta;
+        account.positionsValue += quantityDelta * price;
+    }
+
+    public void markToMarket(String symbol, double price) {
+        Set<Account> symbolHolders = holders.get(symbol);
+        if (symbolHolders == null) {
+            return;
+        }
+        for (Account account : symbolHolders) {
+            synchronized (account) {
+                Holding holding = account.holdings.get(symbol);
+                account.positionsValue += holding.quantity * (price - holding.markPrice);
+                holding.markPrice = price;
+            }
+        }
+    }
+
+    public Optional<PortfolioSnapshotDto> snapshot(String accountId) {
+        Account account = accounts.get(accountId);
+        return account == null ? Optional.empty() : Optional.of(snapshot(account));
+    }
+
+    public List<PortfolioSnapshotDto> snapshots() {
+        List<PortfolioSnapshotDto> snapshots = new ArrayList<>(accounts.size());
+        for (Account account : accounts.values()) {
+            snapshots.add(snapshot(account));
+        }
+        snapshots.sort(Comparator.comparing(PortfolioSnapshotDto::getAccountId));
+        return snapshots;
+    }
+
+    // Position values are re-summed exactly here, which also clears any rounding drift of the incremental valuation
+    private static PortfolioSnapshotDto snapshot(Account account) {
+        synchronized (account) {
+            List<PositionDto> positions = new ArrayList<>(account.holdings.size());
+            double exactPositionsValue = 0.0;
+            for (Map.Entry<String, Holding> entry : account.holdings.entrySet()) {
+                Holding holding = entry.getValue();
+                PositionDto positionDto = new PositionDto();
+                positionDto.setSymbol(entry.getKey());
+                positionDto.setQuantity(holding.quantity);
+                positionDto.setReservedQuantity(holding.reservedQuantity);
+                positionDto.setLastPrice(holding.markPrice);
+                positionDto.setMarketValue(holding.quantity * holding.markPrice);
+                positions.add(positionDto);
+                exactPositionsValue += positionDto.getMarketValue();
+            }
+            account.positionsValue = exactPositionsValue;
+
+            PortfolioSnapshotDto snapshot = new PortfolioSnapshotDto();
+            snapshot.setAccountId(account.accountId);
+            snapshot.setTimestamp(LocalDateTime.now());
+            snapshot.setCash(account.cash);
+            snapshot.setReservedCash(account.reservedCash);
+            snapshot.setPositionsValue(account.positionsValue);
+            snapshot.setEquity(account.cash + account.positionsValue);
+            snapshot.setPositions(positions);
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.tradingplatformmvp.ledger;
+
+import com.example.tradingplatformmvp.model.TradingSignal.SignalType;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Cash (BUY) or quantity (SELL) set aside in one account until it is settled or released, exactly once
+public final class Reservation {
+
+    private final String accountId;
+    private final String symbol;
+    private final SignalType side;
+    private final double amount;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    Reservation(String accountId, String symbol, SignalType side, double amount) {
+        this.accountId = accountId;
+        this.symbol = symbol;
+        this.side = side;
+        this.amount = amount;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public SignalType getSide() {
+        return side;
+    }
+
+    // Cash for a BUY, quantity for a SELL
+    public double getAmount() {
+        return amount;
+    }
+
+    boolean close() {
+        return closed.compareAndSet(false, true);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.tradingplatformmvp.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Latency of the tick-to-trade pipeline. A market data source stamps every bar with originMicros when it publishes it,
+// and the stamp is copied onto the indicators, ML predictions and signals derived from that bar.
+//
+//   pipeline.queue.wait{stage}           time a message waited in its symbol lane
+//   pipeline.processing{stage}           handling of one message on its lane
+//   pipeline.strategy.evaluation{strategy}
+//   pipeline.db{stage}                   database writes
+//   pipeline.publish{stage}              Kafka sends plus WebSocket fan-out
+//   pipeline.tick.to.indicators / .persisted / .signal{strategy} / .fill{strategy}   since the bar's origin
+//
+// Percentiles and histogram buckets are switched on for every pipeline.* timer in application.properties, so they
+// show up on /actuator/prometheus.
+@Component
+public class PipelineMetrics {
+
+    private static final Map<String, String> DESCRIPTIONS = Map.of(
+            "pipeline.queue.wait", "Time a message waited in its symbol dispatcher lane",
+            "pipeline.processing", "Time to handle one message on its symbol dispatcher lane",
+            "pipeline.strategy.evaluation", "Time one strategy took to evaluate one bar",
+            "pipeline.db", "Time spent in database writes",
+            "pipeline.publish", "Time to hand results to Kafka and the WebSocket fan-out",
+            "pipeline.tick.to.indicators", "Time from a bar entering the pipeline to its indicators being published",
+            "pipeline.tick.to.persisted", "Time from a bar entering the pipeline to it being stored",
+            "pipeline.tick.to.signal", "Time from a bar entering the pipeline to a signal being published for it",
+            "pipeline.tick.to.fill", "Time from a bar entering the pipeline to the simulated fill of its signal");
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Wall clock rather than nanoTime, because the stamp also passes through other processes (ml_service.py)
+    public static long nowMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000;
+    }
+
+    public void recordQueueWait(String stage, long nanos) {
+        timer("pipeline.queue.wait", "stage", stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordProcessing(String stage, long nanos) {
+        timer("pipeline.processing", "stage", stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordStrategyEvaluation(String strategy, long nanos) {
+        timer("pipeline.strategy.evaluation", "strategy", strategyTag(strategy)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDb(String stage, long nanos) {
+        timer("pipeline.db", "stage", stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPublish(String stage, long nanos) {
+        timer("pipeline.publish", "stage", stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTickToIndicators(long originMicros) {
+        recordSinceOrigin("pipeline.tick.to.indicators", null, null, originMicros);
+    }
+
+    public void recordTickToPersisted(long originMicros) {
+        recordSinceOrigin("pipeline.tick.to.persisted", null, null, originMicros);
+    }
+
+    public void recordTickToSignal(String strategy, long originMicros) {
+        recordSinceOrigin("pipeline.tick.to.signal", "strategy", strategyTag(strategy), originMicros);
+    }
+
+    public void recordTickToFill(String strategy, long originMicros) {
+        recordSinceOrigin("pipeline.tick.to.fill", "strategy", strategyTag(strategy), originMicros);
+    }
+
+    // Messages without a stamp (bulk imports, records from before the stamp existed) are not counted
+    private void recordSinceOrigin(String name, String tagKey, String tagValue, long originMicros) {
+        if (originMicros <= 0) {
+            return;
+        }
+        timer(name, tagKey, tagValue).record(Math.max(0, nowMicros() - originMicros), TimeUnit.MICROSECONDS);
+    }
+
+    private Timer timer(String name, String tagKey, String tagValue) {
+        String key = tagKey == null ? name : name + '|' + tagValue;
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            Timer.Builder builder = Timer.builder(name).description(DESCRIPTIONS.get(name));
+            if (tagKey != null) {
+                builder.tag(tagKey, tagValue);
+            }
+            timer = timers.computeIfAbsent(key, k -> builder.register(meterRegistry));
+        }
+        return timer;
+    }
+
+    private static String strategyTag(String strategy) {
+        return strategy == null || strategy.isBlank() ? "none" : strategy;
+    }
+}
@@ -4,15 +4,22 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "stock_data",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_data_symbol_timestamp", columnNames = {"symbol", "timestamp"}))
 @Data
 public class StockData {
 
+    // Rows are written by StockDataWriter, which reserves ids from this sequence in blocks of allocationSize
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_data_seq")
+    @SequenceGenerator(name = "stock_data_seq", sequenceName = "stock_data_seq", allocationSize = 50)
     private Long id;
     private String symbol;
     private LocalDateTime timestamp;
@@ -22,4 +29,4 @@ public class StockData {
     private double close;
     private long volume;
 
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Transient;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -20,7 +21,11 @@ public class TradingSignal {
     private SignalType signalType;
     private String strategyName;
     private String description;
+    // Origin stamp of the bar that triggered the signal (see StockDataDto); travels on Kafka, not stored
+    @Transient
+    private long originMicros;
 
+    // BinaryWireCodec sends the ordinal: only ever append constants
     public enum SignalType {
         BUY,
         SELL
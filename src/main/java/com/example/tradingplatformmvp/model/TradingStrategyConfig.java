@@ -16,6 +16,7 @@ public class TradingStrategyConfig {
     private String strategyName;
     private String symbol;
     private String parameters; // JSON string to store strategy-specific parameters
+    private String timeframe; // bars the strategy runs on, e.g. 5m or 1h from aggregation.timeframes; null = raw 1m bars
     private boolean enabled;
 
 }
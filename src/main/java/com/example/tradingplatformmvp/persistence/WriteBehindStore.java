@@ -0,0 +1,87 @@
+package com.example.tradingplatformmvp.persistence;
+
+import com.example.tradingplatformmvp.metrics.PipelineMetrics;
+import com.example.tradingplatformmvp.model.SimulatedTrade;
+import com.example.tradingplatformmvp.model.TradingSignal;
+import com.example.tradingplatformmvp.repository.SimulatedTradeRepository;
+import com.example.tradingplatformmvp.repository.TradingSignalRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Write-behind persistence for trading signals and simulated trades, so the signal and order paths publish
+// without waiting for the database. Each entity type has its own queue and flusher.
+@Component
+public class WriteBehindStore {
+
+    private final WriteBehindWriter<TradingSignal> signalWriter;
+    private final WriteBehindWriter<SimulatedTrade> tradeWriter;
+
+    @Value("${writebehind.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMillis;
+
+    public WriteBehindStore(TradingSignalRepository tradingSignalRepository,
+                            SimulatedTradeRepository simulatedTradeRepository,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            PipelineMetrics pipelineMetrics,
+                            @Value("${writebehind.capacity:10000}") int capacity,
+                            @Value("${writebehind.batch-size:200}") int batchSize,
+                            @Value("${writebehind.flush-interval-ms:200}") long flushIntervalMillis,
+                            @Value("${writebehind.overflow:SPILL}") WriteBehindWriter.OverflowPolicy overflowPolicy,
+                            @Value("${writebehind.spill-dir:data/spill}") String spillDirectory,
+                            @Value("${writebehind.recovery-retry-ms:30000}") long recoveryRetryMillis) {
+        Path spillPath = Path.of(spillDirectory);
+        this.signalWriter = new WriteBehindWriter<>("trading-signals", TradingSignal.class,
+                timed("trading-signals", tradingSignalRepository::saveAll, pipelineMetrics),
+                capacity, batchSize, flushIntervalMillis, overflowPolicy, spillPath, recoveryRetryMillis, objectMapper,
+                meterRegistry);
+        this.tradeWriter = new WriteBehindWriter<>("simulated-trades", SimulatedTrade.class,
+                timed("simulated-trades", simulatedTradeRepository::saveAll, pipelineMetrics),
+                capacity, batchSize, flushIntervalMillis, overflowPolicy, spillPath, recoveryRetryMillis, objectMapper,
+                meterRegistry);
+    }
+
+    private static <T> Consumer<List<T>> timed(String stage, Consumer<List<T>> sink, PipelineMetrics pipelineMetrics) {
+        return batch -> {
+            long started = System.nanoTime();
+            sink.accept(batch);
+            pipelineMetrics.recordDb(stage, System.nanoTime() - started);
+        };
+    }
+
+    // Queues a copy: the flusher thread assigns the id on what it saves, while the caller's signal may still be on its
+    // way to Kafka or the WebSocket subscribers
+    public void saveSignal(TradingSignal signal) {
+        signalWriter.submit(copy(signal));
+    }
+
+    private static TradingSignal copy(TradingSignal signal) {
+        TradingSignal copy = new TradingSignal();
+        copy.setId(signal.getId());
+        copy.setSymbol(signal.getSymbol());
+        copy.setTimestamp(signal.getTimestamp());
+        copy.setSignalType(signal.getSignalType());
+        copy.setStrategyName(signal.getStrategyName());
+        copy.setDescription(signal.getDescription());
+        copy.setOriginMicros(signal.getOriginMicros());
+        return copy;
+    }
+
+    public void saveTrade(SimulatedTrade trade) {
+        tradeWriter.submit(trade);
+    }
+
+    // Runs before the repositories and the data source are shut down, since this bean depends on them
+    @PreDestroy
+    public void shutdown() {
+        signalWriter.close(shutdownTimeoutMillis);
+        tradeWriter.close(shutdownTimeoutMillis);
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.tradingplatformmvp.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Writes entities behind the caller: submit() only queues, and one flusher thread hands them to the sink in
+// batches of up to batchSize, or whatever has arrived within flushInterval of the first queued item.
+//
+// When the queue is full, BLOCK makes the caller wait for room and SPILL appends the item to a JSON-lines file
+// instead. Batches the sink rejects are spilled too. Spilled items are written back whenever the queue is idle,
+// including right after startup. Spilled lines that cannot be parsed, and batches the sink has rejected
+// MAX_RECOVERY_ATTEMPTS times in a row, are moved to <name>.jsonl.rejected for a person to look at, so one bad item
+// cannot hold up the rest. On close, everything still queued is flushed before the thread stops.
+public final class WriteBehindWriter<T> {
+
+    public enum OverflowPolicy { BLOCK, SPILL }
+
+    static final int MAX_RECOVERY_ATTEMPTS = 5;
+
+    private final String name;
+    private final Class<T> type;
+    private final Consumer<List<T>> sink;
+    private final BlockingQueue<T> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final Path spillFile;
+    private final Path recoveringFile;
+    private final Path rejectedFile;
+    private final long recoveryRetryNanos;
+    private final ObjectMapper objectMapper;
+    private final Thread flusher;
+    private volatile boolean running = true;
+    private long nextRecoveryNanos; // Flusher thread only
+    private int recoveryFailures; // Flusher thread only: failed attempts at the first unrecovered batch
+
+    private final Counter writtenItems;
+    private final Counter spilledItems;
+    private final Counter rejectedItems;
+
+    public WriteBehindWriter(String name, Class<T> type, Consumer<List<T>> sink, int capacity, int batchSize,
+                             long flushIntervalMillis, OverflowPolicy overflowPolicy, Path spillDirectory,
+                             long recoveryRetryMillis, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.type = type;
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.overflowPolicy = overflowPolicy;
+        this.spillFile = spillDirectory.resolve(name + ".jsonl");
+        this.recoveringFile = spillDirectory.resolve(name + ".jsonl.recovering");
+        this.rejectedFile = spillDirectory.resolve(name + ".jsonl.rejected");
+        this.recoveryRetryNanos = TimeUnit.MILLISECONDS.toNanos(recoveryRetryMillis);
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("writebehind.queue.depth", queue, BlockingQueue::size)
+                .description("Entities waiting to be written")
+                .tag("writer", name)
+                .register(meterRegistry);
+        this.writtenItems = Counter.builder("writebehind.written")
+                .description("Entities written by the write-behind flusher")
+                .tag("writer", name)
+                .register(meterRegistry);
+        this.spilledItems = Counter.builder("writebehind.spilled")
+                .description("Entities spilled to the local file")
+                .tag("writer", name)
+                .register(meterRegistry);
+        this.rejectedItems = Counter.builder("writebehind.rejected")
+                .description("Spilled entities moved aside because they could not be parsed or written")
+                .tag("writer", name)
+                .register(meterRegistry);
+
+        this.flusher = new Thread(this::run, "write-behind-" + name);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public void submit(T item) {
+        if (!running) {
+            spill(List.of(item));
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                queue.put(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                spill(List.of(item));
+            }
+        } else if (!queue.offer(item)) {
+            spill(List.of(item));
+        }
+    }
+
+    // Stops accepting work, flushes what is queued and waits up to timeoutMillis; anything left over is spilled
+    public void close(long timeoutMillis) {
+        running = false;
+        try {
+            flusher.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<T> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+        }
+    }
+
+    private void run() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                T first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    recoverSpill();
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Only close() stops the loop; flush what we have and keep draining
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<T> batch) {
+        try {
+            sink.accept(new ArrayList<>(batch));
+            writtenItems.increment(batch.size());
+        } catch (Exception e) {
+            System.err.println("Write-behind " + name + " failed to write " + batch.size() + " items, spilling: " + e.getMessage());
+            spill(batch);
+        }
+    }
+
+    private synchronized void spill(List<T> items) {
+        try {
+            Files.createDirectories(spillFile.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (T item : items) {
+                    writer.write(objectMapper.writeValueAsString(item));
+                    writer.newLine();
+                }
+            }
+            spilledItems.increment(items.size());
+        } catch (IOException e) {
+            System.err.println("Write-behind " + name + " lost " + items.size() + " items, spill failed: " + e.getMessage());
+        }
+    }
+
+    // Writes spilled items back in batches. A file being recovered is renamed first, so new spills go to a fresh
+    // file. If the sink fails, the lines not yet written are kept and retried after writebehind.recovery-retry-ms;
+    // after MAX_RECOVERY_ATTEMPTS failures the batch is written item by item and the items that still fail are rejected.
+    private void recoverSpill() {
+        if (System.nanoTime() < nextRecoveryNanos) {
+            return;
+        }
+        List<String> lines;
+        try {
+            synchronized (this) {
+                if (!Files.exists(recoveringFile)) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.move(spillFile, recoveringFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            lines = Files.readAllLines(recoveringFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Write-behind " + name + " could not read spilled items: " + e.getMessage());
+            nextRecoveryNanos = System.nanoTime() + recoveryRetryNanos;
+            return;
+        }
+
+        int written = 0;
+        int recovered = 0;
+        try {
+            while (written < lines.size()) {
+                int end = Math.min(lines.size(), written + batchSize);
+                List<String> parsedLines = new ArrayList<>(end - written);
+                List<T> batch = new ArrayList<>(end - written);
+                List<String> unparseable = new ArrayList<>();
+                for (String line : lines.subList(written, end)) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        batch.add(objectMapper.readValue(line, type));
+                        parsedLines.add(line);
+                    } catch (IOException e) {
+                        // A line torn by a crash mid-spill, or an entity whose schema has changed since
+                        unparseable.add(line);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    try {
+                        sink.accept(batch);
+                        writtenItems.increment(batch.size());
+                        recovered += batch.size();
+                    } catch (RuntimeException e) {
+                        if (++recoveryFailures < MAX_RECOVERY_ATTEMPTS) {
+                            throw e;
+                        }
+                        recovered += writeOneByOne(batch, parsedLines);
+                    }
+                }
+                recoveryFailures = 0;
+                if (!unparseable.isEmpty()) {
+                    System.err.println("Write-behind " + name + " rejected " + unparseable.size() + " spilled lines it could not parse");
+                    reject(unparseable);
+                }
+                written = end;
+            }
+            Files.delete(recoveringFile);
+            System.out.println("Write-behind " + name + " recovered " + recovered + " spilled items");
+        } catch (Exception e) {
+            System.err.println("Write-behind " + name + " could not recover spilled items yet: " + e.getMessage());
+            nextRecoveryNanos = System.nanoTime() + recoveryRetryNanos;
+            try {
+                Files.write(recoveringFile, lines.subList(written, lines.size()), StandardCharsets.UTF_8);
+            } catch (IOException rewriteError) {
+                System.err.println("Write-behind " + name + " could not rewrite spilled items: " + rewriteError.getMessage());
+            }
+        }
+    }
+
+    // Last resort for a batch the sink keeps rejecting: the items it accepts on their own are written, the rest rejected
+    private int writeOneByOne(List<T> batch, List<String> lines) throws IOException {
+        List<String> failed = new ArrayList<>();
+        String lastError = null;
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                sink.accept(List.of(batch.get(i)));
+                writtenItems.increment();
+            } catch (RuntimeException e) {
+                failed.add(lines.get(i));
+                lastError = e.getMessage();
+            }
+        }
+        if (!failed.isEmpty()) {
+            System.err.println("Write-behind " + name + " rejected " + failed.size() + " spilled items the sink refused "
+                    + MAX_RECOVERY_ATTEMPTS + " times: " + lastError);
+            reject(failed);
+        }
+        return batch.size() - failed.size();
+    }
+
+    private void reject(List<String> lines) throws IOException {
+        Files.write(rejectedFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        rejectedItems.increment(lines.size());
+    }
+}
@@ -1,9 +1,59 @@
 package com.example.tradingplatformmvp.repository;
 
 import com.example.tradingplatformmvp.model.StockData;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+// All bounded queries below are served by the (symbol, timestamp) unique index on stock_data
 public interface StockDataRepository extends JpaRepository<StockData, Long> {
     List<StockData> findBySymbolOrderByTimestampAsc(String symbol);
-}
\ No newline at end of file
+
+    // Inclusive range
+    List<StockData> findBySymbolAndTimestampBetweenOrderByTimestampAsc(String symbol, LocalDateTime from, LocalDateTime to);
+
+    List<StockData> findBySymbolAndTimestampBetweenOrderByTimestampAsc(String symbol, LocalDateTime from, LocalDateTime to,
+                                                                        Pageable pageable);
+
+    // Keyset pagination within a range: after the cursor (exclusive) up to `to` (inclusive)
+    List<StockData> findBySymbolAndTimestampGreaterThanAndTimestampLessThanEqualOrderByTimestampAsc(
+            String symbol, LocalDateTime after, LocalDateTime to, Pageable pageable);
+
+    // Inclusive range
+    long countBySymbolAndTimestampBetween(String symbol, LocalDateTime from, LocalDateTime to);
+
+    // Keyset pagination: the page after the cursor timestamp (exclusive)
+    List<StockData> findBySymbolAndTimestampAfterOrderByTimestampAsc(String symbol, LocalDateTime after, Pageable pageable);
+
+    List<StockData> findBySymbolOrderByTimestampAsc(String symbol, Pageable pageable);
+
+    List<StockData> findBySymbolOrderByTimestampDesc(String symbol, Pageable pageable);
+
+    // Last count bars, oldest first
+    default List<StockData> findLastBars(String symbol, int count) {
+        List<StockData> newestFirst = new ArrayList<>(findBySymbolOrderByTimestampDesc(symbol, PageRequest.of(0, count)));
+        Collections.reverse(newestFirst);
+        return newestFirst;
+    }
+
+    // First page when cursor is null, otherwise the page following it
+    default List<StockData> findPage(String symbol, LocalDateTime cursor, int limit) {
+        Pageable page = PageRequest.of(0, limit);
+        return cursor == null
+                ? findBySymbolOrderByTimestampAsc(symbol, page)
+                : findBySymbolAndTimestampAfterOrderByTimestampAsc(symbol, cursor, page);
+    }
+
+    // First page of the inclusive range when cursor is null, otherwise the page following it within the range
+    default List<StockData> findRangePage(String symbol, LocalDateTime from, LocalDateTime to, LocalDateTime cursor, int limit) {
+        Pageable page = PageRequest.of(0, limit);
+        return cursor == null || cursor.isBefore(from)
+                ? findBySymbolAndTimestampBetweenOrderByTimestampAsc(symbol, from, to, page)
+                : findBySymbolAndTimestampGreaterThanAndTimestampLessThanEqualOrderByTimestampAsc(symbol, cursor, to, page);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.tradingplatformmvp.repository;
+
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Bulk write path for stock_data. Inserts go out as one JDBC batch per call and are idempotent upserts against the
+// (symbol, timestamp) unique key, so replays of the same bars are skipped by the database instead of duplicated.
+// Hibernate's ddl-auto only creates that key on a fresh table, and gives up with a warning on a table that already
+// holds duplicates, so the writer makes sure it exists before the application starts (after Hibernate's own update).
+@Repository
+@DependsOn("entityManagerFactory")
+public class StockDataWriter {
+
+    static final String UNIQUE_KEY = "uk_stock_data_symbol_timestamp";
+
+    // Must match allocationSize of the stock_data_seq generator on StockData
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO stock_data (id, symbol, timestamp, open, high, low, close, volume) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (symbol, timestamp) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<Consumer<List<StockDataDto>>> listeners = new CopyOnWriteArrayList<>();
+
+    // Pooled id block: ids nextId..blockEnd are reserved for this writer
+    private long nextId;
+    private long blockEnd = -1;
+
+    public StockDataWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Deletes all but the oldest row of each duplicated (symbol, timestamp), then adds the unique key. Refuses to start
+    // when that fails, since every upsert would fail without the key.
+    @PostConstruct
+    public void ensureUniqueKey() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE tablename = 'stock_data' AND indexname = ?", Integer.class, UNIQUE_KEY);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM stock_data a USING stock_data b "
+                    + "WHERE a.symbol = b.symbol AND a.timestamp = b.timestamp AND a.id > b.id");
+            jdbcTemplate.execute("ALTER TABLE stock_data ADD CONSTRAINT " + UNIQUE_KEY + " UNIQUE (symbol, timestamp)");
+            System.out.println("Added " + UNIQUE_KEY + " to stock_data after deleting " + deleted + " duplicate bars");
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("stock_data has no " + UNIQUE_KEY + " and it could not be added", e);
+        }
+    }
+
+    // Told about the bars of each upsert that were inserted, once the transaction has committed. A driver that does
+    // not report per-row counts (SUCCESS_NO_INFO) makes every bar of the batch count as inserted.
+    public void addListener(Consumer<List<StockDataDto>> listener) {
+        listeners.add(listener);
+    }
+
+    // Returns the number of rows inserted (as far as the driver reports); the rest already existed
+    @Transactional
+    public int upsert(List<StockDataDto> bars) {
+        if (bars.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> batchArgs = new ArrayList<>(bars.size());
+        synchronized (this) {
+            for (StockDataDto bar : bars) {
+                batchArgs.add(new Object[]{
+                        nextId(),
+                        bar.getSymbol(),
+                        Timestamp.valueOf(bar.getTimestamp()),
+                        bar.getOpen(),
+                        bar.getHigh(),
+                        bar.getLow(),
+                        bar.getClose(),
+                        bar.getVolume()
+                });
+            }
+        }
+        int[] updateCounts = jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs);
+        int inserted = 0;
+        List<StockDataDto> insertedBars = listeners.isEmpty() ? null : new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] > 0 || updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+                inserted++;
+                if (insertedBars != null) {
+                    insertedBars.add(bars.get(i));
+                }
+            }
+        }
+        if (insertedBars != null && !insertedBars.isEmpty()) {
+            notifyAfterCommit(insertedBars);
+        }
+        return inserted;
+    }
+
+    private void notifyAfterCommit(List<StockDataDto> insertedBars) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            listeners.forEach(listener -> listener.accept(insertedBars));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                listeners.forEach(listener -> listener.accept(insertedBars));
+            }
+        });
+    }
+
+    // As with Hibernate's pooled optimizer, each nextval reserves the ID_BLOCK_SIZE ids ending at that value
+    private long nextId() {
+        if (nextId > blockEnd) {
+            long hi = jdbcTemplate.queryForObject("SELECT nextval('stock_data_seq')", Long.class);
+            while (hi < ID_BLOCK_SIZE) {
+                // The first values of a fresh sequence would produce non-positive ids
+                hi = jdbcTemplate.queryForObject("SELECT nextval('stock_data_seq')", Long.class);
+            }
+            nextId = hi - ID_BLOCK_SIZE + 1;
+            blockEnd = hi;
+        }
+        return nextId++;
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.tradingplatformmvp.serde;
+
+import com.example.tradingplatformmvp.dto.IndicatorDto;
+import com.example.tradingplatformmvp.dto.MlPredictionDto;
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.model.TradingSignal;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Fixed-layout binary encoding of the pipeline messages. All numbers are little-endian.
+//
+//   header   u8 magic (0xB7) | u8 version | u8 type | u8 flags
+//   symbol   flags bit 0 set: u16 index into the shared symbol dictionary
+//            otherwise:       u8 length + UTF-8 bytes
+//   time     i64 epoch milliseconds, the LocalDateTime read as UTC (Long.MIN_VALUE when absent); anything finer than
+//            a millisecond is truncated, so a timestamp with micro- or nanoseconds does not round-trip exactly
+//   body     by type:
+//     1 StockDataDto     f64 open, f64 high, f64 low, f64 close, i64 volume, i64 originMicros
+//     2 IndicatorDto     f64 close, f64 sma, f64 rsi, f64 macd, f64 macdSignal, f64 macdHist, i64 originMicros
+//     3 TradingSignal    i64 id (Long.MIN_VALUE when absent), u8 signalType (SignalType ordinal, 255 absent),
+//                        str16 strategyName, str16 description, i64 originMicros
+//     4 MlPredictionDto  str16 prediction, f64 confidence, i64 originMicros
+//
+// originMicros was appended later; records written before it decode with 0. signalType travels as the enum ordinal, so
+// new SignalType constants may only be added at the end; reordering or removing one changes the meaning of stored
+// and in-flight records.
+//
+// str16 is a u16 byte length (0xFFFF for null) followed by UTF-8 bytes. Fields are only ever appended to a body and
+// readers ignore trailing bytes, so adding a field keeps the version; any other layout change bumps it. The magic
+// byte can never start a JSON document, which lets readers tell the two formats apart per record.
+public final class BinaryWireCodec {
+
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final byte VERSION = 1;
+
+    static final byte TYPE_STOCK_DATA = 1;
+    static final byte TYPE_INDICATOR = 2;
+    static final byte TYPE_TRADING_SIGNAL = 3;
+    static final byte TYPE_ML_PREDICTION = 4;
+
+    private static final byte FLAG_SYMBOL_INDEX = 1;
+    private static final int HEADER_BYTES = 4;
+    private static final int NULL_STRING = 0xFFFF;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private final List<String> dictionary;
+    private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+
+    // dictionary: symbols in the order shared with every other reader and writer; may be empty
+    public BinaryWireCodec(List<String> dictionary) {
+        if (dictionary.size() > 0xFFFF) {
+            throw new IllegalArgumentException("Symbol dictionary holds at most 65535 entries");
+        }
+        this.dictionary = List.copyOf(dictionary);
+        for (int i = 0; i < this.dictionary.size(); i++) {
+            dictionaryIndex.put(this.dictionary.get(i), i);
+        }
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= HEADER_BYTES && data[0] == MAGIC;
+    }
+
+    public static boolean supports(Object value) {
+        return value instanceof StockDataDto || value instanceof IndicatorDto
+                || value instanceof TradingSignal || value instanceof MlPredictionDto;
+    }
+
+    public byte[] encode(Object value) {
+        if (value instanceof StockDataDto bar) {
+            ByteBuffer buffer = start(TYPE_STOCK_DATA, bar.getSymbol(), bar.getTimestamp(), 48);
+            buffer.putDouble(bar.getOpen()).putDouble(bar.getHigh()).putDouble(bar.getLow()).putDouble(bar.getClose())
+                    .putLong(bar.getVolume()).putLong(bar.getOriginMicros());
+            return buffer.array();
+        }
+        if (value instanceof IndicatorDto indicators) {
+            ByteBuffer buffer = start(TYPE_INDICATOR, indicators.getSymbol(), indicators.getTimestamp(), 56);
+            buffer.putDouble(indicators.getClose()).putDouble(indicators.getSma()).putDouble(indicators.getRsi())
+                    .putDouble(indicators.getMacd()).putDouble(indicators.getMacdSignal()).putDouble(indicators.getMacdHist())
+                    .putLong(indicators.getOriginMicros());
+            return buffer.array();
+        }
+        if (value instanceof TradingSignal signal) {
+            byte[] strategyName = utf8(signal.getStrategyName());
+            byte[] description = utf8(signal.getDescription());
+            ByteBuffer buffer = start(TYPE_TRADING_SIGNAL, signal.getSymbol(), signal.getTimestamp(),
+                    9 + 2 + length(strategyName) + 2 + length(description) + 8);
+            buffer.putLong(signal.getId() == null ? NULL_LONG : signal.getId());
+            buffer.put(signal.getSignalType() == null ? (byte) 0xFF : (byte) signal.getSignalType().ordinal());
+            putString16(buffer, strategyName);
+            putString16(buffer, description);
+            buffer.putLong(signal.getOriginMicros());
+            return buffer.array();
+        }
+        if (value instanceof MlPredictionDto prediction) {
+            byte[] label = utf8(prediction.getPrediction());
+            ByteBuffer buffer = start(TYPE_ML_PREDICTION, prediction.getSymbol(), prediction.getTimestamp(), 2 + length(label) + 16);
+            putString16(buffer, label);
+            buffer.putDouble(prediction.getConfidence());
+            buffer.putLong(prediction.getOriginMicros());
+            return buffer.array();
+        }
+        throw new IllegalArgumentException("No binary layout for " + (value == null ? "null" : value.getClass().getName()));
+    }
+
+    public Object decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary wire record");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.get(); // magic
+        byte version = buffer.get();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported binary wire version " + version);
+        }
+        byte type = buffer.get();
+        byte flags = buffer.get();
+        try {
+            String symbol = readSymbol(buffer, flags);
+            LocalDateTime timestamp = readTimestamp(buffer.getLong());
+            switch (type) {
+                case TYPE_STOCK_DATA: {
+                    StockDataDto bar = new StockDataDto();
+                    bar.setSymbol(symbol);
+                    bar.setTimestamp(timestamp);
+                    bar.setOpen(buffer.getDouble());
+                    bar.setHigh(buffer.getDouble());
+                    bar.setLow(buffer.getDouble());
+                    bar.setClose(buffer.getDouble());
+                    bar.setVolume(buffer.getLong());
+                    bar.setOriginMicros(readOptionalLong(buffer));
+                    return bar;
+                }
+                case TYPE_INDICATOR: {
+                    IndicatorDto indicators = new IndicatorDto();
+                    indicators.setSymbol(symbol);
+                    indicators.setTimestamp(timestamp);
+                    indicators.setClose(buffer.getDouble());
+                    indicators.setSma(buffer.getDouble());
+                    indicators.setRsi(buffer.getDouble());
+                    indicators.setMacd(buffer.getDouble());
+                    indicators.setMacdSignal(buffer.getDouble());
+                    indicators.setMacdHist(buffer.getDouble());
+                    indicators.setOriginMicros(readOptionalLong(buffer));
+                    return indicators;
+                }
+                case TYPE_TRADING_SIGNAL: {
+                    TradingSignal signal = new TradingSignal();
+                    signal.setSymbol(symbol);
+                    signal.setTimestamp(timestamp);
+                    long id = buffer.getLong();
+                    signal.setId(id == NULL_LONG ? null : id);
+                    int signalType = buffer.get() & 0xFF;
+                    signal.setSignalType(signalType == 0xFF ? null : TradingSignal.SignalType.values()[signalType]);
+                    signal.setStrategyName(readString16(buffer));
+                    signal.setDescription(readString16(buffer));
+                    signal.setOriginMicros(readOptionalLong(buffer));
+                    return signal;
+                }
+                case TYPE_ML_PREDICTION: {
+                    MlPredictionDto prediction = new MlPredictionDto();
+                    prediction.setSymbol(symbol);
+                    prediction.setTimestamp(timestamp);
+                    prediction.setPrediction(readString16(buffer));
+                    prediction.setConfidence(buffer.getDouble());
+                    prediction.setOriginMicros(readOptionalLong(buffer));
+                    return prediction;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown binary wire type " + type);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated binary wire record of type " + type, e);
+        }
+    }
+
+    private ByteBuffer start(byte type, String symbol, LocalDateTime timestamp, int bodyBytes) {
+        Integer index = symbol == null ? null : dictionaryIndex.get(symbol);
+        byte[] symbolBytes = index == null ? utf8(symbol == null ? "" : symbol) : null;
+        if (symbolBytes != null && symbolBytes.length > 0xFF) {
+            throw new IllegalArgumentException("Symbol longer than 255 bytes: " + symbol);
+        }
+        int symbolLength = index != null ? 2 : 1 + symbolBytes.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + symbolLength + 8 + bodyBytes).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(MAGIC).put(VERSION).put(type).put(index != null ? FLAG_SYMBOL_INDEX : 0);
+        if (index != null) {
+            buffer.putShort((short) index.intValue());
+        } else {
+            buffer.put((byte) symbolBytes.length).put(symbolBytes);
+        }
+        buffer.putLong(timestamp == null ? NULL_LONG : timestamp.toInstant(ZoneOffset.UTC).toEpochMilli());
+        return buffer;
+    }
+
+    private String readSymbol(ByteBuffer buffer, byte flags) {
+        if ((flags & FLAG_SYMBOL_INDEX) != 0) {
+            int index = buffer.getShort() & 0xFFFF;
+            if (index >= dictionary.size()) {
+                throw new IllegalArgumentException("Symbol index " + index + " is outside the configured dictionary");
+            }
+            return dictionary.get(index);
+        }
+        byte[] bytes = new byte[buffer.get() & 0xFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime readTimestamp(long epochMillis) {
+        return epochMillis == NULL_LONG ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    // An appended field that older writers did not produce reads as 0
+    private static long readOptionalLong(ByteBuffer buffer) {
+        return buffer.remaining() >= 8 ? buffer.getLong() : 0;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString16(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putShort((short) NULL_STRING);
+            return;
+        }
+        if (bytes.length >= NULL_STRING) {
+            throw new IllegalArgumentException("String field longer than 65534 bytes");
+        }
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String readString16(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
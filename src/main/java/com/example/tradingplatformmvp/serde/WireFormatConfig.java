@@ -0,0 +1,38 @@
+package com.example.tradingplatformmvp.serde;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Reads the wire.* keys passed through spring.kafka.properties to the (de)serializers
+final class WireFormatConfig {
+
+    static final String BINARY_TOPICS = "wire.binary.topics";
+    static final String SYMBOL_DICTIONARY = "wire.symbol.dictionary";
+
+    private WireFormatConfig() {
+    }
+
+    static Set<String> binaryTopics(Map<String, ?> configs) {
+        return Set.copyOf(split(configs.get(BINARY_TOPICS)));
+    }
+
+    static List<String> symbolDictionary(Map<String, ?> configs) {
+        return split(configs.get(SYMBOL_DICTIONARY));
+    }
+
+    private static List<String> split(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        if (value instanceof List<?> list) {
+            return list.stream().map(String::valueOf).map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toList());
+        }
+        return Arrays.stream(value.toString().split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
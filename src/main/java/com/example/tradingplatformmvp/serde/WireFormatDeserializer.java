@@ -0,0 +1,44 @@
+package com.example.tradingplatformmvp.serde;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.List;
+import java.util.Map;
+
+// Value deserializer that recognises binary records by their magic byte and hands everything else to the JSON
+// deserializer. Decoding by content rather than by topic lets a topic switch formats while old records are still
+// being consumed.
+public class WireFormatDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+    private BinaryWireCodec codec = new BinaryWireCodec(List.of());
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+        codec = new BinaryWireCodec(WireFormatConfig.symbolDictionary(configs));
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (BinaryWireCodec.isBinary(data)) {
+            return codec.decode(data);
+        }
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (BinaryWireCodec.isBinary(data)) {
+            return codec.decode(data);
+        }
+        return jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
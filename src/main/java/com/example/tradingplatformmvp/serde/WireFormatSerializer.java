@@ -0,0 +1,46 @@
+package com.example.tradingplatformmvp.serde;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Value serializer that writes the topics listed in wire.binary.topics with BinaryWireCodec and everything else
+// (and any payload without a binary layout) as JSON with type headers, exactly as before.
+public class WireFormatSerializer implements Serializer<Object> {
+
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+    private Set<String> binaryTopics = Set.of();
+    private BinaryWireCodec codec = new BinaryWireCodec(List.of());
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+        binaryTopics = WireFormatConfig.binaryTopics(configs);
+        codec = new BinaryWireCodec(WireFormatConfig.symbolDictionary(configs));
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data != null && binaryTopics.contains(topic) && BinaryWireCodec.supports(data)) {
+            return codec.encode(data);
+        }
+        return jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data != null && binaryTopics.contains(topic) && BinaryWireCodec.supports(data)) {
+            return codec.encode(data);
+        }
+        return jsonSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
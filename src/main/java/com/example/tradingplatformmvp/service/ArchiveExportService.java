@@ -0,0 +1,47 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.archive.ColumnarArchive;
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.repository.StockDataRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@Service
+public class ArchiveExportService {
+
+    private static final int PAGE_SIZE = 50000;
+
+    private final StockDataRepository stockDataRepository;
+    private final ColumnarArchive columnarArchive;
+
+    public ArchiveExportService(StockDataRepository stockDataRepository, ColumnarArchive columnarArchive) {
+        this.stockDataRepository = stockDataRepository;
+        this.columnarArchive = columnarArchive;
+    }
+
+    // Copies the symbol's stock_data rows that are newer than the archive into it, one keyset page at a time.
+    // Returns the number of bars appended.
+    public long exportSymbol(String symbol) throws IOException {
+        long lastArchived = columnarArchive.lastTimestamp(symbol);
+        LocalDateTime cursor = lastArchived == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(lastArchived, 0, ZoneOffset.UTC);
+        long exported = 0;
+        while (true) {
+            List<StockData> page = stockDataRepository.findPage(symbol, cursor, PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            exported += columnarArchive.append(symbol, PriceSeries.of(symbol, page));
+            cursor = page.get(page.size() - 1).getTimestamp();
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+        System.out.println("Exported " + exported + " bars of " + symbol + " to the columnar archive");
+        return exported;
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.backtest.BacktestProgress;
+import com.example.tradingplatformmvp.dto.BacktestJobDto;
+import com.example.tradingplatformmvp.dto.BacktestJobRequestDto;
+import com.example.tradingplatformmvp.dto.SmaSweepRequestDto;
+import com.example.tradingplatformmvp.model.BacktestResult;
+import com.example.tradingplatformmvp.repository.BacktestResultRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Backtests submitted as jobs and run off the request threads. A fixed pool of backtest.jobs.threads workers (half
+// the CPUs by default) runs them, so research load is bounded however much is queued. Queued jobs start by priority,
+// then submission order, skipping users who already have backtest.jobs.max-running-per-user jobs running; at most
+// backtest.jobs.max-queued jobs wait in all, however many users submit them. Results are
+// saved as BacktestResult rows like the synchronous endpoints'; job status is kept in memory for the last
+// backtest.jobs.retained finished jobs.
+@Service
+public class BacktestJobService {
+
+    public enum JobType { SMA_CROSSOVER, SMA_SWEEP, STRATEGY }
+
+    private final BacktestingService backtestingService;
+    private final BacktestResultRepository backtestResultRepository;
+    private final int threads;
+    private final int maxRunningPerUser;
+    private final int maxQueuedPerUser;
+    private final int maxQueued;
+    private final int retainedJobs;
+    private final ExecutorService executor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<String, Job> jobs = new ConcurrentHashMap<>();
+
+    // Scheduling state, guarded by this
+    private final TreeSet<Job> queued = new TreeSet<>(Comparator.comparingInt((Job job) -> -job.priority)
+            .thenComparingLong(job -> job.sequence));
+    private final Map<String, Integer> queuedByUser = new HashMap<>();
+    private final Map<String, Integer> runningByUser = new HashMap<>();
+    private final ArrayDeque<Job> finished = new ArrayDeque<>();
+    private int running;
+
+    public BacktestJobService(BacktestingService backtestingService,
+                              BacktestResultRepository backtestResultRepository,
+                              @Value("${backtest.jobs.threads:0}") int threads,
+                              @Value("${backtest.jobs.max-running-per-user:1}") int maxRunningPerUser,
+                              @Value("${backtest.jobs.max-queued-per-user:20}") int maxQueuedPerUser,
+                              @Value("${backtest.jobs.max-queued:1000}") int maxQueued,
+                              @Value("${backtest.jobs.retained:1000}") int retainedJobs) {
+        this.backtestingService = backtestingService;
+        this.backtestResultRepository = backtestResultRepository;
+        this.threads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.maxRunningPerUser = Math.max(1, maxRunningPerUser);
+        this.maxQueuedPerUser = maxQueuedPerUser;
+        this.maxQueued = maxQueued;
+        this.retainedJobs = retainedJobs;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "backtest-job-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY); // a hint that request threads come first
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Throws IllegalArgumentException for an invalid request and IllegalStateException when the user already has
+    // backtest.jobs.max-queued-per-user jobs waiting or the queue already holds backtest.jobs.max-queued
+    public BacktestJobDto submit(String user, BacktestJobRequestDto request) {
+        Job job = new Job(UUID.randomUUID().toString(), user, validate(request), request, sequence.getAndIncrement());
+        synchronized (this) {
+            if (queued.size() >= maxQueued) {
+                throw new IllegalStateException("The backtest job queue is full (" + queued.size() + " jobs)");
+            }
+            int userQueued = queuedByUser.getOrDefault(user, 0);
+            if (userQueued >= maxQueuedPerUser) {
+                throw new IllegalStateException("User " + user + " already has " + userQueued + " queued backtest jobs");
+            }
+            queuedByUser.put(user, userQueued + 1);
+            queued.add(job);
+            jobs.put(job.id, job);
+            schedule();
+        }
+        System.out.println("Backtest job " + job.id + " (" + job.type + ", priority " + job.priority + ") submitted by " + user);
+        return job.snapshot();
+    }
+
+    // null when the job is unknown or no longer retained
+    public BacktestJobDto getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        return job == null ? null : job.snapshot();
+    }
+
+    // Newest first; all users when user is null
+    public List<BacktestJobDto> getJobs(String user) {
+        return jobs.values().stream()
+                .filter(job -> user == null || job.user.equals(user))
+                .sorted(Comparator.comparingLong((Job job) -> job.sequence).reversed())
+                .map(Job::snapshot)
+                .toList();
+    }
+
+    // null when the job is unknown; throws IllegalStateException until the job has succeeded
+    public List<BacktestResult> getResults(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        if (job.status != BacktestJobDto.Status.SUCCEEDED) {
+            throw new IllegalStateException("Backtest job " + jobId + " is " + job.status);
+        }
+        return backtestResultRepository.findAllById(job.resultIds);
+    }
+
+    // A queued job is dropped at once; a running one stops at its next progress report. null when the job is unknown.
+    public BacktestJobDto cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (job.status == BacktestJobDto.Status.QUEUED) {
+                queued.remove(job);
+                release(queuedByUser, job.user);
+                job.finish(BacktestJobDto.Status.CANCELLED, null);
+                retain(job);
+            } else if (job.status == BacktestJobDto.Status.RUNNING) {
+                job.progress.cancel();
+            }
+        }
+        return job.snapshot();
+    }
+
+    // Starts queued jobs while there are idle workers, in queue order, skipping users at their running limit
+    private synchronized void schedule() {
+        Iterator<Job> candidates = queued.iterator();
+        while (running < threads && candidates.hasNext()) {
+            Job job = candidates.next();
+            int userRunning = runningByUser.getOrDefault(job.user, 0);
+            if (userRunning >= maxRunningPerUser) {
+                continue;
+            }
+            candidates.remove();
+            release(queuedByUser, job.user);
+            runningByUser.put(job.user, userRunning + 1);
+            running++;
+            job.startedAt = LocalDateTime.now();
+            job.status = BacktestJobDto.Status.RUNNING;
+            executor.execute(() -> run(job));
+        }
+    }
+
+    private void run(Job job) {
+        long started = System.nanoTime();
+        try {
+            List<Long> resultIds = execute(job);
+            job.resultIds = resultIds;
+            job.finish(BacktestJobDto.Status.SUCCEEDED, null);
+        } catch (CancellationException e) {
+            job.finish(BacktestJobDto.Status.CANCELLED, null);
+        } catch (Throwable e) {
+            // Errors too (a StackOverflowError from a deep strategy, say): the job must not stay RUNNING
+            System.err.println("Backtest job " + job.id + " failed: " + e);
+            job.finish(BacktestJobDto.Status.FAILED, e.getMessage() != null ? e.getMessage() : e.toString());
+        } finally {
+            synchronized (this) {
+                running--;
+                release(runningByUser, job.user);
+                retain(job);
+                schedule();
+            }
+        }
+        System.out.println(String.format("Backtest job %s %s after %d bars in %d ms", job.id, job.status,
+                job.progress.getBarsProcessed(), (System.nanoTime() - started) / 1_000_000));
+    }
+
+    private List<Long> execute(Job job) {
+        BacktestJobRequestDto request = job.request;
+        return switch (job.type) {
+            case SMA_CROSSOVER -> List.of(backtestingService.runSmaCrossoverBacktest(request.getSymbol(),
+                    request.getStartDate(), request.getEndDate(), request.getInitialCapital(),
+                    request.getShortSmaPeriod(), request.getLongSmaPeriod(), job.progress).getId());
+            case SMA_SWEEP -> backtestingService.runSmaCrossoverSweep(request.getSymbol(), request.getSweep(), job.progress)
+                    .getResults().stream().map(BacktestResult::getId).toList();
+            case STRATEGY -> List.of(backtestingService.runStrategyBacktest(request.getStrategyConfigId(),
+                    request.getStartDate(), request.getEndDate(), request.getInitialCapital(),
+                    request.getLookbackBars(), job.progress).getId());
+        };
+    }
+
+    // Drops a user's count once it reaches zero, so users who come and go leave nothing behind. Caller holds this.
+    private static void release(Map<String, Integer> counts, String user) {
+        counts.computeIfPresent(user, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    // Finished jobs stay visible until backtest.jobs.retained newer ones have finished. Caller holds this.
+    private void retain(Job job) {
+        finished.addLast(job);
+        while (finished.size() > retainedJobs) {
+            jobs.remove(finished.removeFirst().id);
+        }
+    }
+
+    private JobType validate(BacktestJobRequestDto request) {
+        if (request.getType() == null) {
+            throw new IllegalArgumentException("type is required (SMA_CROSSOVER, SMA_SWEEP or STRATEGY)");
+        }
+        JobType type;
+        try {
+            type = JobType.valueOf(request.getType().trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown backtest job type: " + request.getType());
+        }
+        switch (type) {
+            case SMA_CROSSOVER -> {
+                requireSymbolAndDates(request);
+                if (request.getShortSmaPeriod() < 1 || request.getShortSmaPeriod() >= request.getLongSmaPeriod()) {
+                    throw new IllegalArgumentException("SMA_CROSSOVER needs 0 < shortSmaPeriod < longSmaPeriod");
+                }
+            }
+            case SMA_SWEEP -> {
+                if (request.getSweep() == null) {
+                    throw new IllegalArgumentException("SMA_SWEEP needs a sweep");
+                }
+                // The sweep may leave its range to the job
+                SmaSweepRequestDto sweep = request.getSweep();
+                if (sweep.getStartDate() == null) {
+                    sweep.setStartDate(request.getStartDate());
+                }
+                if (sweep.getEndDate() == null) {
+                    sweep.setEndDate(request.getEndDate());
+                }
+                request.setStartDate(sweep.getStartDate());
+                request.setEndDate(sweep.getEndDate());
+                requireSymbolAndDates(request);
+                backtestingService.validateSweep(sweep);
+            }
+            case STRATEGY -> {
+                if (request.getStrategyConfigId() == null || request.getStartDate() == null || request.getEndDate() == null) {
+                    throw new IllegalArgumentException("STRATEGY needs strategyConfigId, startDate and endDate");
+                }
+                if (request.getLookbackBars() < 1) {
+                    throw new IllegalArgumentException("lookbackBars must be at least 1");
+                }
+            }
+        }
+        return type;
+    }
+
+    private static void requireSymbolAndDates(BacktestJobRequestDto request) {
+        if (request.getSymbol() == null || request.getSymbol().isBlank()
+                || request.getStartDate() == null || request.getEndDate() == null) {
+            throw new IllegalArgumentException(request.getType() + " needs symbol, startDate and endDate");
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final String user;
+        private final JobType type;
+        private final int priority;
+        private final long sequence;
+        private final BacktestJobRequestDto request;
+        private final BacktestProgress progress = new BacktestProgress();
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile BacktestJobDto.Status status = BacktestJobDto.Status.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile List<Long> resultIds;
+        private volatile String error;
+
+        private Job(String id, String user, JobType type, BacktestJobRequestDto request, long sequence) {
+            this.id = id;
+            this.user = user;
+            this.type = type;
+            this.priority = request.getPriority();
+            this.sequence = sequence;
+            this.request = request;
+        }
+
+        private void finish(BacktestJobDto.Status finalStatus, String failure) {
+            error = failure;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        private BacktestJobDto snapshot() {
+            BacktestJobDto dto = new BacktestJobDto();
+            dto.setJobId(id);
+            dto.setUser(user);
+            dto.setType(type.name());
+            dto.setPriority(priority);
+            dto.setStatus(status);
+            dto.setSubmittedAt(submittedAt);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            long total = progress.getTotalBars();
+            long processed = Math.min(progress.getBarsProcessed(), total);
+            dto.setBarsProcessed(processed);
+            dto.setTotalBars(total);
+            dto.setPercentComplete(status == BacktestJobDto.Status.SUCCEEDED ? 100.0 : total == 0 ? 0.0 : processed * 100.0 / total);
+            dto.setResultIds(resultIds);
+            dto.setError(error);
+            return dto;
+        }
+    }
+}
@@ -1,33 +1,78 @@
 package com.example.tradingplatformmvp.service;
 
+import com.example.tradingplatformmvp.aggregation.Timeframe;
+import com.example.tradingplatformmvp.aggregation.TimeframeBarAggregator;
+import com.example.tradingplatformmvp.backtest.BacktestProgress;
+import com.example.tradingplatformmvp.backtest.Distribution;
+import com.example.tradingplatformmvp.backtest.MonteCarloResampler;
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import com.example.tradingplatformmvp.backtest.SmaCrossoverKernel;
+import com.example.tradingplatformmvp.backtest.StrategyReplayEngine;
+import com.example.tradingplatformmvp.backtest.WalkForwardAnalysis;
+import com.example.tradingplatformmvp.dto.RobustnessReportDto;
+import com.example.tradingplatformmvp.dto.RobustnessRequestDto;
+import com.example.tradingplatformmvp.dto.SmaSweepRequestDto;
+import com.example.tradingplatformmvp.dto.SmaSweepResultDto;
+import com.example.tradingplatformmvp.dto.WalkForwardWindowDto;
 import com.example.tradingplatformmvp.model.BacktestResult;
-import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.model.TradingStrategyConfig;
 import com.example.tradingplatformmvp.repository.BacktestResultRepository;
-import com.example.tradingplatformmvp.repository.StockDataRepository;
+import com.example.tradingplatformmvp.strategy.StrategyRegistry;
+import com.example.tradingplatformmvp.strategy.TradingStrategy;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.ta4j.core.BarSeries;
-import org.ta4j.core.indicators.SMAIndicator;
-import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
 
 @Service
 public class BacktestingService {
 
-    private final StockDataRepository stockDataRepository;
-    private final TechnicalAnalysisService technicalAnalysisService;
+    private final PriceHistoryService priceHistoryService;
     private final BacktestResultRepository backtestResultRepository;
+    private final StrategyConfigService strategyConfigService;
+    private final StrategyReplayEngine strategyReplayEngine;
+    private final StrategyRegistry strategyRegistry;
 
-    public BacktestingService(StockDataRepository stockDataRepository,
-                              TechnicalAnalysisService technicalAnalysisService,
-                              BacktestResultRepository backtestResultRepository) {
-        this.stockDataRepository = stockDataRepository;
-        this.technicalAnalysisService = technicalAnalysisService;
+    private static final int MAX_RESAMPLES = 100_000;
+
+    // Parameter sweeps fan out here rather than on the common pool used by request threads
+    private final ForkJoinPool sweepPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    // Upper bound on short periods x long periods x capitals of one sweep, checked before anything is expanded
+    @Value("${backtest.sweep.max-combinations:100000}")
+    private long maxSweepCombinations = 100_000;
+
+    // Upper bound on windows x short periods x long periods of one robustness run, which holds the whole sweep pool
+    // until done. Checked before the grid is expanded.
+    @Value("${backtest.robustness.max-evaluations:20000}")
+    private long maxRobustnessEvaluations = 20_000;
+
+    public BacktestingService(PriceHistoryService priceHistoryService,
+                              BacktestResultRepository backtestResultRepository,
+                              StrategyConfigService strategyConfigService,
+                              StrategyReplayEngine strategyReplayEngine,
+                              StrategyRegistry strategyRegistry) {
+        this.priceHistoryService = priceHistoryService;
         this.backtestResultRepository = backtestResultRepository;
+        this.strategyConfigService = strategyConfigService;
+        this.strategyReplayEngine = strategyReplayEngine;
+        this.strategyRegistry = strategyRegistry;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweepPool.shutdownNow();
     }
 
     public BacktestResult runSmaCrossoverBacktest(
@@ -37,92 +82,310 @@ public class BacktestingService {
             double initialCapital,
             int shortSmaPeriod,
             int longSmaPeriod) {
+        return runSmaCrossoverBacktest(symbol, startDate, endDate, initialCapital, shortSmaPeriod, longSmaPeriod, BacktestProgress.NONE);
+    }
+
+    public BacktestResult runSmaCrossoverBacktest(String symbol, LocalDate startDate, LocalDate endDate, double initialCapital,
+                                                  int shortSmaPeriod, int longSmaPeriod, BacktestProgress progress) {
+        PriceSeries series = loadPriceSeries(symbol, startDate, endDate);
+        progress.addTotalBars(series.size());
+
+        if (series.size() < longSmaPeriod) {
+            return createInsufficientDataResult(symbol, startDate, endDate, initialCapital, "SMA_CROSSOVER");
+        }
+
+        SmaCrossoverKernel.Outcome outcome = SmaCrossoverKernel.run(series, 0, series.size(), shortSmaPeriod, longSmaPeriod,
+                initialCapital, progress);
+        return backtestResultRepository.save(toBacktestResult(symbol, startDate, endDate, outcome, null));
+    }
+
+    // Loads the range once into a shared read-only series, evaluates every (short, long, capital) combination on
+    // the sweep pool and saves the whole ranked table in one batch.
+    public SmaSweepResultDto runSmaCrossoverSweep(String symbol, SmaSweepRequestDto request) {
+        return runSmaCrossoverSweep(symbol, request, BacktestProgress.NONE, true);
+    }
+
+    // The same sweep evaluated on the calling thread, as backtest jobs do to stay within their own pool
+    public SmaSweepResultDto runSmaCrossoverSweep(String symbol, SmaSweepRequestDto request, BacktestProgress progress) {
+        return runSmaCrossoverSweep(symbol, request, progress, false);
+    }
+
+    private SmaSweepResultDto runSmaCrossoverSweep(String symbol, SmaSweepRequestDto request, BacktestProgress progress,
+                                                   boolean parallel) {
+        long started = System.currentTimeMillis();
+        validateSweep(request);
+        PriceSeries series = loadPriceSeries(symbol, request.getStartDate(), request.getEndDate());
+
+        List<Integer> shortPeriods = expandGrid(request.getShortSmaPeriods(), request.getShortSmaFrom(), request.getShortSmaTo(), request.getShortSmaStep());
+        List<Integer> longPeriods = expandGrid(request.getLongSmaPeriods(), request.getLongSmaFrom(), request.getLongSmaTo(), request.getLongSmaStep());
+        List<Double> capitals = sweepCapitals(request);
 
-        List<StockData> historicalData = stockDataRepository.findBySymbolOrderByTimestampAsc(symbol);
+        List<int[]> periodPairs = periodPairs(shortPeriods, longPeriods);
 
-        // Filter data for the specified date range
-        List<StockData> filteredData = historicalData.stream()
-                .filter(data -> !data.getTimestamp().toLocalDate().isBefore(startDate) &&
-                                 !data.getTimestamp().toLocalDate().isAfter(endDate))
+        progress.addTotalBars((long) series.size() * periodPairs.size() * capitals.size());
+        List<SmaCrossoverKernel.Outcome> outcomes;
+        if (parallel) {
+            outcomes = sweepPool.submit(() -> sweep(periodPairs.parallelStream(), series, capitals, progress)).join();
+        } else {
+            outcomes = sweep(periodPairs.stream(), series, capitals, progress);
+        }
+
+        List<BacktestResult> results = new ArrayList<>(outcomes.size());
+        for (SmaCrossoverKernel.Outcome outcome : outcomes) {
+            results.add(toBacktestResult(symbol, request.getStartDate(), request.getEndDate(), outcome,
+                    String.format("SMA sweep: short=%d long=%d", outcome.shortSmaPeriod(), outcome.longSmaPeriod())));
+        }
+
+        SmaSweepResultDto sweepResult = new SmaSweepResultDto();
+        sweepResult.setSymbol(symbol);
+        sweepResult.setStartDate(request.getStartDate());
+        sweepResult.setEndDate(request.getEndDate());
+        sweepResult.setBarCount(series.size());
+        sweepResult.setCombinations(results.size());
+        sweepResult.setResults(backtestResultRepository.saveAll(results));
+        sweepResult.setElapsedMillis(System.currentTimeMillis() - started);
+        return sweepResult;
+    }
+
+    // Throws IllegalArgumentException for a sweep without a date range, with a non-positive capital or with more than
+    // backtest.sweep.max-combinations combinations
+    public void validateSweep(SmaSweepRequestDto request) {
+        requireDateRange(request.getStartDate(), request.getEndDate());
+        List<Double> capitals = sweepCapitals(request);
+        if (capitals.stream().anyMatch(capital -> capital == null || capital <= 0)) {
+            throw new IllegalArgumentException("initialCapitals must be positive");
+        }
+        long shortValues = gridSize(request.getShortSmaPeriods(), request.getShortSmaFrom(), request.getShortSmaTo(), request.getShortSmaStep());
+        long longValues = gridSize(request.getLongSmaPeriods(), request.getLongSmaFrom(), request.getLongSmaTo(), request.getLongSmaStep());
+        // Each factor is checked first so the product cannot overflow
+        if (shortValues > maxSweepCombinations || longValues > maxSweepCombinations
+                || shortValues * longValues * capitals.size() > maxSweepCombinations) {
+            throw new IllegalArgumentException("The sweep has more than " + maxSweepCombinations + " combinations");
+        }
+    }
+
+    private static List<Double> sweepCapitals(SmaSweepRequestDto request) {
+        return request.getInitialCapitals() == null || request.getInitialCapitals().isEmpty()
+                ? List.of(10000.0) : request.getInitialCapitals();
+    }
+
+    private static void requireDateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("startDate and endDate are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate is before startDate");
+        }
+    }
+
+    private static List<SmaCrossoverKernel.Outcome> sweep(Stream<int[]> periodPairs, PriceSeries series, List<Double> capitals,
+                                                          BacktestProgress progress) {
+        return periodPairs
+                .flatMap(pair -> capitals.stream()
+                        .map(capital -> SmaCrossoverKernel.run(series, 0, series.size(), pair[0], pair[1], capital, progress)))
+                .sorted(Comparator.comparingDouble(SmaCrossoverKernel.Outcome::percentageProfitLoss).reversed())
                 .collect(Collectors.toList());
+    }
 
-        if (filteredData.size() < longSmaPeriod) {
-            return createInsufficientDataResult(symbol, startDate, endDate, initialCapital, "SMA_CROSSOVER");
+    // Walk-forward optimisation of the SMA crossover over the range, then a Monte Carlo bootstrap of the resulting
+    // out-of-sample trades. The range is loaded once; windows, pairs and resamples all run on the sweep pool over it.
+    public RobustnessReportDto runSmaCrossoverRobustness(String symbol, RobustnessRequestDto request) {
+        long started = System.currentTimeMillis();
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            throw new IllegalArgumentException("startDate and endDate are required");
+        }
+        if (request.getInitialCapital() <= 0) {
+            throw new IllegalArgumentException("initialCapital must be positive");
+        }
+        int inSampleBars = request.getInSampleBars();
+        int outOfSampleBars = request.getOutOfSampleBars();
+        int stepBars = request.getStepBars() == null ? outOfSampleBars : request.getStepBars();
+        if (inSampleBars < 1 || outOfSampleBars < 1 || stepBars < 1) {
+            throw new IllegalArgumentException("inSampleBars, outOfSampleBars and stepBars must be positive");
+        }
+        if ((long) inSampleBars + outOfSampleBars > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("inSampleBars + outOfSampleBars is too large");
+        }
+        if (request.getMonteCarloResamples() < 0 || request.getMonteCarloResamples() > MAX_RESAMPLES) {
+            throw new IllegalArgumentException("monteCarloResamples must be between 0 and " + MAX_RESAMPLES);
+        }
+        // Sized before anything is expanded; each factor is checked first so the product cannot overflow
+        long shortValues = gridSize(request.getShortSmaPeriods(), request.getShortSmaFrom(), request.getShortSmaTo(), request.getShortSmaStep());
+        long longValues = gridSize(request.getLongSmaPeriods(), request.getLongSmaFrom(), request.getLongSmaTo(), request.getLongSmaStep());
+        if (shortValues > maxRobustnessEvaluations || longValues > maxRobustnessEvaluations
+                || shortValues * longValues > maxRobustnessEvaluations) {
+            throw new IllegalArgumentException(String.format("%d short x %d long SMA periods is more than %d evaluations",
+                    shortValues, longValues, maxRobustnessEvaluations));
+        }
+        List<int[]> periodPairs = periodPairs(
+                expandGrid(request.getShortSmaPeriods(), request.getShortSmaFrom(), request.getShortSmaTo(), request.getShortSmaStep()),
+                expandGrid(request.getLongSmaPeriods(), request.getLongSmaFrom(), request.getLongSmaTo(), request.getLongSmaStep()));
+        if (periodPairs.isEmpty()) {
+            throw new IllegalArgumentException("No (short, long) SMA pair with 0 < short < long");
         }
 
-        BarSeries series = technicalAnalysisService.buildBarSeries(filteredData);
-        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        PriceSeries series = loadPriceSeries(symbol, request.getStartDate(), request.getEndDate());
+        int windowCount = WalkForwardAnalysis.windowCount(series.size(), inSampleBars, outOfSampleBars, stepBars);
+        if (windowCount == 0) {
+            throw new IllegalArgumentException("The range has " + series.size() + " bars, fewer than one window of "
+                    + (inSampleBars + outOfSampleBars));
+        }
+        if (windowCount * shortValues * longValues > maxRobustnessEvaluations) {
+            throw new IllegalArgumentException(String.format("%d windows x %d short x %d long SMA periods is more than %d "
+                    + "evaluations; narrow the grid or raise stepBars", windowCount, shortValues, longValues,
+                    maxRobustnessEvaluations));
+        }
+        double initialCapital = request.getInitialCapital();
+        long seed = request.getSeed() != null ? request.getSeed() : new SplittableRandom().nextLong();
 
-        SMAIndicator shortSma = new SMAIndicator(closePrice, shortSmaPeriod);
-        SMAIndicator longSma = new SMAIndicator(closePrice, longSmaPeriod);
+        List<WalkForwardAnalysis.Window> windows = sweepPool.submit(() -> WalkForwardAnalysis.run(
+                series, periodPairs, initialCapital, inSampleBars, outOfSampleBars, stepBars)).join();
+        double[] outOfSampleTrades = windows.stream()
+                .flatMapToDouble(window -> DoubleStream.of(window.outOfSampleTrades()))
+                .toArray();
+        MonteCarloResampler.Outcome monteCarlo = sweepPool.submit(() -> MonteCarloResampler.run(
+                outOfSampleTrades, initialCapital, request.getMonteCarloResamples(), seed)).join();
 
-        double currentCapital = initialCapital;
-        boolean inTrade = false;
-        double buyPrice = 0.0;
-        int totalTrades = 0;
-        int winningTrades = 0;
-        int losingTrades = 0;
+        RobustnessReportDto report = new RobustnessReportDto();
+        report.setSymbol(symbol);
+        report.setStartDate(request.getStartDate());
+        report.setEndDate(request.getEndDate());
+        report.setBarCount(series.size());
+        report.setCombinations(periodPairs.size());
+        report.setWindows(windows.stream().map(window -> toWindowDto(series, window)).toList());
+        report.setOutOfSampleReturn(Distribution.of(windows.stream().mapToDouble(WalkForwardAnalysis.Window::outOfSampleReturn).toArray()));
+        report.setOutOfSampleMaxDrawdown(Distribution.of(windows.stream().mapToDouble(WalkForwardAnalysis.Window::outOfSampleMaxDrawdown).toArray()));
+        report.setWalkForwardReturn(DoubleStream.of(outOfSampleTrades).sum() / initialCapital * 100);
+        report.setWalkForwardMaxDrawdown(MonteCarloResampler.maxDrawdownPercent(initialCapital, outOfSampleTrades));
+        report.setMonteCarloTrades(outOfSampleTrades.length);
+        report.setMonteCarloResamples(request.getMonteCarloResamples());
+        report.setSeed(seed);
+        if (outOfSampleTrades.length > 0) {
+            report.setMonteCarloReturn(Distribution.of(monteCarlo.returns()));
+            report.setMonteCarloMaxDrawdown(Distribution.of(monteCarlo.maxDrawdowns()));
+        }
+        report.setElapsedMillis(System.currentTimeMillis() - started);
+        System.out.println(String.format("Robustness of SMA crossover on %s: %d windows x %d pairs, %d out-of-sample trades, %d resamples in %d ms",
+                symbol, windows.size(), periodPairs.size(), outOfSampleTrades.length, request.getMonteCarloResamples(),
+                report.getElapsedMillis()));
+        return report;
+    }
 
-        for (int i = longSmaPeriod - 1; i < series.getBarCount(); i++) {
-            double currentShortSma = shortSma.getValue(i).doubleValue();
-            double currentLongSma = longSma.getValue(i).doubleValue();
-            double previousShortSma = shortSma.getValue(i - 1).doubleValue();
-            double previousLongSma = longSma.getValue(i - 1).doubleValue();
-            double currentClosePrice = series.getBar(i).getClosePrice().doubleValue();
+    private static WalkForwardWindowDto toWindowDto(PriceSeries series, WalkForwardAnalysis.Window window) {
+        WalkForwardWindowDto dto = new WalkForwardWindowDto();
+        dto.setInSampleStart(series.getDateTime(window.inSampleFrom()));
+        dto.setOutOfSampleStart(series.getDateTime(window.outOfSampleFrom()));
+        dto.setOutOfSampleEnd(series.getDateTime(window.outOfSampleTo() - 1));
+        dto.setShortSmaPeriod(window.shortSmaPeriod());
+        dto.setLongSmaPeriod(window.longSmaPeriod());
+        dto.setInSampleReturn(window.inSampleReturn());
+        dto.setOutOfSampleReturn(window.outOfSampleReturn());
+        dto.setOutOfSampleMaxDrawdown(window.outOfSampleMaxDrawdown());
+        dto.setOutOfSampleTrades(window.outOfSampleTrades().length);
+        return dto;
+    }
 
-            // Buy signal: Short SMA crosses above Long SMA
-            if (currentShortSma > currentLongSma && previousShortSma <= previousLongSma && !inTrade) {
-                buyPrice = currentClosePrice;
-                inTrade = true;
-                // System.out.println("BUY at " + buyPrice + " on " + series.getBar(i).getEndTime());
-            }
-            // Sell signal: Short SMA crosses below Long SMA
-            else if (currentShortSma < currentLongSma && previousShortSma >= previousLongSma && inTrade) {
-                double sellPrice = currentClosePrice;
-                double profitLoss = sellPrice - buyPrice;
-                currentCapital += profitLoss; // Assuming 1 unit trade
-                totalTrades++;
-                if (profitLoss > 0) {
-                    winningTrades++;
-                } else {
-                    losingTrades++;
+    // Replays the configured strategy with its stored parameters over the config's symbol
+    public BacktestResult runStrategyBacktest(Long strategyConfigId, LocalDate startDate, LocalDate endDate,
+                                              double initialCapital, int lookbackBars) {
+        return runStrategyBacktest(strategyConfigId, startDate, endDate, initialCapital, lookbackBars, BacktestProgress.NONE);
+    }
+
+    public BacktestResult runStrategyBacktest(Long strategyConfigId, LocalDate startDate, LocalDate endDate,
+                                              double initialCapital, int lookbackBars, BacktestProgress progress) {
+        TradingStrategyConfig config = strategyConfigService.getStrategyById(strategyConfigId)
+                .orElseThrow(() -> new IllegalArgumentException("No strategy config with id " + strategyConfigId));
+        TradingStrategy strategy = strategyRegistry.resolveStrategy(config.getStrategyName());
+        PriceSeries series = loadPriceSeries(config.getSymbol(), startDate, endDate);
+        Timeframe timeframe = Timeframe.parse(config.getTimeframe());
+        if (!timeframe.isBase()) {
+            // Same buckets the live aggregation builds, so the replay sees the bars the strategy trades on
+            series = TimeframeBarAggregator.resample(series, timeframe);
+        }
+        progress.addTotalBars(series.size());
+
+        StrategyReplayEngine.ReplayOutcome outcome = strategyReplayEngine.replay(
+                strategy, config.getParameters(), series, initialCapital, lookbackBars, progress);
+
+        BacktestResult result = new BacktestResult();
+        result.setStrategyName(outcome.strategyName());
+        result.setSymbol(config.getSymbol());
+        result.setStartDate(startDate);
+        result.setEndDate(endDate);
+        result.setInitialCapital(initialCapital);
+        result.setFinalCapital(outcome.finalCapital());
+        result.setTotalProfitLoss(outcome.finalCapital() - initialCapital);
+        result.setPercentageProfitLoss(((outcome.finalCapital() - initialCapital) / initialCapital) * 100);
+        result.setTotalTrades(outcome.totalTrades());
+        result.setWinningTrades(outcome.winningTrades());
+        result.setLosingTrades(outcome.losingTrades());
+        result.setBacktestRunTime(LocalDateTime.now());
+        String history = outcome.lookbackBars() > 0
+                ? String.format("each bar evaluated over the last %d bars only", outcome.lookbackBars())
+                : "incremental, full history";
+        result.setDescription(String.format("Replay of config %d over %d %s bars (%d signals, %s), parameters: %s",
+                config.getId(), outcome.barsProcessed(), timeframe, outcome.signals(), history, config.getParameters()));
+        return backtestResultRepository.save(result);
+    }
+
+    public PriceSeries loadPriceSeries(String symbol, LocalDate startDate, LocalDate endDate) {
+        return priceHistoryService.load(symbol, startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX));
+    }
+
+    private static List<int[]> periodPairs(List<Integer> shortPeriods, List<Integer> longPeriods) {
+        List<int[]> periodPairs = new ArrayList<>();
+        for (int shortPeriod : shortPeriods) {
+            for (int longPeriod : longPeriods) {
+                if (shortPeriod > 0 && shortPeriod < longPeriod) {
+                    periodPairs.add(new int[]{shortPeriod, longPeriod});
                 }
-                inTrade = false;
-                // System.out.println("SELL at " + sellPrice + " on " + series.getBar(i).getEndTime() + " P/L: " + profitLoss);
             }
         }
+        return periodPairs;
+    }
 
-        // If still in trade at the end, close the trade at the last close price
-        if (inTrade) {
-            double sellPrice = series.getBar(series.getEndIndex()).getClosePrice().doubleValue();
-            double profitLoss = sellPrice - buyPrice;
-            currentCapital += profitLoss;
-            totalTrades++;
-            if (profitLoss > 0) {
-                winningTrades++;
-            } else {
-                losingTrades++;
-            }
+    private static List<Integer> expandGrid(List<Integer> values, Integer from, Integer to, Integer step) {
+        if (values != null && !values.isEmpty()) {
+            return values;
+        }
+        long size = gridSize(values, from, to, step);
+        int increment = step == null || step < 1 ? 1 : step;
+        List<Integer> expanded = new ArrayList<>((int) size);
+        for (long i = 0; i < size; i++) {
+            expanded.add((int) (from + i * increment));
         }
+        return expanded;
+    }
 
-        double totalProfitLoss = currentCapital - initialCapital;
-        double percentageProfitLoss = (totalProfitLoss / initialCapital) * 100;
+    // Number of values expandGrid would produce, without producing them
+    private static long gridSize(List<Integer> values, Integer from, Integer to, Integer step) {
+        if (values != null && !values.isEmpty()) {
+            return values.size();
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Each SMA period needs either a list of values or a from/to range");
+        }
+        int increment = step == null || step < 1 ? 1 : step;
+        return to < from ? 0 : ((long) to - from) / increment + 1;
+    }
 
+    private BacktestResult toBacktestResult(String symbol, LocalDate startDate, LocalDate endDate,
+                                            SmaCrossoverKernel.Outcome outcome, String description) {
         BacktestResult result = new BacktestResult();
         result.setStrategyName("SMA_CROSSOVER");
         result.setSymbol(symbol);
         result.setStartDate(startDate);
         result.setEndDate(endDate);
-        result.setInitialCapital(initialCapital);
-        result.setFinalCapital(currentCapital);
-        result.setTotalProfitLoss(totalProfitLoss);
-        result.setPercentageProfitLoss(percentageProfitLoss);
-        result.setTotalTrades(totalTrades);
-        result.setWinningTrades(winningTrades);
-        result.setLosingTrades(losingTrades);
+        result.setInitialCapital(outcome.initialCapital());
+        result.setFinalCapital(outcome.finalCapital());
+        result.setTotalProfitLoss(outcome.totalProfitLoss());
+        result.setPercentageProfitLoss(outcome.percentageProfitLoss());
+        result.setTotalTrades(outcome.totalTrades());
+        result.setWinningTrades(outcome.winningTrades());
+        result.setLosingTrades(outcome.losingTrades());
         result.setBacktestRunTime(LocalDateTime.now());
-
-        return backtestResultRepository.save(result);
+        result.setDescription(outcome.sufficientData() ? description : "Insufficient data for backtesting.");
+        return result;
     }
 
     private BacktestResult createInsufficientDataResult(String symbol, LocalDate startDate, LocalDate endDate, double initialCapital, String strategyName) {
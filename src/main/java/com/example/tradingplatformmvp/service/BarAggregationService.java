@@ -0,0 +1,101 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.aggregation.Timeframe;
+import com.example.tradingplatformmvp.aggregation.TimeframeBarAggregator;
+import com.example.tradingplatformmvp.aggregation.TimeframeBarCache;
+import com.example.tradingplatformmvp.cache.BarCache;
+import com.example.tradingplatformmvp.cache.BarRingBuffer;
+import com.example.tradingplatformmvp.cache.BarWindow;
+import com.example.tradingplatformmvp.dispatch.SymbolLaneDispatcher;
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.dto.TimeframeBarDto;
+import com.example.tradingplatformmvp.metrics.PipelineMetrics;
+import com.example.tradingplatformmvp.websocket.MarketDataFanout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Rolls the raw bars of stock-data-topic into every timeframe of aggregation.timeframes as they arrive, so a
+// strategy on 5m or 1h bars never resamples history on a tick. Closed bars go to TimeframeBarCache and to the
+// timeframe's topic (stock-bars-<timeframe>-topic); every update, open or closed, goes to the WebSocket topic
+// /topic/bars/<timeframe>/<symbol>.
+@Service
+public class BarAggregationService {
+
+    private final TimeframeBarCache timeframeBarCache;
+    private final BarCache barCache;
+    private final KafkaTemplate<String, TimeframeBarDto> kafkaTemplate;
+    private final MarketDataFanout marketDataFanout;
+    private final SymbolLaneDispatcher symbolLaneDispatcher;
+    private final PipelineMetrics pipelineMetrics;
+
+    // One aggregator per configured timeframe, per symbol; only touched on the symbol's dispatcher lane
+    private final ConcurrentHashMap<String, TimeframeBarAggregator[]> aggregators = new ConcurrentHashMap<>();
+
+    // Length of a raw bar; a bucket closes right after its last raw bar. 0 closes it on the next bucket's first bar.
+    @Value("${aggregation.base-bar-seconds:60}")
+    private long baseBarSeconds;
+
+    public BarAggregationService(TimeframeBarCache timeframeBarCache, BarCache barCache,
+                                 KafkaTemplate<String, TimeframeBarDto> kafkaTemplate, MarketDataFanout marketDataFanout,
+                                 SymbolLaneDispatcher symbolLaneDispatcher, PipelineMetrics pipelineMetrics) {
+        this.timeframeBarCache = timeframeBarCache;
+        this.barCache = barCache;
+        this.kafkaTemplate = kafkaTemplate;
+        this.marketDataFanout = marketDataFanout;
+        this.symbolLaneDispatcher = symbolLaneDispatcher;
+        this.pipelineMetrics = pipelineMetrics;
+    }
+
+    @KafkaListener(topics = "stock-data-topic", groupId = "trading-platform-aggregation", concurrency = "${kafka.listener.concurrency:1}")
+    public void consumeStockData(StockDataDto stockDataDto) {
+        if (timeframeBarCache.getTimeframes().isEmpty()) {
+            return;
+        }
+        symbolLaneDispatcher.dispatch("aggregation", stockDataDto.getSymbol(), () -> aggregate(stockDataDto));
+    }
+
+    private void aggregate(StockDataDto bar) {
+        long epochSecond = BarRingBuffer.toEpochSecond(bar.getTimestamp());
+        TimeframeBarAggregator[] symbolAggregators = aggregators.computeIfAbsent(bar.getSymbol(), symbol -> seed(symbol, epochSecond));
+
+        long publishStarted = System.nanoTime();
+        for (TimeframeBarAggregator aggregator : symbolAggregators) {
+            List<TimeframeBarDto> updates = aggregator.onBar(epochSecond, bar.getOpen(), bar.getHigh(), bar.getLow(),
+                    bar.getClose(), bar.getVolume(), bar.getOriginMicros());
+            for (TimeframeBarDto update : updates) {
+                timeframeBarCache.update(update);
+                if (update.isClosed()) {
+                    kafkaTemplate.send(aggregator.getTimeframe().topic(), update.getSymbol(), update);
+                }
+                marketDataFanout.publish("/topic/bars/" + update.getTimeframe() + "/" + update.getSymbol(), update);
+            }
+        }
+        pipelineMetrics.recordPublish("aggregation", System.nanoTime() - publishStarted);
+    }
+
+    // Replays the cached raw bars preceding the first live one, so the open buckets are complete and strategies on
+    // higher timeframes start with history. Only the cache is filled; nothing is published for these bars.
+    private TimeframeBarAggregator[] seed(String symbol, long beforeEpochSecond) {
+        List<Timeframe> timeframes = timeframeBarCache.getTimeframes();
+        TimeframeBarAggregator[] symbolAggregators = new TimeframeBarAggregator[timeframes.size()];
+        for (int i = 0; i < symbolAggregators.length; i++) {
+            symbolAggregators[i] = new TimeframeBarAggregator(symbol, timeframes.get(i), baseBarSeconds);
+        }
+
+        BarWindow window = barCache.window(symbol);
+        int seeded = 0;
+        for (; seeded < window.size() && window.getTimestamp(seeded) < beforeEpochSecond; seeded++) {
+            for (TimeframeBarAggregator aggregator : symbolAggregators) {
+                aggregator.onBar(window.getTimestamp(seeded), window.getOpen(seeded), window.getHigh(seeded),
+                        window.getLow(seeded), window.getClose(seeded), window.getVolume(seeded), 0)
+                        .forEach(timeframeBarCache::update);
+            }
+        }
+        return symbolAggregators;
+    }
+}
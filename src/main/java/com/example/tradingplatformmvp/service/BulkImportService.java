@@ -0,0 +1,213 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.archive.ColumnarArchive;
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import com.example.tradingplatformmvp.dto.ImportReportDto;
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.importer.CsvBarParser;
+import com.example.tradingplatformmvp.repository.StockDataWriter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Bulk historical import from CSV (layouts in CsvBarParser). The source is read sequentially in large chunks cut
+// at line boundaries; chunks are parsed in parallel and written in file order as batched upserts into stock_data,
+// optionally also into the columnar archive and onto stock-data-topic.
+@Service
+public class BulkImportService {
+
+    private static final int CHUNK_BYTES = 4 * 1024 * 1024;
+
+    private final StockDataWriter stockDataWriter;
+    private final ColumnarArchive columnarArchive;
+    private final KafkaTemplate<String, StockDataDto> kafkaTemplate;
+    private final int parallelism = Runtime.getRuntime().availableProcessors();
+    private final ExecutorService parsePool = Executors.newFixedThreadPool(parallelism);
+    private final ConcurrentHashMap<String, ImportReportDto> imports = new ConcurrentHashMap<>();
+    private final ArrayDeque<String> finishedImports = new ArrayDeque<>(); // guarded by itself
+
+    @Value("${import.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${import.retained:100}")
+    private int retainedImports;
+
+    public BulkImportService(StockDataWriter stockDataWriter, ColumnarArchive columnarArchive,
+                             KafkaTemplate<String, StockDataDto> kafkaTemplate) {
+        this.stockDataWriter = stockDataWriter;
+        this.columnarArchive = columnarArchive;
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsePool.shutdownNow();
+    }
+
+    // Running imports of this process and the last import.retained finished ones, for progress polling
+    public Collection<ImportReportDto> getImports() {
+        return imports.values();
+    }
+
+    // symbol may be null when every line carries its own; totalBytes is -1 when unknown
+    public ImportReportDto importCsv(ReadableByteChannel source, long totalBytes, String sourceName, String symbol,
+                                     boolean toArchive, boolean publishToKafka) throws IOException {
+        ImportReportDto report = new ImportReportDto();
+        report.setImportId(UUID.randomUUID().toString());
+        report.setSource(sourceName);
+        report.setStartedAt(LocalDateTime.now());
+        report.setTotalBytes(totalBytes);
+        imports.put(report.getImportId(), report);
+        long started = System.nanoTime();
+
+        ArrayDeque<Future<CsvBarParser.ParsedChunk>> inFlight = new ArrayDeque<>();
+        byte[] carry = new byte[0];
+        boolean endOfInput = false;
+        try {
+            while (!endOfInput) {
+                byte[] chunk = new byte[CHUNK_BYTES];
+                System.arraycopy(carry, 0, chunk, 0, carry.length);
+                ByteBuffer buffer = ByteBuffer.wrap(chunk, carry.length, chunk.length - carry.length);
+                while (buffer.hasRemaining()) {
+                    if (source.read(buffer) < 0) {
+                        endOfInput = true;
+                        break;
+                    }
+                }
+                int filled = buffer.position();
+                report.setBytesRead(report.getBytesRead() + filled - carry.length);
+
+                int complete = filled;
+                if (!endOfInput) {
+                    complete = lastNewline(chunk, filled) + 1;
+                    if (complete == 0) {
+                        throw new IOException("CSV line longer than " + CHUNK_BYTES + " bytes");
+                    }
+                }
+                carry = Arrays.copyOfRange(chunk, complete, filled);
+                int length = complete;
+                inFlight.add(parsePool.submit(() -> CsvBarParser.parse(chunk, 0, length, symbol)));
+
+                // Bounded read-ahead keeps memory flat however large the file is
+                if (inFlight.size() >= parallelism * 2) {
+                    write(inFlight.poll(), report, toArchive, publishToKafka, started);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll(), report, toArchive, publishToKafka, started);
+            }
+        } catch (IOException | RuntimeException e) {
+            report.setError(e.getMessage());
+            inFlight.forEach(future -> future.cancel(true));
+            throw e;
+        } finally {
+            updateThroughput(report, started);
+            report.setFinished(true);
+            retain(report);
+        }
+        System.out.println(String.format("Import %s finished: %d rows parsed, %d inserted, %d duplicates, %d rejected, %d not archived at %.0f rows/sec",
+                report.getImportId(), report.getRowsParsed(), report.getRowsInserted(), report.getRowsDuplicate(),
+                report.getRowsRejected(), report.getRowsNotArchived(), report.getRowsPerSecond()));
+        return report;
+    }
+
+    private void retain(ImportReportDto report) {
+        synchronized (finishedImports) {
+            finishedImports.addLast(report.getImportId());
+            while (finishedImports.size() > retainedImports) {
+                imports.remove(finishedImports.removeFirst());
+            }
+        }
+    }
+
+    private static int lastNewline(byte[] chunk, int filled) {
+        for (int i = filled - 1; i >= 0; i--) {
+            if (chunk[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void write(Future<CsvBarParser.ParsedChunk> future, ImportReportDto report, boolean toArchive,
+                       boolean publishToKafka, long started) throws IOException {
+        CsvBarParser.ParsedChunk chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error parsing CSV chunk: " + e.getCause().getMessage(), e.getCause());
+        }
+        List<StockDataDto> bars = chunk.bars();
+        report.setRowsParsed(report.getRowsParsed() + bars.size());
+        report.setRowsRejected(report.getRowsRejected() + chunk.rejectedLines());
+
+        for (int from = 0; from < bars.size(); from += batchSize) {
+            List<StockDataDto> batch = bars.subList(from, Math.min(bars.size(), from + batchSize));
+            int inserted = stockDataWriter.upsert(batch);
+            report.setRowsInserted(report.getRowsInserted() + inserted);
+            report.setRowsDuplicate(report.getRowsDuplicate() + batch.size() - inserted);
+        }
+
+        if (toArchive) {
+            // Archives are append-only, so each symbol's bars go in oldest first
+            Map<String, List<StockDataDto>> bySymbol = new LinkedHashMap<>();
+            for (StockDataDto bar : bars) {
+                bySymbol.computeIfAbsent(bar.getSymbol(), key -> new ArrayList<>()).add(bar);
+            }
+            for (Map.Entry<String, List<StockDataDto>> entry : bySymbol.entrySet()) {
+                entry.getValue().sort(Comparator.comparing(StockDataDto::getTimestamp));
+                int archived = columnarArchive.append(entry.getKey(), PriceSeries.ofDtos(entry.getKey(), entry.getValue()));
+                report.setRowsArchived(report.getRowsArchived() + archived);
+                int skipped = entry.getValue().size() - archived;
+                if (skipped > 0) {
+                    report.setRowsNotArchived(report.getRowsNotArchived() + skipped);
+                    System.out.println(String.format("Import %s: %d of %d %s bars from %s to %s not archived, not newer than the archive's last bar; reads merge them from stock_data",
+                            report.getImportId(), skipped, entry.getValue().size(), entry.getKey(),
+                            entry.getValue().get(0).getTimestamp(), entry.getValue().get(entry.getValue().size() - 1).getTimestamp()));
+                }
+            }
+        }
+
+        if (publishToKafka) {
+            for (StockDataDto bar : bars) {
+                kafkaTemplate.send("stock-data-topic", bar.getSymbol(), bar);
+            }
+            report.setRowsPublished(report.getRowsPublished() + bars.size());
+        }
+
+        updateThroughput(report, started);
+        System.out.println(String.format("Import %s progress: %d/%s bytes, %d rows, %.0f rows/sec",
+                report.getImportId(), report.getBytesRead(),
+                report.getTotalBytes() < 0 ? "?" : String.valueOf(report.getTotalBytes()),
+                report.getRowsParsed(), report.getRowsPerSecond()));
+    }
+
+    private static void updateThroughput(ImportReportDto report, long started) {
+        long elapsedNanos = System.nanoTime() - started;
+        report.setElapsedMillis(elapsedNanos / 1_000_000);
+        report.setRowsPerSecond(report.getRowsParsed() / Math.max(elapsedNanos / 1e9, 1e-9));
+    }
+}
@@ -1,66 +1,179 @@
 package com.example.tradingplatformmvp.service;
 
 import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.ingestion.MarketDataPublisher;
+import com.example.tradingplatformmvp.ingestion.TokenBucket;
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.repository.StockDataRepository;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class DataIngestionService {
 
-    private final KafkaTemplate<String, StockDataDto> kafkaTemplate;
+    public static final String SOURCE_NAME = "alphavantage";
+
+    private static final DateTimeFormatter ALPHA_VANTAGE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // In-memory only: a symbol with no stored bars publishes everything it fetches
+    private static final LocalDateTime NO_WATERMARK = LocalDateTime.MIN;
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT = new ParameterizedTypeReference<>() {
+    };
+
     private final WebClient webClient;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final MarketDataPublisher marketDataPublisher;
+    private final StockDataRepository stockDataRepository;
+    private final TokenBucket rateLimiter;
+
+    // Timestamp of the newest bar published per symbol, seeded from the database on the symbol's first fetch
+    private final ConcurrentHashMap<String, LocalDateTime> watermarks = new ConcurrentHashMap<>();
 
     @Value("${alphavantage.api.key}")
     private String apiKey;
 
-    public DataIngestionService(KafkaTemplate<String, StockDataDto> kafkaTemplate, WebClient.Builder webClientBuilder, SimpMessagingTemplate messagingTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
-        this.webClient = webClientBuilder.baseUrl("https://www.alphavantage.co").build();
-        this.messagingTemplate = messagingTemplate;
+    @Value("${ingestion.request-timeout-ms:10000}")
+    private long requestTimeoutMillis;
+
+    @Value("${ingestion.retry.max-attempts:3}")
+    private int retryMaxAttempts;
+
+    @Value("${ingestion.retry.backoff-ms:1000}")
+    private long retryBackoffMillis;
+
+    public DataIngestionService(WebClient.Builder webClientBuilder,
+                                MarketDataPublisher marketDataPublisher,
+                                StockDataRepository stockDataRepository,
+                                @Value("${alphavantage.base-url:https://www.alphavantage.co}") String baseUrl,
+                                @Value("${ingestion.rate-limit.requests-per-minute:5}") double requestsPerMinute,
+                                @Value("${ingestion.rate-limit.burst:1}") int burst) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.marketDataPublisher = marketDataPublisher;
+        this.stockDataRepository = stockDataRepository;
+        this.rateLimiter = new TokenBucket(requestsPerMinute / 60.0, burst);
     }
 
-    @Retryable(value = {WebClientResponseException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
+    // Manual trigger; runs in the background like the scheduled polls
     public void fetchAndPublishStockData(String symbol) {
+        fetchNewBars(symbol).subscribe(
+                published -> System.out.println("Fetched " + symbol + ": " + published + " new bars"),
+                error -> System.err.println("Error during Alpha Vantage API call for " + symbol + ": " + error.getMessage()));
+    }
+
+    // Fetches the intraday window and publishes the bars newer than the symbol's watermark, oldest first, emitting
+    // how many were published. Every attempt, retries included, spends a rate limiter token of its own: the retry
+    // resubscribes to the deferred reserve() below, since a retried call counts against the API budget like any other.
+    // The request timeout covers only the HTTP call, not the wait for the token.
+    public Mono<Integer> fetchNewBars(String symbol) {
         String url = String.format("/query?function=TIME_SERIES_INTRADAY&symbol=%s&interval=1min&apikey=%s", symbol, apiKey);
 
-        webClient.get().uri(url).retrieve().bodyToMono(Map.class)
-                .subscribe(response -> {
-                    Map<String, Object> timeSeries = (Map<String, Object>) response.get("Time Series (1min)");
-                    if (timeSeries != null) {
-                        timeSeries.forEach((timestampStr, data) -> {
-                            Map<String, String> stockDataMap = (Map<String, String>) data;
-                            StockDataDto stockDataDto = new StockDataDto();
-                            stockDataDto.setSymbol(symbol);
-                            stockDataDto.setTimestamp(LocalDateTime.parse(timestampStr, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-                            stockDataDto.setOpen(Double.parseDouble(stockDataMap.get("1. open")));
-                            stockDataDto.setHigh(Double.parseDouble(stockDataMap.get("2. high")));
-                            stockDataDto.setLow(Double.parseDouble(stockDataMap.get("3. low")));
-                            stockDataDto.setClose(Double.parseDouble(stockDataMap.get("4. close")));
-                            stockDataDto.setVolume(Long.parseLong(stockDataMap.get("5. volume")));
-
-                            kafkaTemplate.send("stock-data-topic", stockDataDto.getSymbol(), stockDataDto);
-                            messagingTemplate.convertAndSend("/topic/stock-data/" + stockDataDto.getSymbol(), stockDataDto);
-                            System.out.println("Sent to Kafka and WebSocket: " + stockDataDto.getSymbol() + " - " + stockDataDto.getTimestamp());
-                        });
-                    } else {
-                        System.err.println("Error fetching data for " + symbol + ": " + response.get("Note"));
-                    }
-                }, error -> {
-                    System.err.println("Error during Alpha Vantage API call for " + symbol + ": " + error.getMessage());
-                    // Re-throw to trigger retry
-                    throw new WebClientResponseException(error.getMessage(), 500, "Internal Server Error", null, null, null);
-                });
+        Mono<Map<String, Object>> call = webClient.get().uri(url).retrieve().bodyToMono(JSON_OBJECT)
+                .timeout(Duration.ofMillis(requestTimeoutMillis));
+        Mono<Map<String, Object>> request = Mono.defer(() -> Mono.delay(Duration.ofNanos(rateLimiter.reserve())))
+                .then(call)
+                .flatMap(response -> checkThrottled(symbol, response));
+
+        return seedWatermark(symbol)
+                .then(request.retryWhen(Retry.backoff(Math.max(0, retryMaxAttempts - 1), Duration.ofMillis(retryBackoffMillis))
+                        .filter(DataIngestionService::isTransient)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure())))
+                .map(response -> publishNewBars(symbol, response));
+    }
+
+    // The newest stored bar, so a restart does not republish what was already ingested
+    private Mono<LocalDateTime> seedWatermark(String symbol) {
+        LocalDateTime watermark = watermarks.get(symbol);
+        if (watermark != null) {
+            return Mono.just(watermark);
+        }
+        return Mono.fromCallable(() -> watermarks.computeIfAbsent(symbol, key -> {
+            List<StockData> newest = stockDataRepository.findBySymbolOrderByTimestampDesc(key, PageRequest.of(0, 1));
+            return newest.isEmpty() ? NO_WATERMARK : newest.get(0).getTimestamp();
+        })).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Alpha Vantage answers 200 with a "Note" or "Information" message when the call budget is used up
+    private static Mono<Map<String, Object>> checkThrottled(String symbol, Map<String, Object> response) {
+        if (response.get("Time Series (1min)") == null && (response.containsKey("Note") || response.containsKey("Information"))) {
+            Object message = response.containsKey("Note") ? response.get("Note") : response.get("Information");
+            return Mono.error(new ThrottledException("Throttled fetching " + symbol + ": " + message));
+        }
+        return Mono.just(response);
+    }
+
+    private static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException responseError) {
+            return responseError.getStatusCode().is5xxServerError() || responseError.getStatusCode().value() == 429;
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException || error instanceof ThrottledException;
+    }
+
+    // The bars past the watermark are taken and the watermark advanced in one step per symbol, so a manual fetch
+    // racing a scheduled poll cannot publish the same bar twice. Publishing happens after that step, outside the map's
+    // lock, so a slow Kafka send never blocks other symbols.
+    private int publishNewBars(String symbol, Map<String, Object> response) {
+        if (!(response.get("Time Series (1min)") instanceof Map<?, ?> timeSeries)) {
+            System.err.println("Error fetching data for " + symbol + ": " + response.get("Error Message"));
+            return 0;
+        }
+
+        // The API lists the newest bar first; downstream consumers skip bars older than the last one they saw
+        NavigableMap<LocalDateTime, Map<?, ?>> bars = new TreeMap<>();
+        timeSeries.forEach((timestamp, values) -> {
+            if (values instanceof Map<?, ?> fields) {
+                bars.put(LocalDateTime.parse(timestamp.toString(), ALPHA_VANTAGE_TIMESTAMP), fields);
+            }
+        });
+
+        List<StockDataDto> newBars = new ArrayList<>();
+        LocalDateTime newWatermark = watermarks.compute(symbol, (key, watermark) -> {
+            LocalDateTime from = watermark == null ? NO_WATERMARK : watermark;
+            newBars.clear();
+            for (Map.Entry<LocalDateTime, Map<?, ?>> bar : bars.tailMap(from, false).entrySet()) {
+                newBars.add(toDto(symbol, bar.getKey(), bar.getValue()));
+            }
+            return newBars.isEmpty() ? from : bars.lastKey();
+        });
+
+        if (!newBars.isEmpty()) {
+            marketDataPublisher.publish(SOURCE_NAME, newBars);
+            System.out.println("Sent to Kafka and WebSocket: " + symbol + " - " + newBars.size() + " new bars up to " + newWatermark);
+        }
+        return newBars.size();
+    }
+
+    private static StockDataDto toDto(String symbol, LocalDateTime timestamp, Map<?, ?> fields) {
+        StockDataDto stockDataDto = new StockDataDto();
+        stockDataDto.setSymbol(symbol);
+        stockDataDto.setTimestamp(timestamp);
+        stockDataDto.setOpen(Double.parseDouble(String.valueOf(fields.get("1. open"))));
+        stockDataDto.setHigh(Double.parseDouble(String.valueOf(fields.get("2. high"))));
+        stockDataDto.setLow(Double.parseDouble(String.valueOf(fields.get("3. low"))));
+        stockDataDto.setClose(Double.parseDouble(String.valueOf(fields.get("4. close"))));
+        stockDataDto.setVolume(Long.parseLong(String.valueOf(fields.get("5. volume"))));
+        return stockDataDto;
+    }
+
+    static final class ThrottledException extends RuntimeException {
+        ThrottledException(String message) {
+            super(message);
+        }
     }
 }
@@ -0,0 +1,162 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.dto.IndicatorQueryRequestDto;
+import com.example.tradingplatformmvp.dto.IndicatorQueryResultDto;
+import com.example.tradingplatformmvp.dto.IndicatorSpecDto;
+import com.example.tradingplatformmvp.dto.IndicatorValueDto;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Evaluates a list of indicators for a list of symbols in one call. Symbols run in parallel on a fixed pool of
+// indicators.query.parallelism threads shared by all requests. Per symbol, IndicatorResultCache answers what it holds
+// and computes the rest in one pass over a single load of the symbol's history.
+@Service
+public class IndicatorQueryService {
+
+    private static final int DEFAULT_MACD_FAST = 12;
+    private static final int DEFAULT_MACD_SLOW = 26;
+    private static final int DEFAULT_MACD_SIGNAL = 9;
+
+    private final IndicatorResultCache indicatorResultCache;
+    private final ExecutorService executor;
+
+    @Value("${indicators.query.max-symbols:500}")
+    private int maxSymbols;
+
+    @Value("${indicators.query.max-indicators:50}")
+    private int maxIndicators;
+
+    public IndicatorQueryService(IndicatorResultCache indicatorResultCache,
+                                 @Value("${indicators.query.parallelism:0}") int parallelism) {
+        this.indicatorResultCache = indicatorResultCache;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "indicator-query-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Results in the order of the (de-duplicated) symbols. Throws IllegalArgumentException for an invalid request;
+    // a symbol that fails on its own gets an error instead of values.
+    public List<IndicatorQueryResultDto> query(IndicatorQueryRequestDto request) {
+        List<String> symbols = request.getSymbols() == null ? List.of() : request.getSymbols().stream()
+                .filter(symbol -> symbol != null && !symbol.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toList();
+        List<IndicatorSpecDto> requested = request.getIndicators() == null ? List.of() : request.getIndicators();
+        if (symbols.isEmpty() || requested.isEmpty()) {
+            throw new IllegalArgumentException("At least one symbol and one indicator are required");
+        }
+        if (symbols.size() > maxSymbols || requested.size() > maxIndicators) {
+            throw new IllegalArgumentException("At most " + maxSymbols + " symbols and " + maxIndicators + " indicators per request");
+        }
+
+        List<IndicatorSpecDto> specDtos = new ArrayList<>(requested.size());
+        List<IndicatorResultCache.Spec> specs = new ArrayList<>(requested.size());
+        for (IndicatorSpecDto spec : requested) {
+            IndicatorSpecDto normalized = normalize(spec);
+            specDtos.add(normalized);
+            specs.add(toSpec(normalized));
+        }
+
+        List<CompletableFuture<IndicatorQueryResultDto>> futures = symbols.stream()
+                .map(symbol -> CompletableFuture.supplyAsync(() -> evaluate(symbol, specDtos, specs), executor))
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private IndicatorQueryResultDto evaluate(String symbol, List<IndicatorSpecDto> specDtos, List<IndicatorResultCache.Spec> specs) {
+        IndicatorQueryResultDto result = new IndicatorQueryResultDto();
+        result.setSymbol(symbol);
+        try {
+            List<IndicatorResultCache.Result> values = indicatorResultCache.get(symbol, specs);
+            List<IndicatorValueDto> indicators = new ArrayList<>(values.size());
+            long barCount = 0;
+            for (int i = 0; i < values.size(); i++) {
+                IndicatorResultCache.Result value = values.get(i);
+                barCount = Math.max(barCount, value.barCount());
+                indicators.add(toValueDto(specDtos.get(i), specs.get(i), value));
+            }
+            result.setBarCount(barCount);
+            result.setIndicators(indicators);
+        } catch (Exception e) {
+            System.err.println("Error evaluating indicators for " + symbol + ": " + e.getMessage());
+            result.setError(e.getMessage());
+        }
+        return result;
+    }
+
+    private static IndicatorValueDto toValueDto(IndicatorSpecDto specDto, IndicatorResultCache.Spec spec, IndicatorResultCache.Result value) {
+        IndicatorValueDto dto = new IndicatorValueDto();
+        dto.setSpec(specDto);
+        dto.setReady(value.barCount() > 0 && value.barCount() >= spec.requiredBars());
+        Map<String, Double> values = new LinkedHashMap<>();
+        if (value.values().length > 0) {
+            switch (spec.indicator()) {
+                case SMA -> values.put("sma", value.values()[0]);
+                case RSI -> values.put("rsi", value.values()[0]);
+                case MACD -> {
+                    values.put("macd", value.values()[0]);
+                    values.put("signal", value.values()[1]);
+                    values.put("histogram", value.values()[2]);
+                }
+            }
+        }
+        dto.setValues(values);
+        return dto;
+    }
+
+    private static IndicatorSpecDto normalize(IndicatorSpecDto spec) {
+        if (spec == null || spec.getType() == null) {
+            throw new IllegalArgumentException("Every indicator needs a type (SMA, RSI or MACD)");
+        }
+        IndicatorSpecDto normalized = new IndicatorSpecDto();
+        normalized.setType(spec.getType().trim().toUpperCase(Locale.ROOT));
+        if ("MACD".equals(normalized.getType())) {
+            normalized.setFastBarCount(spec.getFastBarCount() != null ? spec.getFastBarCount() : DEFAULT_MACD_FAST);
+            normalized.setSlowBarCount(spec.getSlowBarCount() != null ? spec.getSlowBarCount() : DEFAULT_MACD_SLOW);
+            normalized.setSignalBarCount(spec.getSignalBarCount() != null ? spec.getSignalBarCount() : DEFAULT_MACD_SIGNAL);
+        } else {
+            normalized.setBarCount(spec.getBarCount());
+        }
+        return normalized;
+    }
+
+    // Bar counts are checked against the cache's limit here, so an oversized one fails the whole request up front
+    // rather than every symbol
+    private IndicatorResultCache.Spec toSpec(IndicatorSpecDto spec) {
+        IndicatorResultCache.Spec result = switch (spec.getType()) {
+            case "SMA", "RSI" -> {
+                if (spec.getBarCount() == null) {
+                    throw new IllegalArgumentException(spec.getType() + " needs a barCount");
+                }
+                yield "SMA".equals(spec.getType())
+                        ? IndicatorResultCache.Spec.sma(spec.getBarCount())
+                        : IndicatorResultCache.Spec.rsi(spec.getBarCount());
+            }
+            case "MACD" -> IndicatorResultCache.Spec.macd(spec.getFastBarCount(), spec.getSlowBarCount(), spec.getSignalBarCount());
+            default -> throw new IllegalArgumentException("Unknown indicator type: " + spec.getType());
+        };
+        indicatorResultCache.validate(result);
+        return result;
+    }
+}
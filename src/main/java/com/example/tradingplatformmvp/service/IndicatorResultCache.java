@@ -0,0 +1,367 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.indicator.RunningMacd;
+import com.example.tradingplatformmvp.indicator.RunningRsi;
+import com.example.tradingplatformmvp.indicator.RunningSma;
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.repository.StockDataRepository;
+import com.example.tradingplatformmvp.repository.StockDataWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Results of the on-demand indicator endpoints, keyed by (symbol, indicator, parameters). An entry keeps the running
+// indicator it was computed with. When newer bars of its symbol are stored, it advances over just those bars instead
+// of recomputing from the full history, so while nothing new is stored a lookup is one map probe. A bar stored out of
+// order (not newer than the newest one known for the symbol) drops all of the symbol's entries.
+//
+// Several indicators of one symbol can be looked up together; whatever is not cached is computed in one pass over a
+// single load of the history. Concurrent lookups that miss on the same symbol share that load.
+//
+// A symbol is only tracked while it has stored bars or a lookup of it is running, so querying symbols that have no
+// data leaves nothing behind.
+//
+// Bounded to indicators.result-cache.max-entries with least-recently-used eviction. Counted as indicator.cache.requests
+// with result hit (current entry), advanced (caught up incrementally) or miss (computed from history).
+@Service
+public class IndicatorResultCache {
+
+    public enum Indicator { SMA, RSI, MACD }
+
+    // values: the SMA or RSI, or MACD line, signal and histogram. barCount: bars the values were computed over.
+    public record Result(double[] values, long barCount) {
+    }
+
+    // first is the bar count of SMA and RSI, or MACD's fast bar count; second and third are MACD's slow and signal
+    public record Spec(Indicator indicator, int first, int second, int third) {
+
+        public static Spec sma(int barCount) {
+            return new Spec(Indicator.SMA, barCount, 0, 0);
+        }
+
+        public static Spec rsi(int barCount) {
+            return new Spec(Indicator.RSI, barCount, 0, 0);
+        }
+
+        public static Spec macd(int fastBarCount, int slowBarCount, int signalBarCount) {
+            return new Spec(Indicator.MACD, fastBarCount, slowBarCount, signalBarCount);
+        }
+
+        // Bars needed before the value is meaningful
+        public int requiredBars() {
+            return indicator == Indicator.MACD ? Math.max(first, second) : first;
+        }
+    }
+
+    private record Key(String symbol, Spec spec) {
+    }
+
+    // Stored bars of one symbol as seen through StockDataWriter. Guarded by itself. Generations are unique across
+    // versions, so entries computed under a version that was dropped never match the symbol's next one.
+    private final class SymbolVersion {
+        private long generation = generations.incrementAndGet();
+        private long newestTimestamp = Long.MIN_VALUE; // epoch seconds
+        private int computing;
+        private long oldestInsertedWhileComputing = Long.MAX_VALUE;
+    }
+
+    private final PriceHistoryService priceHistoryService;
+    private final StockDataRepository stockDataRepository;
+    private final int maxEntries;
+    private final int maxAdvanceBars;
+    private final int maxBarCount;
+    private final AtomicLong generations = new AtomicLong();
+    private final ConcurrentHashMap<String, SymbolVersion> versions = new ConcurrentHashMap<>();
+    // History loads in flight, so concurrent misses on one symbol read it once
+    private final ConcurrentHashMap<String, CompletableFuture<PriceSeries>> loads = new ConcurrentHashMap<>();
+    private final Map<Key, Entry> entries; // Guarded by itself
+
+    private final Counter hits;
+    private final Counter advances;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public IndicatorResultCache(PriceHistoryService priceHistoryService,
+                                StockDataRepository stockDataRepository,
+                                StockDataWriter stockDataWriter,
+                                MeterRegistry meterRegistry,
+                                @Value("${indicators.result-cache.max-entries:10000}") int maxEntries,
+                                @Value("${indicators.result-cache.max-advance-bars:1000}") int maxAdvanceBars,
+                                @Value("${stock.query.max-bars:10000}") int maxBarCount) {
+        this.priceHistoryService = priceHistoryService;
+        this.stockDataRepository = stockDataRepository;
+        this.maxEntries = maxEntries;
+        this.maxAdvanceBars = maxAdvanceBars;
+        this.maxBarCount = maxBarCount;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > IndicatorResultCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = requests(meterRegistry, "hit");
+        this.advances = requests(meterRegistry, "advanced");
+        this.misses = requests(meterRegistry, "miss");
+        this.evictions = Counter.builder("indicator.cache.evictions")
+                .description("Indicator results evicted to stay within the size bound")
+                .register(meterRegistry);
+        Gauge.builder("indicator.cache.size", this, IndicatorResultCache::size)
+                .description("Indicator results cached")
+                .register(meterRegistry);
+
+        stockDataWriter.addListener(this::onInserted);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("indicator.cache.requests")
+                .description("Indicator endpoint lookups by how they were answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public Result sma(String symbol, int barCount) {
+        return get(symbol, List.of(Spec.sma(barCount))).get(0);
+    }
+
+    public Result rsi(String symbol, int barCount) {
+        return get(symbol, List.of(Spec.rsi(barCount))).get(0);
+    }
+
+    public Result macd(String symbol, int fastBarCount, int slowBarCount, int signalBarCount) {
+        return get(symbol, List.of(Spec.macd(fastBarCount, slowBarCount, signalBarCount))).get(0);
+    }
+
+    // Every bar count must be between 1 and stock.query.max-bars, since the running indicators allocate a window of
+    // that many values. Throws IllegalArgumentException otherwise.
+    public void validate(Spec spec) {
+        int[] barCounts = spec.indicator() == Indicator.MACD
+                ? new int[]{spec.first(), spec.second(), spec.third()} : new int[]{spec.first()};
+        for (int barCount : barCounts) {
+            if (barCount < 1 || barCount > maxBarCount) {
+                throw new IllegalArgumentException(spec.indicator() + " bar counts must be between 1 and " + maxBarCount);
+            }
+        }
+    }
+
+    // Results in the order of specs. Throws IllegalArgumentException for a spec that fails validate.
+    public List<Result> get(String symbol, List<Spec> specs) {
+        specs.forEach(this::validate);
+        SymbolVersion version = versions.computeIfAbsent(symbol, key -> new SymbolVersion());
+        long generation;
+        long newestTimestamp;
+        synchronized (version) {
+            generation = version.generation;
+            newestTimestamp = version.newestTimestamp;
+        }
+
+        Result[] results = new Result[specs.size()];
+        List<Entry> missing = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            Key key = new Key(symbol, specs.get(i));
+            Entry entry;
+            synchronized (entries) {
+                entry = entries.get(key);
+            }
+            if (entry != null && entry.generation == generation) {
+                synchronized (entry) {
+                    if (entry.lastTimestamp >= newestTimestamp) {
+                        hits.increment();
+                        results[i] = entry.result;
+                        continue;
+                    }
+                    if (advance(entry)) {
+                        advances.increment();
+                        results[i] = entry.result;
+                        continue;
+                    }
+                }
+            }
+            Entry computed = new Entry(key, generation, i);
+            missing.add(computed);
+        }
+
+        if (!missing.isEmpty()) {
+            misses.increment(missing.size());
+            compute(symbol, version, missing);
+            for (Entry entry : missing) {
+                results[entry.slot] = entry.result;
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    // Reads the bars stored after the entry; false when there are too many to be worth it
+    private boolean advance(Entry entry) {
+        LocalDateTime after = LocalDateTime.ofEpochSecond(entry.lastTimestamp, 0, ZoneOffset.UTC);
+        List<StockData> newer = stockDataRepository.findBySymbolAndTimestampAfterOrderByTimestampAsc(
+                entry.key.symbol(), after, PageRequest.of(0, maxAdvanceBars + 1));
+        if (newer.size() > maxAdvanceBars) {
+            return false;
+        }
+        for (StockData bar : newer) {
+            entry.update(bar.getTimestamp().toEpochSecond(ZoneOffset.UTC), bar.getClose());
+        }
+        entry.publish();
+        return true;
+    }
+
+    // Fills the fresh entries from one read of the symbol's history
+    private void compute(String symbol, SymbolVersion version, List<Entry> fresh) {
+        synchronized (version) {
+            version.computing++;
+        }
+        long lastTimestamp = Long.MIN_VALUE;
+        boolean cacheable;
+        try {
+            PriceSeries history = loadAll(symbol);
+            for (Entry entry : fresh) {
+                for (int i = 0; i < history.size(); i++) {
+                    entry.update(history.getTimestamp(i), history.getClose(i));
+                }
+                entry.publish();
+            }
+            lastTimestamp = history.size() == 0 ? Long.MIN_VALUE : history.getTimestamp(history.size() - 1);
+        } finally {
+            synchronized (version) {
+                // A bar inserted meanwhile may or may not be in the history just read; only newer ones are safe
+                // Nothing is cached for a symbol without bars, and it stops being tracked once no lookup needs it
+                cacheable = lastTimestamp != Long.MIN_VALUE && version.oldestInsertedWhileComputing > lastTimestamp;
+                version.newestTimestamp = Math.max(version.newestTimestamp, lastTimestamp);
+                if (--version.computing == 0) {
+                    version.oldestInsertedWhileComputing = Long.MAX_VALUE;
+                    if (version.newestTimestamp == Long.MIN_VALUE) {
+                        versions.remove(symbol, version);
+                    }
+                }
+            }
+        }
+        if (cacheable) {
+            synchronized (entries) {
+                for (Entry entry : fresh) {
+                    entries.put(entry.key, entry);
+                }
+            }
+        }
+    }
+
+    // The first caller loads; callers arriving while it runs wait for the same series
+    private PriceSeries loadAll(String symbol) {
+        CompletableFuture<PriceSeries> load = new CompletableFuture<>();
+        CompletableFuture<PriceSeries> inFlight = loads.putIfAbsent(symbol, load);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            PriceSeries history = priceHistoryService.loadAll(symbol);
+            load.complete(history);
+            return history;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(symbol, load);
+        }
+    }
+
+    private void onInserted(List<StockDataDto> bars) {
+        for (StockDataDto bar : bars) {
+            SymbolVersion version = versions.get(bar.getSymbol());
+            if (version == null) {
+                continue; // Nothing cached for the symbol yet
+            }
+            long timestamp = bar.getTimestamp().toEpochSecond(ZoneOffset.UTC);
+            synchronized (version) {
+                if (timestamp <= version.newestTimestamp) {
+                    version.generation = generations.incrementAndGet();
+                } else {
+                    version.newestTimestamp = timestamp;
+                }
+                if (version.computing > 0) {
+                    version.oldestInsertedWhileComputing = Math.min(version.oldestInsertedWhileComputing, timestamp);
+                }
+            }
+        }
+    }
+
+    // Running state of one cached result. Guarded by itself once cached.
+    private static final class Entry {
+        private final Key key;
+        private final long generation;
+        private final int slot; // position in the lookup that created it
+        private final RunningSma sma;
+        private final RunningRsi rsi;
+        private final RunningMacd macd;
+        private long lastTimestamp = Long.MIN_VALUE;
+        private long barCount;
+        private volatile Result result = new Result(new double[0], 0);
+
+        private Entry(Key key, long generation, int slot) {
+            Spec spec = key.spec();
+            this.key = key;
+            this.generation = generation;
+            this.slot = slot;
+            this.sma = spec.indicator() == Indicator.SMA ? new RunningSma(spec.first()) : null;
+            this.rsi = spec.indicator() == Indicator.RSI ? new RunningRsi(spec.first()) : null;
+            this.macd = spec.indicator() == Indicator.MACD ? new RunningMacd(spec.first(), spec.second(), spec.third()) : null;
+        }
+
+        private void update(long timestamp, double close) {
+            if (timestamp <= lastTimestamp) {
+                return;
+            }
+            lastTimestamp = timestamp;
+            barCount++;
+            if (sma != null) {
+                sma.update(close);
+            } else if (rsi != null) {
+                rsi.update(close);
+            } else {
+                macd.update(close);
+            }
+        }
+
+        private void publish() {
+            double[] values;
+            if (sma != null) {
+                values = new double[]{sma.getValue()};
+            } else if (rsi != null) {
+                values = new double[]{rsi.getValue()};
+            } else {
+                values = new double[]{macd.getMacd(), macd.getSignal(), macd.getHistogram()};
+            }
+            result = new Result(values, barCount);
+        }
+    }
+}
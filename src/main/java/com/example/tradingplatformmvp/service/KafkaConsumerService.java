@@ -1,31 +1,72 @@
 package com.example.tradingplatformmvp.service;
 
+import com.example.tradingplatformmvp.cache.BarCache;
 import com.example.tradingplatformmvp.dto.StockDataDto;
-import com.example.tradingplatformmvp.model.StockData;
-import com.example.tradingplatformmvp.repository.StockDataRepository;
+import com.example.tradingplatformmvp.metrics.PipelineMetrics;
+import com.example.tradingplatformmvp.repository.StockDataWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class KafkaConsumerService {
 
-    private final StockDataRepository stockDataRepository;
+    private final StockDataWriter stockDataWriter;
+    private final BarCache barCache;
+    private final Counter insertedRows;
+    private final Counter duplicateRows;
+    private final Timer batchWriteTimer;
+    private final PipelineMetrics pipelineMetrics;
 
-    public KafkaConsumerService(StockDataRepository stockDataRepository) {
-        this.stockDataRepository = stockDataRepository;
+    public KafkaConsumerService(StockDataWriter stockDataWriter, BarCache barCache, MeterRegistry meterRegistry, PipelineMetrics pipelineMetrics) {
+        this.stockDataWriter = stockDataWriter;
+        this.barCache = barCache;
+        this.pipelineMetrics = pipelineMetrics;
+        this.insertedRows = Counter.builder("stockdata.persist.rows")
+                .description("Bars inserted into stock_data")
+                .tag("result", "inserted")
+                .register(meterRegistry);
+        this.duplicateRows = Counter.builder("stockdata.persist.rows")
+                .description("Bars skipped because (symbol, timestamp) already existed")
+                .tag("result", "duplicate")
+                .register(meterRegistry);
+        this.batchWriteTimer = Timer.builder("stockdata.persist.batch")
+                .description("Time to upsert one polled batch of bars")
+                .register(meterRegistry);
     }
 
-    @KafkaListener(topics = "stock-data-topic", groupId = "trading-platform-group")
-    public void consumeStockData(StockDataDto stockDataDto) {
-        System.out.println("Received from Kafka: " + stockDataDto.getSymbol() + " - " + stockDataDto.getTimestamp());
-        StockData stockData = new StockData();
-        stockData.setSymbol(stockDataDto.getSymbol());
-        stockData.setTimestamp(stockDataDto.getTimestamp());
-        stockData.setOpen(stockDataDto.getOpen());
-        stockData.setHigh(stockDataDto.getHigh());
-        stockData.setLow(stockDataDto.getLow());
-        stockData.setClose(stockDataDto.getClose());
-        stockData.setVolume(stockDataDto.getVolume());
-        stockDataRepository.save(stockData);
+    // Receives a whole poll at a time (bounded by spring.kafka.consumer.max-poll-records) and writes it as one batch
+    @KafkaListener(topics = "stock-data-topic", groupId = "trading-platform-persistence", batch = "true",
+            concurrency = "${kafka.listener.concurrency:1}")
+    public void consumeStockData(List<StockDataDto> stockDataDtos) {
+        System.out.println("Received from Kafka: " + stockDataDtos.size() + " bars");
+
+        // Oldest first per symbol so the bar cache accepts every new bar of a burst
+        List<StockDataDto> batch = new ArrayList<>(stockDataDtos);
+        batch.sort(Comparator.comparing(StockDataDto::getSymbol).thenComparing(StockDataDto::getTimestamp));
+
+        long start = System.nanoTime();
+        int inserted = stockDataWriter.upsert(batch);
+        long elapsedNanos = System.nanoTime() - start;
+        batchWriteTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        pipelineMetrics.recordDb("persistence", elapsedNanos);
+
+        int duplicates = batch.size() - inserted;
+        insertedRows.increment(inserted);
+        duplicateRows.increment(duplicates);
+        System.out.println(String.format("Persisted %d bars (%d duplicates skipped) at %.0f rows/sec",
+                inserted, duplicates, batch.size() / Math.max(elapsedNanos / 1e9, 1e-9)));
+
+        for (StockDataDto stockDataDto : batch) {
+            barCache.append(stockDataDto);
+            pipelineMetrics.recordTickToPersisted(stockDataDto.getOriginMicros());
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,98 +1,123 @@
 package com.example.tradingplatformmvp.service;
 
-import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.cache.BarCache;
+import com.example.tradingplatformmvp.cache.LastPriceIndex;
+import com.example.tradingplatformmvp.dispatch.SymbolLaneDispatcher;
+import com.example.tradingplatformmvp.dto.PortfolioSnapshotDto;
+import com.example.tradingplatformmvp.ledger.Ledger;
+import com.example.tradingplatformmvp.ledger.Reservation;
+import com.example.tradingplatformmvp.metrics.PipelineMetrics;
 import com.example.tradingplatformmvp.model.SimulatedTrade;
 import com.example.tradingplatformmvp.model.TradingSignal;
 import com.example.tradingplatformmvp.model.TradingSignal.SignalType;
-import com.example.tradingplatformmvp.repository.SimulatedTradeRepository;
-import com.example.tradingplatformmvp.repository.StockDataRepository;
+import com.example.tradingplatformmvp.persistence.WriteBehindStore;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
 
 @Service
 public class OrderManagementService {
 
-    // Simulated portfolio: symbol -> quantity
-    private final ConcurrentHashMap<String, Double> portfolio = new ConcurrentHashMap<>();
-    private double cash = 10000.0; // Initial cash
+    // Signals without a strategy name trade in this account
+    public static final String DEFAULT_ACCOUNT = "default";
 
-    private final StockDataRepository stockDataRepository;
-    private final SimulatedTradeRepository simulatedTradeRepository;
+    private final BarCache barCache;
+    private final LastPriceIndex lastPriceIndex;
+    private final WriteBehindStore writeBehindStore;
+    private final SymbolLaneDispatcher symbolLaneDispatcher;
+    private final Ledger ledger;
+    private final PipelineMetrics pipelineMetrics;
 
-    public OrderManagementService(StockDataRepository stockDataRepository, SimulatedTradeRepository simulatedTradeRepository) {
-        this.stockDataRepository = stockDataRepository;
-        this.simulatedTradeRepository = simulatedTradeRepository;
+    public OrderManagementService(BarCache barCache, LastPriceIndex lastPriceIndex, WriteBehindStore writeBehindStore,
+                                  SymbolLaneDispatcher symbolLaneDispatcher, Ledger ledger, PipelineMetrics pipelineMetrics) {
+        this.barCache = barCache;
+        this.lastPriceIndex = lastPriceIndex;
+        this.writeBehindStore = writeBehindStore;
+        this.symbolLaneDispatcher = symbolLaneDispatcher;
+        this.ledger = ledger;
+        this.pipelineMetrics = pipelineMetrics;
+        lastPriceIndex.addListener((symbol, previousPrice, price) -> ledger.markToMarket(symbol, price));
     }
 
-    @KafkaListener(topics = "trading-signals-topic", groupId = "trading-platform-group")
+    @KafkaListener(topics = "trading-signals-topic", groupId = "trading-platform-orders", concurrency = "${kafka.listener.concurrency:1}")
     public void consumeTradingSignal(TradingSignal signal) {
         System.out.println("OrderManagementService received signal: " + signal.getSymbol() + " - " + signal.getSignalType());
+        symbolLaneDispatcher.dispatch("orders", signal.getSymbol(), () -> executeSignal(signal));
+    }
 
-        // Fetch the latest stock data to get the current price
-        List<StockData> latestData = stockDataRepository.findBySymbolOrderByTimestampAsc(signal.getSymbol());
-        if (latestData.isEmpty()) {
+    // Each strategy trades its own account. Signals of one symbol execute in order; the ledger serializes fills
+    // per account, so different symbols may trade the same account concurrently.
+    private void executeSignal(TradingSignal signal) {
+        // Last trade price from the market data stream is the current price
+        double currentPrice = lastPriceIndex.getPrice(signal.getSymbol());
+        if (Double.isNaN(currentPrice)) {
+            currentPrice = barCache.lastClose(signal.getSymbol());
+        }
+        if (Double.isNaN(currentPrice)) {
             System.out.println("No recent stock data for " + signal.getSymbol() + ", cannot execute trade.");
             return;
         }
-        double currentPrice = latestData.get(latestData.size() - 1).getClose();
-
-        // For simplicity, we'll assume a fixed trade amount or quantity
-        double tradeAmount = 100.0; // Trade $100 worth of stock
 
+        String accountId = accountFor(signal);
+        double quantity = SimulatedFillRules.quantityFor(currentPrice);
         if (signal.getSignalType() == SignalType.BUY) {
-            if (cash >= tradeAmount) {
-                double quantity = tradeAmount / currentPrice;
-                portfolio.merge(signal.getSymbol(), quantity, Double::sum);
-                cash -= tradeAmount;
-                System.out.println(String.format("SIMULATED BUY: %s %.2f units at %.2f. New Cash: %.2f, Portfolio: %s",
-                        signal.getSymbol(), quantity, currentPrice, cash, portfolio));
-                saveSimulatedTrade(signal, "BUY", currentPrice, quantity);
-            } else {
-                System.out.println("SIMULATED BUY FAILED: Insufficient cash for " + signal.getSymbol());
+            Reservation reservation = ledger.reserveCash(accountId, signal.getSymbol(), SimulatedFillRules.TRADE_AMOUNT);
+            if (reservation == null) {
+                System.out.println("SIMULATED BUY FAILED: Insufficient cash in " + accountId + " for " + signal.getSymbol());
+                return;
             }
+            settle(signal, reservation, quantity, currentPrice);
         } else if (signal.getSignalType() == SignalType.SELL) {
-            double heldQuantity = portfolio.getOrDefault(signal.getSymbol(), 0.0);
-            if (heldQuantity * currentPrice >= tradeAmount) { // Check if we hold enough to sell the desired amount
-                double quantityToSell = tradeAmount / currentPrice;
-                portfolio.merge(signal.getSymbol(), -quantityToSell, Double::sum);
-                cash += tradeAmount;
-                System.out.println(String.format("SIMULATED SELL: %s %.2f units at %.2f. New Cash: %.2f, Portfolio: %s",
-                        signal.getSymbol(), quantityToSell, currentPrice, cash, portfolio));
-                saveSimulatedTrade(signal, "SELL", currentPrice, quantityToSell);
-            } else {
-                System.out.println("SIMULATED SELL FAILED: Insufficient holdings for " + signal.getSymbol());
+            Reservation reservation = ledger.reserveQuantity(accountId, signal.getSymbol(), quantity);
+            if (reservation == null) {
+                System.out.println("SIMULATED SELL FAILED: Insufficient holdings in " + accountId + " for " + signal.getSymbol());
+                return;
             }
+            settle(signal, reservation, quantity, currentPrice);
         }
     }
 
-    private void saveSimulatedTrade(TradingSignal signal, String tradeType, double price, double quantity) {
+    private void settle(TradingSignal signal, Reservation reservation, double quantity, double price) {
+        Ledger.Fill fill;
+        try {
+            fill = ledger.settle(reservation, quantity, price);
+        } catch (RuntimeException e) {
+            ledger.release(reservation);
+            System.err.println("Error settling " + signal.getSignalType() + " for " + signal.getSymbol() + ": " + e.getMessage());
+            return;
+        }
+        pipelineMetrics.recordTickToFill(signal.getStrategyName(), signal.getOriginMicros());
+        System.out.println(String.format("SIMULATED %s: %s %.2f units at %.2f. Account %s cash: %.2f, equity: %.2f",
+                fill.side(), fill.symbol(), fill.quantity(), fill.price(), fill.accountId(), fill.cashAfter(), fill.equityAfter()));
+        saveSimulatedTrade(signal, fill);
+    }
+
+    private static String accountFor(TradingSignal signal) {
+        return signal.getStrategyName() == null || signal.getStrategyName().isBlank() ? DEFAULT_ACCOUNT : signal.getStrategyName();
+    }
+
+    private void saveSimulatedTrade(TradingSignal signal, Ledger.Fill fill) {
         SimulatedTrade simulatedTrade = new SimulatedTrade();
         simulatedTrade.setSymbol(signal.getSymbol());
         simulatedTrade.setTimestamp(LocalDateTime.now());
-        simulatedTrade.setTradeType(tradeType);
-        simulatedTrade.setPrice(price);
-        simulatedTrade.setQuantity(quantity);
+        simulatedTrade.setTradeType(fill.side().name());
+        simulatedTrade.setPrice(fill.price());
+        simulatedTrade.setQuantity(fill.quantity());
         simulatedTrade.setStrategyName(signal.getStrategyName());
-        simulatedTrade.setCashAfterTrade(cash);
-        // For portfolioValueAfterTrade, you would sum up (quantity * currentPrice) for all holdings
-        simulatedTrade.setPortfolioValueAfterTrade(calculatePortfolioValue());
-        simulatedTradeRepository.save(simulatedTrade);
+        simulatedTrade.setCashAfterTrade(fill.cashAfter());
+        simulatedTrade.setPortfolioValueAfterTrade(fill.equityAfter());
+        writeBehindStore.saveTrade(simulatedTrade);
+    }
+
+    // Live view of the accounts built from in-memory state only
+    public List<PortfolioSnapshotDto> getPortfolioSnapshots() {
+        return ledger.snapshots();
     }
 
-    private double calculatePortfolioValue() {
-        // This is a simplified calculation. In a real app, you'd fetch current prices for all held symbols.
-        return cash + portfolio.entrySet().stream()
-                .mapToDouble(entry -> {
-                    List<StockData> latestData = stockDataRepository.findBySymbolOrderByTimestampAsc(entry.getKey());
-                    if (!latestData.isEmpty()) {
-                        return entry.getValue() * latestData.get(latestData.size() - 1).getClose();
-                    }
-                    return 0.0;
-                })
-                .sum();
+    public Optional<PortfolioSnapshotDto> getPortfolioSnapshot(String accountId) {
+        return ledger.snapshot(accountId);
     }
 }
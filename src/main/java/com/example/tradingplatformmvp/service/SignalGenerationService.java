@@ -1,101 +1,180 @@
 package com.example.tradingplatformmvp.service;
 
+import com.example.tradingplatformmvp.aggregation.Timeframe;
+import com.example.tradingplatformmvp.aggregation.TimeframeBarCache;
+import com.example.tradingplatformmvp.cache.BarCache;
+import com.example.tradingplatformmvp.cache.BarRingBuffer;
+import com.example.tradingplatformmvp.dispatch.SymbolLaneDispatcher;
 import com.example.tradingplatformmvp.dto.IndicatorDto;
 import com.example.tradingplatformmvp.dto.MlPredictionDto;
+import com.example.tradingplatformmvp.dto.TimeframeBarDto;
+import com.example.tradingplatformmvp.metrics.PipelineMetrics;
 import com.example.tradingplatformmvp.model.StockData;
 import com.example.tradingplatformmvp.model.TradingSignal;
-import com.example.tradingplatformmvp.model.TradingStrategyConfig;
-import com.example.tradingplatformmvp.repository.StockDataRepository;
-import com.example.tradingplatformmvp.repository.TradingSignalRepository;
+import com.example.tradingplatformmvp.persistence.WriteBehindStore;
 import com.example.tradingplatformmvp.strategy.MlBasedStrategy;
-import com.example.tradingplatformmvp.strategy.SmaCrossoverStrategy;
-import com.example.tradingplatformmvp.strategy.TradingStrategy;
-import org.springframework.context.ApplicationContext;
+import com.example.tradingplatformmvp.strategy.StrategyRegistry;
+import com.example.tradingplatformmvp.strategy.StrategyState;
+import com.example.tradingplatformmvp.websocket.MarketDataFanout;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 @Service
 public class SignalGenerationService {
 
-    private final TradingSignalRepository tradingSignalRepository;
+    private final WriteBehindStore writeBehindStore;
     private final KafkaTemplate<String, TradingSignal> kafkaTemplate;
-    private final SimpMessagingTemplate messagingTemplate;
-    private final StockDataRepository stockDataRepository;
-    private final StrategyConfigService strategyConfigService;
-    private final ApplicationContext applicationContext; // To get strategy beans dynamically
+    private final MarketDataFanout marketDataFanout;
+    private final BarCache barCache;
+    private final TimeframeBarCache timeframeBarCache;
+    private final StrategyRegistry strategyRegistry;
     private final MlBasedStrategy mlBasedStrategy;
+    private final SymbolLaneDispatcher symbolLaneDispatcher;
+    private final PipelineMetrics pipelineMetrics;
 
-    public SignalGenerationService(TradingSignalRepository tradingSignalRepository,
+    public SignalGenerationService(WriteBehindStore writeBehindStore,
                                    KafkaTemplate<String, TradingSignal> kafkaTemplate,
-                                   SimpMessagingTemplate messagingTemplate,
-                                   StockDataRepository stockDataRepository,
-                                   StrategyConfigService strategyConfigService,
-                                   ApplicationContext applicationContext,
-                                   MlBasedStrategy mlBasedStrategy) {
-        this.tradingSignalRepository = tradingSignalRepository;
+                                   MarketDataFanout marketDataFanout,
+                                   BarCache barCache,
+                                   TimeframeBarCache timeframeBarCache,
+                                   StrategyRegistry strategyRegistry,
+                                   MlBasedStrategy mlBasedStrategy,
+                                   SymbolLaneDispatcher symbolLaneDispatcher,
+                                   PipelineMetrics pipelineMetrics) {
+        this.writeBehindStore = writeBehindStore;
         this.kafkaTemplate = kafkaTemplate;
-        this.messagingTemplate = messagingTemplate;
-        this.stockDataRepository = stockDataRepository;
-        this.strategyConfigService = strategyConfigService;
-        this.applicationContext = applicationContext;
+        this.marketDataFanout = marketDataFanout;
+        this.barCache = barCache;
+        this.timeframeBarCache = timeframeBarCache;
+        this.strategyRegistry = strategyRegistry;
         this.mlBasedStrategy = mlBasedStrategy;
+        this.symbolLaneDispatcher = symbolLaneDispatcher;
+        this.pipelineMetrics = pipelineMetrics;
     }
 
-    @KafkaListener(topics = "stock-indicators-topic", groupId = "trading-platform-group")
+    @KafkaListener(topics = "stock-indicators-topic", groupId = "trading-platform-signals", concurrency = "${kafka.listener.concurrency:1}")
     public void consumeIndicatorsAndGenerateSignals(IndicatorDto indicatorDto) {
         System.out.println("SignalGenerationService received indicators: " + indicatorDto.getSymbol() + " - " + indicatorDto.getTimestamp());
+        symbolLaneDispatcher.dispatch("signals", indicatorDto.getSymbol(), () -> generateSignals(indicatorDto));
+    }
+
+    private void generateSignals(IndicatorDto indicatorDto) {
+        List<StrategyRegistry.BoundStrategy> boundStrategies = strategyRegistry.forSymbol(indicatorDto.getSymbol());
+        if (boundStrategies.isEmpty()) {
+            return;
+        }
+
+        // Create a StockData object from the IndicatorDto for strategy processing
+        StockData currentStockData = new StockData();
+        currentStockData.setSymbol(indicatorDto.getSymbol());
+        currentStockData.setTimestamp(indicatorDto.getTimestamp());
+        // Messages published before the close was included fall back to the SMA, as this used to do
+        double close = indicatorDto.getClose() > 0 ? indicatorDto.getClose() : indicatorDto.getSma();
+        currentStockData.setOpen(close); // Placeholder, ideally actual open/high/low
+        currentStockData.setHigh(close);
+        currentStockData.setLow(close);
+        currentStockData.setClose(close);
+        currentStockData.setVolume(0); // Placeholder
+
+        // Recent bars preceding this one
+        applyStrategies(boundStrategies, currentStockData, () -> barCache.window(indicatorDto.getSymbol())
+                        .toStockData(indicatorDto.getSymbol(), BarRingBuffer.toEpochSecond(indicatorDto.getTimestamp())),
+                indicatorDto.getOriginMicros(), "signals");
+    }
+
+    // Closed bars of the timeframes in aggregation.timeframes, for configs with that timeframe
+    @KafkaListener(topicPattern = "stock-bars-.*-topic", groupId = "trading-platform-signals", concurrency = "${kafka.listener.concurrency:1}")
+    public void consumeTimeframeBarAndGenerateSignals(TimeframeBarDto timeframeBarDto) {
+        System.out.println("SignalGenerationService received " + timeframeBarDto.getTimeframe() + " bar: " + timeframeBarDto.getSymbol() + " - " + timeframeBarDto.getTimestamp());
+        symbolLaneDispatcher.dispatch("timeframe-signals", timeframeBarDto.getSymbol(), () -> generateTimeframeSignals(timeframeBarDto));
+    }
+
+    private void generateTimeframeSignals(TimeframeBarDto timeframeBarDto) {
+        Timeframe timeframe = Timeframe.parse(timeframeBarDto.getTimeframe());
+        List<StrategyRegistry.BoundStrategy> boundStrategies = strategyRegistry.forSymbol(timeframeBarDto.getSymbol(), timeframe);
+        if (boundStrategies.isEmpty()) {
+            return;
+        }
+
+        StockData currentStockData = new StockData();
+        currentStockData.setSymbol(timeframeBarDto.getSymbol());
+        currentStockData.setTimestamp(timeframeBarDto.getTimestamp());
+        currentStockData.setOpen(timeframeBarDto.getOpen());
+        currentStockData.setHigh(timeframeBarDto.getHigh());
+        currentStockData.setLow(timeframeBarDto.getLow());
+        currentStockData.setClose(timeframeBarDto.getClose());
+        currentStockData.setVolume(timeframeBarDto.getVolume());
 
-        List<TradingStrategyConfig> enabledStrategies = strategyConfigService.getAllStrategies();
-
-        for (TradingStrategyConfig config : enabledStrategies) {
-            if (config.isEnabled() && config.getSymbol().equals(indicatorDto.getSymbol())) {
-                try {
-                    // Dynamically get the strategy bean by name
-                    TradingStrategy strategy = (TradingStrategy) applicationContext.getBean(config.getStrategyName().toLowerCase() + "Strategy");
-
-                    // Fetch historical data for the symbol to build the series for strategy
-                    List<StockData> historicalData = stockDataRepository.findBySymbolOrderByTimestampAsc(indicatorDto.getSymbol());
-
-                    // Create a StockData object from the IndicatorDto for strategy processing
-                    StockData currentStockData = new StockData();
-                    currentStockData.setSymbol(indicatorDto.getSymbol());
-                    currentStockData.setTimestamp(indicatorDto.getTimestamp());
-                    currentStockData.setOpen(indicatorDto.getSma()); // Placeholder, ideally actual open/high/low/close
-                    currentStockData.setHigh(indicatorDto.getSma());
-                    currentStockData.setLow(indicatorDto.getSma());
-                    currentStockData.setClose(indicatorDto.getSma()); // Using SMA as close for strategy input
-                    currentStockData.setVolume(0); // Placeholder
-
-                    List<TradingSignal> signals = strategy.generateSignals(historicalData, currentStockData, config.getParameters());
-
-                    for (TradingSignal signal : signals) {
-                        tradingSignalRepository.save(signal);
-                        kafkaTemplate.send("trading-signals-topic", signal.getSymbol(), signal);
-                        messagingTemplate.convertAndSend("/topic/trading-signals/" + signal.getSymbol(), signal);
-                        System.out.println("Generated Signal: " + signal.getDescription());
+        // Closed bars of the same timeframe preceding this one
+        applyStrategies(boundStrategies, currentStockData, () -> timeframeBarCache.window(timeframeBarDto.getSymbol(), timeframe)
+                        .toStockData(timeframeBarDto.getSymbol(), BarRingBuffer.toEpochSecond(timeframeBarDto.getTimestamp())),
+                timeframeBarDto.getOriginMicros(), "timeframe-signals");
+    }
+
+    private void applyStrategies(List<StrategyRegistry.BoundStrategy> boundStrategies, StockData currentStockData,
+                                 Supplier<List<StockData>> history, long originMicros, String stage) {
+        List<StockData> historicalData = null; // Loaded at most once, shared by all configs
+
+        for (int i = 0; i < boundStrategies.size(); i++) {
+            StrategyRegistry.BoundStrategy bound = boundStrategies.get(i);
+            try {
+                StrategyState state = bound.state();
+                if ((state == null || state.getBarCount() == 0) && historicalData == null) {
+                    historicalData = history.get();
+                }
+
+                long evaluationStarted = System.nanoTime();
+                List<TradingSignal> signals;
+                if (state != null) {
+                    if (state.getBarCount() == 0) {
+                        // First tick of this binding: prime from the cached history, signals on old bars are dropped
+                        for (StockData bar : historicalData) {
+                            state.onBar(bar);
+                        }
                     }
-                } catch (Exception e) {
-                    System.err.println("Error applying strategy " + config.getStrategyName() + ": " + e.getMessage());
+                    signals = state.onBar(currentStockData);
+                } else {
+                    signals = bound.strategy().evaluate(historicalData, currentStockData, bound.parameters());
                 }
+                pipelineMetrics.recordStrategyEvaluation(bound.config().getStrategyName(), System.nanoTime() - evaluationStarted);
+
+                for (TradingSignal signal : signals) {
+                    publishSignal(signal, originMicros, stage);
+                    System.out.println("Generated Signal: " + signal.getDescription());
+                }
+            } catch (Exception e) {
+                System.err.println("Error applying strategy " + bound.config().getStrategyName() + ": " + e.getMessage());
             }
         }
     }
 
-    @KafkaListener(topics = "ml-predictions-topic", groupId = "trading-platform-group")
+    @KafkaListener(topics = "ml-predictions-topic", groupId = "trading-platform-signals", concurrency = "${kafka.listener.concurrency:1}")
     public void consumeMlPredictionAndGenerateSignals(MlPredictionDto mlPredictionDto) {
         System.out.println("SignalGenerationService received ML Prediction: " + mlPredictionDto.getSymbol() + " - " + mlPredictionDto.getPrediction());
+        symbolLaneDispatcher.dispatch("ml-signals", mlPredictionDto.getSymbol(), () -> generateMlSignals(mlPredictionDto));
+    }
 
+    private void generateMlSignals(MlPredictionDto mlPredictionDto) {
         List<TradingSignal> signals = mlBasedStrategy.generateSignalsFromMlPrediction(mlPredictionDto);
 
         for (TradingSignal signal : signals) {
-            tradingSignalRepository.save(signal);
-            kafkaTemplate.send("trading-signals-topic", signal.getSymbol(), signal);
-            messagingTemplate.convertAndSend("/topic/trading-signals/" + signal.getSymbol(), signal);
+            publishSignal(signal, mlPredictionDto.getOriginMicros(), "ml-signals");
             System.out.println("Generated ML Signal: " + signal.getDescription());
         }
     }
+
+    // Published messages carry no signal id: the write-behind store saves its own copy later
+    private void publishSignal(TradingSignal signal, long originMicros, String stage) {
+        signal.setOriginMicros(originMicros);
+        long started = System.nanoTime();
+        kafkaTemplate.send("trading-signals-topic", signal.getSymbol(), signal);
+        marketDataFanout.publish("/topic/trading-signals/" + signal.getSymbol(), signal);
+        pipelineMetrics.recordPublish(stage, System.nanoTime() - started);
+        pipelineMetrics.recordTickToSignal(signal.getStrategyName(), originMicros);
+        writeBehindStore.saveSignal(signal);
+    }
 }
@@ -0,0 +1,24 @@
+package com.example.tradingplatformmvp.service;
+
+// Fill rules for simulated trading, shared by live order handling and strategy replay so both trade identically:
+// every signal trades a fixed notional at the current price.
+public final class SimulatedFillRules {
+
+    public static final double TRADE_AMOUNT = 100.0; // Trade $100 worth of stock
+
+    private SimulatedFillRules() {
+    }
+
+    public static boolean canBuy(double cash) {
+        return cash >= TRADE_AMOUNT;
+    }
+
+    // Check if we hold enough to sell the desired amount
+    public static boolean canSell(double heldQuantity, double price) {
+        return heldQuantity * price >= TRADE_AMOUNT;
+    }
+
+    public static double quantityFor(double price) {
+        return TRADE_AMOUNT / price;
+    }
+}
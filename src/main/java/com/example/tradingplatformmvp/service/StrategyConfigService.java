@@ -1,7 +1,10 @@
 package com.example.tradingplatformmvp.service;
 
+import com.example.tradingplatformmvp.aggregation.Timeframe;
+import com.example.tradingplatformmvp.aggregation.TimeframeBarCache;
 import com.example.tradingplatformmvp.model.TradingStrategyConfig;
 import com.example.tradingplatformmvp.repository.TradingStrategyConfigRepository;
+import com.example.tradingplatformmvp.strategy.StrategyRegistry;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -11,9 +14,14 @@ import java.util.Optional;
 public class StrategyConfigService {
 
     private final TradingStrategyConfigRepository repository;
+    private final StrategyRegistry strategyRegistry;
+    private final TimeframeBarCache timeframeBarCache;
 
-    public StrategyConfigService(TradingStrategyConfigRepository repository) {
+    public StrategyConfigService(TradingStrategyConfigRepository repository, StrategyRegistry strategyRegistry,
+                                 TimeframeBarCache timeframeBarCache) {
         this.repository = repository;
+        this.strategyRegistry = strategyRegistry;
+        this.timeframeBarCache = timeframeBarCache;
     }
 
     public List<TradingStrategyConfig> getAllStrategies() {
@@ -24,12 +32,25 @@ public class StrategyConfigService {
         return repository.findById(id);
     }
 
+    // Timeframes are stored in canonical form (60m becomes 1h). One that does not parse, or that is neither the raw
+    // bars nor in aggregation.timeframes (the registry could not bind it), is rejected before saving.
     public TradingStrategyConfig saveStrategy(TradingStrategyConfig strategyConfig) {
-        return repository.save(strategyConfig);
+        if (strategyConfig.getTimeframe() != null && !strategyConfig.getTimeframe().isBlank()) {
+            Timeframe timeframe = Timeframe.parse(strategyConfig.getTimeframe());
+            if (!timeframe.isBase() && !timeframeBarCache.isAggregated(timeframe)) {
+                throw new IllegalArgumentException("timeframe " + timeframe + " is not in aggregation.timeframes "
+                        + timeframeBarCache.getTimeframes());
+            }
+            strategyConfig.setTimeframe(timeframe.label());
+        }
+        TradingStrategyConfig saved = repository.save(strategyConfig);
+        strategyRegistry.rebuild();
+        return saved;
     }
 
     public void deleteStrategy(Long id) {
         repository.deleteById(id);
+        strategyRegistry.rebuild();
     }
 
     public TradingStrategyConfig getStrategyByNameAndSymbol(String strategyName, String symbol) {
@@ -1,12 +1,20 @@
 package com.example.tradingplatformmvp.service;
 
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import com.example.tradingplatformmvp.cache.BarCache;
+import com.example.tradingplatformmvp.dispatch.SymbolLaneDispatcher;
 import com.example.tradingplatformmvp.dto.IndicatorDto;
 import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.indicator.SymbolIndicatorState;
+import com.example.tradingplatformmvp.metrics.PipelineMetrics;
 import com.example.tradingplatformmvp.model.StockData;
 import com.example.tradingplatformmvp.repository.StockDataRepository;
+import com.example.tradingplatformmvp.websocket.MarketDataFanout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.BaseBarSeriesBuilder;
@@ -17,21 +25,50 @@ import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
 import org.ta4j.core.indicators.EMAIndicator;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class TechnicalAnalysisService {
 
+    private static final int SMA_PERIOD = 20;
+    private static final int RSI_PERIOD = 14;
+    private static final int MACD_FAST_PERIOD = 12;
+    private static final int MACD_SLOW_PERIOD = 26;
+    private static final int MACD_SIGNAL_PERIOD = 9;
+
     private final StockDataRepository stockDataRepository;
     private final KafkaTemplate<String, IndicatorDto> kafkaTemplate;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final MarketDataFanout marketDataFanout;
+    private final BarCache barCache;
+    private final PriceHistoryService priceHistoryService;
+    private final SymbolLaneDispatcher symbolLaneDispatcher;
+    private final PipelineMetrics pipelineMetrics;
+
+    // Streaming indicator state per symbol, seeded from history once and then advanced bar by bar
+    private final ConcurrentHashMap<String, SymbolIndicatorState> indicatorStates = new ConcurrentHashMap<>();
+
+    @Value("${indicators.warmup.symbols:}")
+    private List<String> warmupSymbols;
+
+    // Every N bars per symbol, recompute with ta4j over the full history and compare (0 disables)
+    @Value("${indicators.crosscheck.interval:0}")
+    private int crossCheckInterval;
+
+    @Value("${indicators.crosscheck.tolerance:1e-6}")
+    private double crossCheckTolerance;
 
-    public TechnicalAnalysisService(StockDataRepository stockDataRepository, KafkaTemplate<String, IndicatorDto> kafkaTemplate, SimpMessagingTemplate messagingTemplate) {
+    public TechnicalAnalysisService(StockDataRepository stockDataRepository, KafkaTemplate<String, IndicatorDto> kafkaTemplate, MarketDataFanout marketDataFanout, BarCache barCache, PriceHistoryService priceHistoryService, SymbolLaneDispatcher symbolLaneDispatcher, PipelineMetrics pipelineMetrics) {
         this.stockDataRepository = stockDataRepository;
         this.kafkaTemplate = kafkaTemplate;
-        this.messagingTemplate = messagingTemplate;
+        this.marketDataFanout = marketDataFanout;
+        this.barCache = barCache;
+        this.priceHistoryService = priceHistoryService;
+        this.symbolLaneDispatcher = symbolLaneDispatcher;
+        this.pipelineMetrics = pipelineMetrics;
     }
 
     public BarSeries buildBarSeries(List<StockData> stockDataList) {
@@ -50,6 +87,23 @@ public class TechnicalAnalysisService {
         return series;
     }
 
+    // Same series as above, read straight from columnar data (e.g. the memory-mapped archive) without entities
+    public BarSeries buildBarSeries(PriceSeries priceSeries) {
+        BarSeries series = new BaseBarSeriesBuilder().withName("stock_series").build();
+        for (int i = 0; i < priceSeries.size(); i++) {
+            series.addBar(
+                Duration.ofMinutes(1), // Assuming 1-minute bars for simplicity
+                ZonedDateTime.of(priceSeries.getDateTime(i), ZoneId.systemDefault()),
+                priceSeries.getOpen(i),
+                priceSeries.getHigh(i),
+                priceSeries.getLow(i),
+                priceSeries.getClose(i),
+                priceSeries.getVolume(i)
+            );
+        }
+        return series;
+    }
+
     public double calculateSMA(List<StockData> stockDataList, int barCount) {
         if (stockDataList == null || stockDataList.isEmpty() || stockDataList.size() < barCount) {
             return 0.0; // Not enough data to calculate SMA
@@ -90,44 +144,122 @@ public class TechnicalAnalysisService {
         return new double[]{macdValue, signalValue, histogramValue};
     }
 
-    @KafkaListener(topics = "stock-data-topic", groupId = "trading-platform-group")
-    public void consumeStockDataAndPublishIndicators(StockDataDto stockDataDto) {
-        System.out.println("TechnicalAnalysisService received: " + stockDataDto.getSymbol() + " - " + stockDataDto.getTimestamp());
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpIndicators() {
+        for (String symbol : warmupSymbols) {
+            if (!symbol.isBlank()) {
+                getOrSeedIndicatorState(symbol.trim());
+            }
+        }
+    }
 
-        List<StockData> stockDataList = stockDataRepository.findBySymbolOrderByTimestampAsc(stockDataDto.getSymbol());
-
-        // Add the current incoming data point to the list for analysis
-        StockData currentStockData = new StockData();
-        currentStockData.setSymbol(stockDataDto.getSymbol());
-        currentStockData.setTimestamp(stockDataDto.getTimestamp());
-        currentStockData.setOpen(stockDataDto.getOpen());
-        currentStockData.setHigh(stockDataDto.getHigh());
-        currentStockData.setLow(stockDataDto.getLow());
-        currentStockData.setClose(stockDataDto.getClose());
-        currentStockData.setVolume(stockDataDto.getVolume());
-        stockDataList.add(currentStockData);
-
-        // Ensure enough data for calculations
-        if (stockDataList.size() < 20) { // Minimum bars for some indicators
-            System.out.println("Not enough data for indicator calculation for " + stockDataDto.getSymbol());
-            return;
+    public SymbolIndicatorState getOrSeedIndicatorState(String symbol) {
+        return getOrSeedIndicatorState(symbol, null);
+    }
+
+    // History is loaded outside the map, so a slow load never holds a map bin other symbols hash to. If two threads
+    // seed the same symbol at once, the first state stored wins.
+    private SymbolIndicatorState getOrSeedIndicatorState(String symbol, LocalDateTime before) {
+        SymbolIndicatorState state = indicatorStates.get(symbol);
+        if (state != null) {
+            return state;
         }
+        SymbolIndicatorState seeded = seedIndicatorState(symbol, before);
+        SymbolIndicatorState existing = indicatorStates.putIfAbsent(symbol, seeded);
+        return existing != null ? existing : seeded;
+    }
+
+    // Seeds from the bars strictly older than `before` (all bars when null). The bar that triggered the seeding may
+    // already be stored, and it must be applied afterwards instead of being rejected as stale.
+    private SymbolIndicatorState seedIndicatorState(String symbol, LocalDateTime before) {
+        SymbolIndicatorState state = new SymbolIndicatorState(SMA_PERIOD, RSI_PERIOD, MACD_FAST_PERIOD, MACD_SLOW_PERIOD, MACD_SIGNAL_PERIOD);
+        PriceSeries history = priceHistoryService.loadAll(symbol);
+        int seeded = 0;
+        while (seeded < history.size() && (before == null || history.getDateTime(seeded).isBefore(before))) {
+            state.update(history.getDateTime(seeded), history.getClose(seeded));
+            seeded++;
+        }
+        System.out.println("Seeded streaming indicators for " + symbol + " from " + seeded + " bars");
+        return state;
+    }
+
+    @KafkaListener(topics = "stock-data-topic", groupId = "trading-platform-indicators", concurrency = "${kafka.listener.concurrency:1}")
+    public void consumeStockDataAndPublishIndicators(StockDataDto stockDataDto) {
+        System.out.println("TechnicalAnalysisService received: " + stockDataDto.getSymbol() + " - " + stockDataDto.getTimestamp());
+        symbolLaneDispatcher.dispatch("indicators", stockDataDto.getSymbol(), () -> publishIndicators(stockDataDto));
+    }
 
-        double sma = calculateSMA(stockDataList, 20); // Example SMA period
-        double rsi = calculateRSI(stockDataList, 14); // Example RSI period
-        double[] macdValues = calculateMACD(stockDataList, 12, 26, 9); // Example MACD periods
+    // Runs on the symbol's dispatcher lane, so bars of one symbol are applied in order
+    private void publishIndicators(StockDataDto stockDataDto) {
+        // Duplicates are ignored by the cache, so it is safe to record the bar here as well as on persistence
+        barCache.append(stockDataDto);
+        SymbolIndicatorState state = getOrSeedIndicatorState(stockDataDto.getSymbol(), stockDataDto.getTimestamp());
 
         IndicatorDto indicatorDto = new IndicatorDto();
-        indicatorDto.setSymbol(stockDataDto.getSymbol());
-        indicatorDto.setTimestamp(stockDataDto.getTimestamp());
-        indicatorDto.setSma(sma);
-        indicatorDto.setRsi(rsi);
-        indicatorDto.setMacd(macdValues[0]);
-        indicatorDto.setMacdSignal(macdValues[1]);
-        indicatorDto.setMacdHist(macdValues[2]);
+        synchronized (state) {
+            if (!state.update(stockDataDto.getTimestamp(), stockDataDto.getClose())) {
+                System.out.println("Skipping stale bar for " + stockDataDto.getSymbol() + " - " + stockDataDto.getTimestamp());
+                return;
+            }
 
+            // Ensure enough data for calculations
+            if (state.getBarCount() < SMA_PERIOD) { // Minimum bars for some indicators
+                System.out.println("Not enough data for indicator calculation for " + stockDataDto.getSymbol());
+                return;
+            }
+
+            indicatorDto.setSymbol(stockDataDto.getSymbol());
+            indicatorDto.setTimestamp(stockDataDto.getTimestamp());
+            indicatorDto.setClose(stockDataDto.getClose());
+            indicatorDto.setSma(state.getSma());
+            indicatorDto.setRsi(state.getRsi());
+            indicatorDto.setMacd(state.getMacd());
+            indicatorDto.setMacdSignal(state.getMacdSignal());
+            indicatorDto.setMacdHist(state.getMacdHist());
+            indicatorDto.setOriginMicros(stockDataDto.getOriginMicros());
+
+            if (crossCheckInterval > 0 && state.getBarCount() % crossCheckInterval == 0) {
+                try {
+                    crossCheckAgainstTa4j(indicatorDto);
+                } catch (Exception e) {
+                    System.err.println("Error cross-checking indicators for " + indicatorDto.getSymbol() + ": " + e.getMessage());
+                }
+            }
+        }
+
+        long publishStarted = System.nanoTime();
         kafkaTemplate.send("stock-indicators-topic", indicatorDto.getSymbol(), indicatorDto);
-        messagingTemplate.convertAndSend("/topic/indicators/" + indicatorDto.getSymbol(), indicatorDto);
+        marketDataFanout.publish("/topic/indicators/" + indicatorDto.getSymbol(), indicatorDto);
+        pipelineMetrics.recordPublish("indicators", System.nanoTime() - publishStarted);
+        pipelineMetrics.recordTickToIndicators(indicatorDto.getOriginMicros());
         System.out.println("Published indicators to Kafka and WebSocket: " + indicatorDto.getSymbol() + " - " + indicatorDto.getTimestamp());
     }
+
+    // Recomputes the full-history ta4j values and reports any streaming value that drifted beyond the tolerance.
+    // The stored history may not contain the current bar yet, so it is added when missing.
+    private void crossCheckAgainstTa4j(IndicatorDto streamed) {
+        List<StockData> stockDataList = stockDataRepository.findBySymbolOrderByTimestampAsc(streamed.getSymbol());
+        if (stockDataList.isEmpty() || stockDataList.get(stockDataList.size() - 1).getTimestamp().isBefore(streamed.getTimestamp())) {
+            StockData current = new StockData();
+            current.setSymbol(streamed.getSymbol());
+            current.setTimestamp(streamed.getTimestamp());
+            current.setClose(getOrSeedIndicatorState(streamed.getSymbol()).getLastClose());
+            stockDataList.add(current);
+        }
+        double[] expectedMacd = calculateMACD(stockDataList, MACD_FAST_PERIOD, MACD_SLOW_PERIOD, MACD_SIGNAL_PERIOD);
+        double[][] pairs = {
+                {streamed.getSma(), calculateSMA(stockDataList, SMA_PERIOD)},
+                {streamed.getRsi(), calculateRSI(stockDataList, RSI_PERIOD)},
+                {streamed.getMacd(), expectedMacd[0]},
+                {streamed.getMacdSignal(), expectedMacd[1]},
+                {streamed.getMacdHist(), expectedMacd[2]}
+        };
+        String[] names = {"SMA", "RSI", "MACD", "MACD signal", "MACD histogram"};
+        for (int i = 0; i < pairs.length; i++) {
+            if (Math.abs(pairs[i][0] - pairs[i][1]) > crossCheckTolerance) {
+                System.err.println(String.format("Streaming %s for %s drifted from ta4j: %.10f vs %.10f",
+                        names[i], streamed.getSymbol(), pairs[i][0], pairs[i][1]));
+            }
+        }
+    }
 }
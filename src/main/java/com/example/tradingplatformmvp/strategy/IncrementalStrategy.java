@@ -0,0 +1,9 @@
+package com.example.tradingplatformmvp.strategy;
+
+// Strategies that evaluate bar by bar from compact running state instead of recomputing over the history.
+// Each tick then costs O(1) in the length of the history.
+public interface IncrementalStrategy {
+
+    // Fresh state for one symbol, before any bar; parameters come from TradingStrategy.parseParameters
+    StrategyState init(String symbol, Object parameters);
+}
@@ -1,8 +1,11 @@
 package com.example.tradingplatformmvp.strategy;
 
+import com.example.tradingplatformmvp.indicator.RunningMacd;
+import com.example.tradingplatformmvp.indicator.RunningRsi;
 import com.example.tradingplatformmvp.model.StockData;
 import com.example.tradingplatformmvp.model.TradingSignal;
 import com.example.tradingplatformmvp.service.TechnicalAnalysisService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Component;
 import org.ta4j.core.BarSeries;
@@ -16,19 +19,21 @@ import java.util.List;
 import java.util.Map;
 
 @Component
-public class RsiMacdStrategy implements TradingStrategy {
+public class RsiMacdStrategy implements TradingStrategy, IncrementalStrategy {
 
     private final TechnicalAnalysisService technicalAnalysisService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    public record Parameters(int rsiPeriod, double rsiOverbought, double rsiOversold,
+                             int macdFastPeriod, int macdSlowPeriod, int macdSignalPeriod) {
+    }
+
     public RsiMacdStrategy(TechnicalAnalysisService technicalAnalysisService) {
         this.technicalAnalysisService = technicalAnalysisService;
     }
 
     @Override
-    public List<TradingSignal> generateSignals(List<StockData> historicalData, StockData currentData, String parametersJson) {
-        List<TradingSignal> signals = new ArrayList<>();
-
+    public Parameters parseParameters(String parametersJson) {
         // Default parameters
         int rsiPeriod = 14;
         double rsiOverbought = 70.0;
@@ -38,16 +43,34 @@ public class RsiMacdStrategy implements TradingStrategy {
         int macdSignalPeriod = 9;
 
         try {
-            Map<String, Object> params = objectMapper.readValue(parametersJson, Map.class);
-            if (params.containsKey("rsiPeriod")) rsiPeriod = (int) params.get("rsiPeriod");
-            if (params.containsKey("rsiOverbought")) rsiOverbought = (double) params.get("rsiOverbought");
-            if (params.containsKey("rsiOversold")) rsiOversold = (double) params.get("rsiOversold");
-            if (params.containsKey("macdFastPeriod")) macdFastPeriod = (int) params.get("macdFastPeriod");
-            if (params.containsKey("macdSlowPeriod")) macdSlowPeriod = (int) params.get("macdSlowPeriod");
-            if (params.containsKey("macdSignalPeriod")) macdSignalPeriod = (int) params.get("macdSignalPeriod");
+            JsonNode params = objectMapper.readTree(parametersJson == null ? "{}" : parametersJson);
+            rsiPeriod = params.path("rsiPeriod").asInt(rsiPeriod);
+            rsiOverbought = params.path("rsiOverbought").asDouble(rsiOverbought);
+            rsiOversold = params.path("rsiOversold").asDouble(rsiOversold);
+            macdFastPeriod = params.path("macdFastPeriod").asInt(macdFastPeriod);
+            macdSlowPeriod = params.path("macdSlowPeriod").asInt(macdSlowPeriod);
+            macdSignalPeriod = params.path("macdSignalPeriod").asInt(macdSignalPeriod);
         } catch (Exception e) {
             System.err.println("Error parsing RSI/MACD strategy parameters: " + e.getMessage());
         }
+        return new Parameters(rsiPeriod, rsiOverbought, rsiOversold, macdFastPeriod, macdSlowPeriod, macdSignalPeriod);
+    }
+
+    @Override
+    public List<TradingSignal> generateSignals(List<StockData> historicalData, StockData currentData, String parametersJson) {
+        return evaluate(historicalData, currentData, parseParameters(parametersJson));
+    }
+
+    @Override
+    public List<TradingSignal> evaluate(List<StockData> historicalData, StockData currentData, Object parameters) {
+        List<TradingSignal> signals = new ArrayList<>();
+        Parameters params = (Parameters) parameters;
+        int rsiPeriod = params.rsiPeriod();
+        double rsiOverbought = params.rsiOverbought();
+        double rsiOversold = params.rsiOversold();
+        int macdFastPeriod = params.macdFastPeriod();
+        int macdSlowPeriod = params.macdSlowPeriod();
+        int macdSignalPeriod = params.macdSignalPeriod();
 
         // Add the current incoming data point to the historical data for analysis
         List<StockData> dataForAnalysis = new ArrayList<>(historicalData);
@@ -78,28 +101,78 @@ public class RsiMacdStrategy implements TradingStrategy {
 
         // Buy Condition: RSI oversold and MACD crosses above signal line
         if (currentRsi < rsiOversold && currentMacd > currentMacdSignal && previousMacd <= previousMacdSignal) {
-            TradingSignal buySignal = new TradingSignal();
-            buySignal.setSymbol(currentData.getSymbol());
-            buySignal.setTimestamp(currentData.getTimestamp());
-            buySignal.setSignalType(TradingSignal.SignalType.BUY);
-            buySignal.setStrategyName(getName());
-            buySignal.setDescription(String.format("BUY: RSI (%.2f) oversold & MACD (%.2f) crossed above Signal (%.2f)", currentRsi, currentMacd, currentMacdSignal));
-            signals.add(buySignal);
+            signals.add(crossSignal(currentData, TradingSignal.SignalType.BUY, currentRsi, currentMacd, currentMacdSignal));
         }
         // Sell Condition: RSI overbought and MACD crosses below signal line
         else if (currentRsi > rsiOverbought && currentMacd < currentMacdSignal && previousMacd >= previousMacdSignal) {
-            TradingSignal sellSignal = new TradingSignal();
-            sellSignal.setSymbol(currentData.getSymbol());
-            sellSignal.setTimestamp(currentData.getTimestamp());
-            sellSignal.setSignalType(TradingSignal.SignalType.SELL);
-            sellSignal.setStrategyName(getName());
-            sellSignal.setDescription(String.format("SELL: RSI (%.2f) overbought & MACD (%.2f) crossed below Signal (%.2f)", currentRsi, currentMacd, currentMacdSignal));
-            signals.add(sellSignal);
+            signals.add(crossSignal(currentData, TradingSignal.SignalType.SELL, currentRsi, currentMacd, currentMacdSignal));
         }
 
         return signals;
     }
 
+    private TradingSignal crossSignal(StockData bar, TradingSignal.SignalType type, double rsi, double macd, double macdSignal) {
+        TradingSignal signal = new TradingSignal();
+        signal.setSymbol(bar.getSymbol());
+        signal.setTimestamp(bar.getTimestamp());
+        signal.setSignalType(type);
+        signal.setStrategyName(getName());
+        signal.setDescription(type == TradingSignal.SignalType.BUY
+                ? String.format("BUY: RSI (%.2f) oversold & MACD (%.2f) crossed above Signal (%.2f)", rsi, macd, macdSignal)
+                : String.format("SELL: RSI (%.2f) overbought & MACD (%.2f) crossed below Signal (%.2f)", rsi, macd, macdSignal));
+        return signal;
+    }
+
+    @Override
+    public StrategyState init(String symbol, Object parameters) {
+        return new RsiMacdState((Parameters) parameters);
+    }
+
+    // Wilder RSI and the MACD/signal EMAs advanced one close at a time, keeping the previous MACD pair for the cross
+    private final class RsiMacdState extends StrategyState {
+        private final Parameters params;
+        private final int minimumBars;
+        private final RunningRsi rsi;
+        private final RunningMacd macd;
+        private double prevMacd;
+        private double prevMacdSignal;
+
+        private RsiMacdState(Parameters params) {
+            this.params = params;
+            this.minimumBars = Math.max(Math.max(params.rsiPeriod(), params.macdFastPeriod()), params.macdSlowPeriod());
+            this.rsi = new RunningRsi(params.rsiPeriod());
+            this.macd = new RunningMacd(params.macdFastPeriod(), params.macdSlowPeriod(), params.macdSignalPeriod());
+        }
+
+        @Override
+        protected List<TradingSignal> advance(StockData bar) {
+            double previousMacd = prevMacd;
+            double previousMacdSignal = prevMacdSignal;
+            rsi.update(bar.getClose());
+            macd.update(bar.getClose());
+            double currentRsi = rsi.getValue();
+            double currentMacd = macd.getMacd();
+            double currentMacdSignal = macd.getSignal();
+            prevMacd = currentMacd;
+            prevMacdSignal = currentMacdSignal;
+
+            if (getBarCount() < minimumBars) {
+                return List.of();
+            }
+            if (currentRsi < params.rsiOversold() && currentMacd > currentMacdSignal && previousMacd <= previousMacdSignal) {
+                return List.of(crossSignal(bar, TradingSignal.SignalType.BUY, currentRsi, currentMacd, currentMacdSignal));
+            } else if (currentRsi > params.rsiOverbought() && currentMacd < currentMacdSignal && previousMacd >= previousMacdSignal) {
+                return List.of(crossSignal(bar, TradingSignal.SignalType.SELL, currentRsi, currentMacd, currentMacdSignal));
+            }
+            return List.of();
+        }
+
+        @Override
+        public Map<String, Double> snapshot() {
+            return Map.of("rsi", rsi.getValue(), "macd", macd.getMacd(), "macdSignal", macd.getSignal());
+        }
+    }
+
     @Override
     public String getName() {
         return "RSI_MACD_STRATEGY";
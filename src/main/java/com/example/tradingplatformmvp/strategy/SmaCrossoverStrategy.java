@@ -1,8 +1,10 @@
 package com.example.tradingplatformmvp.strategy;
 
+import com.example.tradingplatformmvp.indicator.RunningSma;
 import com.example.tradingplatformmvp.model.StockData;
 import com.example.tradingplatformmvp.model.TradingSignal;
 import com.example.tradingplatformmvp.service.TechnicalAnalysisService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Component;
 import org.ta4j.core.BarSeries;
@@ -15,7 +17,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Component
-public class SmaCrossoverStrategy implements TradingStrategy {
+public class SmaCrossoverStrategy implements TradingStrategy, IncrementalStrategy {
 
     private final TechnicalAnalysisService technicalAnalysisService;
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -24,28 +26,39 @@ public class SmaCrossoverStrategy implements TradingStrategy {
     private final ConcurrentHashMap<String, Double> lastShortSma = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, Double> lastLongSma = new ConcurrentHashMap<>();
 
+    public record Parameters(int shortSma, int longSma) {
+    }
+
     public SmaCrossoverStrategy(TechnicalAnalysisService technicalAnalysisService) {
         this.technicalAnalysisService = technicalAnalysisService;
     }
 
     @Override
-    public List<TradingSignal> generateSignals(List<StockData> historicalData, StockData currentData, String parametersJson) {
-        List<TradingSignal> signals = new ArrayList<>();
-
+    public Parameters parseParameters(String parametersJson) {
         int shortSmaPeriod = 5; // Default
         int longSmaPeriod = 20; // Default
 
         try {
-            Map<String, Integer> params = objectMapper.readValue(parametersJson, Map.class);
-            if (params.containsKey("shortSma")) {
-                shortSmaPeriod = params.get("shortSma");
-            }
-            if (params.containsKey("longSma")) {
-                longSmaPeriod = params.get("longSma");
-            }
+            JsonNode params = objectMapper.readTree(parametersJson == null ? "{}" : parametersJson);
+            shortSmaPeriod = params.path("shortSma").asInt(shortSmaPeriod);
+            longSmaPeriod = params.path("longSma").asInt(longSmaPeriod);
         } catch (Exception e) {
             System.err.println("Error parsing SMA Crossover strategy parameters: " + e.getMessage());
         }
+        return new Parameters(shortSmaPeriod, longSmaPeriod);
+    }
+
+    @Override
+    public List<TradingSignal> generateSignals(List<StockData> historicalData, StockData currentData, String parametersJson) {
+        return evaluate(historicalData, currentData, parseParameters(parametersJson));
+    }
+
+    @Override
+    public List<TradingSignal> evaluate(List<StockData> historicalData, StockData currentData, Object parameters) {
+        List<TradingSignal> signals = new ArrayList<>();
+        Parameters params = (Parameters) parameters;
+        int shortSmaPeriod = params.shortSma();
+        int longSmaPeriod = params.longSma();
 
         // Add the current incoming data point to the historical data for analysis
         List<StockData> dataForAnalysis = new ArrayList<>(historicalData);
@@ -77,28 +90,91 @@ public class SmaCrossoverStrategy implements TradingStrategy {
         if (prevShortSma != null && prevLongSma != null) {
             // Buy signal: Short SMA crosses above Long SMA
             if (currentShortSma > currentLongSma && prevShortSma <= prevLongSma) {
-                TradingSignal buySignal = new TradingSignal();
-                buySignal.setSymbol(currentData.getSymbol());
-                buySignal.setTimestamp(currentData.getTimestamp());
-                buySignal.setSignalType(TradingSignal.SignalType.BUY);
-                buySignal.setStrategyName(getName());
-                buySignal.setDescription(String.format("BUY: Short SMA (%d) crossed above Long SMA (%d)", shortSmaPeriod, longSmaPeriod));
-                signals.add(buySignal);
+                signals.add(crossoverSignal(currentData, TradingSignal.SignalType.BUY, shortSmaPeriod, longSmaPeriod));
             }
             // Sell signal: Short SMA crosses below Long SMA
             else if (currentShortSma < currentLongSma && prevShortSma >= prevLongSma) {
-                TradingSignal sellSignal = new TradingSignal();
-                sellSignal.setSymbol(currentData.getSymbol());
-                sellSignal.setTimestamp(currentData.getTimestamp());
-                sellSignal.setSignalType(TradingSignal.SignalType.SELL);
-                sellSignal.setStrategyName(getName());
-                sellSignal.setDescription(String.format("SELL: Short SMA (%d) crossed below Long SMA (%d)", shortSmaPeriod, longSmaPeriod));
-                signals.add(sellSignal);
+                signals.add(crossoverSignal(currentData, TradingSignal.SignalType.SELL, shortSmaPeriod, longSmaPeriod));
             }
         }
         return signals;
     }
 
+    private TradingSignal crossoverSignal(StockData bar, TradingSignal.SignalType type, int shortSmaPeriod, int longSmaPeriod) {
+        TradingSignal signal = new TradingSignal();
+        signal.setSymbol(bar.getSymbol());
+        signal.setTimestamp(bar.getTimestamp());
+        signal.setSignalType(type);
+        signal.setStrategyName(getName());
+        signal.setDescription(type == TradingSignal.SignalType.BUY
+                ? String.format("BUY: Short SMA (%d) crossed above Long SMA (%d)", shortSmaPeriod, longSmaPeriod)
+                : String.format("SELL: Short SMA (%d) crossed below Long SMA (%d)", shortSmaPeriod, longSmaPeriod));
+        return signal;
+    }
+
+    @Override
+    public StrategyState init(String symbol, Object parameters) {
+        return new CrossoverState((Parameters) parameters);
+    }
+
+    // Running sums drift a few ulps from the exact averages evaluate compares, so SMAs that close together are a tie,
+    // as they are there
+    private static final double TIE_TOLERANCE = 1e-9;
+
+    private static int compareSma(double shortSma, double longSma) {
+        return Math.abs(shortSma - longSma) <= TIE_TOLERANCE * Math.max(Math.abs(shortSma), Math.abs(longSma))
+                ? 0
+                : Double.compare(shortSma, longSma);
+    }
+
+    // Both SMAs as running sums plus the previous pair of values; same signals as evaluate over the same bars
+    private final class CrossoverState extends StrategyState {
+        private final Parameters params;
+        private final RunningSma shortSma;
+        private final RunningSma longSma;
+        private double prevShortSma = Double.NaN;
+        private double prevLongSma = Double.NaN;
+
+        private CrossoverState(Parameters params) {
+            this.params = params;
+            this.shortSma = new RunningSma(params.shortSma());
+            this.longSma = new RunningSma(params.longSma());
+        }
+
+        @Override
+        protected List<TradingSignal> advance(StockData bar) {
+            shortSma.update(bar.getClose());
+            longSma.update(bar.getClose());
+            if (getBarCount() < params.longSma()) {
+                return List.of();
+            }
+
+            double currentShortSma = shortSma.getValue();
+            double currentLongSma = longSma.getValue();
+            double previousShortSma = prevShortSma;
+            double previousLongSma = prevLongSma;
+            prevShortSma = currentShortSma;
+            prevLongSma = currentLongSma;
+
+            if (Double.isNaN(previousShortSma)) {
+                return List.of();
+            }
+            int current = compareSma(currentShortSma, currentLongSma);
+            int previous = compareSma(previousShortSma, previousLongSma);
+            if (current > 0 && previous <= 0) {
+                return List.of(crossoverSignal(bar, TradingSignal.SignalType.BUY, params.shortSma(), params.longSma()));
+            } else if (current < 0 && previous >= 0) {
+                return List.of(crossoverSignal(bar, TradingSignal.SignalType.SELL, params.shortSma(), params.longSma()));
+            }
+            return List.of();
+        }
+
+        @Override
+        public Map<String, Double> snapshot() {
+            return Map.of("shortSma", shortSma.getValue(), "longSma", longSma.getValue());
+        }
+    }
+
     @Override
     public String getName() {
         return "SMA_CROSSOVER_STRATEGY";
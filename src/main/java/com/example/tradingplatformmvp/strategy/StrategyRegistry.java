@@ -0,0 +1,123 @@
+package com.example.tradingplatformmvp.strategy;
+
+import com.example.tradingplatformmvp.aggregation.Timeframe;
+import com.example.tradingplatformmvp.aggregation.TimeframeBarCache;
+import com.example.tradingplatformmvp.model.TradingStrategyConfig;
+import com.example.tradingplatformmvp.repository.TradingStrategyConfigRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Enabled strategy configs indexed by timeframe and symbol, each bound to its own strategy instance and parsed parameters.
+// The index is immutable and replaced as a whole on every rebuild, so the per-tick lookup is a single hash probe
+// with no locking. Rebuilds happen only when a config is saved or deleted through StrategyConfigService.
+@Component
+public class StrategyRegistry {
+
+    // A config ready to evaluate. The instance is private to the config, so per-symbol state kept by a strategy
+    // (e.g. the last SMA values of SmaCrossoverStrategy) is not shared between configs on the same symbol.
+    // state is set for incremental strategies and is primed with history by the caller on first use.
+    public record BoundStrategy(TradingStrategyConfig config, TradingStrategy strategy, Object parameters,
+                                StrategyState state) {
+    }
+
+    private final TradingStrategyConfigRepository repository;
+    private final ApplicationContext applicationContext;
+    private final TimeframeBarCache timeframeBarCache;
+    private final Map<String, TradingStrategy> strategies; // bean name -> strategy
+
+    private volatile Map<Timeframe, Map<String, List<BoundStrategy>>> byTimeframe = Map.of();
+
+    public StrategyRegistry(TradingStrategyConfigRepository repository, ApplicationContext applicationContext,
+                            TimeframeBarCache timeframeBarCache, Map<String, TradingStrategy> strategies) {
+        this.repository = repository;
+        this.applicationContext = applicationContext;
+        this.timeframeBarCache = timeframeBarCache;
+        this.strategies = strategies;
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    // Configs running on the raw bars
+    public List<BoundStrategy> forSymbol(String symbol) {
+        return forSymbol(symbol, Timeframe.BASE);
+    }
+
+    public List<BoundStrategy> forSymbol(String symbol, Timeframe timeframe) {
+        return byTimeframe.getOrDefault(timeframe, Map.of()).getOrDefault(symbol, List.of());
+    }
+
+    // Reloads all configs. Bindings whose config did not change keep their instance and with it any crossover state.
+    public synchronized void rebuild() {
+        Map<Long, BoundStrategy> previous = new HashMap<>();
+        byTimeframe.values().forEach(bySymbol -> bySymbol.values()
+                .forEach(bound -> bound.forEach(binding -> previous.put(binding.config().getId(), binding))));
+
+        Map<Timeframe, Map<String, List<BoundStrategy>>> next = new HashMap<>();
+        int bound = 0;
+        for (TradingStrategyConfig config : repository.findAll()) {
+            if (!config.isEnabled() || config.getSymbol() == null) {
+                continue;
+            }
+            try {
+                Timeframe timeframe = Timeframe.parse(config.getTimeframe());
+                if (!timeframe.isBase() && !timeframeBarCache.isAggregated(timeframe)) {
+                    throw new IllegalArgumentException("timeframe " + timeframe + " is not in aggregation.timeframes");
+                }
+                BoundStrategy binding = previous.get(config.getId());
+                if (binding == null || !sameDefinition(binding.config(), config)) {
+                    TradingStrategy prototype = resolveStrategy(config.getStrategyName());
+                    TradingStrategy instance = applicationContext.getAutowireCapableBeanFactory().createBean(prototype.getClass());
+                    Object parameters = instance.parseParameters(config.getParameters());
+                    StrategyState state = instance instanceof IncrementalStrategy incremental
+                            ? incremental.init(config.getSymbol(), parameters)
+                            : null;
+                    binding = new BoundStrategy(config, instance, parameters, state);
+                }
+                next.computeIfAbsent(timeframe, key -> new HashMap<>())
+                        .computeIfAbsent(config.getSymbol(), key -> new ArrayList<>()).add(binding);
+                bound++;
+            } catch (Exception e) {
+                System.err.println("Skipping strategy config " + config.getId() + " (" + config.getStrategyName() + "): " + e.getMessage());
+            }
+        }
+
+        Map<Timeframe, Map<String, List<BoundStrategy>>> frozen = new HashMap<>();
+        next.forEach((timeframe, bySymbol) -> {
+            Map<String, List<BoundStrategy>> frozenBySymbol = new HashMap<>();
+            bySymbol.forEach((symbol, bindings) -> frozenBySymbol.put(symbol, List.copyOf(bindings)));
+            frozen.put(timeframe, Map.copyOf(frozenBySymbol));
+        });
+        byTimeframe = Map.copyOf(frozen);
+        System.out.println("Strategy registry rebuilt: " + bound + " enabled configs on timeframes " + frozen.keySet());
+    }
+
+    private static boolean sameDefinition(TradingStrategyConfig bound, TradingStrategyConfig current) {
+        return Objects.equals(bound.getStrategyName(), current.getStrategyName())
+                && Objects.equals(bound.getSymbol(), current.getSymbol())
+                && Objects.equals(bound.getParameters(), current.getParameters())
+                && Objects.equals(Timeframe.parse(bound.getTimeframe()), Timeframe.parse(current.getTimeframe()));
+    }
+
+    // Accepts the bean name with or without the "Strategy" suffix, or the strategy's getName(), ignoring case
+    public TradingStrategy resolveStrategy(String strategyName) {
+        for (Map.Entry<String, TradingStrategy> entry : strategies.entrySet()) {
+            String beanName = entry.getKey();
+            if (beanName.equalsIgnoreCase(strategyName)
+                    || beanName.equalsIgnoreCase(strategyName + "Strategy")
+                    || entry.getValue().getName().equalsIgnoreCase(strategyName)) {
+                return entry.getValue();
+            }
+        }
+        throw new IllegalArgumentException("Unknown strategy: " + strategyName);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.tradingplatformmvp.strategy;
+
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.model.TradingSignal;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Running state of one incremental strategy for one (config, symbol) pair. Bars must arrive oldest first; a bar
+// that is not newer than the last one applied is ignored, so priming from history and then replaying a bar that
+// was already in that history is harmless. Not thread-safe; callers serialize bars per symbol.
+public abstract class StrategyState {
+
+    private LocalDateTime lastTimestamp;
+    private long barCount;
+
+    public final List<TradingSignal> onBar(StockData bar) {
+        if (lastTimestamp != null && !bar.getTimestamp().isAfter(lastTimestamp)) {
+            return List.of();
+        }
+        lastTimestamp = bar.getTimestamp();
+        barCount++;
+        return advance(bar);
+    }
+
+    // Applies one new bar and returns the signals it triggers, List.of() when there are none
+    protected abstract List<TradingSignal> advance(StockData bar);
+
+    // Current indicator values by name
+    public abstract Map<String, Double> snapshot();
+
+    public long getBarCount() {
+        return barCount;
+    }
+
+    public LocalDateTime getLastTimestamp() {
+        return lastTimestamp;
+    }
+}
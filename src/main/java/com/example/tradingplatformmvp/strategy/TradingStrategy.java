@@ -8,4 +8,15 @@ import java.util.List;
 public interface TradingStrategy {
     List<TradingSignal> generateSignals(List<StockData> historicalData, StockData currentData, String parametersJson);
     String getName();
+
+    // Turns a config's parameters JSON into the strategy's own parameter object, once per config.
+    // Strategies without typed parameters keep the raw JSON.
+    default Object parseParameters(String parametersJson) {
+        return parametersJson;
+    }
+
+    // generateSignals with parameters already produced by parseParameters
+    default List<TradingSignal> evaluate(List<StockData> historicalData, StockData currentData, Object parameters) {
+        return generateSignals(historicalData, currentData, (String) parameters);
+    }
 }
@@ -0,0 +1,262 @@
+package com.example.tradingplatformmvp.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Delivers /topic/... updates to each STOMP subscriber directly instead of broadcasting every event through the
+// simple broker.
+//
+// publish() only records the value: it replaces the latest value per destination (one destination per symbol and
+// topic) globally and in the pending map of every subscriber of that destination, so a burst collapses into its
+// last value and the calling thread never touches WebSocket I/O. A single flusher thread drains each subscriber's
+// pending values at most fanout.max-rate-per-client times a second. A subscriber whose messages pile up in the
+// outbound channel stops receiving (values keep conflating) and is disconnected if it does not recover in time.
+// New subscriptions receive the latest value right away.
+@Component
+public class MarketDataFanout {
+
+    private static final String FANOUT_HEADER = "fanout";
+
+    private final SimpMessagingTemplate outboundTemplate;
+    private final WebSocketSessionRegistry webSocketSessionRegistry;
+    private final long minFlushIntervalNanos;
+    private final int maxInFlight;
+    private final long slowConsumerTimeoutNanos;
+
+    private final ConcurrentHashMap<String, Object> latest = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Subscriber> subscribers = new ConcurrentHashMap<>(); // by session id
+    private final ConcurrentHashMap<String, Set<Subscriber>> subscribersByDestination = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "websocket-fanout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter sentMessages;
+    private final Counter conflatedMessages;
+    private final Counter droppedSubscribers;
+
+    public MarketDataFanout(@Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel,
+                            @Qualifier("brokerMessageConverter") CompositeMessageConverter brokerMessageConverter,
+                            WebSocketSessionRegistry webSocketSessionRegistry,
+                            MeterRegistry meterRegistry,
+                            @Value("${fanout.max-rate-per-client:4}") double maxRatePerClient,
+                            @Value("${fanout.flush-interval-ms:25}") long flushIntervalMillis,
+                            @Value("${fanout.slow-consumer.max-in-flight:256}") int maxInFlight,
+                            @Value("${fanout.slow-consumer.timeout-ms:5000}") long slowConsumerTimeoutMillis) {
+        this.outboundTemplate = new SimpMessagingTemplate(clientOutboundChannel);
+        this.outboundTemplate.setMessageConverter(brokerMessageConverter);
+        this.webSocketSessionRegistry = webSocketSessionRegistry;
+        this.minFlushIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / maxRatePerClient);
+        this.maxInFlight = maxInFlight;
+        this.slowConsumerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(slowConsumerTimeoutMillis);
+
+        // A message counts as in flight from our send until the outbound channel has handed it to the session
+        clientOutboundChannel.addInterceptor(new ExecutorChannelInterceptor() {
+            @Override
+            public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+                if (Boolean.TRUE.equals(message.getHeaders().get(FANOUT_HEADER))) {
+                    Subscriber subscriber = subscribers.get(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+                    if (subscriber != null) {
+                        subscriber.inFlight.decrementAndGet();
+                    }
+                }
+            }
+        });
+
+        this.sentMessages = Counter.builder("websocket.fanout.sent")
+                .description("Messages sent to WebSocket subscribers")
+                .register(meterRegistry);
+        this.conflatedMessages = Counter.builder("websocket.fanout.conflated")
+                .description("Pending messages replaced by a newer value before they were sent")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("websocket.fanout.dropped")
+                .description("Sessions disconnected for not keeping up")
+                .register(meterRegistry);
+        Gauge.builder("websocket.fanout.subscribers", subscribers, Map::size)
+                .description("Sessions with at least one topic subscription")
+                .register(meterRegistry);
+
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+    }
+
+    // Never blocks: the value is delivered by the flusher
+    public void publish(String destination, Object payload) {
+        latest.put(destination, payload);
+        Set<Subscriber> destinationSubscribers = subscribersByDestination.get(destination);
+        if (destinationSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : destinationSubscribers) {
+            if (subscriber.pending.put(destination, payload) != null) {
+                conflatedMessages.increment();
+            }
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String sessionId = accessor.getSessionId();
+        String destination = accessor.getDestination();
+        String subscriptionId = accessor.getSubscriptionId();
+        if (sessionId == null || destination == null || subscriptionId == null || !destination.startsWith("/topic/")) {
+            return;
+        }
+        Subscriber subscriber = subscribers.computeIfAbsent(sessionId, Subscriber::new);
+        subscriber.subscriptions.put(destination, subscriptionId);
+        subscribersByDestination.computeIfAbsent(destination, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        // Initial snapshot, sent on the next flush
+        Object snapshot = latest.get(destination);
+        if (snapshot != null) {
+            subscriber.pending.putIfAbsent(destination, snapshot);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Subscriber subscriber = accessor.getSessionId() == null ? null : subscribers.get(accessor.getSessionId());
+        if (subscriber == null) {
+            return;
+        }
+        subscriber.subscriptions.entrySet().removeIf(entry -> {
+            if (!entry.getValue().equals(accessor.getSubscriptionId())) {
+                return false;
+            }
+            Set<Subscriber> destinationSubscribers = subscribersByDestination.get(entry.getKey());
+            if (destinationSubscribers != null) {
+                destinationSubscribers.remove(subscriber);
+            }
+            subscriber.pending.remove(entry.getKey());
+            return true;
+        });
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        removeSubscriber(event.getSessionId());
+    }
+
+    private void removeSubscriber(String sessionId) {
+        Subscriber subscriber = subscribers.remove(sessionId);
+        if (subscriber == null) {
+            return;
+        }
+        for (String destination : subscriber.subscriptions.keySet()) {
+            Set<Subscriber> destinationSubscribers = subscribersByDestination.get(destination);
+            if (destinationSubscribers != null) {
+                destinationSubscribers.remove(subscriber);
+            }
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            System.err.println("Error flushing WebSocket fan-out: " + e.getMessage());
+        }
+    }
+
+    private void flush() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.pending.isEmpty() || now < subscriber.nextFlushNanos) {
+                continue;
+            }
+            if (subscriber.inFlight.get() >= maxInFlight) {
+                if (subscriber.slowSinceNanos == 0) {
+                    subscriber.slowSinceNanos = now;
+                } else if (now - subscriber.slowSinceNanos > slowConsumerTimeoutNanos) {
+                    drop(subscriber);
+                }
+                continue;
+            }
+            subscriber.slowSinceNanos = 0;
+            subscriber.nextFlushNanos = now + minFlushIntervalNanos;
+            for (String destination : subscriber.pending.keySet()) {
+                Object payload = subscriber.pending.remove(destination);
+                if (payload != null) {
+                    send(subscriber, destination, payload);
+                }
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, String destination, Object payload) {
+        String subscriptionId = subscriber.subscriptions.get(destination);
+        if (subscriptionId == null) {
+            return;
+        }
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(subscriber.sessionId);
+        headers.setSubscriptionId(subscriptionId);
+        headers.setHeader(FANOUT_HEADER, Boolean.TRUE);
+        headers.setLeaveMutable(true);
+        subscriber.inFlight.incrementAndGet();
+        try {
+            outboundTemplate.convertAndSend(destination, payload, headers.getMessageHeaders());
+            sentMessages.increment();
+        } catch (MessagingException e) {
+            subscriber.inFlight.decrementAndGet();
+            System.err.println("Error sending " + destination + " to session " + subscriber.sessionId + ": " + e.getMessage());
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        System.out.println("Dropping slow WebSocket session " + subscriber.sessionId + " with "
+                + subscriber.inFlight.get() + " messages still queued");
+        removeSubscriber(subscriber.sessionId);
+        droppedSubscribers.increment();
+        webSocketSessionRegistry.close(subscriber.sessionId, CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    private static final class Subscriber {
+        private final String sessionId;
+        private final ConcurrentHashMap<String, String> subscriptions = new ConcurrentHashMap<>(); // destination -> subscription id
+        private final ConcurrentHashMap<String, Object> pending = new ConcurrentHashMap<>(); // destination -> latest unsent value
+        private final AtomicInteger inFlight = new AtomicInteger();
+        // Only touched by the flusher thread
+        private long nextFlushNanos;
+        private long slowSinceNanos;
+
+        private Subscriber(String sessionId) {
+            this.sessionId = sessionId;
+        }
+    }
+}
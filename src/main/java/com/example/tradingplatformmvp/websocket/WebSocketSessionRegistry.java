@@ -0,0 +1,46 @@
+package com.example.tradingplatformmvp.websocket;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Open WebSocket sessions by id (the id STOMP messages carry as simpSessionId), so a session can be closed from
+// outside the WebSocket handler, e.g. when the fan-out gives up on a slow client.
+@Component
+public class WebSocketSessionRegistry {
+
+    private final ConcurrentHashMap<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), session);
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    public void close(String sessionId, CloseStatus status) {
+        WebSocketSession session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            System.err.println("Error closing WebSocket session " + sessionId + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.tradingplatformmvp.aggregation;
+
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import com.example.tradingplatformmvp.cache.BarRingBuffer;
+import com.example.tradingplatformmvp.dto.TimeframeBarDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 1m raw bars rolled into 5m buckets
+class TimeframeBarAggregatorTest {
+
+    private static final Timeframe FIVE_MINUTES = Timeframe.parse("5m");
+    private static final long START = 1_700_000_100L; // a 5m boundary
+
+    @Test
+    void bucketClosesOnTheBarEndingAtItsBoundary() {
+        TimeframeBarAggregator aggregator = new TimeframeBarAggregator("AAPL", FIVE_MINUTES, 60);
+        for (int minute = 0; minute < 4; minute++) {
+            List<TimeframeBarDto> updates = apply(aggregator, minute);
+            assertEquals(1, updates.size());
+            assertFalse(updates.get(0).isClosed(), "minute " + minute);
+            assertEquals(minute + 1, updates.get(0).getBarCount());
+        }
+
+        List<TimeframeBarDto> updates = apply(aggregator, 4);
+        assertEquals(1, updates.size());
+        TimeframeBarDto closed = updates.get(0);
+        assertTrue(closed.isClosed());
+        assertEquals(BarRingBuffer.toLocalDateTime(START), closed.getTimestamp());
+        assertEquals(5, closed.getBarCount());
+        assertEquals(open(0), closed.getOpen());
+        assertEquals(high(4), closed.getHigh());
+        assertEquals(low(0), closed.getLow());
+        assertEquals(close(4), closed.getClose());
+        assertEquals(volume(0) + volume(1) + volume(2) + volume(3) + volume(4), closed.getVolume());
+
+        // The next bucket opens without closing the previous one again
+        updates = apply(aggregator, 5);
+        assertEquals(1, updates.size());
+        assertFalse(updates.get(0).isClosed());
+        assertEquals(BarRingBuffer.toLocalDateTime(START + 300), updates.get(0).getTimestamp());
+    }
+
+    @Test
+    void barsLateForAClosedBucketAreDropped() {
+        TimeframeBarAggregator aggregator = new TimeframeBarAggregator("AAPL", FIVE_MINUTES, 60);
+        for (int minute = 0; minute < 5; minute++) {
+            apply(aggregator, minute);
+        }
+        // Newer than the last bar, but its bucket is already closed
+        assertEquals(List.of(), aggregator.onBar(START + 270, 1, 1000, 0.5, 1, 1, 0));
+
+        // Older or repeated bars are ignored as well
+        apply(aggregator, 5);
+        assertEquals(List.of(), apply(aggregator, 5));
+        assertEquals(List.of(), apply(aggregator, 3));
+        assertEquals(2, apply(aggregator, 6).get(0).getBarCount());
+    }
+
+    @Test
+    void gapClosesTheOpenBucketOnTheNextBar() {
+        TimeframeBarAggregator aggregator = new TimeframeBarAggregator("AAPL", FIVE_MINUTES, 60);
+        apply(aggregator, 0);
+        apply(aggregator, 1);
+
+        // Minutes 2-4 never arrive
+        List<TimeframeBarDto> updates = apply(aggregator, 7);
+        assertEquals(2, updates.size());
+        assertTrue(updates.get(0).isClosed());
+        assertEquals(2, updates.get(0).getBarCount());
+        assertEquals(close(1), updates.get(0).getClose());
+        assertFalse(updates.get(1).isClosed());
+        assertEquals(BarRingBuffer.toLocalDateTime(START + 300), updates.get(1).getTimestamp());
+    }
+
+    @Test
+    void resampleMatchesTheLiveBuckets() {
+        // Random gaps, including missing boundary bars
+        Random random = new Random(7);
+        List<Integer> minutes = new ArrayList<>();
+        for (int minute = 0; minute < 600; minute++) {
+            if (random.nextInt(4) != 0) {
+                minutes.add(minute);
+            }
+        }
+
+        TimeframeBarAggregator live = new TimeframeBarAggregator("AAPL", FIVE_MINUTES, 60);
+        List<TimeframeBarDto> closed = new ArrayList<>();
+        TimeframeBarDto latest = null;
+        for (int minute : minutes) {
+            for (TimeframeBarDto update : apply(live, minute)) {
+                if (update.isClosed()) {
+                    closed.add(update);
+                }
+                latest = update;
+            }
+        }
+        if (!latest.isClosed()) {
+            closed.add(latest);
+        }
+
+        PriceSeries resampled = TimeframeBarAggregator.resample(series(minutes), FIVE_MINUTES);
+        assertEquals(closed.size(), resampled.size());
+        for (int i = 0; i < closed.size(); i++) {
+            TimeframeBarDto bar = closed.get(i);
+            assertEquals(BarRingBuffer.toEpochSecond(bar.getTimestamp()), resampled.getTimestamp(i), "bucket " + i);
+            assertEquals(bar.getOpen(), resampled.getOpen(i), "open " + i);
+            assertEquals(bar.getHigh(), resampled.getHigh(i), "high " + i);
+            assertEquals(bar.getLow(), resampled.getLow(i), "low " + i);
+            assertEquals(bar.getClose(), resampled.getClose(i), "close " + i);
+            assertEquals(bar.getVolume(), resampled.getVolume(i), "volume " + i);
+        }
+    }
+
+    private static List<TimeframeBarDto> apply(TimeframeBarAggregator aggregator, int minute) {
+        return aggregator.onBar(START + 60L * minute, open(minute), high(minute), low(minute), close(minute), volume(minute), 0);
+    }
+
+    private static PriceSeries series(List<Integer> minutes) {
+        int size = minutes.size();
+        long[] timestamps = new long[size];
+        double[] opens = new double[size];
+        double[] highs = new double[size];
+        double[] lows = new double[size];
+        double[] closes = new double[size];
+        long[] volumes = new long[size];
+        for (int i = 0; i < size; i++) {
+            int minute = minutes.get(i);
+            timestamps[i] = START + 60L * minute;
+            opens[i] = open(minute);
+            highs[i] = high(minute);
+            lows[i] = low(minute);
+            closes[i] = close(minute);
+            volumes[i] = volume(minute);
+        }
+        return new PriceSeries("AAPL", timestamps, opens, highs, lows, closes, volumes);
+    }
+
+    // A zigzag, so highs and lows fall inside buckets rather than always at an edge
+    private static double open(int minute) {
+        return 100 + (minute % 7) * 0.5 + minute * 0.01;
+    }
+
+    private static double high(int minute) {
+        return open(minute) + 1 + (minute % 3) * 0.25;
+    }
+
+    private static double low(int minute) {
+        return open(minute) - 1 - (minute % 4) * 0.25;
+    }
+
+    private static double close(int minute) {
+        return open(minute) + 0.125;
+    }
+
+    private static long volume(int minute) {
+        return 1000L + minute;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.tradingplatformmvp.archive;
+
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArchiveRoundTripTest {
+
+    private static final long START = 1_700_000_000L;
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("archive-test").resolve("AAPL");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory.getParent())) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void everyColumnReadsBackAcrossIndexStrides() throws IOException {
+        int rows = ArchiveFormat.DEFAULT_INDEX_STRIDE * 2 + 100;
+        PriceSeries series = series(0, rows);
+        try (ArchiveWriter writer = new ArchiveWriter(directory)) {
+            assertEquals(rows, writer.append(series, 0, rows));
+        }
+
+        ArchiveReader reader = new ArchiveReader("AAPL", directory);
+        assertEquals(rows, reader.getRowCount());
+        assertEquals(START, reader.getFirstTimestamp());
+        assertEquals(timestamp(rows - 1), reader.getLastTimestamp());
+        assertSameBars(series, 0, reader.readRows(0, rows));
+        for (int row : new int[]{0, 1, ArchiveFormat.DEFAULT_INDEX_STRIDE - 1, ArchiveFormat.DEFAULT_INDEX_STRIDE,
+                ArchiveFormat.DEFAULT_INDEX_STRIDE + 1, rows - 1}) {
+            assertEquals(row, reader.lowerBound(timestamp(row)), "row " + row);
+            // Between two bars: the later one
+            assertEquals(row + 1, reader.lowerBound(timestamp(row) + 1), "after row " + row);
+        }
+        assertEquals(0, reader.lowerBound(Long.MIN_VALUE));
+        assertEquals(rows, reader.lowerBound(Long.MAX_VALUE));
+
+        // Inclusive at both ends
+        PriceSeries range = reader.readRange(timestamp(4000), timestamp(4200));
+        assertEquals(201, range.size());
+        assertSameBars(series, 4000, range);
+    }
+
+    @Test
+    void reopenedWriterAppendsOnlyNewerBars() throws IOException {
+        try (ArchiveWriter writer = new ArchiveWriter(directory)) {
+            writer.append(series(0, 5000), 0, 5000);
+        }
+        try (ArchiveWriter writer = new ArchiveWriter(directory)) {
+            assertEquals(5000, writer.getRowCount());
+            assertEquals(timestamp(4999), writer.getLastTimestamp());
+            // 4990..4999 are already there
+            assertEquals(5000, writer.append(series(4990, 5010), 0, 5010));
+        }
+
+        ArchiveReader reader = new ArchiveReader("AAPL", directory);
+        assertEquals(10_000, reader.getRowCount());
+        assertSameBars(series(0, 10_000), 0, reader.readRows(0, 10_000));
+        assertEquals(8192, reader.lowerBound(timestamp(8192)));
+    }
+
+    @Test
+    void tornAppendIsInvisibleAndDroppedByTheNextWriter() throws IOException {
+        try (ArchiveWriter writer = new ArchiveWriter(directory)) {
+            writer.append(series(0, 100), 0, 100);
+        }
+        // A crash after the timestamps of the next three bars were written, before the other columns
+        try (FileChannel timestamps = FileChannel.open(directory.resolve(ArchiveFormat.TIMESTAMP), StandardOpenOption.WRITE)) {
+            timestamps.truncate(100L * Long.BYTES);
+            timestamps.write(ByteBuffer.allocate(3 * Long.BYTES), 100L * Long.BYTES);
+        }
+        assertEquals(100, new ArchiveReader("AAPL", directory).getRowCount());
+
+        try (ArchiveWriter writer = new ArchiveWriter(directory)) {
+            assertEquals(100, writer.getRowCount());
+            assertEquals(10, writer.append(series(100, 10), 0, 10));
+        }
+        ArchiveReader reader = new ArchiveReader("AAPL", directory);
+        assertEquals(110, reader.getRowCount());
+        assertSameBars(series(0, 110), 0, reader.readRows(0, 110));
+    }
+
+    @Test
+    void foreignIndexIsRejected() throws IOException {
+        try (ArchiveWriter writer = new ArchiveWriter(directory)) {
+            writer.append(series(0, 10), 0, 10);
+        }
+        Files.write(directory.resolve(ArchiveFormat.INDEX), new byte[ArchiveFormat.INDEX_HEADER_BYTES]);
+        assertThrows(IOException.class, () -> new ArchiveReader("AAPL", directory));
+        assertThrows(IOException.class, () -> new ArchiveWriter(directory));
+    }
+
+    private static void assertSameBars(PriceSeries expected, int from, PriceSeries actual) {
+        for (int i = 0; i < actual.size(); i++) {
+            int e = from + i;
+            assertEquals(expected.getTimestamp(e), actual.getTimestamp(i), "timestamp " + i);
+            assertEquals(expected.getOpen(e), actual.getOpen(i), "open " + i);
+            assertEquals(expected.getHigh(e), actual.getHigh(i), "high " + i);
+            assertEquals(expected.getLow(e), actual.getLow(i), "low " + i);
+            assertEquals(expected.getClose(e), actual.getClose(i), "close " + i);
+            assertEquals(expected.getVolume(e), actual.getVolume(i), "volume " + i);
+        }
+    }
+
+    private static long timestamp(int bar) {
+        return START + 60L * bar;
+    }
+
+    // Bars first, first + 1, ... one minute apart, with distinct values in every column
+    private static PriceSeries series(int first, int size) {
+        long[] timestamps = new long[size];
+        double[] opens = new double[size];
+        double[] highs = new double[size];
+        double[] lows = new double[size];
+        double[] closes = new double[size];
+        long[] volumes = new long[size];
+        for (int i = 0; i < size; i++) {
+            int bar = first + i;
+            timestamps[i] = timestamp(bar);
+            opens[i] = 100 + bar * 0.25;
+            highs[i] = opens[i] + 1.5;
+            lows[i] = opens[i] - 1.25;
+            closes[i] = opens[i] + 0.125;
+            volumes[i] = 1000L + bar;
+        }
+        return new PriceSeries("AAPL", timestamps, opens, highs, lows, closes, volumes);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.tradingplatformmvp.backtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WalkForwardAnalysisTest {
+
+    private static final List<int[]> PAIRS = List.<int[]>of(new int[]{2, 5});
+
+    @Test
+    void outOfSampleTradesFromItsFirstBarWhenInSampleBarsWarmUpTheAverages() {
+        // Flat for 30 bars, then rising: the SMA(2) crosses above the SMA(5) on bar 30, the first out-of-sample bar
+        PriceSeries series = series(40, 30);
+        List<WalkForwardAnalysis.Window> windows = WalkForwardAnalysis.run(series, PAIRS, 10_000, 30, 10, 10);
+
+        assertEquals(1, windows.size());
+        WalkForwardAnalysis.Window window = windows.get(0);
+        assertEquals(30, window.outOfSampleFrom());
+        // Bought at bar 30's close, closed at bar 39's
+        assertArrayEquals(new double[]{series.getClose(39) - series.getClose(30)}, window.outOfSampleTrades(), 1e-9);
+    }
+
+    @Test
+    void seriesStartStillWaitsForAFullLongWindow() {
+        // Rising from bar 1: by bar 4, the first full SMA(5), the short average is already above, so no crossover
+        PriceSeries series = series(20, 1);
+        SmaCrossoverKernel.Outcome outcome = SmaCrossoverKernel.run(series, 0, 20, 2, 5, 10_000);
+        assertEquals(0, outcome.totalTrades());
+        assertTrue(outcome.sufficientData());
+
+        // The same bars with history before them trade from the start
+        assertEquals(1, SmaCrossoverKernel.run(series(40, 21), 20, 40, 2, 5, 10_000).totalTrades());
+    }
+
+    @Test
+    void windowCountDoesNotOverflow() {
+        assertEquals(0, WalkForwardAnalysis.windowCount(1_000, Integer.MAX_VALUE, Integer.MAX_VALUE, 1));
+        assertEquals(3, WalkForwardAnalysis.windowCount(1_000, 400, 200, 200));
+    }
+
+    // Closes 10 up to bar risingFrom - 1, then one higher per bar
+    private static PriceSeries series(int size, int risingFrom) {
+        long[] timestamps = new long[size];
+        double[] closes = new double[size];
+        for (int i = 0; i < size; i++) {
+            timestamps[i] = 1_700_000_000L + 60L * i;
+            closes[i] = 10.0 + Math.max(0, i - risingFrom + 1);
+        }
+        return new PriceSeries("TEST", timestamps, closes, closes, closes, closes, new long[size]);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.tradingplatformmvp.controller;
+
+import com.example.tradingplatformmvp.aggregation.TimeframeBarCache;
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.repository.BacktestResultRepository;
+import com.example.tradingplatformmvp.repository.SimulatedTradeRepository;
+import com.example.tradingplatformmvp.repository.StockDataRepository;
+import com.example.tradingplatformmvp.service.BacktestingService;
+import com.example.tradingplatformmvp.service.DataIngestionService;
+import com.example.tradingplatformmvp.service.IndicatorResultCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StockControllerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 3, 15, 9, 30);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 3, 15, 16, 0);
+
+    private final StockDataRepository repository = mock(StockDataRepository.class);
+    private StockController controller;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findRangePage(any(), any(), any(), any(), anyInt())).thenCallRealMethod();
+        controller = new StockController(repository, mock(DataIngestionService.class), mock(BacktestingService.class),
+                mock(BacktestResultRepository.class), mock(SimulatedTradeRepository.class), mock(TimeframeBarCache.class),
+                mock(IndicatorResultCache.class));
+        ReflectionTestUtils.setField(controller, "maxBars", 3);
+    }
+
+    @Test
+    void rangeIsCappedAndContinuesFromTheCursor() {
+        when(repository.findBySymbolAndTimestampBetweenOrderByTimestampAsc("AAPL", FROM, TO, PageRequest.of(0, 3)))
+                .thenReturn(List.of(bar(0), bar(1), bar(2)));
+        ResponseEntity<List<StockData>> first = controller.getStockData("AAPL", FROM, TO, null, null, 1000);
+        assertEquals(3, first.getBody().size());
+        assertEquals(FROM.plusMinutes(2).toString(), first.getHeaders().getFirst("X-Next-Cursor"));
+
+        when(repository.findBySymbolAndTimestampGreaterThanAndTimestampLessThanEqualOrderByTimestampAsc(
+                "AAPL", FROM.plusMinutes(2), TO, PageRequest.of(0, 3))).thenReturn(List.of(bar(3)));
+        ResponseEntity<List<StockData>> last = controller.getStockData("AAPL", FROM, TO, null, FROM.plusMinutes(2), 1000);
+        assertEquals(List.of(bar(3)), last.getBody());
+        assertNull(last.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    void openEndedRangeIsCappedToo() {
+        when(repository.findBySymbolAndTimestampBetweenOrderByTimestampAsc(eq("AAPL"), eq(FROM), any(), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(bar(0), bar(1), bar(2)));
+        ResponseEntity<List<StockData>> page = controller.getStockData("AAPL", FROM, null, null, null, 1000);
+        assertEquals(3, page.getBody().size());
+        assertEquals(FROM.plusMinutes(2).toString(), page.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    private static StockData bar(int minute) {
+        StockData bar = new StockData();
+        bar.setSymbol("AAPL");
+        bar.setTimestamp(FROM.plusMinutes(minute));
+        return bar;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.tradingplatformmvp.dispatch;
+
+import com.example.tradingplatformmvp.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SymbolLaneDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // One lane of capacity 2, so a dead lane would block dispatch after two tasks
+    private final SymbolLaneDispatcher dispatcher = new SymbolLaneDispatcher(meterRegistry, new PipelineMetrics(meterRegistry), 1, 2);
+
+    @AfterEach
+    void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void laneSurvivesTasksThatThrowErrors() throws Exception {
+        List<Integer> ran = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        // Dispatched from another thread, so a blocked put fails the test instead of hanging it
+        CompletableFuture<Void> dispatching = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 10; i++) {
+                int task = i;
+                dispatcher.dispatch("test", "AAPL", () -> {
+                    ran.add(task);
+                    if (task % 2 == 0) {
+                        throw new StackOverflowError();
+                    }
+                });
+            }
+            dispatcher.dispatch("test", "AAPL", done::countDown);
+        });
+
+        dispatching.get(10, TimeUnit.SECONDS);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), ran);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.tradingplatformmvp.indicator;
+
+import org.junit.jupiter.api.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeriesBuilder;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.MACDIndicator;
+import org.ta4j.core.indicators.RSIIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The streaming indicators must agree with ta4j bar for bar, including while their windows are still filling
+class RunningIndicatorParityTest {
+
+    private static final double TOLERANCE = 1e-6;
+    private static final int BARS = 2_000;
+
+    private final double[] closes = randomWalk(42L, BARS);
+    private final ClosePriceIndicator closePrice = new ClosePriceIndicator(toBarSeries(closes));
+
+    @Test
+    void smaMatchesTa4j() {
+        for (int barCount : new int[]{1, 5, 20, 200}) {
+            RunningSma sma = new RunningSma(barCount);
+            SMAIndicator expected = new SMAIndicator(closePrice, barCount);
+            for (int i = 0; i < closes.length; i++) {
+                sma.update(closes[i]);
+                assertEquals(expected.getValue(i).doubleValue(), sma.getValue(), TOLERANCE, "SMA(" + barCount + ") at bar " + i);
+            }
+        }
+    }
+
+    @Test
+    void rsiMatchesTa4j() {
+        for (int barCount : new int[]{2, 14, 50}) {
+            RunningRsi rsi = new RunningRsi(barCount);
+            RSIIndicator expected = new RSIIndicator(closePrice, barCount);
+            for (int i = 0; i < closes.length; i++) {
+                rsi.update(closes[i]);
+                assertEquals(expected.getValue(i).doubleValue(), rsi.getValue(), TOLERANCE, "RSI(" + barCount + ") at bar " + i);
+            }
+        }
+    }
+
+    @Test
+    void macdMatchesTa4j() {
+        RunningMacd macd = new RunningMacd(12, 26, 9);
+        MACDIndicator expectedMacd = new MACDIndicator(closePrice, 12, 26);
+        EMAIndicator expectedSignal = new EMAIndicator(expectedMacd, 9);
+        for (int i = 0; i < closes.length; i++) {
+            macd.update(closes[i]);
+            double expectedLine = expectedMacd.getValue(i).doubleValue();
+            double expectedSignalValue = expectedSignal.getValue(i).doubleValue();
+            assertEquals(expectedLine, macd.getMacd(), TOLERANCE, "MACD at bar " + i);
+            assertEquals(expectedSignalValue, macd.getSignal(), TOLERANCE, "signal at bar " + i);
+            assertEquals(expectedLine - expectedSignalValue, macd.getHistogram(), TOLERANCE, "histogram at bar " + i);
+        }
+    }
+
+    @Test
+    void flatPricesGiveZeroRsiLikeTa4j() {
+        double[] flat = new double[100];
+        java.util.Arrays.fill(flat, 50.0);
+        RSIIndicator expected = new RSIIndicator(new ClosePriceIndicator(toBarSeries(flat)), 14);
+        RunningRsi rsi = new RunningRsi(14);
+        for (int i = 0; i < flat.length; i++) {
+            rsi.update(flat[i]);
+            assertEquals(expected.getValue(i).doubleValue(), rsi.getValue(), TOLERANCE, "RSI at bar " + i);
+        }
+    }
+
+    static double[] randomWalk(long seed, int size) {
+        Random random = new Random(seed);
+        double[] values = new double[size];
+        double price = 100.0;
+        for (int i = 0; i < size; i++) {
+            price = Math.max(1.0, price + random.nextGaussian());
+            values[i] = Math.round(price * 100) / 100.0;
+        }
+        return values;
+    }
+
+    static BarSeries toBarSeries(double[] closes) {
+        BarSeries series = new BaseBarSeriesBuilder().withName("parity").build();
+        ZonedDateTime time = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        for (double close : closes) {
+            time = time.plusMinutes(1);
+            series.addBar(Duration.ofMinutes(1), time, close, close, close, close, 1000);
+        }
+        return series;
+    }
+}
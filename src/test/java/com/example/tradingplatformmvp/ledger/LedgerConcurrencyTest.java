@@ -0,0 +1,144 @@
+package com.example.tradingplatformmvp.ledger;
+
+import com.example.tradingplatformmvp.dto.PortfolioSnapshotDto;
+import com.example.tradingplatformmvp.dto.PositionDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Hammers one Ledger from many threads with random reserve / settle / release calls, interleaved with price moves
+// (markToMarket) and snapshots. Fills always happen at a fixed price per symbol, so once every symbol is marked back
+// at that price the fills have only moved value between cash and positions: total equity must equal accounts *
+// initial cash, nothing may be left reserved and nothing may have gone negative, including in the snapshots taken
+// while the fills were running.
+class LedgerConcurrencyTest {
+
+    private static final double INITIAL_CASH = 10_000.0;
+    private static final double TRADE_AMOUNT = 100.0;
+    private static final double EPSILON = 1e-6;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 25_000;
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOGL", "AMZN", "NVDA"};
+    private static final double[] PRICES = {172.5, 411.25, 139.75, 178.0, 880.5};
+
+    @Test
+    void valueIsConservedUnderContentionOnTwoAccounts() throws Exception {
+        stress(2);
+    }
+
+    @Test
+    void valueIsConservedAcrossEightAccounts() throws Exception {
+        stress(8);
+    }
+
+    private void stress(int accountCount) throws Exception {
+        String[] accountIds = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accountIds[i] = "account-" + i;
+        }
+        Ledger ledger = new Ledger(INITIAL_CASH);
+        Queue<String> violations = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            SplittableRandom seed = new SplittableRandom(42);
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                SplittableRandom random = seed.split();
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        operate(ledger, accountIds, random, violations);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int s = 0; s < SYMBOLS.length; s++) {
+            ledger.markToMarket(SYMBOLS[s], PRICES[s]);
+        }
+        double totalEquity = 0.0;
+        List<PortfolioSnapshotDto> snapshots = ledger.snapshots();
+        for (PortfolioSnapshotDto snapshot : snapshots) {
+            totalEquity += snapshot.getEquity();
+            check(snapshot, violations);
+            if (Math.abs(snapshot.getReservedCash()) > EPSILON) {
+                violations.add("Cash left reserved in " + snapshot);
+            }
+            for (PositionDto position : snapshot.getPositions()) {
+                if (Math.abs(position.getReservedQuantity()) > EPSILON) {
+                    violations.add("Quantity left reserved in " + snapshot.getAccountId() + ": " + position);
+                }
+            }
+        }
+
+        assertTrue(violations.isEmpty(), () -> String.join("\n", violations));
+        assertEquals(accountCount, snapshots.size());
+        double expectedEquity = accountCount * INITIAL_CASH;
+        assertEquals(expectedEquity, totalEquity, expectedEquity * 1e-9);
+    }
+
+    private static void operate(Ledger ledger, String[] accountIds, SplittableRandom random, Queue<String> violations) {
+        String accountId = accountIds[random.nextInt(accountIds.length)];
+        int s = random.nextInt(SYMBOLS.length);
+        int action = random.nextInt(100);
+        if (action < 3) {
+            // Moves the marks only; fills below still happen at the fixed price
+            ledger.markToMarket(SYMBOLS[s], PRICES[s] * (0.5 + random.nextDouble()));
+            return;
+        }
+        if (action < 5) {
+            ledger.snapshot(accountId).ifPresent(snapshot -> check(snapshot, violations));
+            return;
+        }
+        if (action < 6) {
+            ledger.snapshots().forEach(snapshot -> check(snapshot, violations));
+            return;
+        }
+
+        double price = PRICES[s];
+        double quantity = TRADE_AMOUNT / price;
+        Reservation reservation = random.nextBoolean()
+                ? ledger.reserveCash(accountId, SYMBOLS[s], TRADE_AMOUNT)
+                : ledger.reserveQuantity(accountId, SYMBOLS[s], quantity);
+        if (reservation == null) {
+            return;
+        }
+        if (random.nextInt(10) == 0) {
+            ledger.release(reservation);
+        } else {
+            // Partial fills now and then, so settlement has to give back the unused part
+            ledger.settle(reservation, random.nextInt(4) == 0 ? quantity / 2 : quantity, price);
+        }
+    }
+
+    // Reservations never exceed what is there, at any moment
+    private static void check(PortfolioSnapshotDto snapshot, Queue<String> violations) {
+        if (snapshot.getReservedCash() < -EPSILON || snapshot.getCash() - snapshot.getReservedCash() < -EPSILON) {
+            violations.add("Inconsistent cash in " + snapshot);
+        }
+        for (PositionDto position : snapshot.getPositions()) {
+            if (position.getReservedQuantity() < -EPSILON || position.getQuantity() - position.getReservedQuantity() < -EPSILON) {
+                violations.add("Inconsistent position in " + snapshot.getAccountId() + ": " + position);
+            }
+        }
+    }
+}
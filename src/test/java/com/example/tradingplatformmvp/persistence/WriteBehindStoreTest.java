@@ -0,0 +1,59 @@
+package com.example.tradingplatformmvp.persistence;
+
+import com.example.tradingplatformmvp.metrics.PipelineMetrics;
+import com.example.tradingplatformmvp.model.TradingSignal;
+import com.example.tradingplatformmvp.repository.SimulatedTradeRepository;
+import com.example.tradingplatformmvp.repository.TradingSignalRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class WriteBehindStoreTest {
+
+    @Test
+    void storedSignalIsACopyOfThePublishedOne() {
+        List<TradingSignal> saved = new ArrayList<>();
+        TradingSignalRepository signalRepository = mock(TradingSignalRepository.class);
+        doAnswer(invocation -> {
+            List<TradingSignal> batch = invocation.getArgument(0);
+            for (TradingSignal signal : batch) {
+                signal.setId((long) saved.size() + 1); // as saveAll does
+                saved.add(signal);
+            }
+            return batch;
+        }).when(signalRepository).saveAll(anyList());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WriteBehindStore store = new WriteBehindStore(signalRepository, mock(SimulatedTradeRepository.class),
+                new ObjectMapper(), meterRegistry, new PipelineMetrics(meterRegistry),
+                100, 10, 10, WriteBehindWriter.OverflowPolicy.BLOCK, "target/spill-test", 30_000);
+
+        TradingSignal published = new TradingSignal();
+        published.setSymbol("AAPL");
+        published.setTimestamp(LocalDateTime.of(2024, 3, 15, 14, 30));
+        published.setSignalType(TradingSignal.SignalType.BUY);
+        published.setStrategyName("SMA_CROSSOVER_STRATEGY");
+        published.setDescription("BUY");
+        published.setOriginMicros(123L);
+        store.saveSignal(published);
+        store.shutdown();
+
+        assertEquals(1, saved.size());
+        TradingSignal stored = saved.get(0);
+        assertNotSame(published, stored);
+        assertNull(published.getId(), "saving must not touch the published signal");
+        assertEquals(1L, stored.getId());
+        stored.setId(null);
+        assertEquals(published, stored);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.tradingplatformmvp.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Recovery of spill files left by an earlier run: the writer picks them up as soon as it starts
+class WriteBehindWriterTest {
+
+    public record Item(String symbol, int sequence) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Item> written = new CopyOnWriteArrayList<>();
+    private Path directory;
+    private WriteBehindWriter<Item> writer;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("write-behind-test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (writer != null) {
+            writer.close(5_000);
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void unparseableLinesAreRejectedAndTheRestRecovered() throws Exception {
+        String torn = "{\"symbol\":\"AAPL\",\"seq";
+        String otherSchema = "{\"symbol\":\"AAPL\",\"sequence\":\"not a number\"}";
+        Files.write(directory.resolve("items.jsonl"), List.of(line(1), torn, line(2), "", otherSchema, line(3)),
+                StandardCharsets.UTF_8);
+
+        writer = writer(written::addAll);
+        awaitRecovered();
+
+        assertEquals(List.of(item(1), item(2), item(3)), written);
+        assertEquals(List.of(torn, otherSchema), Files.readAllLines(directory.resolve("items.jsonl.rejected")));
+    }
+
+    @Test
+    void itemsTheSinkKeepsRefusingAreRejectedAfterTheLastAttempt() throws Exception {
+        Files.write(directory.resolve("items.jsonl"), List.of(line(1), line(2), line(3), line(4)), StandardCharsets.UTF_8);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Sequence 3 is refused whenever it is written
+        writer = writer(batch -> {
+            attempts.incrementAndGet();
+            if (batch.contains(item(3))) {
+                throw new IllegalStateException("constraint violation");
+            }
+            written.addAll(batch);
+        });
+        awaitRecovered();
+
+        assertEquals(List.of(item(1), item(2), item(4)), written);
+        assertEquals(List.of(line(3)), Files.readAllLines(directory.resolve("items.jsonl.rejected")));
+        // The full batch every time, then each item on its own
+        assertEquals(WriteBehindWriter.MAX_RECOVERY_ATTEMPTS + 4, attempts.get());
+    }
+
+    @Test
+    void refusedBatchIsKeptForTheNextAttempt() throws Exception {
+        Files.write(directory.resolve("items.jsonl"), List.of(line(1), line(2)), StandardCharsets.UTF_8);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Down for two attempts, then back
+        writer = writer(batch -> {
+            if (attempts.incrementAndGet() <= 2) {
+                throw new IllegalStateException("database unavailable");
+            }
+            written.addAll(batch);
+        });
+        awaitRecovered();
+
+        assertEquals(List.of(item(1), item(2)), written);
+        assertEquals(3, attempts.get());
+        assertFalse(Files.exists(directory.resolve("items.jsonl.rejected")));
+    }
+
+    private WriteBehindWriter<Item> writer(Consumer<List<Item>> sink) {
+        return new WriteBehindWriter<>("items", Item.class, sink, 100, 10, 10, WriteBehindWriter.OverflowPolicy.SPILL,
+                directory, 20, objectMapper, new SimpleMeterRegistry());
+    }
+
+    private void awaitRecovered() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            if (!Files.exists(directory.resolve("items.jsonl")) && !Files.exists(directory.resolve("items.jsonl.recovering"))) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Spilled items were not recovered");
+    }
+
+    private String line(int sequence) throws IOException {
+        return objectMapper.writeValueAsString(item(sequence));
+    }
+
+    private static Item item(int sequence) {
+        return new Item("AAPL", sequence);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.tradingplatformmvp.repository;
+
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockDataWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final StockDataWriter writer = new StockDataWriter(jdbcTemplate);
+
+    @Test
+    void insertedCountAndListenerAgreeOnWhatWasInserted() {
+        when(jdbcTemplate.queryForObject("SELECT nextval('stock_data_seq')", Long.class)).thenReturn(50L);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenReturn(new int[]{1, 0, Statement.SUCCESS_NO_INFO, Statement.EXECUTE_FAILED});
+        List<StockDataDto> notified = new ArrayList<>();
+        writer.addListener(notified::addAll);
+
+        List<StockDataDto> bars = List.of(bar(0), bar(1), bar(2), bar(3));
+        assertEquals(2, writer.upsert(bars));
+        assertEquals(List.of(bars.get(0), bars.get(2)), notified);
+    }
+
+    @Test
+    void existingUniqueKeyIsLeftAlone() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(StockDataWriter.UNIQUE_KEY))).thenReturn(1);
+        writer.ensureUniqueKey();
+        verify(jdbcTemplate, never()).update(anyString());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void missingUniqueKeyIsAddedAfterDeletingDuplicates() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(StockDataWriter.UNIQUE_KEY))).thenReturn(0);
+        when(jdbcTemplate.update(startsWith("DELETE FROM stock_data"))).thenReturn(3);
+        writer.ensureUniqueKey();
+        verify(jdbcTemplate).update(startsWith("DELETE FROM stock_data"));
+        verify(jdbcTemplate).execute(startsWith("ALTER TABLE stock_data ADD CONSTRAINT " + StockDataWriter.UNIQUE_KEY));
+    }
+
+    @Test
+    void startupFailsWhenTheUniqueKeyCannotBeAdded() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(StockDataWriter.UNIQUE_KEY))).thenReturn(0);
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(jdbcTemplate).execute(anyString());
+        assertThrows(IllegalStateException.class, writer::ensureUniqueKey);
+    }
+
+    private static StockDataDto bar(int minute) {
+        StockDataDto bar = new StockDataDto();
+        bar.setSymbol("AAPL");
+        bar.setTimestamp(LocalDateTime.of(2024, 3, 15, 15, minute));
+        bar.setClose(172.62);
+        return bar;
+    }
+}
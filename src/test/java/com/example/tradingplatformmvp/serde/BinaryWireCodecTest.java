@@ -0,0 +1,183 @@
+package com.example.tradingplatformmvp.serde;
+
+import com.example.tradingplatformmvp.dto.IndicatorDto;
+import com.example.tradingplatformmvp.dto.MlPredictionDto;
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.model.TradingSignal;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryWireCodecTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 3, 15, 14, 30, 5, 123_000_000);
+    private static final String TRUSTED_PACKAGES = "com.example.tradingplatformmvp.dto,com.example.tradingplatformmvp.model";
+
+    private final BinaryWireCodec codec = new BinaryWireCodec(List.of());
+    private final BinaryWireCodec dictionaryCodec = new BinaryWireCodec(List.of("MSFT", "AAPL"));
+
+    @Test
+    void everyMessageTypeRoundTrips() {
+        for (Object message : List.of(bar(), indicators(), signal(), prediction())) {
+            byte[] encoded = codec.encode(message);
+            assertTrue(BinaryWireCodec.isBinary(encoded));
+            assertEquals(message, codec.decode(encoded), message.getClass().getSimpleName());
+            assertEquals(message, dictionaryCodec.decode(dictionaryCodec.encode(message)), message.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void dictionarySymbolIsSentAsAnIndex() {
+        StockDataDto bar = bar();
+        assertEquals(65, codec.encode(bar).length);
+        assertEquals(62, dictionaryCodec.encode(bar).length);
+
+        StockDataDto other = bar();
+        other.setSymbol("TSLA"); // not in the dictionary, so written inline
+        assertEquals(other, dictionaryCodec.decode(dictionaryCodec.encode(other)));
+    }
+
+    @Test
+    void dictionaryIndexOutsideTheReadersDictionaryIsRejected() {
+        byte[] encoded = dictionaryCodec.encode(bar());
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded));
+    }
+
+    @Test
+    void recordsWithoutOriginMicrosDecodeWithZero() {
+        for (Object message : List.of(bar(), indicators(), signal(), prediction())) {
+            byte[] encoded = codec.encode(message);
+            // A writer from before originMicros was appended stops 8 bytes earlier
+            Object decoded = codec.decode(Arrays.copyOf(encoded, encoded.length - 8));
+            Object expected = codec.decode(encoded);
+            if (expected instanceof StockDataDto bar) {
+                bar.setOriginMicros(0);
+            } else if (expected instanceof IndicatorDto indicators) {
+                indicators.setOriginMicros(0);
+            } else if (expected instanceof TradingSignal signal) {
+                signal.setOriginMicros(0);
+            } else {
+                ((MlPredictionDto) expected).setOriginMicros(0);
+            }
+            assertEquals(expected, decoded, message.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void absentFieldsRoundTrip() {
+        TradingSignal signal = new TradingSignal();
+        signal.setSymbol("AAPL");
+        TradingSignal decoded = (TradingSignal) codec.decode(codec.encode(signal));
+        assertEquals(signal, decoded);
+        assertNull(decoded.getTimestamp());
+        assertNull(decoded.getSignalType());
+        assertNull(decoded.getStrategyName());
+    }
+
+    @Test
+    void timestampsAreTruncatedToMilliseconds() {
+        StockDataDto bar = bar();
+        bar.setTimestamp(TIMESTAMP.plusNanos(456_789));
+        StockDataDto decoded = (StockDataDto) codec.decode(codec.encode(bar));
+        assertEquals(TIMESTAMP, decoded.getTimestamp());
+    }
+
+    @Test
+    void signalTypeIsSentAsItsOrdinal() {
+        for (TradingSignal.SignalType type : TradingSignal.SignalType.values()) {
+            TradingSignal signal = signal();
+            signal.setSignalType(type);
+            byte[] encoded = codec.encode(signal);
+            // header 4, inline "AAPL" 5, timestamp 8, id 8
+            assertEquals(type.ordinal(), encoded[25]);
+            assertEquals(type, ((TradingSignal) codec.decode(encoded)).getSignalType());
+        }
+    }
+
+    @Test
+    void jsonRecordsWithoutTheMagicByteGoToJson() {
+        Map<String, Object> configs = Map.of("spring.json.trusted.packages", TRUSTED_PACKAGES,
+                WireFormatConfig.BINARY_TOPICS, "binary-topic");
+        try (WireFormatSerializer serializer = new WireFormatSerializer();
+             WireFormatDeserializer deserializer = new WireFormatDeserializer()) {
+            serializer.configure(configs, false);
+            deserializer.configure(configs, false);
+
+            RecordHeaders headers = new RecordHeaders();
+            StockDataDto bar = bar();
+            byte[] json = serializer.serialize("json-topic", headers, bar);
+            assertFalse(BinaryWireCodec.isBinary(json));
+            assertEquals('{', json[0]);
+            // A binary topic still reads JSON records written before it was switched
+            assertEquals(bar, deserializer.deserialize("binary-topic", headers, json));
+
+            byte[] binary = serializer.serialize("binary-topic", new RecordHeaders(), bar);
+            assertTrue(BinaryWireCodec.isBinary(binary));
+            assertEquals(bar, deserializer.deserialize("binary-topic", new RecordHeaders(), binary));
+        }
+    }
+
+    @Test
+    void nonBinaryInputIsRejectedByDecode() {
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("{}".getBytes()));
+    }
+
+    private static StockDataDto bar() {
+        StockDataDto bar = new StockDataDto();
+        bar.setSymbol("AAPL");
+        bar.setTimestamp(TIMESTAMP);
+        bar.setOpen(172.11);
+        bar.setHigh(172.85);
+        bar.setLow(171.94);
+        bar.setClose(172.62);
+        bar.setVolume(1_254_300);
+        bar.setOriginMicros(1_710_513_005_123_456L);
+        return bar;
+    }
+
+    private static IndicatorDto indicators() {
+        IndicatorDto indicators = new IndicatorDto();
+        indicators.setSymbol("AAPL");
+        indicators.setTimestamp(TIMESTAMP);
+        indicators.setClose(172.62);
+        indicators.setSma(171.384);
+        indicators.setRsi(58.27);
+        indicators.setMacd(0.4312);
+        indicators.setMacdSignal(0.3877);
+        indicators.setMacdHist(0.0435);
+        indicators.setOriginMicros(1_710_513_005_123_456L);
+        return indicators;
+    }
+
+    private static TradingSignal signal() {
+        TradingSignal signal = new TradingSignal();
+        signal.setId(42L);
+        signal.setSymbol("AAPL");
+        signal.setTimestamp(TIMESTAMP);
+        signal.setSignalType(TradingSignal.SignalType.SELL);
+        signal.setStrategyName("SMA_CROSSOVER_STRATEGY");
+        signal.setDescription("SELL: Short SMA (5) crossed below Long SMA (20) – ünïcode");
+        signal.setOriginMicros(1_710_513_005_123_456L);
+        return signal;
+    }
+
+    private static MlPredictionDto prediction() {
+        MlPredictionDto prediction = new MlPredictionDto();
+        prediction.setSymbol("AAPL");
+        prediction.setTimestamp(TIMESTAMP);
+        prediction.setPrediction("UP");
+        prediction.setConfidence(0.73);
+        prediction.setOriginMicros(1_710_513_005_123_456L);
+        return prediction;
+    }
+}
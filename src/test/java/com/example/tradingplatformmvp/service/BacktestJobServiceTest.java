@@ -0,0 +1,126 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.backtest.BacktestProgress;
+import com.example.tradingplatformmvp.dto.BacktestJobDto;
+import com.example.tradingplatformmvp.dto.BacktestJobRequestDto;
+import com.example.tradingplatformmvp.model.BacktestResult;
+import com.example.tradingplatformmvp.repository.BacktestResultRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// One worker; the BLOCK symbol holds it until release, FAIL throws an Error, anything else succeeds at once
+class BacktestJobServiceTest {
+
+    private final BacktestingService backtestingService = mock(BacktestingService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BacktestJobService service;
+
+    @BeforeEach
+    void setUp() {
+        when(backtestingService.runSmaCrossoverBacktest(any(), any(), any(), anyDouble(), anyInt(), anyInt(),
+                any(BacktestProgress.class))).thenAnswer(invocation -> result(1L));
+        when(backtestingService.runSmaCrossoverBacktest(eq("BLOCK"), any(), any(), anyDouble(), anyInt(), anyInt(),
+                any(BacktestProgress.class))).thenAnswer(invocation -> {
+                    assertTrue(release.await(10, TimeUnit.SECONDS));
+                    return result(2L);
+                });
+        when(backtestingService.runSmaCrossoverBacktest(eq("FAIL"), any(), any(), anyDouble(), anyInt(), anyInt(),
+                any(BacktestProgress.class))).thenThrow(new StackOverflowError());
+        service = new BacktestJobService(backtestingService, mock(BacktestResultRepository.class), 1, 1, 20, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void queueIsCappedAcrossUsers() throws InterruptedException {
+        BacktestJobDto blocking = service.submit("alice", request("BLOCK"));
+        awaitStatus(blocking.getJobId(), BacktestJobDto.Status.RUNNING);
+        service.submit("bob", request("AAPL"));
+        service.submit("carol", request("AAPL"));
+
+        // Each user is far below max-queued-per-user, but the queue is full
+        assertThrows(IllegalStateException.class, () -> service.submit("dave", request("AAPL")));
+
+        release.countDown();
+        for (BacktestJobDto job : service.getJobs(null)) {
+            awaitStatus(job.getJobId(), BacktestJobDto.Status.SUCCEEDED);
+        }
+        service.submit("dave", request("AAPL"));
+    }
+
+    @Test
+    void finishedAndCancelledUsersLeaveNoCounts() throws InterruptedException {
+        BacktestJobDto blocking = service.submit("alice", request("BLOCK"));
+        awaitStatus(blocking.getJobId(), BacktestJobDto.Status.RUNNING);
+        BacktestJobDto cancelled = service.submit("bob", request("AAPL"));
+        BacktestJobDto waiting = service.submit("carol", request("AAPL"));
+        assertEquals(BacktestJobDto.Status.CANCELLED, service.cancel(cancelled.getJobId()).getStatus());
+
+        release.countDown();
+        awaitStatus(blocking.getJobId(), BacktestJobDto.Status.SUCCEEDED);
+        awaitStatus(waiting.getJobId(), BacktestJobDto.Status.SUCCEEDED);
+        synchronized (service) {
+            assertEquals(Map.of(), ReflectionTestUtils.getField(service, "queuedByUser"));
+            assertEquals(Map.of(), ReflectionTestUtils.getField(service, "runningByUser"));
+        }
+    }
+
+    @Test
+    void errorsFailTheJobAndFreeTheWorker() throws InterruptedException {
+        BacktestJobDto failing = service.submit("alice", request("FAIL"));
+        awaitStatus(failing.getJobId(), BacktestJobDto.Status.FAILED);
+        assertTrue(service.getJob(failing.getJobId()).getError().contains("StackOverflowError"));
+
+        BacktestJobDto next = service.submit("alice", request("AAPL"));
+        awaitStatus(next.getJobId(), BacktestJobDto.Status.SUCCEEDED);
+        assertEquals(List.of(1L), service.getJob(next.getJobId()).getResultIds());
+    }
+
+    private void awaitStatus(String jobId, BacktestJobDto.Status status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            if (service.getJob(jobId).getStatus() == status) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Job " + jobId + " is " + service.getJob(jobId).getStatus() + ", expected " + status);
+    }
+
+    private static BacktestJobRequestDto request(String symbol) {
+        BacktestJobRequestDto request = new BacktestJobRequestDto();
+        request.setType("SMA_CROSSOVER");
+        request.setSymbol(symbol);
+        request.setStartDate(LocalDate.of(2024, 1, 2));
+        request.setEndDate(LocalDate.of(2024, 3, 28));
+        return request;
+    }
+
+    private static BacktestResult result(long id) {
+        BacktestResult result = new BacktestResult();
+        result.setId(id);
+        return result;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import com.example.tradingplatformmvp.dto.RobustnessReportDto;
+import com.example.tradingplatformmvp.dto.RobustnessRequestDto;
+import com.example.tradingplatformmvp.dto.SmaSweepRequestDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BacktestingServiceTest {
+
+    private final PriceHistoryService priceHistoryService = mock(PriceHistoryService.class);
+    private final BacktestingService backtestingService = new BacktestingService(priceHistoryService, null, null, null, null);
+
+    @AfterEach
+    void shutdown() {
+        backtestingService.shutdown();
+    }
+
+    @Test
+    void sweepWithinTheCombinationLimitIsAccepted() {
+        assertDoesNotThrow(() -> backtestingService.validateSweep(sweep(5, 50, 5, 200)));
+    }
+
+    @Test
+    void oversizedSweepIsRejectedBeforeExpansion() {
+        assertThrows(IllegalArgumentException.class, () -> backtestingService.validateSweep(sweep(1, 100_000, 1, 100_000)));
+        assertThrows(IllegalArgumentException.class, () -> backtestingService.validateSweep(sweep(1, Integer.MAX_VALUE, 1, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void sweepNeedsADateRangeAndPositiveCapital() {
+        SmaSweepRequestDto missingDates = sweep(5, 10, 20, 30);
+        missingDates.setStartDate(null);
+        assertThrows(IllegalArgumentException.class, () -> backtestingService.validateSweep(missingDates));
+
+        SmaSweepRequestDto reversed = sweep(5, 10, 20, 30);
+        reversed.setEndDate(reversed.getStartDate().minusDays(1));
+        assertThrows(IllegalArgumentException.class, () -> backtestingService.validateSweep(reversed));
+
+        SmaSweepRequestDto noCapital = sweep(5, 10, 20, 30);
+        noCapital.setInitialCapitals(List.of(0.0));
+        assertThrows(IllegalArgumentException.class, () -> backtestingService.validateSweep(noCapital));
+    }
+
+    @Test
+    void robustnessWithTheSameSeedGivesTheSameReport() {
+        when(priceHistoryService.load(eq("TEST"), any(), any())).thenReturn(randomWalk(3_000));
+        RobustnessReportDto first = backtestingService.runSmaCrossoverRobustness("TEST", robustness());
+        RobustnessReportDto second = backtestingService.runSmaCrossoverRobustness("TEST", robustness());
+
+        assertTrue(first.getMonteCarloTrades() > 0);
+        assertEquals(13, first.getWindows().size());
+        first.setElapsedMillis(0);
+        second.setElapsedMillis(0);
+        assertEquals(first, second);
+    }
+
+    @Test
+    void robustnessNeedsPositiveCapitalAndABoundedNumberOfEvaluations() {
+        when(priceHistoryService.load(eq("TEST"), any(), any())).thenReturn(randomWalk(3_000));
+        RobustnessRequestDto noCapital = robustness();
+        noCapital.setInitialCapital(0);
+        assertThrows(IllegalArgumentException.class, () -> backtestingService.runSmaCrossoverRobustness("TEST", noCapital));
+
+        // 13 windows x 5 short x 3 long periods
+        ReflectionTestUtils.setField(backtestingService, "maxRobustnessEvaluations", 194L);
+        assertThrows(IllegalArgumentException.class, () -> backtestingService.runSmaCrossoverRobustness("TEST", robustness()));
+        ReflectionTestUtils.setField(backtestingService, "maxRobustnessEvaluations", 195L);
+        assertDoesNotThrow(() -> backtestingService.runSmaCrossoverRobustness("TEST", robustness()));
+    }
+
+    @Test
+    void oversizedRobustnessGridIsRejectedBeforeExpansion() {
+        RobustnessRequestDto huge = robustness();
+        huge.setShortSmaTo(100_000_000);
+        assertThrows(IllegalArgumentException.class, () -> backtestingService.runSmaCrossoverRobustness("TEST", huge));
+        huge.setShortSmaTo(Integer.MAX_VALUE);
+        huge.setLongSmaTo(Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> backtestingService.runSmaCrossoverRobustness("TEST", huge));
+
+        RobustnessRequestDto overflowingWindow = robustness();
+        overflowingWindow.setInSampleBars(Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> backtestingService.runSmaCrossoverRobustness("TEST", overflowingWindow));
+        verify(priceHistoryService, never()).load(any(), any(), any());
+    }
+
+    // Short 2..10 by 2, long 20..60 by 20: 15 pairs; 400 + 200 bar windows every 200 bars
+    private static RobustnessRequestDto robustness() {
+        RobustnessRequestDto request = new RobustnessRequestDto();
+        request.setStartDate(LocalDate.of(2024, 1, 1));
+        request.setEndDate(LocalDate.of(2024, 6, 30));
+        request.setShortSmaFrom(2);
+        request.setShortSmaTo(10);
+        request.setShortSmaStep(2);
+        request.setLongSmaFrom(20);
+        request.setLongSmaTo(60);
+        request.setLongSmaStep(20);
+        request.setInSampleBars(400);
+        request.setOutOfSampleBars(200);
+        request.setMonteCarloResamples(2_000);
+        request.setSeed(42L);
+        return request;
+    }
+
+    private static PriceSeries randomWalk(int size) {
+        Random random = new Random(7L);
+        long[] timestamps = new long[size];
+        double[] closes = new double[size];
+        double price = 100.0;
+        for (int i = 0; i < size; i++) {
+            price = Math.max(1.0, price + random.nextGaussian());
+            timestamps[i] = 1_700_000_000L + 60L * i;
+            closes[i] = price;
+        }
+        return new PriceSeries("TEST", timestamps, closes, closes, closes, closes, new long[size]);
+    }
+
+    private static SmaSweepRequestDto sweep(int shortFrom, int shortTo, int longFrom, int longTo) {
+        SmaSweepRequestDto request = new SmaSweepRequestDto();
+        request.setStartDate(LocalDate.of(2024, 1, 1));
+        request.setEndDate(LocalDate.of(2024, 6, 30));
+        request.setShortSmaFrom(shortFrom);
+        request.setShortSmaTo(shortTo);
+        request.setLongSmaFrom(longFrom);
+        request.setLongSmaTo(longTo);
+        return request;
+    }
+}
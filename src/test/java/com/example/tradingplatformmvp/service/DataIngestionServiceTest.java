@@ -0,0 +1,161 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.ingestion.MarketDataPublisher;
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.repository.StockDataRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Runs the Alpha Vantage client against a local stub server (alphavantage.base-url) that answers from a queue
+class DataIngestionServiceTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(10);
+
+    private final Queue<String> responses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<StockDataDto> published = new ArrayList<>();
+    private final StockDataRepository stockDataRepository = mock(StockDataRepository.class);
+    private final MarketDataPublisher marketDataPublisher = mock(MarketDataPublisher.class);
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/query", exchange -> {
+            requests.incrementAndGet();
+            String body = responses.poll();
+            byte[] bytes = (body == null ? "{}" : body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        // The first request pays for starting Netty; keep that out of the timed requests below
+        WebClient.create(baseUrl()).get().uri("/query").retrieve().toBodilessEntity().block(WAIT);
+        requests.set(0);
+
+        doAnswer(invocation -> {
+            List<StockDataDto> bars = invocation.getArgument(1);
+            published.addAll(bars);
+            return null;
+        }).when(marketDataPublisher).publish(eq(DataIngestionService.SOURCE_NAME), anyList());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void publishesBarsNewerThanTheStoredOneOldestFirst() {
+        StockData stored = new StockData();
+        stored.setTimestamp(LocalDateTime.of(2024, 3, 15, 15, 57));
+        when(stockDataRepository.findBySymbolOrderByTimestampDesc(eq("AAPL"), any())).thenReturn(List.of(stored));
+        DataIngestionService service = service(600, 5000, 1);
+
+        responses.add(timeSeries("2024-03-15 15:59:00", "2024-03-15 15:58:00", "2024-03-15 15:57:00"));
+        assertEquals(2, service.fetchNewBars("AAPL").block(WAIT));
+        assertEquals(List.of(LocalDateTime.of(2024, 3, 15, 15, 58), LocalDateTime.of(2024, 3, 15, 15, 59)),
+                published.stream().map(StockDataDto::getTimestamp).toList());
+        assertEquals(172.62, published.get(1).getClose());
+        assertEquals(1200L, published.get(1).getVolume());
+
+        // Same window again, plus one new minute: only that minute goes out
+        responses.add(timeSeries("2024-03-15 16:00:00", "2024-03-15 15:59:00", "2024-03-15 15:58:00"));
+        assertEquals(1, service.fetchNewBars("AAPL").block(WAIT));
+        assertEquals(3, published.size());
+    }
+
+    @Test
+    void throttledResponsesAreRetried() {
+        when(stockDataRepository.findBySymbolOrderByTimestampDesc(eq("AAPL"), any())).thenReturn(List.of());
+        DataIngestionService service = service(6000, 5000, 3);
+
+        responses.add("{\"Note\":\"Thank you for using Alpha Vantage! Our standard API call frequency is 5 calls per minute.\"}");
+        responses.add(timeSeries("2024-03-15 15:59:00"));
+        assertEquals(1, service.fetchNewBars("AAPL").block(WAIT));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void retriesStopAfterMaxAttempts() {
+        when(stockDataRepository.findBySymbolOrderByTimestampDesc(eq("AAPL"), any())).thenReturn(List.of());
+        DataIngestionService service = service(6000, 5000, 2);
+
+        for (int i = 0; i < 3; i++) {
+            responses.add("{\"Information\":\"rate limit\"}");
+        }
+        assertThrows(DataIngestionService.ThrottledException.class, () -> service.fetchNewBars("AAPL").block(WAIT));
+        assertEquals(2, requests.get());
+        assertEquals(0, published.size());
+    }
+
+    @Test
+    void waitingForARateLimitTokenDoesNotCountAgainstTheRequestTimeout() {
+        when(stockDataRepository.findBySymbolOrderByTimestampDesc(eq("AAPL"), any())).thenReturn(List.of());
+        // One token every 300 ms, and a 100 ms request timeout with no retries
+        DataIngestionService service = service(200, 100, 1);
+
+        responses.add(timeSeries("2024-03-15 15:58:00"));
+        responses.add(timeSeries("2024-03-15 15:59:00"));
+        assertEquals(1, service.fetchNewBars("AAPL").block(WAIT));
+        // The second call waits for the next token first
+        assertEquals(1, service.fetchNewBars("AAPL").block(WAIT));
+        assertEquals(2, requests.get());
+    }
+
+    private DataIngestionService service(double requestsPerMinute, long requestTimeoutMillis, int maxAttempts) {
+        DataIngestionService service = new DataIngestionService(WebClient.builder(), marketDataPublisher, stockDataRepository,
+                baseUrl(), requestsPerMinute, 1);
+        ReflectionTestUtils.setField(service, "apiKey", "test");
+        ReflectionTestUtils.setField(service, "requestTimeoutMillis", requestTimeoutMillis);
+        ReflectionTestUtils.setField(service, "retryMaxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(service, "retryBackoffMillis", 10L);
+        return service;
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    // Newest first, as the API lists them
+    private static String timeSeries(String... timestamps) {
+        StringBuilder json = new StringBuilder("{\"Meta Data\":{},\"Time Series (1min)\":{");
+        for (int i = 0; i < timestamps.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(timestamps[i]).append("\":{\"1. open\":\"172.11\",\"2. high\":\"172.85\",")
+                    .append("\"3. low\":\"171.94\",\"4. close\":\"172.62\",\"5. volume\":\"1200\"}");
+        }
+        return json.append("}}").toString();
+    }
+}
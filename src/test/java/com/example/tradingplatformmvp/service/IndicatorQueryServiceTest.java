@@ -0,0 +1,71 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import com.example.tradingplatformmvp.dto.IndicatorQueryRequestDto;
+import com.example.tradingplatformmvp.dto.IndicatorSpecDto;
+import com.example.tradingplatformmvp.repository.StockDataRepository;
+import com.example.tradingplatformmvp.repository.StockDataWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndicatorQueryServiceTest {
+
+    private final PriceHistoryService priceHistoryService = mock(PriceHistoryService.class);
+    private final IndicatorQueryService service = new IndicatorQueryService(new IndicatorResultCache(priceHistoryService,
+            mock(StockDataRepository.class), mock(StockDataWriter.class), new SimpleMeterRegistry(), 100, 1000, 500), 2);
+
+    @BeforeEach
+    void limits() {
+        ReflectionTestUtils.setField(service, "maxSymbols", 500);
+        ReflectionTestUtils.setField(service, "maxIndicators", 50);
+    }
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void barCountsOutsideTheLimitFailTheRequestBeforeAnySymbolIsLoaded() {
+        assertThrows(IllegalArgumentException.class, () -> service.query(request(spec("SMA", 2_000_000_000))));
+        assertThrows(IllegalArgumentException.class, () -> service.query(request(spec("RSI", 0))));
+        assertThrows(IllegalArgumentException.class, () -> service.query(request(spec("SMA", 20), spec("RSI", 501))));
+
+        IndicatorSpecDto macd = new IndicatorSpecDto();
+        macd.setType("macd");
+        macd.setSlowBarCount(100_000);
+        assertThrows(IllegalArgumentException.class, () -> service.query(request(macd)));
+        verify(priceHistoryService, never()).loadAll(any());
+
+        when(priceHistoryService.loadAll(any())).thenAnswer(invocation -> new PriceSeries(invocation.getArgument(0),
+                new long[0], new double[0], new double[0], new double[0], new double[0], new long[0]));
+        assertEquals(2, service.query(request(spec("SMA", 500), spec("RSI", 1))).size());
+    }
+
+    private static IndicatorQueryRequestDto request(IndicatorSpecDto... specs) {
+        IndicatorQueryRequestDto request = new IndicatorQueryRequestDto();
+        request.setSymbols(List.of("AAPL", "MSFT"));
+        request.setIndicators(List.of(specs));
+        return request;
+    }
+
+    private static IndicatorSpecDto spec(String type, int barCount) {
+        IndicatorSpecDto spec = new IndicatorSpecDto();
+        spec.setType(type);
+        spec.setBarCount(barCount);
+        return spec;
+    }
+}
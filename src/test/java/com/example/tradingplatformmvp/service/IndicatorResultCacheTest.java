@@ -0,0 +1,131 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import com.example.tradingplatformmvp.repository.StockDataRepository;
+import com.example.tradingplatformmvp.repository.StockDataWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndicatorResultCacheTest {
+
+    private final PriceHistoryService priceHistoryService = mock(PriceHistoryService.class);
+    private final IndicatorResultCache cache = new IndicatorResultCache(priceHistoryService,
+            mock(StockDataRepository.class), mock(StockDataWriter.class), new SimpleMeterRegistry(), 100, 1000, 500);
+
+    @Test
+    void symbolsWithoutBarsLeaveNothingBehind() {
+        for (int i = 0; i < 50; i++) {
+            String symbol = "NODATA" + i;
+            when(priceHistoryService.loadAll(symbol)).thenReturn(series(symbol, 0));
+            assertEquals(0, cache.sma(symbol, 5).barCount());
+        }
+        assertEquals(0, cache.size());
+        assertEquals(0, ((Map<?, ?>) ReflectionTestUtils.getField(cache, "versions")).size());
+    }
+
+    @Test
+    void barCountsOutsideTheLimitAreRejectedBeforeLoading() {
+        assertThrows(IllegalArgumentException.class, () -> cache.sma("AAPL", 0));
+        assertThrows(IllegalArgumentException.class, () -> cache.rsi("AAPL", 501));
+        assertThrows(IllegalArgumentException.class, () -> cache.sma("AAPL", 2_000_000_000));
+        assertThrows(IllegalArgumentException.class, () -> cache.macd("AAPL", 12, 26, -1));
+        verify(priceHistoryService, never()).loadAll(any());
+    }
+
+    @Test
+    void cachedResultIsServedWithoutReloading() {
+        when(priceHistoryService.loadAll("AAPL")).thenReturn(series("AAPL", 30));
+        IndicatorResultCache.Result first = cache.sma("AAPL", 5);
+        IndicatorResultCache.Result second = cache.sma("AAPL", 5);
+
+        assertEquals(30, first.barCount());
+        assertEquals(27.0, first.values()[0], 1e-9); // mean of 25..29
+        assertArrayEquals(first.values(), second.values());
+        verify(priceHistoryService, times(1)).loadAll("AAPL");
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void concurrentMissesOnOneSymbolLoadItsHistoryOnce() throws Exception {
+        int callers = 8;
+        CountDownLatch release = new CountDownLatch(1);
+        when(priceHistoryService.loadAll("AAPL")).thenAnswer(invocation -> {
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return series("AAPL", 30);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Thread> threads = new ArrayList<>();
+        try {
+            List<Future<IndicatorResultCache.Result>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                // Different bar counts, so no caller can be answered by another's cached entry
+                int barCount = i + 2;
+                results.add(executor.submit(() -> {
+                    synchronized (threads) {
+                        threads.add(Thread.currentThread());
+                    }
+                    return cache.sma("AAPL", barCount);
+                }));
+            }
+            awaitAllWaiting(threads, callers);
+            release.countDown();
+
+            for (int i = 0; i < callers; i++) {
+                assertEquals(30, results.get(i).get(10, TimeUnit.SECONDS).barCount());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(priceHistoryService, times(1)).loadAll("AAPL");
+        assertEquals(callers, cache.size());
+    }
+
+    // One caller blocked in the load, the rest waiting for it
+    private static void awaitAllWaiting(List<Thread> threads, int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            synchronized (threads) {
+                if (threads.size() == callers && threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING
+                        || thread.getState() == Thread.State.TIMED_WAITING)) {
+                    return;
+                }
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Callers did not reach the history load");
+    }
+
+    // Closes 0, 1, 2, ... one minute apart
+    private static PriceSeries series(String symbol, int size) {
+        long[] timestamps = new long[size];
+        double[] closes = new double[size];
+        long[] volumes = new long[size];
+        for (int i = 0; i < size; i++) {
+            timestamps[i] = 1_700_000_000L + 60L * i;
+            closes[i] = i;
+        }
+        return new PriceSeries(symbol, timestamps, closes, closes, closes, closes, volumes);
+    }
+}
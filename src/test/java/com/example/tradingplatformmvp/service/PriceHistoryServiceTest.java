@@ -0,0 +1,102 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.archive.ColumnarArchive;
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.repository.StockDataRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Archive on disk in a temporary directory, stock_data mocked
+class PriceHistoryServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 15, 9, 30);
+    private static final LocalDateTime FROM = START.minusDays(1);
+    private static final LocalDateTime TO = START.plusDays(1);
+
+    private final StockDataRepository stockDataRepository = mock(StockDataRepository.class);
+    private Path root;
+    private PriceHistoryService priceHistoryService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("price-history-test");
+        ColumnarArchive archive = new ColumnarArchive(root.toString(), true);
+        // Minutes 0..9 archived, except minute 5
+        archive.append("AAPL", PriceSeries.of("AAPL", bars(IntStream.range(0, 10).filter(minute -> minute != 5).toArray())));
+        priceHistoryService = new PriceHistoryService(stockDataRepository, archive);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void archiveCoveringStockDataIsReadAlone() {
+        when(stockDataRepository.countBySymbolAndTimestampBetween(eq("AAPL"), eq(FROM), any())).thenReturn(9L);
+        when(stockDataRepository.findBySymbolAndTimestampBetweenOrderByTimestampAsc(eq("AAPL"), any(), eq(TO)))
+                .thenReturn(bars(10, 11));
+
+        PriceSeries series = priceHistoryService.load("AAPL", FROM, TO);
+        assertEquals(11, series.size());
+        // Only the bars after the archive are read from stock_data
+        verify(stockDataRepository).findBySymbolAndTimestampBetweenOrderByTimestampAsc("AAPL", START.plusMinutes(9).plusSeconds(1), TO);
+        verify(stockDataRepository, never()).findBySymbolAndTimestampBetweenOrderByTimestampAsc("AAPL", FROM, TO);
+    }
+
+    @Test
+    void barsStoredBehindTheArchiveTailAreMergedIn() {
+        // Minute 5 was stored after the archive had moved past it; minute 2 has since been deleted from stock_data
+        when(stockDataRepository.countBySymbolAndTimestampBetween(eq("AAPL"), eq(FROM), any())).thenReturn(10L);
+        List<StockData> stored = bars(0, 1, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+        stored.get(4).setClose(555.0);
+        when(stockDataRepository.findBySymbolAndTimestampBetweenOrderByTimestampAsc("AAPL", FROM, TO)).thenReturn(stored);
+
+        PriceSeries series = priceHistoryService.load("AAPL", FROM, TO);
+        assertEquals(12, series.size());
+        for (int i = 0; i < series.size(); i++) {
+            assertEquals(START.plusMinutes(i), series.getDateTime(i));
+        }
+        assertEquals(555.0, series.getClose(5));
+        assertEquals(2.0, series.getClose(2));
+    }
+
+    // Close equal to the minute
+    private static List<StockData> bars(int... minutes) {
+        List<StockData> bars = new ArrayList<>();
+        for (int minute : minutes) {
+            StockData bar = new StockData();
+            bar.setSymbol("AAPL");
+            bar.setTimestamp(START.plusMinutes(minute));
+            bar.setOpen(minute);
+            bar.setHigh(minute);
+            bar.setLow(minute);
+            bar.setClose(minute);
+            bar.setVolume(100);
+            bars.add(bar);
+        }
+        return bars;
+    }
+}
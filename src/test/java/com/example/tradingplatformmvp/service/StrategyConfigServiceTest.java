@@ -0,0 +1,48 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.aggregation.TimeframeBarCache;
+import com.example.tradingplatformmvp.model.TradingStrategyConfig;
+import com.example.tradingplatformmvp.repository.TradingStrategyConfigRepository;
+import com.example.tradingplatformmvp.strategy.StrategyRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StrategyConfigServiceTest {
+
+    private final TradingStrategyConfigRepository repository = mock(TradingStrategyConfigRepository.class);
+    private final StrategyConfigService service = new StrategyConfigService(repository, mock(StrategyRegistry.class),
+            new TimeframeBarCache(List.of("5m", "15m", "1h"), 10));
+
+    @Test
+    void aggregatedAndRawTimeframesAreSavedInCanonicalForm() {
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        assertEquals("1h", service.saveStrategy(config("60m")).getTimeframe());
+        assertEquals("1m", service.saveStrategy(config("1m")).getTimeframe());
+        assertNull(service.saveStrategy(config(null)).getTimeframe());
+    }
+
+    @Test
+    void timeframeOutsideTheAggregationIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.saveStrategy(config("30m")));
+        assertThrows(IllegalArgumentException.class, () -> service.saveStrategy(config("5x")));
+        verify(repository, never()).save(any());
+    }
+
+    private static TradingStrategyConfig config(String timeframe) {
+        TradingStrategyConfig config = new TradingStrategyConfig();
+        config.setStrategyName("SMA_CROSSOVER");
+        config.setSymbol("AAPL");
+        config.setTimeframe(timeframe);
+        return config;
+    }
+}
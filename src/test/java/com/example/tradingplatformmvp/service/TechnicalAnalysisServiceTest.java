@@ -0,0 +1,97 @@
+package com.example.tradingplatformmvp.service;
+
+import com.example.tradingplatformmvp.backtest.PriceSeries;
+import com.example.tradingplatformmvp.cache.BarCache;
+import com.example.tradingplatformmvp.dispatch.SymbolLaneDispatcher;
+import com.example.tradingplatformmvp.dto.IndicatorDto;
+import com.example.tradingplatformmvp.dto.StockDataDto;
+import com.example.tradingplatformmvp.metrics.PipelineMetrics;
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.repository.StockDataRepository;
+import com.example.tradingplatformmvp.websocket.MarketDataFanout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The dispatcher runs each task at once, on the calling thread
+class TechnicalAnalysisServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 15, 9, 30);
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, IndicatorDto> kafkaTemplate = mock(KafkaTemplate.class);
+    private final PriceHistoryService priceHistoryService = mock(PriceHistoryService.class);
+    private TechnicalAnalysisService service;
+
+    @BeforeEach
+    void setUp() {
+        SymbolLaneDispatcher dispatcher = mock(SymbolLaneDispatcher.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(dispatcher).dispatch(anyString(), anyString(), any());
+        service = new TechnicalAnalysisService(mock(StockDataRepository.class), kafkaTemplate, mock(MarketDataFanout.class),
+                mock(BarCache.class), priceHistoryService, dispatcher, mock(PipelineMetrics.class));
+    }
+
+    @Test
+    void firstBarAlreadyStoredIsAppliedAfterSeeding() {
+        // The bar was persisted before the indicator consumer saw it, so the history already ends with it
+        when(priceHistoryService.loadAll("AAPL")).thenReturn(history(30));
+
+        service.consumeStockDataAndPublishIndicators(bar(29));
+
+        ArgumentCaptor<IndicatorDto> published = ArgumentCaptor.forClass(IndicatorDto.class);
+        verify(kafkaTemplate).send(eq("stock-indicators-topic"), eq("AAPL"), published.capture());
+        assertEquals(START.plusMinutes(29), published.getValue().getTimestamp());
+        assertEquals(close(29), published.getValue().getClose());
+        assertEquals(30, service.getOrSeedIndicatorState("AAPL").getBarCount());
+        // SMA over bars 10..29
+        assertEquals((close(10) + close(29)) / 2, published.getValue().getSma(), 1e-9);
+    }
+
+    @Test
+    void warmUpSeedsFromTheWholeHistory() {
+        when(priceHistoryService.loadAll("AAPL")).thenReturn(history(30));
+        assertEquals(30, service.getOrSeedIndicatorState("AAPL").getBarCount());
+        assertEquals(START.plusMinutes(29), service.getOrSeedIndicatorState("AAPL").getLastTimestamp());
+    }
+
+    private static PriceSeries history(int size) {
+        List<StockData> bars = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            StockData data = new StockData();
+            data.setSymbol("AAPL");
+            data.setTimestamp(START.plusMinutes(i));
+            data.setClose(close(i));
+            bars.add(data);
+        }
+        return PriceSeries.of("AAPL", bars);
+    }
+
+    private static StockDataDto bar(int minute) {
+        StockDataDto bar = new StockDataDto();
+        bar.setSymbol("AAPL");
+        bar.setTimestamp(START.plusMinutes(minute));
+        bar.setClose(close(minute));
+        return bar;
+    }
+
+    private static double close(int minute) {
+        return 100 + minute * 0.5;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.tradingplatformmvp.strategy;
+
+import com.example.tradingplatformmvp.model.StockData;
+import com.example.tradingplatformmvp.model.TradingSignal;
+import com.example.tradingplatformmvp.service.TechnicalAnalysisService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The incremental state of a strategy must emit the same signals, on the same bars, as evaluate over the full history
+class IncrementalStrategyParityTest {
+
+    private static final int BARS = 500;
+
+    private final TechnicalAnalysisService technicalAnalysisService =
+            new TechnicalAnalysisService(null, null, null, null, null, null, null);
+    private final List<StockData> bars = randomBars(7L, BARS);
+
+    @Test
+    void smaCrossoverStateMatchesEvaluate() {
+        for (String parameters : new String[]{"{}", "{\"shortSma\":3,\"longSma\":8}", "{\"shortSma\":10,\"longSma\":50}"}) {
+            assertSameSignals(new SmaCrossoverStrategy(technicalAnalysisService),
+                    new SmaCrossoverStrategy(technicalAnalysisService), parameters);
+        }
+    }
+
+    @Test
+    void rsiMacdStateMatchesEvaluate() {
+        // Loose RSI bands so the random walk triggers signals both ways
+        for (String parameters : new String[]{"{\"rsiOverbought\":55,\"rsiOversold\":45}",
+                "{\"rsiPeriod\":7,\"rsiOverbought\":60,\"rsiOversold\":40,\"macdFastPeriod\":5,\"macdSlowPeriod\":13,\"macdSignalPeriod\":4}"}) {
+            assertSameSignals(new RsiMacdStrategy(technicalAnalysisService),
+                    new RsiMacdStrategy(technicalAnalysisService), parameters);
+        }
+    }
+
+    // Separate instances, since SmaCrossoverStrategy.evaluate keeps its own previous values per symbol
+    private <S extends TradingStrategy & IncrementalStrategy> void assertSameSignals(S windowed, S incremental,
+                                                                                    String parametersJson) {
+        Object parameters = windowed.parseParameters(parametersJson);
+        StrategyState state = incremental.init("TEST", incremental.parseParameters(parametersJson));
+
+        int signals = 0;
+        for (int i = 0; i < bars.size(); i++) {
+            List<String> expected = describe(windowed.evaluate(bars.subList(0, i), bars.get(i), parameters));
+            List<String> actual = describe(state.onBar(bars.get(i)));
+            assertEquals(expected, actual, windowed.getName() + " " + parametersJson + " at bar " + i);
+            signals += expected.size();
+        }
+        assertTrue(signals > 0, "no signals for " + parametersJson);
+    }
+
+    private static List<String> describe(List<TradingSignal> signals) {
+        return signals.stream()
+                .map(signal -> signal.getSignalType() + " " + signal.getTimestamp() + " " + signal.getDescription())
+                .toList();
+    }
+
+    private static List<StockData> randomBars(long seed, int size) {
+        Random random = new Random(seed);
+        List<StockData> bars = new ArrayList<>(size);
+        LocalDateTime time = LocalDateTime.of(2024, 1, 2, 9, 30);
+        double price = 100.0;
+        for (int i = 0; i < size; i++) {
+            price = Math.max(1.0, price + random.nextGaussian());
+            double close = Math.round(price * 100) / 100.0;
+            StockData bar = new StockData();
+            bar.setSymbol("TEST");
+            bar.setTimestamp(time.plusMinutes(i));
+            bar.setOpen(close);
+            bar.setHigh(close);
+            bar.setLow(close);
+            bar.setClose(close);
+            bar.setVolume(1000);
+            bars.add(bar);
+        }
+        return bars;
+    }
+}